@@ -0,0 +1,604 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.balsearchtree;
+
+import com.phasmidsoftware.dsaipg.adt.symbolTable.tree.BST;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An ordered symbol table implemented as an (in-memory) B-tree, after Cormen, Leiserson, Rivest and Stein (CLRS), chapter 18.
+ * <p>
+ * Each node holds up to order-1 keys (with their values) in arrays, and an internal node has one more child than it has keys.
+ * Every node other than the root holds at least order/2-1 keys, and all the leaves are at the same depth:
+ * thus the height is at most log(n)/log(order/2), whatever the order of insertion (cf. BSTSimple, which degenerates on sorted input).
+ * A larger order gives a shallower tree whose nodes are searched (by binary search) within contiguous arrays,
+ * which makes better use of the cache than following one pointer per comparison.
+ * <p>
+ * Insertion splits any full node on the way down, and deletion ensures that any node it descends into has a spare key,
+ * so that each operation makes a single pass from the root.
+ * Each node also records the size of its subtree, so that rank and select take logarithmic time.
+ * A TwoFourTree is a BTree of order 4.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class BTree<Key extends Comparable<Key>, Value> implements BST<Key, Value> {
+
+    /**
+     * Constructor for a BTree.
+     *
+     * @param order the maximum number of children of a node (an even number, at least 4).
+     */
+    public BTree(int order) {
+        if (order < 4 || order % 2 != 0)
+            throw new IllegalArgumentException("BTree: order must be an even number, at least 4: " + order);
+        this.t = order / 2;
+        this.root = new Node(true);
+    }
+
+    /**
+     * Constructor for a BTree of the default order.
+     */
+    public BTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Retrieve the value for a given key.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else null.
+     */
+    public Value get(Key key) {
+        for (Node x = root; ; ) {
+            final int i = x.search(key);
+            if (i >= 0) return x.value(i);
+            if (x.isLeaf()) return null;
+            x = x.children[-i - 1];
+        }
+    }
+
+    /**
+     * Method to determine whether the given key is present.
+     *
+     * @param key the key.
+     * @return true if there is an entry for key.
+     */
+    public boolean contains(Key key) {
+        for (Node x = root; ; ) {
+            final int i = x.search(key);
+            if (i >= 0) return true;
+            if (x.isLeaf()) return false;
+            x = x.children[-i - 1];
+        }
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value associated with key, or null if there was none.
+     */
+    public Value put(Key key, Value value) {
+        if (key == null) throw new IllegalArgumentException("BTree: null key");
+        for (Node x = root; ; ) {
+            final int i = x.search(key);
+            if (i >= 0) {
+                final Value result = x.value(i);
+                x.values[i] = value;
+                return result;
+            }
+            if (x.isLeaf()) break;
+            x = x.children[-i - 1];
+        }
+        if (root.n == 2 * t - 1) {
+            final Node s = new Node(false);
+            s.children[0] = root;
+            s.size = root.size;
+            root = s;
+            split(s, 0);
+        }
+        insertNonFull(root, key, value);
+        return null;
+    }
+
+    /**
+     * Delete the given key.
+     *
+     * @param key the key to be deleted.
+     */
+    public void delete(Key key) {
+        remove(key);
+    }
+
+    /**
+     * Delete the given key.
+     *
+     * @param key the key to be deleted.
+     * @return the value which was associated with key, or null if the key was not present.
+     */
+    public Value remove(Key key) {
+        for (Node x = root; ; ) {
+            final int i = x.search(key);
+            if (i >= 0) {
+                final Value result = x.value(i);
+                delete(root, key);
+                if (root.n == 0 && !root.isLeaf()) root = root.children[0];
+                return result;
+            }
+            if (x.isLeaf()) return null;
+            x = x.children[-i - 1];
+        }
+    }
+
+    /**
+     * Get the size of this BTree.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * @return the height of the tree (the number of levels below the root): all leaves are at this depth.
+     */
+    public int height() {
+        int result = 0;
+        for (Node x = root; !x.isLeaf(); x = x.children[0]) result++;
+        return result;
+    }
+
+    /**
+     * @return the smallest key, or null if the tree is empty.
+     */
+    public Key min() {
+        if (isEmpty()) return null;
+        Node x = root;
+        while (!x.isLeaf()) x = x.children[0];
+        return x.key(0);
+    }
+
+    /**
+     * @return the largest key, or null if the tree is empty.
+     */
+    public Key max() {
+        if (isEmpty()) return null;
+        Node x = root;
+        while (!x.isLeaf()) x = x.children[x.n];
+        return x.key(x.n - 1);
+    }
+
+    /**
+     * @param key the key.
+     * @return the largest key less than or equal to key, or null if there is none.
+     */
+    public Key floor(Key key) {
+        Key result = null;
+        for (Node x = root; ; ) {
+            int i = x.search(key);
+            if (i >= 0) return x.key(i);
+            i = -i - 1;
+            if (i > 0) result = x.key(i - 1);
+            if (x.isLeaf()) return result;
+            x = x.children[i];
+        }
+    }
+
+    /**
+     * @param key the key.
+     * @return the smallest key greater than or equal to key, or null if there is none.
+     */
+    public Key ceiling(Key key) {
+        Key result = null;
+        for (Node x = root; ; ) {
+            int i = x.search(key);
+            if (i >= 0) return x.key(i);
+            i = -i - 1;
+            if (i < x.n) result = x.key(i);
+            if (x.isLeaf()) return result;
+            x = x.children[i];
+        }
+    }
+
+    /**
+     * @param key the key.
+     * @return the number of keys which are less than key.
+     */
+    public int rank(Key key) {
+        int result = 0;
+        for (Node x = root; ; ) {
+            int i = x.search(key);
+            final boolean found = i >= 0;
+            if (!found) i = -i - 1;
+            result += i;
+            if (x.isLeaf()) return result;
+            for (int j = 0; j < i; j++) result += x.children[j].size;
+            if (found) return result + x.children[i].size;
+            x = x.children[i];
+        }
+    }
+
+    /**
+     * @param k the rank (0 is the smallest key).
+     * @return the key with rank k.
+     * @throws IllegalArgumentException if k is not in the range 0 to size-1.
+     */
+    public Key select(int k) {
+        if (k < 0 || k >= size()) throw new IllegalArgumentException("BTree: select: rank out of range: " + k);
+        for (Node x = root; ; ) {
+            if (x.isLeaf()) return x.key(k);
+            for (int j = 0; ; j++) {
+                final int size = x.children[j].size;
+                if (k < size) {
+                    x = x.children[j];
+                    break;
+                }
+                k -= size;
+                if (k == 0) return x.key(j);
+                k--;
+            }
+        }
+    }
+
+    /**
+     * Method to iterate (lazily) over the keys from lo to hi (inclusive) in order.
+     *
+     * @param lo the lower bound.
+     * @param hi the upper bound.
+     * @return an Iterable of keys.
+     */
+    public Iterable<Key> keys(Key lo, Key hi) {
+        return () -> new RangeIterator(lo, hi);
+    }
+
+    /**
+     * @return the set of all keys (in order).
+     */
+    public Set<Key> keySet() {
+        final Set<Key> result = new TreeSet<>();
+        if (!isEmpty()) for (Key key : keys(min(), max())) result.add(key);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+        show(root, result, 0);
+        return result.toString();
+    }
+
+    /**
+     * Method to insert key into the subtree rooted at x, which is not full (and which does not contain key).
+     */
+    private void insertNonFull(Node x, Key key, Value value) {
+        while (true) {
+            x.size++;
+            int i = -x.search(key) - 1;
+            if (x.isLeaf()) {
+                System.arraycopy(x.keys, i, x.keys, i + 1, x.n - i);
+                System.arraycopy(x.values, i, x.values, i + 1, x.n - i);
+                x.keys[i] = key;
+                x.values[i] = value;
+                x.n++;
+                return;
+            }
+            if (x.children[i].n == 2 * t - 1) {
+                split(x, i);
+                if (key.compareTo(x.key(i)) > 0) i++;
+            }
+            x = x.children[i];
+        }
+    }
+
+    /**
+     * Method to split the full child i of x into two nodes of t-1 keys, moving its median key up into x.
+     */
+    private void split(Node x, int i) {
+        final Node y = x.children[i];
+        final Node z = new Node(y.isLeaf());
+        z.n = t - 1;
+        System.arraycopy(y.keys, t, z.keys, 0, t - 1);
+        System.arraycopy(y.values, t, z.values, 0, t - 1);
+        if (!y.isLeaf()) System.arraycopy(y.children, t, z.children, 0, t);
+        z.size = z.computeSize();
+        System.arraycopy(x.keys, i, x.keys, i + 1, x.n - i);
+        System.arraycopy(x.values, i, x.values, i + 1, x.n - i);
+        System.arraycopy(x.children, i + 1, x.children, i + 2, x.n - i);
+        x.keys[i] = y.keys[t - 1];
+        x.values[i] = y.values[t - 1];
+        x.children[i + 1] = z;
+        x.n++;
+        y.n = t - 1;
+        y.clear(t - 1);
+        y.size = y.size - z.size - 1;
+    }
+
+    /**
+     * Method to delete key (which is known to be present) from the subtree rooted at x.
+     * Every node to which this descends (other than the root) has at least t keys.
+     */
+    private void delete(Node x, Key key) {
+        while (true) {
+            x.size--;
+            int i = x.search(key);
+            if (i >= 0 && x.isLeaf()) {
+                x.removeKey(i);
+                return;
+            }
+            if (i >= 0) {
+                final Node y = x.children[i], z = x.children[i + 1];
+                if (y.n >= t) {
+                    // NOTE replace key by its predecessor, then delete the predecessor from y.
+                    Node p = y;
+                    while (!p.isLeaf()) p = p.children[p.n];
+                    x.keys[i] = p.keys[p.n - 1];
+                    x.values[i] = p.values[p.n - 1];
+                    key = p.key(p.n - 1);
+                    x = y;
+                } else if (z.n >= t) {
+                    // NOTE replace key by its successor, then delete the successor from z.
+                    Node s = z;
+                    while (!s.isLeaf()) s = s.children[0];
+                    x.keys[i] = s.keys[0];
+                    x.values[i] = s.values[0];
+                    key = s.key(0);
+                    x = z;
+                } else {
+                    merge(x, i);
+                    x = y;
+                }
+                continue;
+            }
+            i = -i - 1;
+            Node c = x.children[i];
+            if (c.n == t - 1) {
+                if (i > 0 && x.children[i - 1].n >= t) rotateRight(x, i);
+                else if (i < x.n && x.children[i + 1].n >= t) rotateLeft(x, i);
+                else if (i < x.n) merge(x, i);
+                else {
+                    merge(x, i - 1);
+                    c = x.children[i - 1];
+                }
+            }
+            x = c;
+        }
+    }
+
+    /**
+     * Method to move the last key of child i-1 of x up into x, and the separating key of x down into child i.
+     */
+    private void rotateRight(Node x, int i) {
+        final Node c = x.children[i], left = x.children[i - 1];
+        System.arraycopy(c.keys, 0, c.keys, 1, c.n);
+        System.arraycopy(c.values, 0, c.values, 1, c.n);
+        c.keys[0] = x.keys[i - 1];
+        c.values[0] = x.values[i - 1];
+        int moved = 0;
+        if (!c.isLeaf()) {
+            System.arraycopy(c.children, 0, c.children, 1, c.n + 1);
+            c.children[0] = left.children[left.n];
+            moved = c.children[0].size;
+        }
+        c.n++;
+        x.keys[i - 1] = left.keys[left.n - 1];
+        x.values[i - 1] = left.values[left.n - 1];
+        left.removeKey(left.n - 1);
+        c.size += 1 + moved;
+        left.size -= 1 + moved;
+    }
+
+    /**
+     * Method to move the first key of child i+1 of x up into x, and the separating key of x down into child i.
+     */
+    private void rotateLeft(Node x, int i) {
+        final Node c = x.children[i], right = x.children[i + 1];
+        c.keys[c.n] = x.keys[i];
+        c.values[c.n] = x.values[i];
+        int moved = 0;
+        if (!c.isLeaf()) {
+            c.children[c.n + 1] = right.children[0];
+            moved = right.children[0].size;
+        }
+        c.n++;
+        x.keys[i] = right.keys[0];
+        x.values[i] = right.values[0];
+        if (!right.isLeaf()) System.arraycopy(right.children, 1, right.children, 0, right.n);
+        right.removeKey(0);
+        c.size += 1 + moved;
+        right.size -= 1 + moved;
+    }
+
+    /**
+     * Method to merge child i+1 of x, and the separating key i, into child i (each child having t-1 keys).
+     */
+    private void merge(Node x, int i) {
+        final Node y = x.children[i], z = x.children[i + 1];
+        y.keys[t - 1] = x.keys[i];
+        y.values[t - 1] = x.values[i];
+        System.arraycopy(z.keys, 0, y.keys, t, z.n);
+        System.arraycopy(z.values, 0, y.values, t, z.n);
+        if (!y.isLeaf()) System.arraycopy(z.children, 0, y.children, t, z.n + 1);
+        y.n = 2 * t - 1;
+        y.size += 1 + z.size;
+        System.arraycopy(x.children, i + 2, x.children, i + 1, x.n - i - 1);
+        x.removeKey(i);
+    }
+
+    private void show(Node x, StringBuilder sb, int indent) {
+        sb.append("  ".repeat(indent));
+        for (int i = 0; i < x.n; i++) sb.append(i > 0 ? " " : "").append(x.keys[i]);
+        sb.append("\n");
+        if (!x.isLeaf()) for (int i = 0; i <= x.n; i++) show(x.children[i], sb, indent + 1);
+    }
+
+    /**
+     * A node of the BTree, holding up to 2t-1 keys (and values), and (if internal) one more child than keys.
+     */
+    private class Node {
+        Node(boolean leaf) {
+            this.keys = new Object[2 * t - 1];
+            this.values = new Object[2 * t - 1];
+            this.children = leaf ? null : newChildren(2 * t);
+        }
+
+        /**
+         * NOTE: a generic array cannot be created directly, so an array of the wildcard type is cast.
+         */
+        @SuppressWarnings("unchecked")
+        private Node[] newChildren(int length) {
+            return (Node[]) new BTree<?, ?>.Node[length];
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Key key(int i) {
+            return (Key) keys[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        Value value(int i) {
+            return (Value) values[i];
+        }
+
+        /**
+         * @return the index of key, if present; otherwise, -(insertion point)-1.
+         */
+        int search(Key key) {
+            int lo = 0, hi = n - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                final int cf = key.compareTo(key(mid));
+                if (cf > 0) lo = mid + 1;
+                else if (cf < 0) hi = mid - 1;
+                else return mid;
+            }
+            return -lo - 1;
+        }
+
+        /**
+         * Method to remove key i (and its value) by shifting the following keys down.
+         * The last child (which the caller has either moved elsewhere or shifted down) is cleared.
+         */
+        void removeKey(int i) {
+            System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+            System.arraycopy(values, i + 1, values, i, n - i - 1);
+            n--;
+            keys[n] = null;
+            values[n] = null;
+            if (!isLeaf()) children[n + 1] = null;
+        }
+
+        /**
+         * Method to clear the keys and values (and children to the right of them) from index i onwards (for the garbage collector).
+         */
+        void clear(int i) {
+            for (int j = i; j < keys.length; j++) {
+                keys[j] = null;
+                values[j] = null;
+                if (!isLeaf()) children[j + 1] = null;
+            }
+        }
+
+        int computeSize() {
+            int result = n;
+            if (!isLeaf()) for (int i = 0; i <= n; i++) result += children[i].size;
+            return result;
+        }
+
+        final Object[] keys;
+        final Object[] values;
+        final Node[] children;
+        int n;
+        int size;
+    }
+
+    /**
+     * Iterator over the keys between lo and hi (inclusive), which maintains the path from the root to the next key.
+     */
+    private class RangeIterator implements Iterator<Key> {
+        RangeIterator(Key lo, Key hi) {
+            this.hi = hi;
+            // NOTE descend to the first key which is not less than lo, recording the position in each node on the way.
+            for (Node x = root; x != null; ) {
+                int i = x.search(lo);
+                final boolean found = i >= 0;
+                if (!found) i = -i - 1;
+                stack.push(new int[]{i});
+                nodes.push(x);
+                x = found || x.isLeaf() ? null : x.children[i];
+            }
+            advance();
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Key next() {
+            if (next == null) throw new NoSuchElementException();
+            final Key result = next;
+            advance();
+            return result;
+        }
+
+        /**
+         * Method to find the next key (if any, and if not greater than hi).
+         */
+        private void advance() {
+            next = null;
+            while (!nodes.isEmpty()) {
+                final Node x = nodes.peek();
+                final int[] position = stack.peek();
+                if (position[0] >= x.n) {
+                    nodes.pop();
+                    stack.pop();
+                    continue;
+                }
+                final Key key = x.key(position[0]++);
+                if (key.compareTo(hi) > 0) {
+                    nodes.clear();
+                    stack.clear();
+                    return;
+                }
+                // NOTE the subtree to the right of this key precedes the next key of x.
+                if (!x.isLeaf())
+                    for (Node c = x.children[position[0]]; c != null; c = c.isLeaf() ? null : c.children[0]) {
+                        nodes.push(c);
+                        stack.push(new int[]{0});
+                    }
+                next = key;
+                return;
+            }
+        }
+
+        private final Key hi;
+        private final Deque<Node> nodes = new ArrayDeque<>();
+        private final Deque<int[]> stack = new ArrayDeque<>();
+        private Key next;
+    }
+
+    /**
+     * The default order (maximum number of children of a node).
+     */
+    public static final int DEFAULT_ORDER = 32;
+
+    /**
+     * The minimum degree: each node other than the root has between t-1 and 2t-1 keys.
+     */
+    private final int t;
+    private Node root;
+}
@@ -10,56 +10,19 @@ package com.phasmidsoftware.dsaipg.adt.balsearchtree;
  * tree maintains the property of a 2-4 balanced tree, where all leaves are
  * at the same depth, and internal nodes can contain between 1 and 3 keys
  * with their associated child pointers.
+ * <p>
+ * A 2-4 tree is simply a B-tree of order 4 (minimum degree 2): see {@link BTree}.
  *
  * @param <Key>   The type of keys maintained by this tree. Keys must be
  *                comparable.
  * @param <Value> The type of values associated with the keys.
  */
-public class TwoFourTree<Key extends Comparable<Key>, Value> {
+public class TwoFourTree<Key extends Comparable<Key>, Value> extends BTree<Key, Value> {
 
     /**
-     * Retrieves the value associated with the specified key in the tree.
-     * If the key is not present in the tree, returns null.
-     *
-     * @param key the key whose associated value is to be retrieved
-     * @return the value associated with the specified key, or null if the key is not present
+     * Constructs an empty TwoFourTree.
      */
-    public Value get(Key key) {
-        return null;
-//        return get(key, root);
+    public TwoFourTree() {
+        super(4);
     }
-
-    /**
-     * Determines and returns the appropriate node based on a comparison between
-     * the provided keys. If the provided key matches the comparison key, the
-     * given node is returned. If the provided key is less than the comparison key,
-     * an alternate node is returned. Otherwise, it returns null.
-     *
-     * @param key the key to be compared
-     * @param node the node to be returned if the keys are equal
-     * @param k the key to compare against the provided key
-     * @param n the alternative node to be returned if the provided key is less than k
-     * @return the node associated with the comparison: the given node if keys match,
-     *         the alternate node if the provided key is less than k, or null otherwise
-     */
-    private Node cf(Key key, Node node, Key k, Node n) {
-        if (key.compareTo(k) == 0) return node;
-        else if (key.compareTo(k) < 0) return n;
-        else return null;
-    }
-
-    private Node root;
-
-    private class Node {
-        private Node left, middle, right;
-
-        public Node(Value value, Key key1, Key key2, Key key3) {
-        }
-    }
-
-//    private Value get(Key key, Node node) {
-//        if (node == null) return null;
-//        Node n = cf(key, node, node.key1, node.left);
-//        if (n)
-//    }
-}
\ No newline at end of file
+}
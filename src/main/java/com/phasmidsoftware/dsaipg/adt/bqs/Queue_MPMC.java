@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.bqs;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class to represent a bounded, lock-free, multi-producer multi-consumer (MPMC) queue, after Dmitry Vyukov's design
+ * (which is also the basis of the LMAX Disruptor's ring buffer).
+ * <p>
+ * The items are held in a circular array (whose length is a power of two), and each slot has its own sequence number,
+ * which tells producers and consumers whether the slot is ready for them:
+ * a producer may fill the slot for position pos when its sequence is pos, and then sets the sequence to pos+1;
+ * a consumer may empty it when its sequence is pos+1, and then sets the sequence to pos+capacity (ready for the next lap).
+ * Producers (and consumers) claim positions by a single compare-and-set on the enqueue (or dequeue) counter,
+ * so threads only contend with others of the same kind, and never block each other.
+ * <p>
+ * The two counters are written by different threads at a high rate, so they are padded apart
+ * (they occupy distant elements of one array) to avoid false sharing of a cache line.
+ * <p>
+ * Unlike Queue_Array, this queue does not grow: offer waits (spinning) while the queue is full, whereas tryOffer simply fails.
+ * Null items are not permitted (since poll uses null to signify an empty queue).
+ *
+ * @param <Item> the underlying type.
+ */
+public class Queue_MPMC<Item> implements Queue<Item> {
+
+    /**
+     * Constructor for a Queue_MPMC.
+     *
+     * @param capacity the maximum number of items (rounded up to a power of two, at least 2).
+     */
+    public Queue_MPMC(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Queue_MPMC: capacity out of range: " + capacity);
+        final int n = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = n - 1;
+        //noinspection unchecked
+        this.items = (Item[]) new Object[n];
+        this.sequences = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) sequences.set(i, i);
+    }
+
+    /**
+     * Add an item on the "newest" end of this Queue, waiting (spinning) if necessary until there is room.
+     * NOTE: after a short spin, the thread yields, so that a consumer which shares its processor can make room.
+     *
+     * @param item the item to add (not null).
+     */
+    public void offer(Item item) {
+        for (int spins = 0; !tryOffer(item); spins++)
+            if (spins < SPINS) Thread.onSpinWait();
+            else Thread.yield();
+    }
+
+    /**
+     * Add an item on the "newest" end of this Queue, provided that there is room.
+     *
+     * @param item the item to add (not null).
+     * @return true if the item was added, false if this Queue was full.
+     */
+    public boolean tryOffer(Item item) {
+        Objects.requireNonNull(item, "Queue_MPMC: null item");
+        long pos = counters.get(ENQUEUE);
+        while (true) {
+            final int index = (int) pos & mask;
+            final long difference = sequences.getAcquire(index) - pos;
+            if (difference == 0) {
+                final long witness = counters.compareAndExchange(ENQUEUE, pos, pos + 1);
+                if (witness == pos) {
+                    items[index] = item;
+                    // NOTE the release publishes the item to the consumer which acquires this sequence.
+                    sequences.setRelease(index, pos + 1);
+                    return true;
+                }
+                pos = witness;
+            } else if (difference < 0) return false; // the slot has not yet been emptied since the previous lap.
+            else pos = counters.get(ENQUEUE); // another producer has claimed pos.
+        }
+    }
+
+    /**
+     * Take the oldest item off this Queue.
+     *
+     * @return the item or null if there is no such item.
+     */
+    public Item poll() {
+        long pos = counters.get(DEQUEUE);
+        while (true) {
+            final int index = (int) pos & mask;
+            final long difference = sequences.getAcquire(index) - (pos + 1);
+            if (difference == 0) {
+                final long witness = counters.compareAndExchange(DEQUEUE, pos, pos + 1);
+                if (witness == pos) {
+                    final Item result = items[index];
+                    items[index] = null; // prevent loitering
+                    sequences.setRelease(index, pos + mask + 1);
+                    return result;
+                }
+                pos = witness;
+            } else if (difference < 0) return null; // the slot has not yet been filled.
+            else pos = counters.get(DEQUEUE); // another consumer has claimed pos.
+        }
+    }
+
+    /**
+     * NOTE: when other threads are active, the result may be out of date as soon as it is returned.
+     *
+     * @return true if this Queue is empty.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * NOTE: when other threads are active, the result is only an estimate.
+     *
+     * @return the number of items in this Queue.
+     */
+    public int size() {
+        final long dequeued = counters.get(DEQUEUE);
+        return (int) Math.max(0, Math.min(counters.get(ENQUEUE) - dequeued, capacity()));
+    }
+
+    /**
+     * @return the maximum number of items.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns an iterator over (a snapshot of) the items, from oldest to newest.
+     * NOTE: when other threads are active, the snapshot is weakly consistent: it may omit items which are being added or removed.
+     *
+     * @return an Iterator.
+     */
+    public Iterator<Item> iterator() {
+        final List<Item> result = new ArrayList<>();
+        final long tail = counters.get(ENQUEUE);
+        for (long pos = Math.max(counters.get(DEQUEUE), tail - capacity()); pos < tail; pos++) {
+            final int index = (int) pos & mask;
+            if (sequences.getAcquire(index) == pos + 1) {
+                final Item item = items[index];
+                if (item != null) result.add(item);
+            }
+        }
+        return result.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "Queue_MPMC{" +
+                "capacity=" + capacity() +
+                ", size=" + size() +
+                '}';
+    }
+
+    /**
+     * The number of times that offer spins before it starts to yield.
+     */
+    static final int SPINS = 100;
+
+    /**
+     * The number of longs (128 bytes) by which the counters are separated.
+     */
+    private static final int PADDING = 16;
+    private static final int ENQUEUE = PADDING;
+    private static final int DEQUEUE = 2 * PADDING;
+
+    private final int mask;
+    private final Item[] items;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray counters = new AtomicLongArray(3 * PADDING);
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.bqs;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stack_Treiber is a lock-free (thread-safe) implementation of the Stack interface, after R. Kent Treiber (1986).
+ * <p>
+ * The stack is an immutable singly-linked list whose top is held in an AtomicReference:
+ * push and pop each read the top, build (or find) the new top, and install it by compare-and-set, retrying if another thread got there first.
+ * Because a new node is allocated for each push (and nodes are never reused), the garbage collector rules out the ABA problem.
+ *
+ * @param <Item> the type of elements stored in this stack
+ */
+public class Stack_Treiber<Item> implements Stack<Item> {
+
+    /**
+     * Update this Stack by adding an item on the top.
+     *
+     * @param item the item to push.
+     */
+    public void push(Item item) {
+        final Node<Item> node = new Node<>(item);
+        do node.next = top.get();
+        while (!top.compareAndSet(node.next, node));
+    }
+
+    /**
+     * Update this Stack by taking the top item of this Stack.
+     *
+     * @return the item on the top of this stack.
+     * @throws BQSException if this stack is empty.
+     */
+    public Item pop() throws BQSException {
+        final Node<Item> node = popNode();
+        if (node == null) throw new BQSException("Stack_Treiber: stack is empty");
+        return node.item;
+    }
+
+    /**
+     * Update this Stack by taking the top item of this Stack, if there is one.
+     *
+     * @return the item on the top of this stack, or null if this stack is empty.
+     */
+    public Item tryPop() {
+        final Node<Item> node = popNode();
+        return node != null ? node.item : null;
+    }
+
+    /**
+     * @return the value at the top of the stack (no change is made to the stack). Result may be null
+     */
+    public Item peek() {
+        final Node<Item> node = top.get();
+        return node != null ? node.item : null;
+    }
+
+    /**
+     * @return true if this stack is empty
+     */
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    /**
+     * Returns an iterator over the items (from the top down) of a snapshot of this stack.
+     * The snapshot is consistent, since the nodes are never modified once they have been pushed.
+     *
+     * @return an Iterator.
+     */
+    public Iterator<Item> iterator() {
+        final Node<Item> first = top.get();
+        return new Iterator<>() {
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            public Item next() {
+                if (node == null) throw new NoSuchElementException();
+                final Item result = node.item;
+                node = node.next;
+                return result;
+            }
+
+            private Node<Item> node = first;
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("Stack_Treiber{");
+        for (Item item : this) result.append(result.length() > 14 ? ", " : "").append(item);
+        return result.append('}').toString();
+    }
+
+    private Node<Item> popNode() {
+        Node<Item> node;
+        do {
+            node = top.get();
+            if (node == null) return null;
+        } while (!top.compareAndSet(node, node.next));
+        return node;
+    }
+
+    private static class Node<Item> {
+        Node(Item item) {
+            this.item = item;
+        }
+
+        private final Item item;
+        private Node<Item> next; // NOTE this is set only before the node is published by compare-and-set.
+    }
+
+    private final AtomicReference<Node<Item>> top = new AtomicReference<>();
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * Priority Queue Data Structure which uses a d-ary heap (cf. PriorityQueue, which uses a binary heap).
+ * <p/>
+ * Each node has (up to) d children: the children of the node at index i are at indices d*i+1 through d*i+d
+ * (the root is at index 0).
+ * With d = 4 or 8, the heap is only half or a third as deep as a binary heap, and the children of a node lie next to each other
+ * (in the same cache line or two), so that give (which only compares with the parent) is faster,
+ * while take makes d-1 comparisons per level, but over fewer levels with better locality.
+ * <p/>
+ * Rather than swapping at each level, sink and swim move a "hole" through the heap,
+ * copying the elements which are out of place, and finally store the moving element just once.
+ * The comparisons are made directly (not through boxed lambdas).
+ * <p/>
+ * If floyd is true, take uses Floyd's trick: the hole at the root is first moved all the way down to a leaf
+ * (promoting the more eligible child each time, without comparing it to the moving element),
+ * and then the moving element swims up from there (usually only a short way).
+ * <p/>
+ * Unlike PriorityQueue, a DaryHeap grows (by doubling) as necessary.
+ *
+ * @param <K> the element type.
+ */
+public class DaryHeap<K> implements Iterable<K> {
+
+    /**
+     * Primary constructor.
+     *
+     * @param d          the arity of the heap (the number of children of each node): at least 2.
+     * @param n          the initial capacity.
+     * @param max        whether or not this is a Maximum Priority Queue as opposed to a Minimum PQ.
+     * @param comparator a comparator for the type K.
+     * @param floyd      true if we use Floyd's trick.
+     */
+    public DaryHeap(int d, int n, boolean max, Comparator<K> comparator, boolean floyd) {
+        if (d < 2) throw new IllegalArgumentException("DaryHeap: arity must be at least 2: " + d);
+        this.d = d;
+        this.max = max;
+        this.comparator = comparator;
+        this.floyd = floyd;
+        //noinspection unchecked
+        this.heap = (K[]) new Object[Math.max(n, 1)];
+    }
+
+    /**
+     * Secondary constructor which does not use Floyd's trick.
+     *
+     * @param d          the arity of the heap (the number of children of each node): at least 2.
+     * @param n          the initial capacity.
+     * @param max        whether or not this is a Maximum Priority Queue as opposed to a Minimum PQ.
+     * @param comparator a comparator for the type K.
+     */
+    public DaryHeap(int d, int n, boolean max, Comparator<K> comparator) {
+        this(d, n, max, comparator, false);
+    }
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of elements actually stored in this DaryHeap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the arity of this DaryHeap.
+     */
+    public int arity() {
+        return d;
+    }
+
+    /**
+     * Insert an element with the given key into this DaryHeap.
+     *
+     * @param key the value of the key to give.
+     */
+    public void give(K key) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, 2 * heap.length);
+        swimUp(size++, key);
+    }
+
+    /**
+     * @return the root element (the maximum element if max is true, otherwise the minimum element), without removing it.
+     * @throws PQException if this priority queue is empty.
+     */
+    public K peek() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return heap[0];
+    }
+
+    /**
+     * Remove the root element from this DaryHeap and adjust the heap accordingly.
+     *
+     * @return If max is true, then the maximum element, otherwise the minimum element.
+     * @throws PQException if this priority queue is empty.
+     */
+    public K take() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        final K result = heap[0];
+        final K key = heap[--size];
+        heap[size] = null; // prevent loitering
+        if (size > 0)
+            if (floyd) snake(key);
+            else sink(key);
+        return result;
+    }
+
+    /**
+     * Non-mutating iterator over all values of this DaryHeap.
+     * NOTE: after the first element, there is no definite ordering of the remaining elements.
+     *
+     * @return an iterator based on a copy of the underlying array.
+     */
+    public Iterator<K> iterator() {
+        return Arrays.asList(Arrays.copyOf(heap, size)).iterator();
+    }
+
+    /**
+     * Move the hole at index k up until key can be placed there.
+     */
+    private void swimUp(int k, K key) {
+        while (k > 0) {
+            final int parent = (k - 1) / d;
+            if (!before(key, heap[parent])) break;
+            heap[k] = heap[parent];
+            k = parent;
+        }
+        heap[k] = key;
+    }
+
+    /**
+     * Move the hole at the root down until key can be placed there.
+     */
+    private void sink(K key) {
+        int k = 0;
+        for (int child = 1; child < size; child = d * k + 1) {
+            final int best = bestChild(child);
+            if (!before(heap[best], key)) break;
+            heap[k] = heap[best];
+            k = best;
+        }
+        heap[k] = key;
+    }
+
+    /**
+     * Move the hole at the root all the way down to a leaf, then swim key up from there.
+     */
+    private void snake(K key) {
+        int k = 0;
+        for (int child = 1; child < size; child = d * k + 1) {
+            final int best = bestChild(child);
+            heap[k] = heap[best];
+            k = best;
+        }
+        swimUp(k, key);
+    }
+
+    /**
+     * @param first the index of the first child of a node.
+     * @return the index of the most eligible of the (up to d) children starting at first.
+     */
+    private int bestChild(int first) {
+        final int end = Math.min(first + d, size);
+        int result = first;
+        for (int i = first + 1; i < end; i++) if (before(heap[i], heap[result])) result = i;
+        return result;
+    }
+
+    /**
+     * @return true if x is (strictly) more eligible than y, i.e. greater if max is true, otherwise less.
+     */
+    private boolean before(K x, K y) {
+        final int cf = comparator.compare(x, y);
+        return max ? cf > 0 : cf < 0;
+    }
+
+    private final int d;
+    private final boolean max;
+    private final Comparator<K> comparator;
+    private final boolean floyd;
+    private K[] heap; // heap[0] is the root
+    private int size;
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+
+/**
+ * Priority Queue whose priorities are primitive doubles and whose payloads are primitive ints (typically indices),
+ * implemented as a d-ary heap (see DaryHeap) over two parallel arrays.
+ * <p/>
+ * This is the kind of priority queue required by (for example) Dijkstra's algorithm or event simulation:
+ * there are no objects (and no boxing) per element and no Comparator, so that each comparison is a single machine instruction
+ * on a contiguous array of doubles.
+ * <p/>
+ * The heap grows (by doubling) as necessary.
+ */
+public class DoubleIntHeap {
+
+    /**
+     * Primary constructor.
+     *
+     * @param d   the arity of the heap (the number of children of each node): at least 2.
+     * @param n   the initial capacity.
+     * @param max whether or not this is a Maximum Priority Queue as opposed to a Minimum PQ.
+     */
+    public DoubleIntHeap(int d, int n, boolean max) {
+        if (d < 2) throw new IllegalArgumentException("DoubleIntHeap: arity must be at least 2: " + d);
+        this.d = d;
+        this.max = max;
+        this.priorities = new double[Math.max(n, 1)];
+        this.payloads = new int[priorities.length];
+    }
+
+    /**
+     * Secondary constructor for a 4-ary minimum priority queue.
+     *
+     * @param n the initial capacity.
+     */
+    public DoubleIntHeap(int n) {
+        this(4, n, false);
+    }
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of elements actually stored in this DoubleIntHeap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert a payload with the given priority.
+     *
+     * @param priority the priority.
+     * @param payload  the payload.
+     */
+    public void give(double priority, int payload) {
+        if (size == priorities.length) {
+            priorities = Arrays.copyOf(priorities, 2 * size);
+            payloads = Arrays.copyOf(payloads, 2 * size);
+        }
+        swimUp(size++, priority, payload);
+    }
+
+    /**
+     * @return the priority of the root element.
+     * @throws PQException if this priority queue is empty.
+     */
+    public double peekPriority() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return priorities[0];
+    }
+
+    /**
+     * @return the payload of the root element, without removing it.
+     * @throws PQException if this priority queue is empty.
+     */
+    public int peek() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        return payloads[0];
+    }
+
+    /**
+     * Remove the root element (with the maximum priority if max is true, otherwise the minimum priority).
+     * If its priority is required, it should first be obtained from peekPriority.
+     *
+     * @return the payload of the root element.
+     * @throws PQException if this priority queue is empty.
+     */
+    public int take() throws PQException {
+        if (isEmpty()) throw new PQException("Priority queue is empty");
+        final int result = payloads[0];
+        if (--size > 0) sink(priorities[size], payloads[size]);
+        return result;
+    }
+
+    /**
+     * Move the hole at index k up until the given element can be placed there.
+     */
+    private void swimUp(int k, double priority, int payload) {
+        while (k > 0) {
+            final int parent = (k - 1) / d;
+            if (!before(priority, priorities[parent])) break;
+            priorities[k] = priorities[parent];
+            payloads[k] = payloads[parent];
+            k = parent;
+        }
+        priorities[k] = priority;
+        payloads[k] = payload;
+    }
+
+    /**
+     * Move the hole at the root down until the given element can be placed there.
+     */
+    private void sink(double priority, int payload) {
+        int k = 0;
+        for (int child = 1; child < size; child = d * k + 1) {
+            final int end = Math.min(child + d, size);
+            int best = child;
+            for (int i = child + 1; i < end; i++) if (before(priorities[i], priorities[best])) best = i;
+            if (!before(priorities[best], priority)) break;
+            priorities[k] = priorities[best];
+            payloads[k] = payloads[best];
+            k = best;
+        }
+        priorities[k] = priority;
+        payloads[k] = payload;
+    }
+
+    /**
+     * @return true if x is (strictly) more eligible than y.
+     */
+    private boolean before(double x, double y) {
+        return max ? x > y : x < y;
+    }
+
+    private final int d;
+    private final boolean max;
+    private double[] priorities;
+    private int[] payloads;
+    private int size;
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Indexed (minimum) priority queue of keys, each of which is associated with a (non-negative, and preferably dense) int index,
+ * by which the client may refer to it in order to decrease (or otherwise change) its key, or to delete it.
+ * <p/>
+ * This is the priority queue required by Dijkstra's and Prim's algorithms: each vertex of a graph is given a dense id,
+ * and when a shorter path to a vertex is found, its key is decreased in O(log n) time.
+ * Compare this with the alternative of java.util.PriorityQueue, whose remove(Object) takes O(n) time.
+ * <p/>
+ * It uses a binary heap of indices (pq), together with the inverse mapping (qp) from each index to its position in the heap,
+ * after IndexMinPQ in Sedgewick and Wayne (see also graphs.dijkstra.IndexMinPQ, which is restricted to Comparable keys and a fixed capacity).
+ * Unlike that version, the keys are ordered by a Comparator, and the arrays grow (by doubling) to accommodate any index which is given.
+ *
+ * @param <K> the key type.
+ */
+public class IndexPriorityQueue<K> {
+
+    /**
+     * Primary constructor.
+     *
+     * @param capacity   the initial capacity (indices from 0 to capacity-1 can be accommodated without growing).
+     * @param comparator a comparator for the type K: the root of the heap is the least key.
+     */
+    public IndexPriorityQueue(int capacity, Comparator<? super K> comparator) {
+        if (capacity < 0) throw new IllegalArgumentException("IndexPriorityQueue: negative capacity: " + capacity);
+        this.comparator = comparator;
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * @return the number of keys in this priority queue.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * @param i an index.
+     * @return true if there is a key associated with index i.
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return i < qp.length && qp[i] != -1;
+    }
+
+    /**
+     * Associate key with index i.
+     *
+     * @param i   the index.
+     * @param key the key.
+     * @throws IllegalArgumentException if there is already a key associated with index i.
+     */
+    public void insert(int i, K key) {
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue: " + i);
+        if (i >= qp.length) grow(i + 1);
+        qp[i] = ++n;
+        pq[n] = i;
+        keys[i] = key;
+        swim(n);
+    }
+
+    /**
+     * @return the index associated with a least key.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[1];
+    }
+
+    /**
+     * @return a least key.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public K minKey() {
+        return keyAt(minIndex());
+    }
+
+    /**
+     * Remove a least key.
+     *
+     * @return the index which was associated with the key removed.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public int delMin() {
+        final int result = minIndex();
+        remove(1);
+        return result;
+    }
+
+    /**
+     * @param i the index.
+     * @return the key associated with index i.
+     * @throws NoSuchElementException if there is no key associated with index i.
+     */
+    public K keyOf(int i) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue: " + i);
+        return keyAt(i);
+    }
+
+    /**
+     * Decrease the key associated with index i.
+     *
+     * @param i   the index.
+     * @param key the new key, which must not be greater than the current key of i.
+     * @throws NoSuchElementException   if there is no key associated with index i.
+     * @throws IllegalArgumentException if key is greater than the current key of i.
+     */
+    public void decreaseKey(int i, K key) {
+        if (comparator.compare(keyOf(i), key) < 0)
+            throw new IllegalArgumentException("decreaseKey: key is greater than the key in the priority queue: " + key);
+        keys[i] = key;
+        swim(qp[i]);
+    }
+
+    /**
+     * Change the key associated with index i (in either direction).
+     *
+     * @param i   the index.
+     * @param key the new key.
+     * @throws NoSuchElementException if there is no key associated with index i.
+     */
+    public void changeKey(int i, K key) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue: " + i);
+        keys[i] = key;
+        swim(qp[i]);
+        sink(qp[i]);
+    }
+
+    /**
+     * Remove the key associated with index i.
+     *
+     * @param i the index.
+     * @throws NoSuchElementException if there is no key associated with index i.
+     */
+    public void delete(int i) {
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue: " + i);
+        remove(qp[i]);
+    }
+
+    /**
+     * Remove the element at position k of the heap, by replacing it with the last element.
+     */
+    private void remove(int k) {
+        final int i = pq[k];
+        exch(k, n--);
+        if (k <= n) {
+            swim(k);
+            sink(k);
+        }
+        keys[i] = null; // prevent loitering
+        qp[i] = -1;
+    }
+
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int i) {
+        return (K) keys[i];
+    }
+
+    private boolean greater(int i, int j) {
+        return comparator.compare(keyAt(pq[i]), keyAt(pq[j])) > 0;
+    }
+
+    private void exch(int i, int j) {
+        final int swap = pq[i];
+        pq[i] = pq[j];
+        pq[j] = swap;
+        qp[pq[i]] = i;
+        qp[pq[j]] = j;
+    }
+
+    private void swim(int k) {
+        while (k > 1 && greater(k / 2, k)) {
+            exch(k, k / 2);
+            k = k / 2;
+        }
+    }
+
+    private void sink(int k) {
+        while (2 * k <= n) {
+            int j = 2 * k;
+            if (j < n && greater(j, j + 1)) j++;
+            if (!greater(k, j)) break;
+            exch(k, j);
+            k = j;
+        }
+    }
+
+    /**
+     * Grow the arrays so that they can accommodate at least the given number of indices.
+     */
+    private void grow(int required) {
+        final int length = qp.length;
+        int capacity = length;
+        while (capacity < required) capacity *= 2;
+        keys = Arrays.copyOf(keys, capacity);
+        pq = Arrays.copyOf(pq, capacity + 1);
+        qp = Arrays.copyOf(qp, capacity);
+        Arrays.fill(qp, length, capacity, -1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        pq = new int[capacity + 1]; // NOTE the heap is 1-based.
+        qp = new int[capacity];
+        Arrays.fill(qp, -1);
+    }
+
+    private final Comparator<? super K> comparator;
+    private Object[] keys; // keys[i] is the key associated with index i
+    private int[] pq; // binary heap of indices, using 1-based indexing
+    private int[] qp; // inverse of pq: qp[pq[k]] = k (or -1 if the index is not present)
+    private int n; // number of keys in the priority queue
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * (Minimum) priority queue implemented as a pairing heap (Fredman, Sedgewick, Sleator and Tarjan, 1986).
+ * <p/>
+ * A pairing heap is a heap-ordered multiway tree, in which each node points to its first child, its next sibling and its previous sibling
+ * (or parent, in the case of a first child).
+ * Insertion and decrease-key simply cut a subtree and link it to the root (one comparison, O(1) time),
+ * while delete-min combines the children of the root in two passes (left to right in pairs, then right to left), in O(log n) amortized time.
+ * It is thus an alternative to IndexPriorityQueue for algorithms (such as Dijkstra's) which do many more decrease-keys than delete-mins,
+ * and which do not have dense indices for their elements: insert returns a Handle, by which the element may later be referred to.
+ *
+ * @param <K> the key type.
+ */
+public class PairingHeap<K> {
+
+    /**
+     * A reference to an element of a PairingHeap, which allows its key to be decreased.
+     *
+     * @param <K> the key type.
+     */
+    public static class Handle<K> {
+        /**
+         * @return the current key of this Handle.
+         */
+        public K key() {
+            return key;
+        }
+
+        Handle(K key) {
+            this.key = key;
+        }
+
+        private K key;
+        private Handle<K> child;
+        private Handle<K> sibling;
+        private Handle<K> previous; // the previous sibling or, for a first child, the parent
+        private boolean removed; // true once the element has been removed by delMin
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param comparator a comparator for the type K: the root of the heap is the least key.
+     */
+    public PairingHeap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return true if the current size is zero.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * @return the number of keys in this priority queue.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Insert a key.
+     *
+     * @param key the key.
+     * @return the handle by which the key may later be decreased.
+     */
+    public Handle<K> insert(K key) {
+        final Handle<K> result = new Handle<>(key);
+        root = root == null ? result : link(root, result);
+        n++;
+        return result;
+    }
+
+    /**
+     * @return a least key.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public K minKey() {
+        if (root == null) throw new NoSuchElementException("Priority queue underflow");
+        return root.key;
+    }
+
+    /**
+     * Remove a least key.
+     *
+     * @return the key removed.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public K delMin() {
+        final K result = minKey();
+        final Handle<K> children = root.child;
+        root.child = null;
+        root.removed = true;
+        root = children == null ? null : combine(children);
+        n--;
+        return result;
+    }
+
+    /**
+     * Decrease the key of the element referred to by handle.
+     * NOTE: the handle must belong to this heap.
+     *
+     * @param handle the handle (as returned by insert).
+     * @param key    the new key, which must not be greater than the current key of handle.
+     * @throws IllegalArgumentException if handle has been removed or if key is greater than the current key of handle.
+     */
+    public void decreaseKey(Handle<K> handle, K key) {
+        if (handle.removed)
+            throw new IllegalArgumentException("decreaseKey: element has already been removed: " + handle.key);
+        if (comparator.compare(handle.key, key) < 0)
+            throw new IllegalArgumentException("decreaseKey: key is greater than the current key: " + key);
+        handle.key = key;
+        if (handle == root) return;
+        // NOTE cut the subtree of handle from its parent (or previous sibling) and link it with the root.
+        if (handle.previous.child == handle) handle.previous.child = handle.sibling;
+        else handle.previous.sibling = handle.sibling;
+        if (handle.sibling != null) handle.sibling.previous = handle.previous;
+        handle.sibling = null;
+        handle.previous = null;
+        root = link(root, handle);
+    }
+
+    /**
+     * Link two trees (each without siblings), making the root with the greater key the first child of the other.
+     *
+     * @return the root of the combined tree.
+     */
+    private Handle<K> link(Handle<K> x, Handle<K> y) {
+        if (comparator.compare(y.key, x.key) < 0) {
+            final Handle<K> tmp = x;
+            x = y;
+            y = tmp;
+        }
+        y.sibling = x.child;
+        if (x.child != null) x.child.previous = y;
+        y.previous = x;
+        x.child = y;
+        x.sibling = null;
+        x.previous = null;
+        return x;
+    }
+
+    /**
+     * Combine a list of siblings into one tree: first link them in pairs, from left to right,
+     * then link the results, from right to left.
+     * NOTE: this is iterative (rather than recursive) because the list of siblings may be very long.
+     *
+     * @param first the first of the siblings.
+     * @return the root of the combined tree.
+     */
+    private Handle<K> combine(Handle<K> first) {
+        final List<Handle<K>> pairs = new ArrayList<>();
+        for (Handle<K> x = first; x != null; ) {
+            final Handle<K> y = x.sibling;
+            if (y == null) {
+                x.previous = null;
+                pairs.add(x);
+                break;
+            }
+            final Handle<K> next = y.sibling;
+            x.sibling = null;
+            y.sibling = null;
+            pairs.add(link(x, y));
+            x = next;
+        }
+        Handle<K> result = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; i--) result = link(pairs.get(i), result);
+        return result;
+    }
+
+    private final Comparator<? super K> comparator;
+    private Handle<K> root;
+    private int n;
+}
@@ -5,15 +5,18 @@
 package com.phasmidsoftware.dsaipg.adt.pq;
 
 import java.util.*;
-import java.util.function.BiPredicate;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Priority Queue Data Structure which uses a binary heap.
  * <p/>
- * It is unlimited in capacity, although there is no code to grow it after it has been constructed.
  * It can serve as a minPQ or a maxPQ (define "max" as either false or true, respectively).
  * <p/>
+ * What happens when an element is given to a full priority queue depends on its Mode:
+ * FIXED (the original behavior) simply overwrites the last element of the heap;
+ * GROWABLE doubles the capacity (so that the amortized cost of give is unaffected);
+ * BOUNDED retains only the most eligible elements given (up to the capacity), as required to find the top k of a stream.
+ * <p/>
  * It can support the root at index 1 or the root at index 2 variants.
  * <p/>
  * It follows the code from Sedgewick and Wayne more or less. I have changed the names a bit. For example,
@@ -28,7 +31,29 @@ import java.util.function.Consumer;
 public class PriorityQueue<K> implements Iterable<K> {
 
     /**
-     * Primary constructor that takes the max value, an actual array of elements, and a comparator.
+     * The behavior of a priority queue which is given an element when it is already at capacity.
+     */
+    public enum Mode {
+        /**
+         * The last element of the heap is discarded (whether or not it is less eligible than the new element).
+         * NOTE: this is retained only for compatibility: it is not a correct way to bound a priority queue.
+         */
+        FIXED,
+        /**
+         * The capacity is doubled.
+         */
+        GROWABLE,
+        /**
+         * The heap is inverted, so that its root is the least eligible of the retained elements,
+         * and a new element is rejected (in constant time) unless it is more eligible than that root, which it then replaces.
+         * Thus the priority queue retains the most eligible elements (the "top k," where k is the capacity)
+         * and take yields them in order of increasing eligibility.
+         */
+        BOUNDED
+    }
+
+    /**
+     * Primary constructor that takes the max value, an actual array of elements, a comparator and a mode.
      *
      * @param max        whether or not this is a Maximum Priority Queue as opposed to a Minimum PQ.
      * @param binHeap    a pre-formed array with length one greater than the required capacity.
@@ -36,8 +61,9 @@ public class PriorityQueue<K> implements Iterable<K> {
      * @param last       the number of elements in binHeap
      * @param comparator a comparator for the type K
      * @param floyd      true if we use Floyd's trick
+     * @param mode       the behavior when the capacity is reached.
      */
-    public PriorityQueue(boolean max, Object[] binHeap, int first, int last, Comparator<K> comparator, boolean floyd) {
+    public PriorityQueue(boolean max, Object[] binHeap, int first, int last, Comparator<K> comparator, boolean floyd, Mode mode) {
         this.max = max;
         this.first = first;
         this.comparator = comparator;
@@ -45,6 +71,36 @@ public class PriorityQueue<K> implements Iterable<K> {
         //noinspection unchecked
         this.binHeap = (K[]) binHeap;
         this.floyd = floyd;
+        this.mode = mode;
+        this.heapMax = mode == Mode.BOUNDED ? !max : max;
+    }
+
+    /**
+     * Constructor that takes the max value, an actual array of elements, and a comparator (in FIXED mode).
+     *
+     * @param max        whether or not this is a Maximum Priority Queue as opposed to a Minimum PQ.
+     * @param binHeap    a pre-formed array with length one greater than the required capacity.
+     * @param first      the index of the root element.
+     * @param last       the number of elements in binHeap
+     * @param comparator a comparator for the type K
+     * @param floyd      true if we use Floyd's trick
+     */
+    public PriorityQueue(boolean max, Object[] binHeap, int first, int last, Comparator<K> comparator, boolean floyd) {
+        this(max, binHeap, first, last, comparator, floyd, Mode.FIXED);
+    }
+
+    /**
+     * Secondary constructor which takes the priority queue's initial (or maximum) capacity, a comparator and a mode.
+     *
+     * @param n          the desired initial capacity (GROWABLE) or maximum capacity (FIXED or BOUNDED).
+     * @param max        whether or not this is a Maximum Priority Queue as opposed to a Minimum PQ.
+     * @param comparator a comparator for the type K
+     * @param floyd      true if we use Floyd's trick
+     * @param mode       the behavior when the capacity is reached.
+     */
+    public PriorityQueue(int n, boolean max, Comparator<K> comparator, boolean floyd, Mode mode) {
+        // NOTE that we reserve the first element of the binary heap, so the length must be n+1, not n
+        this(max, new Object[n + 1], 1, 0, comparator, floyd, mode);
     }
 
     /**
@@ -113,21 +169,33 @@ public class PriorityQueue<K> implements Iterable<K> {
 
     /**
      * Insert an element with the given key into this Priority Queue.
+     * If this Priority Queue is already at capacity, then the result depends on the mode (see Mode).
      *
      * @param key the value of the key to give
+     * @return false if key was rejected (which can only happen in BOUNDED mode), otherwise true.
      */
-    public void give(K key) {
+    public boolean give(K key) {
         if (last == binHeap.length - first)
-            last--; // if we are already at capacity, then we arbitrarily trash the least eligible element
-        // (even if it's more eligible than key).
+            switch (mode) {
+                case GROWABLE:
+                    binHeap = Arrays.copyOf(binHeap, Math.max(2 * binHeap.length, first + 1));
+                    break;
+                case BOUNDED:
+                    return replaceRoot(key);
+                default:
+                    last--; // if we are already at capacity, then we arbitrarily trash the least eligible element
+                    // (even if it's more eligible than key).
+            }
         binHeap[++last + first - 1] = key; // insert the key into the binary heap just after the last element
         swimUp(last + first - 1); // reorder the binary heap
+        return true;
     }
 
     /**
      * Remove the root element from this Priority Queue and adjust the binary heap accordingly.
      * If max is true, then the result will be the maximum element, else the minimum element.
      * NOTE that this method is called DelMax (or DelMin) in the book.
+     * NOTE that, in BOUNDED mode, the heap is inverted, so that the result is the least eligible of the retained elements.
      *
      * @return If max is true, then the maximum element, otherwise the minimum element.
      * @throws PQException if this priority queue is empty
@@ -146,7 +214,7 @@ public class PriorityQueue<K> implements Iterable<K> {
      * @param f a consumer function that manipulates the root index to maintain the heap order.
      * @return the root element of the priority queue before reorganization.
      */
-    K doTake(Consumer<Integer> f) {
+    K doTake(IntConsumer f) {
         K result = binHeap[first]; // get the root element (the largest or smallest, according to field max)
         swap(first, last-- + first - 1); // swap the root element with the last element
         f.accept(first); // invoke the function f so that it is ordered again
@@ -158,7 +226,7 @@ public class PriorityQueue<K> implements Iterable<K> {
      * Sink the element at index k down
      */
     void sink(@SuppressWarnings("SameParameterValue") int k) {
-        doHeapify(k, (a, b) -> !unordered(a, b));
+        doHeapify(k);
     }
 
     /**
@@ -167,7 +235,7 @@ public class PriorityQueue<K> implements Iterable<K> {
      * @param k the starting index of the element in the heap to be adjusted.
      */
     void snake(@SuppressWarnings("SameParameterValue") int k) {
-        swimUp(doHeapify(k, (a, b) -> !unordered(a, b)));
+        swimUp(doHeapify(k));
     }
 
     /**
@@ -191,7 +259,24 @@ public class PriorityQueue<K> implements Iterable<K> {
      * @return true if the values are out of order.
      */
     boolean unordered(int i, int j) {
-        return (comparator.compare(binHeap[i], binHeap[j]) > 0) ^ max;
+        return (comparator.compare(binHeap[i], binHeap[j]) > 0) ^ heapMax;
+    }
+
+    /**
+     * Method (for BOUNDED mode) to replace the root (the least eligible of the retained elements) by key,
+     * provided that key is more eligible.
+     *
+     * @param key the key to give.
+     * @return true if key was retained.
+     */
+    private boolean replaceRoot(K key) {
+        if (last == 0) return false;
+        final int cf = comparator.compare(key, binHeap[first]);
+        if (max ? cf <= 0 : cf >= 0) return false;
+        binHeap[first] = key;
+        if (floyd) snake(first);
+        else sink(first);
+        return true;
     }
 
     /**
@@ -214,17 +299,17 @@ public class PriorityQueue<K> implements Iterable<K> {
      * The method reorganizes the binary heap by comparing parent and child nodes,
      * swapping their positions if necessary, until the correct heap order is maintained.
      *
+     * NOTE: the comparison is made directly (rather than through a BiPredicate, which would box each index).
+     *
      * @param k the starting index of the element in the heap that needs to be adjusted.
-     * @param p a predicate that determines the heap condition to be satisfied.
-     *          It takes two indices (parent and child) and returns true if the parent satisfies the heap property relative to the child.
      * @return the final position of the element originally at index k after reorganization.
      */
-    private int doHeapify(int k, BiPredicate<Integer, Integer> p) {
+    private int doHeapify(int k) {
         int i = k;
         while (firstChild(i) <= last + first - 1) {
             int j = firstChild(i);
             if (j < last + first - 1 && unordered(j, j + 1)) j++;
-            if (p.test(i, j)) break;
+            if (!unordered(i, j)) break;
             swap(i, j);
             i = j;
         }
@@ -272,9 +357,11 @@ public class PriorityQueue<K> implements Iterable<K> {
     private final boolean max;
     private final int first;
     private final Comparator<K> comparator;
-    private final K[] binHeap; // binHeap[i] is ith element of binary heap (first element is reserved)
+    private K[] binHeap; // binHeap[i] is ith element of binary heap (first element is reserved)
     private int last; // number of elements in the binary heap
     private final boolean floyd; //Determine whether floyd's snake method is on or off inside the take method
+    private final Mode mode;
+    private final boolean heapMax; // the orientation of the heap itself (the opposite of max in BOUNDED mode)
 
     public static void main(String[] args) {
         doMain();
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import com.phasmidsoftware.dsaipg.adt.symbolTable.BaseImmutableSymbolTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe version of FrequencyCounter, intended for counting the words of large corpora on all cores.
+ * <p>
+ * The keys are partitioned (by the high bits of their spread hash codes) among a number of stripes,
+ * each of which is a linear-probing table of keys with primitive (int) counts, guarded by its own lock:
+ * thus threads which increment different keys rarely contend with each other, and no Integer is boxed per update.
+ * The total is kept in a LongAdder.
+ * <p>
+ * For bulk ingestion, {@link #count(Stream)} tallies a stream in parallel into unsynchronized per-thread tallies,
+ * which are combined pairwise (as the stream is reduced) and finally merged into the stripes:
+ * so each lock is taken only once per distinct key per call, rather than once per occurrence.
+ *
+ * @param <Key> the key type (a null key is permitted).
+ */
+public class ConcurrentFrequencyCounter<Key> extends BaseImmutableSymbolTable<Key, Integer> {
+
+    /**
+     * Constructor to create a ConcurrentFrequencyCounter with the given number of stripes.
+     *
+     * @param stripes the number of stripes (rounded up to a power of two).
+     */
+    public ConcurrentFrequencyCounter(int stripes) {
+        final int n = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(n);
+        this.stripes = new Tally[n];
+        for (int i = 0; i < n; i++) this.stripes[i] = new Tally(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Default constructor to create a ConcurrentFrequencyCounter with four stripes per available processor.
+     */
+    public ConcurrentFrequencyCounter() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Increments the frequency count of the specified key.
+     *
+     * @param key the key whose frequency count is to be incremented.
+     */
+    public void increment(Key key) {
+        add(key, 1);
+    }
+
+    /**
+     * Adds n to the frequency count of the specified key.
+     *
+     * @param key the key whose frequency count is to be increased.
+     * @param n   the (non-negative) amount to add.
+     * @throws IllegalArgumentException if n is negative.
+     */
+    public void add(Key key, int n) {
+        if (n < 0) throw new IllegalArgumentException("ConcurrentFrequencyCounter.add: n must not be negative: " + n);
+        final Object k = mask(key);
+        final int hash = hash(k);
+        final Tally stripe = stripes[stripeIndex(hash)];
+        synchronized (stripe) {
+            stripe.add(k, hash, n);
+        }
+        total.add(n);
+    }
+
+    /**
+     * Counts each of the keys of the given stream, in parallel (on the pool of the calling thread, if it is a ForkJoinPool worker,
+     * otherwise on the common pool).
+     *
+     * @param keys a (sequential or parallel) stream of keys.
+     * @return the number of keys counted.
+     */
+    public long count(Stream<? extends Key> keys) {
+        final Tally tally = keys.parallel().collect(() -> new Tally(INITIAL_CAPACITY), (t, key) -> {
+            final Object k = mask(key);
+            t.add(k, hash(k), 1);
+        }, Tally::addAll);
+        long result = 0;
+        for (int i = 0; i < tally.keys.length; i++) {
+            final Object k = tally.keys[i];
+            if (k == null) continue;
+            final int hash = tally.hashes[i];
+            final Tally stripe = stripes[stripeIndex(hash)];
+            synchronized (stripe) {
+                stripe.add(k, hash, tally.counts[i]);
+            }
+            result += tally.counts[i];
+        }
+        total.add(result);
+        return result;
+    }
+
+    /**
+     * Method to get the frequency count of the given key, as a primitive.
+     *
+     * @param key the key.
+     * @return the count for key (zero if it has never been incremented).
+     */
+    public int getCount(Key key) {
+        final Object k = mask(key);
+        final int hash = hash(k);
+        final Tally stripe = stripes[stripeIndex(hash)];
+        synchronized (stripe) {
+            return stripe.get(k, hash);
+        }
+    }
+
+    /**
+     * Retrieves the frequency count of the given key.
+     *
+     * @param key the key whose associated value is to be returned.
+     * @return the count for key, or 0 if the key is not present.
+     */
+    public Integer get(Key key) {
+        return getCount(key);
+    }
+
+    /**
+     * Calculates the relative frequency of a specified key.
+     *
+     * @param key the key whose relative frequency is to be calculated.
+     * @return the relative frequency of the specified key as a double.
+     */
+    public double relativeFrequency(Key key) {
+        return 1.0 * getCount(key) / total();
+    }
+
+    /**
+     * Method to get the total number of increments over all existing keys.
+     *
+     * @return the total of all counts.
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Get the size of this ConcurrentFrequencyCounter.
+     *
+     * @return the number of distinct keys.
+     */
+    public int size() {
+        int result = 0;
+        for (Tally stripe : stripes)
+            synchronized (stripe) {
+                result += stripe.size;
+            }
+        return result;
+    }
+
+    /**
+     * Get the set of keys in this symbol table (a snapshot).
+     *
+     * @return the Set of keys.
+     */
+    public Set<Key> keys() {
+        return snapshot().keySet();
+    }
+
+    /**
+     * Method to yield a snapshot of the keys and their counts.
+     * Each stripe is copied atomically, but the stripes are not copied at the same instant.
+     *
+     * @return a Map of keys to counts.
+     */
+    public Map<Key, Integer> snapshot() {
+        final Map<Key, Integer> result = new HashMap<>();
+        for (Tally stripe : stripes)
+            synchronized (stripe) {
+                for (int i = 0; i < stripe.keys.length; i++)
+                    if (stripe.keys[i] != null) result.put(unmask(stripe.keys[i]), stripe.counts[i]);
+            }
+        return result;
+    }
+
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @return the number of stripes.
+     */
+    int stripes() {
+        return stripes.length;
+    }
+
+    private int stripeIndex(int hash) {
+        // NOTE the stripe is chosen by the high bits, the slot within the stripe by the low bits.
+        return stripeShift == Integer.SIZE ? 0 : hash >>> stripeShift;
+    }
+
+    private static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Key unmask(Object key) {
+        return key == NULL_KEY ? null : (Key) key;
+    }
+
+    private static int hash(Object key) {
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A linear-probing table of keys and primitive counts (not thread-safe).
+     */
+    static class Tally {
+        Tally(int capacity) {
+            this.keys = new Object[capacity];
+            this.hashes = new int[capacity];
+            this.counts = new int[capacity];
+        }
+
+        int get(Object key, int hash) {
+            final int mask = keys.length - 1;
+            for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask)
+                if (hashes[i] == hash && keys[i].equals(key)) return counts[i];
+            return 0;
+        }
+
+        void add(Object key, int hash, int n) {
+            final int mask = keys.length - 1;
+            int i = hash & mask;
+            for (; keys[i] != null; i = (i + 1) & mask)
+                if (hashes[i] == hash && keys[i].equals(key)) {
+                    counts[i] += n;
+                    return;
+                }
+            keys[i] = key;
+            hashes[i] = hash;
+            counts[i] = n;
+            if (++size > keys.length * 3 / 4) resize();
+        }
+
+        void addAll(Tally other) {
+            for (int i = 0; i < other.keys.length; i++)
+                if (other.keys[i] != null) add(other.keys[i], other.hashes[i], other.counts[i]);
+        }
+
+        private void resize() {
+            final Object[] oldKeys = keys;
+            final int[] oldHashes = hashes, oldCounts = counts;
+            keys = new Object[oldKeys.length * 2];
+            hashes = new int[keys.length];
+            counts = new int[keys.length];
+            final int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++)
+                if (oldKeys[j] != null) {
+                    int i = oldHashes[j] & mask;
+                    while (keys[i] != null) i = (i + 1) & mask;
+                    keys[i] = oldKeys[j];
+                    hashes[i] = oldHashes[j];
+                    counts[i] = oldCounts[j];
+                }
+        }
+
+        Object[] keys;
+        int[] hashes;
+        int[] counts;
+        int size;
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Object NULL_KEY = new Object();
+
+    private final Tally[] stripes;
+    private final int stripeShift;
+    private final LongAdder total = new LongAdder();
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import com.phasmidsoftware.dsaipg.adt.symbolTable.ST;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Class which implements ST (symbol table) by using open addressing with Robin Hood hashing.
+ * <p>
+ * Unlike HashTable_LP, there are no Element objects: the keys, values and (spread) hash codes are held in flat parallel arrays.
+ * On insertion, a key which has been displaced further from its home slot than the current occupant of a slot
+ * takes that slot (and the occupant moves on): this keeps the variance of the probe lengths small,
+ * and allows an unsuccessful search to stop as soon as it reaches an occupant which is closer to its home than the probe.
+ * Deletion is by backward shift: the following entries of the cluster each move back by one slot (so there are no tombstones).
+ * <p>
+ * When the number of entries reaches the load factor times the capacity, a table of twice the capacity is allocated,
+ * but the entries are migrated to it incrementally: each subsequent put or delete migrates at least MIGRATION_STEP slots
+ * (always completing the cluster in hand), so that no single operation has to rehash the entire table.
+ * While a migration is in progress, a key is in exactly one of the two tables and get looks in both.
+ *
+ * @param <Key>   the key type.
+ * @param <Value> the value type.
+ */
+public class HashTable_RH<Key, Value> implements ST<Key, Value> {
+
+    /**
+     * Retrieve the value for a given key.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else null.
+     */
+    public Value get(Key key) {
+        final int hash = hash(key);
+        int index = table.find(key, hash);
+        if (index >= 0) return table.value(index);
+        if (old != null && (index = old.find(key, hash)) >= 0) return old.value(index);
+        return null;
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value associated with key, or null if there was none.
+     */
+    public Value put(Key key, Value value) {
+        final int hash = hash(key);
+        int index = table.find(key, hash);
+        if (index >= 0) return table.replace(index, value);
+        if (old != null && (index = old.find(key, hash)) >= 0) {
+            final Value result = old.replace(index, value);
+            migrate();
+            return result;
+        }
+        if (table.size + 1 > table.threshold(loadFactor)) grow();
+        table.insert(key, hash, value);
+        if (old != null) migrate();
+        return null;
+    }
+
+    /**
+     * Delete the given key (and its value).
+     *
+     * @param key the key.
+     * @return the value which was associated with key, or null if the key was not present.
+     */
+    public Value delete(Key key) {
+        final int hash = hash(key);
+        Value result = null;
+        int index = table.find(key, hash);
+        if (index >= 0) result = table.remove(index);
+        else if (old != null && (index = old.find(key, hash)) >= 0) result = old.remove(index);
+        if (old != null) migrate();
+        return result;
+    }
+
+    /**
+     * Method to determine whether the given key is present.
+     *
+     * @param key the key.
+     * @return true if there is an entry for key (even if its value is null).
+     */
+    public boolean containsKey(Key key) {
+        final int hash = hash(key);
+        return table.find(key, hash) >= 0 || old != null && old.find(key, hash) >= 0;
+    }
+
+    /**
+     * Get the size of this HashTable_RH.
+     *
+     * @return the current size.
+     */
+    public int size() {
+        return table.size + (old != null ? old.size : 0);
+    }
+
+    /**
+     * Get the set of keys in this symbol table.
+     *
+     * @return the Set of keys.
+     */
+    public Set<Key> keys() {
+        final Set<Key> result = new TreeSet<>();
+        table.addKeys(result);
+        if (old != null) old.addKeys(result);
+        return result;
+    }
+
+    /**
+     * @return the capacity (number of slots) of the current table.
+     */
+    public int capacity() {
+        return table.keys.length;
+    }
+
+    /**
+     * @return true if entries are still being migrated from a smaller table.
+     */
+    public boolean isMigrating() {
+        return old != null;
+    }
+
+    /**
+     * @return the greatest distance of any entry from its home slot (an upper bound on the probes required by get, less one).
+     */
+    public int maxProbeDistance() {
+        return Math.max(table.maxDistance(), old != null ? old.maxDistance() : 0);
+    }
+
+    /**
+     * Construct a new HashTable_RH.
+     *
+     * @param capacity   the initial capacity (which will be rounded up to a power of two, and at least 8).
+     * @param loadFactor the proportion of slots which may be filled before the table grows (0.25 to 0.95).
+     */
+    public HashTable_RH(int capacity, double loadFactor) {
+        if (loadFactor < MINIMUM_LOAD_FACTOR || loadFactor > MAXIMUM_LOAD_FACTOR)
+            throw new HashTable_LP.HashTableException("HashTable_RH: load factor must be between " + MINIMUM_LOAD_FACTOR + " and " + MAXIMUM_LOAD_FACTOR + ": " + loadFactor);
+        this.loadFactor = loadFactor;
+        this.table = new Table<>(Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1));
+    }
+
+    /**
+     * Construct a new HashTable_RH with the default load factor.
+     *
+     * @param capacity the initial capacity.
+     */
+    public HashTable_RH(int capacity) {
+        this(capacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Construct a new HashTable_RH with 16 slots.
+     */
+    public HashTable_RH() {
+        this(16);
+    }
+
+    @Override
+    public String toString() {
+        return "HashTable_RH{size=" + size() + ", capacity=" + capacity() + (old != null ? ", migrating" : "") + "}";
+    }
+
+    /**
+     * Method to begin the migration to a table of twice the capacity.
+     * If a migration is still in progress (which can only happen with a small load factor), it is first completed.
+     */
+    private void grow() {
+        while (old != null) migrate();
+        old = table;
+        table = new Table<>(old.keys.length << 1);
+        // NOTE migration starts at an empty slot, so that it always begins at the start of a cluster.
+        int start = 0;
+        while (old.keys[start] != null) start++;
+        cursor = start;
+        migrated = 0;
+    }
+
+    /**
+     * Method to migrate at least MIGRATION_STEP slots of the old table (finishing any cluster which is begun).
+     * Removing an entire cluster from the old table leaves the remaining clusters (and hence their lookups) intact.
+     */
+    private void migrate() {
+        final Table<Key, Value> from = old;
+        final int length = from.keys.length;
+        int count = 0;
+        while (migrated < length && (count < MIGRATION_STEP || from.keys[cursor] != null)) {
+            if (from.keys[cursor] != null) {
+                table.insert(from.key(cursor), from.hashes[cursor], from.value(cursor));
+                from.keys[cursor] = null;
+                from.values[cursor] = null;
+                from.size--;
+            }
+            cursor = (cursor + 1) & from.mask;
+            migrated++;
+            count++;
+        }
+        if (migrated == length) old = null;
+    }
+
+    /**
+     * @return the spread hash code of key.
+     * NOTE the hash code is multiplied by the golden ratio (Fibonacci hashing) because similar keys
+     * (such as strings with a common prefix) tend to have hash codes which differ only in the low bits,
+     * which would otherwise form long clusters.
+     */
+    private static int hash(Object key) {
+        if (key == null) throw new HashTable_LP.HashTableException("HashTable_RH: null key");
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The slots of an open-addressing table whose capacity is a power of two.
+     */
+    private static class Table<K, V> {
+        Table(int capacity) {
+            this.keys = new Object[capacity];
+            this.values = new Object[capacity];
+            this.hashes = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int threshold(double loadFactor) {
+            return (int) (keys.length * loadFactor);
+        }
+
+        /**
+         * @return the index of key, or -1 if it is not present.
+         */
+        int find(Object key, int hash) {
+            int index = hash & mask;
+            for (int distance = 0; ; distance++) {
+                final Object k = keys[index];
+                // NOTE the key cannot be further on if this occupant is closer to its home than we are to ours.
+                if (k == null || distance(index) < distance) return -1;
+                if (hashes[index] == hash && (k == key || k.equals(key))) return index;
+                index = (index + 1) & mask;
+            }
+        }
+
+        /**
+         * Method to insert a key which is known not to be present.
+         */
+        void insert(Object key, int hash, Object value) {
+            int index = hash & mask;
+            for (int distance = 0; ; distance++) {
+                if (keys[index] == null) {
+                    keys[index] = key;
+                    values[index] = value;
+                    hashes[index] = hash;
+                    size++;
+                    return;
+                }
+                final int d = distance(index);
+                if (d < distance) {
+                    // NOTE Robin Hood: the richer occupant yields its slot and continues the probe in our place.
+                    final Object k = keys[index], v = values[index];
+                    final int h = hashes[index];
+                    keys[index] = key;
+                    values[index] = value;
+                    hashes[index] = hash;
+                    key = k;
+                    value = v;
+                    hash = h;
+                    distance = d;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        /**
+         * Method to remove the entry at index by shifting the rest of its cluster back by one slot.
+         *
+         * @return the value which was removed.
+         */
+        V remove(int index) {
+            final V result = value(index);
+            int next = (index + 1) & mask;
+            while (keys[next] != null && distance(next) > 0) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                hashes[index] = hashes[next];
+                index = next;
+                next = (next + 1) & mask;
+            }
+            keys[index] = null;
+            values[index] = null;
+            size--;
+            return result;
+        }
+
+        V replace(int index, V value) {
+            final V result = value(index);
+            values[index] = value;
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        K key(int index) {
+            return (K) keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        V value(int index) {
+            return (V) values[index];
+        }
+
+        void addKeys(Set<K> set) {
+            for (int i = 0; i < keys.length; i++) if (keys[i] != null) set.add(key(i));
+        }
+
+        int maxDistance() {
+            int result = 0;
+            for (int i = 0; i < keys.length; i++) if (keys[i] != null) result = Math.max(result, distance(i));
+            return result;
+        }
+
+        private int distance(int index) {
+            return (index - (hashes[index] & mask)) & mask;
+        }
+
+        final Object[] keys;
+        final Object[] values;
+        final int[] hashes;
+        final int mask;
+        int size;
+    }
+
+    public static final double DEFAULT_LOAD_FACTOR = 0.875;
+    static final double MINIMUM_LOAD_FACTOR = 0.25;
+    static final double MAXIMUM_LOAD_FACTOR = 0.95;
+    static final int MINIMUM_CAPACITY = 8;
+
+    /**
+     * The minimum number of slots of the old table which are migrated by each put or delete during a migration.
+     * With a load factor of at least 0.25, the migration is complete before the new table reaches its own threshold.
+     */
+    static final int MIGRATION_STEP = 8;
+
+    private final double loadFactor;
+    private Table<Key, Value> table;
+    private Table<Key, Value> old;
+    private int cursor;
+    private int migrated;
+}
@@ -9,14 +9,26 @@ import com.phasmidsoftware.dsaipg.adt.symbolTable.ST;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * HashTable_SC is a hash table implementation using separate chaining (SC) for collision resolution.
- * This class supports basic operations such as insertion, retrieval, and key set generation. It also
+ * This class supports basic operations such as insertion, retrieval, deletion, and key set generation. It also
  * implements the ST interface for working with key-value pairs.
+ * <p>
+ * The number of buckets doubles whenever the average chain length exceeds the maximum load.
+ * As in Redis, the rehash is incremental: the old buckets are retained and each subsequent operation
+ * migrates a few of them (REHASH_STEP) to the new buckets, so that no single operation has to rehash the entire table.
+ * While a rehash is in progress, a key is in exactly one of the two bucket arrays and lookups consult both.
+ * <p>
+ * A chain which grows to TREEIFY_THRESHOLD nodes is converted into a tree bin (ordered by hash code and then,
+ * for Comparable keys of the same class, by compareTo)
+ * so that the cost of a lookup in a bucket is logarithmic rather than linear
+ * (unless many distinct keys, which are not Comparable, share the same hash code).
+ * A tree bin which shrinks to UNTREEIFY_THRESHOLD nodes reverts to a chain.
  *
  * @param <Key>   the type of keys maintained by this hash table.
  * @param <Value> the type of mapped values.
@@ -28,10 +40,7 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
      * @return the current size.
      */
     public int size() {
-        int result = 0;
-        for (Object bucket : buckets) //noinspection unchecked
-            result += (int) nodesAsStream((Node) bucket).count();
-        return result;
+        return size;
     }
 
     /**
@@ -41,18 +50,21 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
      *
      * @param key   the key.
      * @param value the value.
+     * @return the previous value associated with key, or null if there was none.
      */
     public Value put(Key key, Value value) {
-        int index = getIndex(key);
-        @SuppressWarnings("unchecked") Node bucket = (Node) buckets[index];
-        List<Node> matches = nodesAsStream(bucket).takeWhile(Objects::nonNull).filter(node -> node.key.equals(key)).toList();
-        if (matches.size() == 1)
-            matches.get(0).value = value;
-        else if (matches.isEmpty())
-            buckets[index] = new Node(key, value, bucket);
-        else
-            throw new HashTable_LP.HashTableException("HashTable_SC:put: logic error");
-        return null; // TODO return the original value
+        rehashStep();
+        final int hash = key.hashCode();
+        final Node node = find(key, hash);
+        if (node != null) {
+            final Value result = node.value;
+            node.value = value;
+            return result;
+        }
+        insert(buckets, new Node(key, hash, value, null));
+        size++;
+        if (oldBuckets == null && size > maxLoad * buckets.length) beginRehash();
+        return null;
     }
 
     /**
@@ -62,10 +74,25 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
      * @return the value, if key is present, else null.
      */
     public Value get(Key key) {
-        Object bucket = buckets[getIndex(key)];
-        if (bucket == null) return null;
-        //noinspection unchecked
-        return nodesAsStream((Node) bucket).filter(n -> n != null && n.key == key).findFirst().map(node -> node.value).orElse(null);
+        rehashStep();
+        final Node node = find(key, key.hashCode());
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Delete the given key (and its value).
+     *
+     * @param key the key.
+     * @return the value which was associated with key, or null if the key was not present.
+     */
+    public Value delete(Key key) {
+        rehashStep();
+        final int hash = key.hashCode();
+        Node node = remove(buckets, key, hash);
+        if (node == null && oldBuckets != null) node = remove(oldBuckets, key, hash);
+        if (node == null) return null;
+        size--;
+        return node.value;
     }
 
     /**
@@ -76,35 +103,70 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
     public Set<Key> keys() {
         Set<Key> result = new TreeSet<>();
         for (Object bucket : buckets)
-            //noinspection unchecked
-            result.addAll(nodesAsStream((Node) bucket).map(node -> node.key).toList());
+            result.addAll(nodesAsStream(bucket).map(node -> node.key).toList());
+        if (oldBuckets != null)
+            for (Object bucket : oldBuckets)
+                result.addAll(nodesAsStream(bucket).map(node -> node.key).toList());
+        return result;
+    }
+
+    /**
+     * @return the current number of buckets.
+     */
+    public int buckets() {
+        return buckets.length;
+    }
+
+    /**
+     * @return true if buckets are still being migrated to a larger bucket array.
+     */
+    public boolean isRehashing() {
+        return oldBuckets != null;
+    }
+
+    /**
+     * @return the number of buckets which are currently tree bins.
+     */
+    int treeBins() {
+        int result = 0;
+        for (Object bucket : buckets) if (bucket instanceof HashTable_SC<?, ?>.Tree) result++;
+        if (oldBuckets != null)
+            for (Object bucket : oldBuckets) if (bucket instanceof HashTable_SC<?, ?>.Tree) result++;
         return result;
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder();
-        for (int i = 0; i < buckets.length; i++) {
-            //noinspection unchecked
-            Node bucket = (Node) buckets[i];
-            if (bucket != null) {
-                List<Node> nodes = nodesAsStream(bucket).collect(Collectors.toList());
-                result.append(i).append(": ");
-                result.append(nodes);
-                result.append("\n");
-            }
+        if (oldBuckets != null) {
+            result.append("old:\n");
+            appendBuckets(result, oldBuckets);
+            result.append("new:\n");
         }
+        appendBuckets(result, buckets);
         return result.toString();
     }
 
     /**
-     * Construct a new HashTable_SC with m buckets.
+     * Construct a new HashTable_SC with m buckets (initially).
+     *
+     * @param m       the required number of buckets.
+     * @param maxLoad the average number of keys per bucket beyond which the number of buckets is doubled.
+     */
+    public HashTable_SC(int m, double maxLoad) {
+        if (m < 1 || maxLoad < 1)
+            throw new HashTable_LP.HashTableException("HashTable_SC: m and maxLoad must be at least 1: " + m + ", " + maxLoad);
+        this.maxLoad = maxLoad;
+        this.buckets = new Object[m];
+    }
+
+    /**
+     * Construct a new HashTable_SC with m buckets (initially).
      *
      * @param m the required number of buckets.
      */
     public HashTable_SC(int m) {
-        this.m = m;
-        this.buckets = new Object[m];
+        this(m, DEFAULT_MAX_LOAD);
     }
 
     /**
@@ -115,34 +177,177 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
     }
 
     /**
-     * Computes the index for the given key based on its hash code.
+     * Computes the index for the given hash code based on the number of buckets.
      *
-     * @param key the key for which the index is to be computed.
+     * @param hash the hash code of the key.
+     * @param m    the number of buckets.
      * @return the computed index within the range of available buckets.
      */
-    private int getIndex(Key key) {
-        return (key.hashCode() & 0x7FFFFFFF) % m;
+    private static int getIndex(int hash, int m) {
+        return (hash & 0x7FFFFFFF) % m;
+    }
+
+    /**
+     * Method to find the node for key, looking in the old buckets too if a rehash is in progress.
+     */
+    private Node find(Key key, int hash) {
+        final Node result = find(buckets, key, hash);
+        if (result != null || oldBuckets == null) return result;
+        return find(oldBuckets, key, hash);
+    }
+
+    private Node find(Object[] table, Key key, int hash) {
+        final Object bucket = table[getIndex(hash, table.length)];
+        if (bucket instanceof HashTable_SC<?, ?>.Tree) //noinspection unchecked
+            return ((Tree) bucket).find(key, hash);
+        //noinspection unchecked
+        return findInChain((Node) bucket, key, hash);
+    }
+
+    private Node findInChain(Node node, Key key, int hash) {
+        for (; node != null; node = node.next)
+            if (node.hash == hash && node.key.equals(key)) return node;
+        return null;
+    }
+
+    /**
+     * Method to insert node (whose key is known to be absent) into the appropriate bucket of table.
+     * A chain which reaches TREEIFY_THRESHOLD nodes is converted into a tree bin.
+     */
+    private void insert(Object[] table, Node node) {
+        final int index = getIndex(node.hash, table.length);
+        final Object bucket = table[index];
+        if (bucket instanceof HashTable_SC<?, ?>.Tree) {
+            //noinspection unchecked
+            ((Tree) bucket).add(node);
+            return;
+        }
+        //noinspection unchecked
+        node.next = (Node) bucket;
+        int length = 0;
+        for (Node x = node; x != null; x = x.next) length++;
+        table[index] = length >= TREEIFY_THRESHOLD ? new Tree(node) : node;
+    }
+
+    /**
+     * Method to remove the node for key (if any) from the appropriate bucket of table.
+     * A tree bin which shrinks to UNTREEIFY_THRESHOLD nodes reverts to a chain.
+     *
+     * @return the node removed, or null.
+     */
+    private Node remove(Object[] table, Key key, int hash) {
+        final int index = getIndex(hash, table.length);
+        final Object bucket = table[index];
+        if (bucket instanceof HashTable_SC<?, ?>.Tree) {
+            //noinspection unchecked
+            final Tree tree = (Tree) bucket;
+            final Node result = tree.remove(key, hash);
+            if (result != null && tree.size <= UNTREEIFY_THRESHOLD) table[index] = tree.toChain();
+            return result;
+        }
+        //noinspection unchecked
+        Node node = (Node) bucket, previous = null;
+        for (; node != null; previous = node, node = node.next)
+            if (node.hash == hash && node.key.equals(key)) {
+                if (previous == null) table[index] = node.next;
+                else previous.next = node.next;
+                return node;
+            }
+        return null;
+    }
+
+    /**
+     * Method to begin an incremental rehash into twice as many buckets.
+     */
+    private void beginRehash() {
+        oldBuckets = buckets;
+        buckets = new Object[buckets.length * 2];
+        rehashIndex = 0;
     }
 
     /**
-     * Converts the linked list of {@code Node} objects starting from the given {@code bucket} into a {@code Stream} of nodes.
+     * Method to migrate (up to) REHASH_STEP non-empty buckets from the old buckets to the new buckets.
+     * As in Redis, the number of empty buckets visited is also bounded (to ten times REHASH_STEP),
+     * so that the cost of each step is bounded.
+     */
+    private void rehashStep() {
+        if (oldBuckets == null) return;
+        int migrated = 0, empty = 0;
+        while (rehashIndex < oldBuckets.length && migrated < REHASH_STEP && empty < REHASH_STEP * 10) {
+            final Object bucket = oldBuckets[rehashIndex];
+            oldBuckets[rehashIndex++] = null;
+            if (bucket == null) {
+                empty++;
+                continue;
+            }
+            // NOTE the nodes must be collected before insert changes their next links.
+            final List<Node> nodes = nodesAsStream(bucket).toList();
+            for (Node node : nodes) insert(buckets, node);
+            migrated++;
+        }
+        if (rehashIndex == oldBuckets.length) oldBuckets = null;
+    }
+
+    private void appendBuckets(StringBuilder result, Object[] table) {
+        for (int i = 0; i < table.length; i++) {
+            Object bucket = table[i];
+            if (bucket != null) {
+                List<Node> nodes = nodesAsStream(bucket).collect(Collectors.toList());
+                result.append(i).append(": ");
+                result.append(nodes);
+                result.append("\n");
+            }
+        }
+    }
+
+    /**
+     * Converts the bucket (a chain of {@code Node} objects or a tree bin) into a {@code Stream} of nodes.
      *
-     * @param bucket the starting node of the linked list, can be null.
+     * @param bucket the bucket, can be null.
      * @return a {@code Stream} of {@code Node} objects, or an empty stream if the {@code bucket} is null.
      */
-    private Stream<Node> nodesAsStream(Node bucket) {
+    private Stream<Node> nodesAsStream(Object bucket) {
         if (bucket == null)
             return Stream.empty();
-        else
-            return Stream.iterate(bucket, Objects::nonNull, node -> node.next);
+        else if (bucket instanceof HashTable_SC<?, ?>.Tree) //noinspection unchecked
+            return ((Tree) bucket).nodes();
+        else //noinspection unchecked
+            return chainAsStream((Node) bucket);
+    }
+
+    private Stream<Node> chainAsStream(Node node) {
+        return Stream.iterate(node, Objects::nonNull, x -> x.next);
     }
 
-    private final int m;
-    private final Object[] buckets;
+    /**
+     * The average number of keys per bucket beyond which the number of buckets is doubled.
+     */
+    static final double DEFAULT_MAX_LOAD = 2.0;
+
+    /**
+     * The number of non-empty buckets migrated by each operation during a rehash.
+     */
+    static final int REHASH_STEP = 4;
+
+    /**
+     * The length of a chain at which it is converted into a tree bin.
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * The size of a tree bin at which it reverts to a chain.
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    private final double maxLoad;
+    private Object[] buckets;
+    private Object[] oldBuckets;
+    private int rehashIndex;
+    private int size;
 
     /**
      * A class representing a Node in a singly linked list structure used in the HashTable_SC class.
-     * Each Node object stores a key-value pair and a reference to the next Node in the chain.
+     * Each Node object stores a key-value pair (and the hash code of the key) and a reference to the next Node in the chain.
      * This is intended to be a private inner class within the enclosing HashTable_SC class.
      */
     private class Node {
@@ -151,11 +356,13 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
          * stores a key-value pair and a reference to the next Node in the chain.
          *
          * @param key   the key associated with the Node.
+         * @param hash  the hash code of the key.
          * @param value the value associated with the Node.
          * @param next  the reference to the next Node in the linked list.
          */
-        public Node(Key key, Value value, Node next) {
+        public Node(Key key, int hash, Value value, Node next) {
             this.key = key;
+            this.hash = hash;
             this.value = value;
             this.next = next;
         }
@@ -166,8 +373,111 @@ public class HashTable_SC<Key, Value> implements ST<Key, Value> {
         }
 
         private final Key key;
+        private final int hash;
         private Value value;
-        // NOTE: this will need to be mutable when we implement delete.
-        private final Node next;
+        private Node next;
+    }
+
+    /**
+     * A tree bin: a red-black tree (TreeMap) ordered by the hash codes of the keys.
+     * As in java.util.HashMap, keys which share a hash code are ordered by compareTo, provided that they are Comparable
+     * and of the same class; only other keys which share a hash code form a chain.
+     */
+    private class Tree {
+        /**
+         * Construct a tree bin from the given chain.
+         *
+         * @param chain the first node of a chain.
+         */
+        Tree(Node chain) {
+            while (chain != null) {
+                final Node next = chain.next;
+                add(chain);
+                chain = next;
+            }
+        }
+
+        Node find(Key key, int hash) {
+            final TreeMap<Key, Node> map = orderedFor(key, hash);
+            if (map != null) {
+                final Node node = map.get(key);
+                if (node != null && node.key.equals(key)) return node;
+            }
+            // NOTE a key which is not in the ordered map may nevertheless be in the chain (e.g. if compareTo is inconsistent with equals).
+            return findInChain(chains.get(hash), key, hash);
+        }
+
+        void add(Node node) {
+            size++;
+            if (node.key instanceof Comparable) {
+                final TreeMap<Key, Node> map = ordered.computeIfAbsent(node.hash, h -> new TreeMap<>());
+                if (map.isEmpty() || (map.firstKey().getClass() == node.key.getClass() && !map.containsKey(node.key))) {
+                    node.next = null;
+                    map.put(node.key, node);
+                    return;
+                }
+            }
+            node.next = chains.get(node.hash);
+            chains.put(node.hash, node);
+        }
+
+        Node remove(Key key, int hash) {
+            final TreeMap<Key, Node> map = orderedFor(key, hash);
+            if (map != null) {
+                final Node node = map.get(key);
+                if (node != null && node.key.equals(key)) {
+                    map.remove(key);
+                    if (map.isEmpty()) ordered.remove(hash);
+                    size--;
+                    return node;
+                }
+            }
+            Node node = chains.get(hash), previous = null;
+            for (; node != null; previous = node, node = node.next)
+                if (node.key.equals(key)) {
+                    if (previous != null) previous.next = node.next;
+                    else if (node.next != null) chains.put(hash, node.next);
+                    else chains.remove(hash);
+                    size--;
+                    return node;
+                }
+            return null;
+        }
+
+        /**
+         * @return a Stream of the nodes of this tree bin.
+         */
+        Stream<Node> nodes() {
+            return Stream.concat(ordered.values().stream().flatMap(map -> map.values().stream()),
+                    chains.values().stream().flatMap(HashTable_SC.this::chainAsStream));
+        }
+
+        /**
+         * @return the nodes of this tree bin as a single chain.
+         */
+        Node toChain() {
+            // NOTE the nodes must be collected before their next links are changed.
+            Node result = null;
+            for (Node node : nodes().toList()) {
+                node.next = result;
+                result = node;
+            }
+            return result;
+        }
+
+        /**
+         * Method to get the ordered map for hash, provided that key may be compared with the keys in it.
+         *
+         * @return the ordered map of keys whose hash code is hash, or null.
+         */
+        private TreeMap<Key, Node> orderedFor(Key key, int hash) {
+            if (!(key instanceof Comparable)) return null;
+            final TreeMap<Key, Node> map = ordered.get(hash);
+            return map != null && map.firstKey().getClass() == key.getClass() ? map : null;
+        }
+
+        private final TreeMap<Integer, TreeMap<Key, Node>> ordered = new TreeMap<>();
+        private final TreeMap<Integer, Node> chains = new TreeMap<>();
+        private int size;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+/**
+ * Symbol table whose keys and values are primitive ints (cf. ST&lt;Integer, Integer&gt;, which boxes both).
+ * <p>
+ * The keys and values are held in parallel int arrays, using open addressing with linear probing.
+ * An empty slot is marked by the sentinel key 0 (so that no separate array of flags is required):
+ * the key 0 itself, if present, is held outside the arrays.
+ * Deletion shifts the following entries of the cluster back (there are no tombstones),
+ * and the arrays are doubled whenever the number of entries exceeds the load factor times the capacity.
+ * <p>
+ * Since there is no null, the absence of a key is signified by the missing value (given to the constructor, normally 0).
+ */
+public class IntIntST {
+
+    /**
+     * Functional interface to receive the entries of an IntIntST without boxing.
+     */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    /**
+     * Retrieve the value for a given key.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else the missing value.
+     */
+    public int get(int key) {
+        if (key == EMPTY) return hasZeroKey ? zeroValue : missingValue;
+        final int index = find(key);
+        return index >= 0 ? values[index] : missingValue;
+    }
+
+    /**
+     * Method to determine whether the given key is present.
+     *
+     * @param key the key.
+     * @return true if there is an entry for key.
+     */
+    public boolean containsKey(int key) {
+        return key == EMPTY ? hasZeroKey : find(key) >= 0;
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value associated with key, or the missing value if there was none.
+     */
+    public int put(int key, int value) {
+        if (key == EMPTY) {
+            final int result = hasZeroKey ? zeroValue : missingValue;
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return result;
+        }
+        int index = hash(key) & mask;
+        for (; keys[index] != EMPTY; index = (index + 1) & mask)
+            if (keys[index] == key) {
+                final int result = values[index];
+                values[index] = value;
+                return result;
+            }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) resize();
+        return missingValue;
+    }
+
+    /**
+     * Add delta to the value for the given key (a key which is not present is first given the missing value).
+     *
+     * @param key   the key.
+     * @param delta the amount to add.
+     * @return the new value.
+     */
+    public int add(int key, int delta) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                size++;
+                hasZeroKey = true;
+                zeroValue = missingValue;
+            }
+            return zeroValue += delta;
+        }
+        int index = hash(key) & mask;
+        for (; keys[index] != EMPTY; index = (index + 1) & mask)
+            if (keys[index] == key) return values[index] += delta;
+        keys[index] = key;
+        final int result = values[index] = missingValue + delta;
+        if (++size > threshold) resize();
+        return result;
+    }
+
+    /**
+     * Delete the given key (and its value).
+     *
+     * @param key the key.
+     * @return the value which was associated with key, or the missing value if the key was not present.
+     */
+    public int remove(int key) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) return missingValue;
+            hasZeroKey = false;
+            size--;
+            return zeroValue;
+        }
+        final int index = find(key);
+        if (index < 0) return missingValue;
+        final int result = values[index];
+        shiftBack(index);
+        size--;
+        return result;
+    }
+
+    /**
+     * Method to pass each entry (in no particular order) to the given consumer, without any allocation.
+     *
+     * @param consumer the consumer.
+     */
+    public void forEach(IntIntConsumer consumer) {
+        if (hasZeroKey) consumer.accept(EMPTY, zeroValue);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != EMPTY) consumer.accept(keys[i], values[i]);
+    }
+
+    /**
+     * @return the keys (in no particular order).
+     */
+    public int[] keys() {
+        final int[] result = new int[size];
+        int j = 0;
+        if (hasZeroKey) result[j++] = EMPTY;
+        for (int key : keys) if (key != EMPTY) result[j++] = key;
+        return result;
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the capacity (the length of the arrays).
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("{");
+        forEach((k, v) -> result.append(result.length() > 1 ? ", " : "").append(k).append("=").append(v));
+        return result.append("}").toString();
+    }
+
+    /**
+     * Construct a new IntIntST.
+     *
+     * @param capacity     the expected number of entries.
+     * @param loadFactor   the proportion of slots which may be filled before the arrays grow.
+     * @param missingValue the value to be returned for a key which is not present.
+     */
+    public IntIntST(int capacity, double loadFactor, int missingValue) {
+        if (loadFactor <= 0 || loadFactor >= 1)
+            throw new IllegalArgumentException("IntIntST: load factor must be between 0 and 1: " + loadFactor);
+        this.loadFactor = loadFactor;
+        this.missingValue = missingValue;
+        allocate(tableSize(capacity, loadFactor));
+    }
+
+    /**
+     * Construct a new IntIntST with the default load factor and a missing value of 0.
+     *
+     * @param capacity the expected number of entries.
+     */
+    public IntIntST(int capacity) {
+        this(capacity, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    /**
+     * Construct a new IntIntST with room for 16 entries.
+     */
+    public IntIntST() {
+        this(16);
+    }
+
+    /**
+     * @return the power of two which is sufficient to hold capacity entries at the given load factor.
+     */
+    static int tableSize(int capacity, double loadFactor) {
+        final long required = (long) Math.ceil(Math.max(capacity, 1) / loadFactor) + 1;
+        if (required > 1 << 30) throw new IllegalArgumentException("capacity is too large: " + capacity);
+        return Math.max(MINIMUM_TABLE_SIZE, Integer.highestOneBit((int) required - 1) << 1);
+    }
+
+    /**
+     * @return the spread (Fibonacci) hash of key.
+     */
+    static int hash(int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int find(int key) {
+        for (int index = hash(key) & mask; keys[index] != EMPTY; index = (index + 1) & mask)
+            if (keys[index] == key) return index;
+        return -1;
+    }
+
+    /**
+     * Method to vacate the slot at index by moving back any following entries of the cluster which may occupy it.
+     */
+    private void shiftBack(int index) {
+        for (int next = (index + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = hash(keys[next]) & mask;
+            // NOTE the entry at next can move back to index only if its home is not in the (cyclic) range (index, next].
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+        }
+        keys[index] = EMPTY;
+    }
+
+    private void resize() {
+        final int[] oldKeys = keys, oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldKeys[i] != EMPTY) {
+                int index = hash(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) index = (index + 1) & mask;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+    }
+
+    private void allocate(int length) {
+        keys = new int[length];
+        values = new int[length];
+        mask = length - 1;
+        threshold = (int) Math.min(length - 1, (long) (length * loadFactor));
+    }
+
+    static final double DEFAULT_LOAD_FACTOR = 0.75;
+    static final int MINIMUM_TABLE_SIZE = 8;
+    private static final int EMPTY = 0;
+
+    private final double loadFactor;
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+}
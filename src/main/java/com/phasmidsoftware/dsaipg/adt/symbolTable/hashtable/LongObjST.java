@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import static com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.IntIntST.DEFAULT_LOAD_FACTOR;
+import static com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.IntIntST.tableSize;
+
+/**
+ * Symbol table whose keys are primitive longs and whose values are objects (cf. ST&lt;Long, V&gt;, which boxes the keys).
+ * <p>
+ * The implementation is that of IntIntST: open addressing with linear probing over parallel arrays (long keys),
+ * with 0 as the sentinel for an empty slot (the key 0 itself is held outside the arrays),
+ * backward-shift deletion, and doubling at the load factor.
+ *
+ * @param <V> the value type.
+ */
+public class LongObjST<V> {
+
+    /**
+     * Functional interface to receive the entries of a LongObjST without boxing the keys.
+     *
+     * @param <V> the value type.
+     */
+    @FunctionalInterface
+    public interface LongObjConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * Retrieve the value for a given key.
+     *
+     * @param key the key.
+     * @return the value, if key is present, else null.
+     */
+    public V get(long key) {
+        if (key == EMPTY) return hasZeroKey ? zeroValue : null;
+        final int index = find(key);
+        return index >= 0 ? value(index) : null;
+    }
+
+    /**
+     * Method to determine whether the given key is present.
+     *
+     * @param key the key.
+     * @return true if there is an entry for key (even if its value is null).
+     */
+    public boolean containsKey(long key) {
+        return key == EMPTY ? hasZeroKey : find(key) >= 0;
+    }
+
+    /**
+     * Insert a key/value pair.
+     * If the key already exists, then its value will simply be overwritten.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value associated with key, or null if there was none.
+     */
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            final V result = zeroValue;
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return result;
+        }
+        int index = hash(key) & mask;
+        for (; keys[index] != EMPTY; index = (index + 1) & mask)
+            if (keys[index] == key) {
+                final V result = value(index);
+                values[index] = value;
+                return result;
+            }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) resize();
+        return null;
+    }
+
+    /**
+     * Delete the given key (and its value).
+     *
+     * @param key the key.
+     * @return the value which was associated with key, or null if the key was not present.
+     */
+    public V remove(long key) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) return null;
+            final V result = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return result;
+        }
+        final int index = find(key);
+        if (index < 0) return null;
+        final V result = value(index);
+        shiftBack(index);
+        size--;
+        return result;
+    }
+
+    /**
+     * Method to pass each entry (in no particular order) to the given consumer, without any allocation.
+     *
+     * @param consumer the consumer.
+     */
+    public void forEach(LongObjConsumer<? super V> consumer) {
+        if (hasZeroKey) consumer.accept(EMPTY, zeroValue);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != EMPTY) consumer.accept(keys[i], value(i));
+    }
+
+    /**
+     * @return the keys (in no particular order).
+     */
+    public long[] keys() {
+        final long[] result = new long[size];
+        int j = 0;
+        if (hasZeroKey) result[j++] = EMPTY;
+        for (long key : keys) if (key != EMPTY) result[j++] = key;
+        return result;
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("{");
+        forEach((k, v) -> result.append(result.length() > 1 ? ", " : "").append(k).append("=").append(v));
+        return result.append("}").toString();
+    }
+
+    /**
+     * Construct a new LongObjST.
+     *
+     * @param capacity   the expected number of entries.
+     * @param loadFactor the proportion of slots which may be filled before the arrays grow.
+     */
+    public LongObjST(int capacity, double loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1)
+            throw new IllegalArgumentException("LongObjST: load factor must be between 0 and 1: " + loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(tableSize(capacity, loadFactor));
+    }
+
+    /**
+     * Construct a new LongObjST with the default load factor.
+     *
+     * @param capacity the expected number of entries.
+     */
+    public LongObjST(int capacity) {
+        this(capacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Construct a new LongObjST with room for 16 entries.
+     */
+    public LongObjST() {
+        this(16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * @return the spread (Fibonacci) hash of key.
+     */
+    static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long key) {
+        for (int index = hash(key) & mask; keys[index] != EMPTY; index = (index + 1) & mask)
+            if (keys[index] == key) return index;
+        return -1;
+    }
+
+    /**
+     * Method to vacate the slot at index by moving back any following entries of the cluster which may occupy it.
+     */
+    private void shiftBack(int index) {
+        for (int next = (index + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+        }
+        keys[index] = EMPTY;
+        values[index] = null;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldKeys[i] != EMPTY) {
+                int index = hash(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) index = (index + 1) & mask;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+    }
+
+    private void allocate(int length) {
+        keys = new long[length];
+        values = new Object[length];
+        mask = length - 1;
+        threshold = (int) Math.min(length - 1, (long) (length * loadFactor));
+    }
+
+    private static final long EMPTY = 0L;
+
+    private final double loadFactor;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private V zeroValue;
+}
@@ -16,19 +16,19 @@ import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 
 import static com.phasmidsoftware.dsaipg.adt.symbolTable.tree.BSTOptimisedDeletion.random;
-import static com.phasmidsoftware.dsaipg.util.SortBenchmarkHelper.getWords;
 import static com.phasmidsoftware.dsaipg.util.Utilities.formatDecimal3Places;
 
 
 /**
  * A class that benchmarks Binary Search Tree (BST) operations using various configurations,
  * including experiments with different tree structures, input sizes, and operational modes.
- * This class extends the Benchmark_Timer to provide timing-based benchmarking functionality.
+ * This class extends Benchmark_Rigorous to provide timing-based benchmarking functionality.
+ * Each result is also recorded via BenchmarkResults.
  *
  * @param <K> The type of keys in the BST, which must be comparable.
  * @param <V> The type of values stored in the BST.
  */
-public class BSTBenchmark<K extends Comparable<K>, V> extends Benchmark_Timer<K[]> {
+public class BSTBenchmark<K extends Comparable<K>, V> extends Benchmark_Rigorous<K[]> {
 
     /**
      * The main method serves as the entry point to the program. It logs the benchmarking process
@@ -55,7 +55,10 @@ public class BSTBenchmark<K extends Comparable<K>, V> extends Benchmark_Timer<K[
      * @return the average time in milliseconds for each run during the benchmarking process.
      */
     public double runBenchmark(final Supplier<K[]> supplier) {
-        return runFromSupplier(supplier, nRuns);
+        final BenchmarkResult result = measure(supplier, nRuns);
+        logger.info(result.toString());
+        BenchmarkResults.record(DESCRIPTION, n, result, null);
+        return result.meanMillis();
     }
 
     /**
@@ -69,8 +72,9 @@ public class BSTBenchmark<K extends Comparable<K>, V> extends Benchmark_Timer<K[
      * @param stats       the statistics to be returned.
      */
     public BSTBenchmark(final Class<K> tClass, final BstDetail<K, V> bst, final K[] ks, final int nRuns, final TimeLogger[] timeLoggers, final Stats stats) {
-        super("BST benchmark", createPreProcessor(), createExperiment(bst), createPostProcessor(bst, stats));
+        super(DESCRIPTION, createPreProcessor(), createExperiment(bst), createPostProcessor(bst, stats));
         this.nRuns = nRuns;
+        this.n = ks.length;
     }
 
     /**
@@ -88,7 +92,7 @@ public class BSTBenchmark<K extends Comparable<K>, V> extends Benchmark_Timer<K[
             final double initialSampleFraction = 0.8;
             final double runSampleFraction = 0.2;
             final int nRuns = 1000;
-            final String[] words = getWords(resource, SortBenchmark::getLeipzigWords);
+            final String[] words = Corpus.getLeipzigWords(resource);
             logger.info("creating benchmark with " + x + " words from " + resource);
             final int runSampleSize = (int) (words.length * runSampleFraction);
             logger.info("creating BST with mode " + mode + " and " + words.length + " words");
@@ -223,4 +227,7 @@ public class BSTBenchmark<K extends Comparable<K>, V> extends Benchmark_Timer<K[
     final static LazyLogger logger = new LazyLogger(BSTBenchmark.class);
 
     private final int nRuns;
+    private final int n;
+
+    private static final String DESCRIPTION = "BST benchmark";
 }
\ No newline at end of file
@@ -93,6 +93,50 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
         for (Key k : ks) put(k, map.get(k));
     }
 
+    /**
+     * This implementation of putAllSorted merges the entries of map with the existing entries (in O(n+m) time)
+     * and then replaces the tree by one in which the root of each subtree is the middle of its range of keys.
+     * Where a key is already present, its value is replaced by the value in map.
+     *
+     * @param map a sorted map of key value pairs.
+     */
+    public void putAllSorted(SortedMap<Key, Value> map) {
+        final List<Map.Entry<Key, Value>> entries = BstSupport.mergeSorted(this, map);
+        root = build(entries, 0, entries.size(), 0);
+    }
+
+    /**
+     * Method to iterate lazily over the keys from lo to hi (inclusive) in order.
+     *
+     * @param lo the smallest key of interest.
+     * @param hi the largest key of interest.
+     * @return an Iterable of keys.
+     */
+    public Iterable<Key> range(Key lo, Key hi) {
+        return BstSupport.range(root, lo, hi);
+    }
+
+    /**
+     * Method to yield the number of keys less than the given key.
+     *
+     * @param key the key (which need not be present).
+     * @return the rank of key.
+     */
+    public int rank(Key key) {
+        return BstSupport.rank(root, key);
+    }
+
+    /**
+     * Method to yield the key of the given rank.
+     *
+     * @param k the rank (0 is the smallest key).
+     * @return the key with rank k.
+     * @throws IllegalArgumentException if k is not in the range 0 to size-1.
+     */
+    public Key select(int k) {
+        return BstSupport.select(root, k);
+    }
+
     /**
      * Returns the size of the binary search tree (BST).
      * The size is defined as the total number of nodes in the tree.
@@ -259,7 +303,7 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
     /**
      * Class to represent a node in the BST.
      */
-    class Node {
+    class Node implements BstNode<Key, Node> {
 
         /**
          * Primary Constructor.
@@ -283,6 +327,22 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
         Node larger = null;
         int count;
 
+        public Key key() {
+            return key;
+        }
+
+        public Node smaller() {
+            return smaller;
+        }
+
+        public Node larger() {
+            return larger;
+        }
+
+        public int count() {
+            return count;
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder("Node: " + key + ":" + value + "@" + depth + " with count=" + count);
@@ -473,6 +533,25 @@ public class BSTOptimisedDeletion<Key extends Comparable<Key>, Value> implements
         };
     }
 
+    /**
+     * Build a perfectly balanced subtree from the (sorted) entries from index from (inclusive) to index to (exclusive).
+     *
+     * @param entries the sorted entries.
+     * @param from    the index of the first entry.
+     * @param to      the index following the last entry.
+     * @param depth   the depth of the root of the subtree.
+     * @return the root of the subtree (or null if the range is empty).
+     */
+    private Node build(List<Map.Entry<Key, Value>> entries, int from, int to, int depth) {
+        if (from >= to) return null;
+        final int mid = (from + to) >>> 1;
+        final Node result = new Node(entries.get(mid).getKey(), entries.get(mid).getValue(), depth);
+        result.smaller = build(entries, from, mid, depth + 1);
+        result.larger = build(entries, mid + 1, to, depth + 1);
+        result.count = to - from;
+        return result;
+    }
+
     /**
      * Deletes the smallest node in the subtree rooted at the given node.
      * If the node to remove is found, its replacement is determined and the subtree is restructured accordingly.
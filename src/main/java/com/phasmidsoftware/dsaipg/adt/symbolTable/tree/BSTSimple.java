@@ -40,6 +40,50 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
         for (Key k : ks) put(k, map.get(k));
     }
 
+    /**
+     * This implementation of putAllSorted merges the entries of map with the existing entries (in O(n+m) time)
+     * and then replaces the tree by one in which the root of each subtree is the middle of its range of keys.
+     * Where a key is already present, its value is replaced by the value in map.
+     *
+     * @param map a sorted map of key value pairs.
+     */
+    public void putAllSorted(SortedMap<Key, Value> map) {
+        final List<Map.Entry<Key, Value>> entries = BstSupport.mergeSorted(this, map);
+        root = build(entries, 0, entries.size(), 0);
+    }
+
+    /**
+     * Method to iterate lazily over the keys from lo to hi (inclusive) in order.
+     *
+     * @param lo the smallest key of interest.
+     * @param hi the largest key of interest.
+     * @return an Iterable of keys.
+     */
+    public Iterable<Key> range(Key lo, Key hi) {
+        return BstSupport.range(root, lo, hi);
+    }
+
+    /**
+     * Method to yield the number of keys less than the given key.
+     *
+     * @param key the key (which need not be present).
+     * @return the rank of key.
+     */
+    public int rank(Key key) {
+        return BstSupport.rank(root, key);
+    }
+
+    /**
+     * Method to yield the key of the given rank.
+     *
+     * @param k the rank (0 is the smallest key).
+     * @return the key with rank k.
+     * @throws IllegalArgumentException if k is not in the range 0 to size-1.
+     */
+    public Key select(int k) {
+        return BstSupport.select(root, k);
+    }
+
     /**
      * Returns the number of elements in the Binary Search Tree (BST).
      * If the tree is empty, the size is 0.
@@ -82,7 +126,6 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
     public Value put(Key key, Value value) {
         NodeValue nodeValue = put(root, key, value);
         if (root == null) root = nodeValue.node;
-        if (nodeValue.value == null) root.count++;
         return nodeValue.value;
     }
 
@@ -201,7 +244,11 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
      */
     private NodeValue put(Node node, Key key, Value value) {
         // If node is null, then we return the newly constructed Node, and value=null
-        if (node == null) return new NodeValue(new Node(key, value, 0), null);
+        if (node == null) {
+            final Node result = new Node(key, value, 0);
+            result.count = 1;
+            return new NodeValue(result, null);
+        }
         int cf = key.compareTo(node.key);
         if (cf == 0) {
             // If keys match, then we return the node and its value
@@ -213,8 +260,9 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
             NodeValue result = put(node.smaller, key, value);
             if (node.smaller == null)
                 node.smaller = result.node;
+            // NOTE a new key adds one to the size of each subtree on the path to it.
             if (result.value == null)
-                result.node.count++;
+                node.count++;
             return result;
         } else {
             // if key is greater than node's key, we recursively invoke put in the larger subtree
@@ -222,7 +270,7 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
             if (node.larger == null)
                 node.larger = result.node;
             if (result.value == null)
-                result.node.count++;
+                node.count++;
             return result;
         }
     }
@@ -242,6 +290,25 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
         // END SOLUTION
     }
 
+    /**
+     * Build a perfectly balanced subtree from the (sorted) entries from index from (inclusive) to index to (exclusive).
+     *
+     * @param entries the sorted entries.
+     * @param from    the index of the first entry.
+     * @param to      the index following the last entry.
+     * @param depth   the depth of the root of the subtree.
+     * @return the root of the subtree (or null if the range is empty).
+     */
+    private Node build(List<Map.Entry<Key, Value>> entries, int from, int to, int depth) {
+        if (from >= to) return null;
+        final int mid = (from + to) >>> 1;
+        final Node result = new Node(entries.get(mid).getKey(), entries.get(mid).getValue(), depth);
+        result.smaller = build(entries, from, mid, depth + 1);
+        result.larger = build(entries, mid + 1, to, depth + 1);
+        result.count = to - from;
+        return result;
+    }
+
     /**
      * Removes the smallest node in the subtree rooted at the given node and returns the modified subtree.
      * The smallest node is identified as the leftmost node in the tree, and removing it involves adjusting
@@ -320,7 +387,7 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
      * and larger (right) child nodes. Additional information, such as the count of nodes
      * in its subtree, may also be stored.
      */
-    class Node {
+    class Node implements BstNode<Key, Node> {
         Node(Key key, Value value, int depth) {
             this.key = key;
             this.value = value;
@@ -358,6 +425,22 @@ public class BSTSimple<Key extends Comparable<Key>, Value> implements BstDetail<
         Node larger = null;
         int count = 0;
 
+        public Key key() {
+            return key;
+        }
+
+        public Node smaller() {
+            return smaller;
+        }
+
+        public Node larger() {
+            return larger;
+        }
+
+        public int count() {
+            return count;
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder("Node: " + key + ":" + value);
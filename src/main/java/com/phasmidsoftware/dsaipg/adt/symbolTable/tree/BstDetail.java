@@ -5,6 +5,7 @@
 package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
 
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.function.BiFunction;
 
 /**
@@ -31,6 +32,47 @@ public interface BstDetail<Key extends Comparable<Key>, Value> extends BST<Key,
      */
     void putAll(Map<Key, Value> map);
 
+    /**
+     * Method to put all the entries of map into this BST, which is then rebuilt as a perfectly balanced tree.
+     * The existing entries are kept (but where a key is in both, the value of map prevails).
+     * Since both the entries of this BST (of size n) and those of map (of size m) are already in order,
+     * they are merged in O(n+m) time, with one comparison per step of the merge (and m-1 to check the order of map)
+     * (cf. putAll, which takes O(m log n) and yields a randomly-shaped tree).
+     *
+     * @param map the given map, whose keys must be in their natural order.
+     * @throws IllegalArgumentException if the keys of map are not in (strictly) increasing natural order.
+     */
+    void putAllSorted(SortedMap<Key, Value> map);
+
+    /**
+     * Method to iterate lazily over the keys from lo to hi (inclusive) in order.
+     * Only the O(log n + k) nodes which are on the paths to lo and hi, or in the range, are visited,
+     * and the iteration may be abandoned at any point.
+     *
+     * @param lo the smallest key of interest.
+     * @param hi the largest key of interest.
+     * @return an Iterable of keys.
+     */
+    Iterable<Key> range(Key lo, Key hi);
+
+    /**
+     * Method to yield the number of keys less than the given key (which need not be present).
+     * This takes time proportional to the depth of the tree, as each node knows the size of its subtree.
+     *
+     * @param key the key.
+     * @return the rank of key.
+     */
+    int rank(Key key);
+
+    /**
+     * Method to yield the key of the given rank.
+     *
+     * @param k the rank (0 is the smallest key).
+     * @return the key such that there are exactly k smaller keys.
+     * @throws IllegalArgumentException if k is not in the range 0 to size-1.
+     */
+    Key select(int k);
+
     /**
      * Method to visit all keys based on the inorder form of traverse.
      * CONSIDER returning a Map of key-value pairs.
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+/**
+ * A (read-only) view of a node of a binary search tree in which each node knows the size of its subtree.
+ * It allows the order-statistic and range operations of BstSupport to be shared by BSTSimple and BSTOptimisedDeletion.
+ *
+ * @param <Key> the type of keys.
+ * @param <N>   the type of the node itself.
+ */
+interface BstNode<Key, N extends BstNode<Key, N>> {
+    /**
+     * @return the key of this node.
+     */
+    Key key();
+
+    /**
+     * @return the root of the subtree of smaller keys (or null).
+     */
+    N smaller();
+
+    /**
+     * @return the root of the subtree of larger keys (or null).
+     */
+    N larger();
+
+    /**
+     * @return the number of nodes in the subtree rooted at this node.
+     */
+    int count();
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
+
+import java.util.*;
+
+/**
+ * Static methods shared by the implementations of BstDetail (BSTSimple and BSTOptimisedDeletion):
+ * the merge of a sorted map with the entries of a tree (for putAllSorted), rank, select and lazy range iteration.
+ */
+final class BstSupport {
+
+    /**
+     * Merge the entries of bst (in order) with the entries of map, in O(n+m) time.
+     * Where a key is in both, the entry of map prevails.
+     *
+     * @param bst the tree.
+     * @param map a map whose keys are in their natural order.
+     * @return the merged entries, in order.
+     * @throws IllegalArgumentException if the keys of map are not in (strictly) increasing natural order.
+     */
+    static <Key extends Comparable<Key>, Value> List<Map.Entry<Key, Value>> mergeSorted(BstDetail<Key, Value> bst, SortedMap<Key, Value> map) {
+        final List<Map.Entry<Key, Value>> entries = new ArrayList<>(map.entrySet());
+        for (int i = 1; i < entries.size(); i++)
+            if (entries.get(i - 1).getKey().compareTo(entries.get(i).getKey()) >= 0)
+                throw new IllegalArgumentException("putAllSorted: keys are not in natural order: " + entries.get(i - 1).getKey() + ", " + entries.get(i).getKey());
+        final List<Map.Entry<Key, Value>> existing = new ArrayList<>(bst.size());
+        bst.inOrderTraverse((k, v) -> {
+            existing.add(new AbstractMap.SimpleImmutableEntry<>(k, v));
+            return null;
+        });
+        final List<Map.Entry<Key, Value>> result = new ArrayList<>(existing.size() + entries.size());
+        int i = 0, j = 0;
+        while (i < existing.size() && j < entries.size()) {
+            final int cf = existing.get(i).getKey().compareTo(entries.get(j).getKey());
+            if (cf < 0) result.add(existing.get(i++));
+            else {
+                if (cf == 0) i++;
+                result.add(entries.get(j++));
+            }
+        }
+        while (i < existing.size()) result.add(existing.get(i++));
+        while (j < entries.size()) result.add(entries.get(j++));
+        return result;
+    }
+
+    /**
+     * @param node a node (or null).
+     * @return the (recorded) size of the subtree rooted at node, or zero if node is null.
+     */
+    static int count(BstNode<?, ?> node) {
+        return node != null ? node.count() : 0;
+    }
+
+    /**
+     * Method to yield the number of keys less than the given key, in time proportional to the depth of the tree.
+     *
+     * @param root the root of the tree (or null).
+     * @param key  the key (which need not be present).
+     * @return the rank of key.
+     */
+    static <Key extends Comparable<Key>, N extends BstNode<Key, N>> int rank(N root, Key key) {
+        int result = 0;
+        for (N x = root; x != null; ) {
+            final int cf = key.compareTo(x.key());
+            if (cf < 0) x = x.smaller();
+            else {
+                result += count(x.smaller());
+                if (cf == 0) return result;
+                result++;
+                x = x.larger();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield the key of the given rank, in time proportional to the depth of the tree.
+     *
+     * @param root the root of the tree (or null).
+     * @param k    the rank (0 is the smallest key).
+     * @return the key with rank k.
+     * @throws IllegalArgumentException if k is not in the range 0 to size-1.
+     */
+    static <Key, N extends BstNode<Key, N>> Key select(N root, int k) {
+        if (k < 0 || k >= count(root)) throw new IllegalArgumentException("select: rank out of range: " + k);
+        for (N x = root; ; ) {
+            final int smaller = count(x.smaller());
+            if (k < smaller) x = x.smaller();
+            else if (k == smaller) return x.key();
+            else {
+                k -= smaller + 1;
+                x = x.larger();
+            }
+        }
+    }
+
+    /**
+     * Method to iterate lazily over the keys from lo to hi (inclusive) in order.
+     *
+     * @param root the root of the tree (or null).
+     * @param lo   the smallest key of interest.
+     * @param hi   the largest key of interest.
+     * @return an Iterable of keys.
+     */
+    static <Key extends Comparable<Key>, N extends BstNode<Key, N>> Iterable<Key> range(N root, Key lo, Key hi) {
+        return () -> new RangeIterator<>(root, lo, hi);
+    }
+
+    /**
+     * Iterator over the keys from lo to hi which holds (on a stack) those nodes on the path to the next key whose keys are yet to be visited.
+     */
+    private static class RangeIterator<Key extends Comparable<Key>, N extends BstNode<Key, N>> implements Iterator<Key> {
+        RangeIterator(N root, Key lo, Key hi) {
+            this.hi = hi;
+            // NOTE the nodes whose keys are less than lo (and their smaller subtrees) are never pushed.
+            for (N x = root; x != null; )
+                if (x.key().compareTo(lo) < 0) x = x.larger();
+                else {
+                    stack.push(x);
+                    x = x.smaller();
+                }
+        }
+
+        public boolean hasNext() {
+            return !stack.isEmpty() && stack.peek().key().compareTo(hi) <= 0;
+        }
+
+        public Key next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            final N result = stack.pop();
+            for (N x = result.larger(); x != null; x = x.smaller()) stack.push(x);
+            return result.key();
+        }
+
+        private final Key hi;
+        private final Deque<N> stack = new ArrayDeque<>();
+    }
+
+    private BstSupport() {
+    }
+}
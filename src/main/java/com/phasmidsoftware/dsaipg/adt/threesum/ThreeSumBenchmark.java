@@ -4,7 +4,10 @@
 
 package com.phasmidsoftware.dsaipg.adt.threesum;
 
-import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.BenchmarkResult;
+import com.phasmidsoftware.dsaipg.util.BenchmarkResults;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Rigorous;
+import com.phasmidsoftware.dsaipg.util.ComplexityFit;
 import com.phasmidsoftware.dsaipg.util.TimeLogger;
 import com.phasmidsoftware.dsaipg.util.Utilities;
 
@@ -85,6 +88,27 @@ public class ThreeSumBenchmark {
         new ThreeSumBenchmark(5, 4000, 4000).runBenchmarks();
         new ThreeSumBenchmark(3, 8000, 8000).runBenchmarks();
         new ThreeSumBenchmark(2, 16000, 16000).runBenchmarks();
+        validateScaling("ThreeSumQuadratic", (xs) -> new ThreeSumQuadratic(xs).getTriples(), 250, 6, 10, ComplexityFit.Model.QUADRATIC);
+        validateScaling("ThreeSumQuadrithmic", (xs) -> new ThreeSumQuadrithmic(xs).getTriples(), 250, 6, 10, ComplexityFit.Model.QUADRITHMIC);
+        validateScaling("ThreeSumCubic", (xs) -> new ThreeSumCubic(xs).getTriples(), 125, 5, 5, ComplexityFit.Model.CUBIC);
+    }
+
+    /**
+     * Run a Three-Sum implementation over a doubling series of N, fit the mean times to the candidate models,
+     * and check that the empirical exponent is consistent with the claimed order of growth.
+     *
+     * @param description a textual description of the Three-Sum algorithm.
+     * @param function    the implementation of the Three-Sum algorithm.
+     * @param start       the first value of N (the values of the integers range from -N through N-1).
+     * @param steps       the number of values of N.
+     * @param runs        the number of runs for each N.
+     * @param claim       the claimed order of growth.
+     * @return the ComplexityFit.
+     */
+    static ComplexityFit validateScaling(final String description, final Consumer<int[]> function, int start, int steps, int runs, ComplexityFit.Model claim) {
+        final ComplexityFit fit = ComplexityFit.doubling(start, steps, n -> new Benchmark_Rigorous<>(description, function).measure(new Source(n, n).intsSupplier(10), runs).mean());
+        fit.validate(description, claim, TOLERANCE);
+        return fit;
     }
 
     /**
@@ -102,8 +126,9 @@ public class ThreeSumBenchmark {
      */
     private void benchmarkThreeSum(final String description, final Consumer<int[]> function, int n, final TimeLogger[] timeLoggers) {
         if (description.equals("ThreeSumCubic") && n > 4000) return;
-        // TO BE IMPLEMENTED 
-throw new RuntimeException("implementation missing");
+        final BenchmarkResult result = new Benchmark_Rigorous<>(description, function).measure(supplier, runs);
+        for (TimeLogger timeLogger : timeLoggers) timeLogger.log(description, result.meanMillis(), n);
+        BenchmarkResults.record(description, n, result, null);
     }
 
     /**
@@ -146,6 +171,11 @@ throw new RuntimeException("implementation missing");
             new TimeLogger("Normalized time per run (n^2): ", n -> 1.0 / 2 * n * n)
     };
 
+    /**
+     * The tolerance of the empirical exponent when validating scaling (see ComplexityFit.isConsistentWith).
+     */
+    private final static double TOLERANCE = 0.25;
+
     private final int runs;
     private final Supplier<int[]> supplier;
     private final int n;
@@ -4,14 +4,22 @@
 
 package com.phasmidsoftware.dsaipg.graphs.gis;
 
+import com.phasmidsoftware.dsaipg.adt.pq.IndexPriorityQueue;
 import com.phasmidsoftware.dsaipg.graphs.dag.DiGraph;
 import com.phasmidsoftware.dsaipg.graphs.dag.Edge;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Stack;
-
+import java.util.*;
+
+/**
+ * Class to find the shortest paths from a start vertex to all the other vertices of a directed graph (with non-negative weights),
+ * using Dijkstra's algorithm.
+ * <p>
+ * Each vertex is given a dense id when it is first reached, so that the frontier can be an IndexPriorityQueue of costs:
+ * when a shorter path to a vertex is found, its cost is decreased in O(log V) time, so that the whole takes O(E log V).
+ *
+ * @param <V> the vertex type.
+ * @param <E> the edge attribute (weight) type.
+ */
 public class ShortestPaths<V, E extends Number> {
     public ShortestPaths(DiGraph<V, E> graph, V start) {
         this.graph = graph;
@@ -28,11 +36,19 @@ public class ShortestPaths<V, E extends Number> {
         return table.containsKey(v);
     }
 
+    /**
+     * Method to yield the edges of the shortest path from start to target.
+     * NOTE: the path is traced backwards from target, so each edge is pushed onto the front of a Deque,
+     * in order that the edges are iterated from start to target.
+     *
+     * @param target the target vertex.
+     * @return the edges of the path, in order from start (empty if there is no path).
+     */
     public Iterable<Edge<V, E>> pathTo(V target) {
-        Stack<Edge<V, E>> edges = new Stack<>();
+        Deque<Edge<V, E>> edges = new ArrayDeque<>();
         if (hasPathTo(target)) {
             V v = target;
-            for (Vertex vertex = table.get(v); vertex.edgeTo != null; ) {
+            for (Vertex vertex = table.get(v); vertex.edgeTo != null; vertex = table.get(v)) {
                 Edge<V, E> edgeTo = vertex.edgeTo;
                 if (edgeTo.getTo() != v) throw new RuntimeException("assertion error");
                 edges.push(edgeTo);
@@ -51,23 +67,31 @@ public class ShortestPaths<V, E extends Number> {
 
     private Map<V, Vertex> dijkstra() {
         Map<V, Vertex> result = new HashMap<>();
-        PriorityQueue<V> pq = new PriorityQueue<>();
-        pq.offer(start);
-        result.put(start, new Vertex(start, 0, null));
-        while (!pq.isEmpty()) relax(graph, pq.poll(), result, pq);
+        // NOTE vertices.get(id) is the Vertex whose id is id.
+        List<Vertex> vertices = new ArrayList<>();
+        IndexPriorityQueue<Double> pq = new IndexPriorityQueue<>(16, Comparator.naturalOrder());
+        Vertex vertexStart = new Vertex(start, 0, null, 0);
+        vertices.add(vertexStart);
+        result.put(start, vertexStart);
+        pq.insert(vertexStart.id, vertexStart.cost);
+        while (!pq.isEmpty()) relax(graph, vertices.get(pq.delMin()), result, vertices, pq);
         return result;
     }
 
-    private void relax(DiGraph<V, E> graph, V vertex, Map<V, Vertex> table, PriorityQueue<V> pq) {
-        for (Edge<V, E> e : graph.adjacent(vertex)) {
+    private void relax(DiGraph<V, E> graph, Vertex vertex, Map<V, Vertex> table, List<Vertex> vertices, IndexPriorityQueue<Double> pq) {
+        for (Edge<V, E> e : graph.adjacent(vertex.vertex)) {
             V w = e.getTo();
-            Vertex vertexW = table.getOrDefault(w, new Vertex(w));
-            table.put(w, vertexW);
-            double relaxedCost = table.get(e.getFrom()).cost + e.getAttributes().doubleValue();
+            Vertex vertexW = table.get(w);
+            if (vertexW == null) {
+                vertexW = new Vertex(w, Double.POSITIVE_INFINITY, null, vertices.size());
+                vertices.add(vertexW);
+                table.put(w, vertexW);
+            }
+            double relaxedCost = vertex.cost + e.getAttributes().doubleValue();
             if (vertexW.cost > relaxedCost) {
                 vertexW.relax(relaxedCost, e);
-                pq.remove(w);
-                pq.offer(w);
+                if (pq.contains(vertexW.id)) pq.decreaseKey(vertexW.id, relaxedCost);
+                else pq.insert(vertexW.id, relaxedCost);
             }
         }
     }
@@ -87,14 +111,15 @@ public class ShortestPaths<V, E extends Number> {
             this.edgeTo = edgeTo;
         }
 
-        public Vertex(V vertex, double cost, Edge<V, E> edgeTo) {
+        public Vertex(V vertex, double cost, Edge<V, E> edgeTo, int id) {
             this.vertex = vertex;
             this.cost = cost;
             this.edgeTo = edgeTo;
+            this.id = id;
         }
 
         public Vertex(V vertex) {
-            this(vertex, Double.POSITIVE_INFINITY, null);
+            this(vertex, Double.POSITIVE_INFINITY, null, -1);
         }
 
         @Override
@@ -106,6 +131,7 @@ public class ShortestPaths<V, E extends Number> {
         }
 
         private final V vertex;
+        private final int id; // the dense id of this vertex (or -1 if it has not been reached)
         private double cost;
         private Edge<V, E> edgeTo;
     }
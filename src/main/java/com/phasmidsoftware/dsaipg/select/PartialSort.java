@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.select;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The PartialSort class yields the k smallest (or largest) elements of an array in sorted order,
+ * or, more generally, the elements whose ranks lie in a given range, without sorting the whole array.
+ * <p>
+ * There are three modes:
+ * <dl>
+ *     <dt>HEAP</dt>
+ *     <dd>a single pass over the array maintains a bounded max-heap of the best k elements so far (see TopK),
+ *     so that most elements are rejected by one comparison with the root. This takes O(n log k) time and O(k) space,
+ *     does not modify the array, and is best when k is small. TopK may also be used directly on a stream of elements.</dd>
+ *     <dt>INTROSELECT</dt>
+ *     <dd>a partial quicksort (median-of-three, three-way partitioning) which only recurses into partitions
+ *     which overlap the range of ranks required: this takes O(n + k log k) time on average.
+ *     As in introsort, if the recursion becomes too deep, the current partition is simply sorted.
+ *     The array is permuted (as by QuickSelect).</dd>
+ *     <dt>PARALLEL</dt>
+ *     <dd>the array is divided into one chunk per thread of the ForkJoinPool; the best elements of each chunk are
+ *     found (in place) by the INTROSELECT method in parallel; and the sorted results of the chunks are then merged.
+ *     The array is permuted.</dd>
+ * </dl>
+ * In AUTO mode (the default), the mode is chosen according to the size of the array and the number of elements required.
+ *
+ * @param <X> the type of elements in the array, which must implement the Comparable interface.
+ */
+public class PartialSort<X extends Comparable<X>> implements Select<X> {
+
+    /**
+     * The method by which the elements are selected.
+     */
+    public enum Mode {AUTO, HEAP, INTROSELECT, PARALLEL}
+
+    /**
+     * Selects the k-th smallest element from the given array.
+     *
+     * @param xs the input array (which may be permuted, according to the mode).
+     * @param k  the index (0-based) of the smallest element to find; must be between 0 and xs.length - 1.
+     * @return the k-th smallest element in the input array.
+     * @throws IllegalArgumentException if the value of k is out of the valid range.
+     */
+    public X select(X[] xs, int k) {
+        if (k < 0 || k >= xs.length) throw new IllegalArgumentException("k must be between 0 and " + (xs.length - 1));
+        return range(xs, k, k + 1)[0];
+    }
+
+    /**
+     * Method to yield the k smallest elements, in ascending order.
+     *
+     * @param xs the input array (which may be permuted, according to the mode).
+     * @param k  the number of elements required (between 0 and xs.length).
+     * @return a new array of the k smallest elements of xs, in ascending order.
+     */
+    public X[] smallest(X[] xs, int k) {
+        return range(xs, 0, k);
+    }
+
+    /**
+     * Method to yield the k largest elements, in descending order.
+     *
+     * @param xs the input array (which may be permuted, according to the mode).
+     * @param k  the number of elements required (between 0 and xs.length).
+     * @return a new array of the k largest elements of xs, in descending order.
+     */
+    public X[] largest(X[] xs, int k) {
+        return range(xs, 0, k, Comparator.reverseOrder());
+    }
+
+    /**
+     * Method to yield the elements whose (0-based) ranks are in the range [from, to), in ascending order.
+     *
+     * @param xs   the input array (which may be permuted, according to the mode).
+     * @param from the lowest rank required.
+     * @param to   one more than the highest rank required.
+     * @return a new array of to-from elements, such that the i-th element is the (from+i)-th smallest element of xs.
+     */
+    public X[] range(X[] xs, int from, int to) {
+        return range(xs, from, to, Comparator.naturalOrder());
+    }
+
+    /**
+     * @param n the number of elements in the array.
+     * @param k the number of (best) elements which must be found.
+     * @return the mode which will actually be used for these values (this is the mode of this PartialSort unless that is AUTO).
+     */
+    public Mode getMode(int n, int k) {
+        if (mode != Mode.AUTO) return mode;
+        if (k <= HEAP_MAXIMUM && (long) k * HEAP_RATIO <= n) return Mode.HEAP;
+        if (pool != null && n >= PARALLEL_THRESHOLD && (long) k * pool.getParallelism() * 4 <= n) return Mode.PARALLEL;
+        return Mode.INTROSELECT;
+    }
+
+    /**
+     * Bounded heap which retains the k best (i.e. smallest, according to the comparator) of the elements offered to it.
+     * Once it is full, an element which is no better than the worst of the retained elements (the root) is rejected in O(1).
+     *
+     * @param <X> the type of the elements.
+     */
+    public static class TopK<X> {
+        /**
+         * Constructor for a TopK.
+         *
+         * @param k          the number of elements to retain.
+         * @param comparator the ordering (the smallest elements are retained).
+         */
+        public TopK(int k, Comparator<? super X> comparator) {
+            if (k < 0) throw new IllegalArgumentException("k must not be negative");
+            this.k = k;
+            this.comparator = comparator;
+            this.heap = new Object[k];
+        }
+
+        /**
+         * Offer an element.
+         *
+         * @param x the element.
+         * @return true if x is (for now) retained.
+         */
+        public boolean offer(X x) {
+            if (size < k) {
+                heap[size] = x;
+                swim(size++);
+                return true;
+            }
+            if (k == 0 || comparator.compare(x, root()) >= 0) return false;
+            heap[0] = x;
+            sink(0);
+            return true;
+        }
+
+        /**
+         * @return the number of elements retained.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Method to yield the retained elements, in order.
+         *
+         * @param template an array whose type is used for the result.
+         * @return a new array of the retained elements.
+         */
+        public X[] toSortedArray(X[] template) {
+            @SuppressWarnings("unchecked") final X[] result = (X[]) Arrays.copyOf(heap, size, template.getClass());
+            Arrays.sort(result, comparator);
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private X root() {
+            return (X) heap[0];
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean less(int i, int j) {
+            return comparator.compare((X) heap[i], (X) heap[j]) < 0;
+        }
+
+        private void swap(int i, int j) {
+            final Object temp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = temp;
+        }
+
+        // NOTE this is a max-heap (according to the comparator) so that the worst retained element is at the root.
+        private void swim(int i) {
+            while (i > 0 && less((i - 1) / 2, i)) {
+                swap(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        private void sink(int i) {
+            while (2 * i + 1 < size) {
+                int j = 2 * i + 1;
+                if (j + 1 < size && less(j, j + 1)) j++;
+                if (!less(i, j)) break;
+                swap(i, j);
+                i = j;
+            }
+        }
+
+        private final int k;
+        private final Comparator<? super X> comparator;
+        private final Object[] heap;
+        private int size;
+    }
+
+    /**
+     * Constructor for a PartialSort.
+     *
+     * @param mode the mode.
+     * @param pool the pool on which the chunks are processed in PARALLEL mode (if null, PARALLEL mode behaves as INTROSELECT).
+     */
+    public PartialSort(Mode mode, ForkJoinPool pool) {
+        this.mode = mode;
+        this.pool = pool;
+    }
+
+    /**
+     * Constructor for a PartialSort which uses the common ForkJoinPool.
+     *
+     * @param mode the mode.
+     */
+    public PartialSort(Mode mode) {
+        this(mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a PartialSort in AUTO mode.
+     */
+    public PartialSort() {
+        this(Mode.AUTO);
+    }
+
+    private X[] range(X[] xs, int from, int to, Comparator<? super X> comparator) {
+        final int n = xs.length;
+        if (from < 0 || from > to || to > n)
+            throw new IllegalArgumentException("invalid range of ranks: [" + from + ", " + to + ") for " + n + " elements");
+        if (from == to) return Arrays.copyOf(xs, 0);
+        switch (getMode(n, to)) {
+            case HEAP:
+                final TopK<X> topK = new TopK<>(to, comparator);
+                for (X x : xs) topK.offer(x);
+                return Arrays.copyOfRange(topK.toSortedArray(xs), from, to);
+            case PARALLEL:
+                if (pool != null) return parallelRange(xs, from, to, comparator);
+                // NOTE without a pool, a parallel partial sort is done sequentially.
+                partialSort(xs, 0, n, from, to, comparator);
+                return Arrays.copyOfRange(xs, from, to);
+            default:
+                partialSort(xs, 0, n, from, to, comparator);
+                return Arrays.copyOfRange(xs, from, to);
+        }
+    }
+
+    private X[] parallelRange(X[] xs, int from, int to, Comparator<? super X> comparator) {
+        final int n = xs.length;
+        final int chunks = Math.max(1, Math.min(pool.getParallelism(), n / Math.max(to, 1)));
+        final int size = (n + chunks - 1) / chunks;
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int lo = 0; lo < n; lo += size) {
+            final int chunkFrom = lo, chunkTo = Math.min(lo + size, n);
+            tasks.add(() -> {
+                partialSort(xs, chunkFrom, chunkTo, chunkFrom, Math.min(chunkFrom + to, chunkTo), comparator);
+                return null;
+            });
+        }
+        pool.invokeAll(tasks);
+        // NOTE the best elements of each chunk are now (sorted) at the start of the chunk: merge them.
+        final int m = tasks.size();
+        final int[] positions = new int[m];
+        final int[] ends = new int[m];
+        final PriorityQueue<Integer> heads = new PriorityQueue<>(m, (i, j) -> comparator.compare(xs[positions[i]], xs[positions[j]]));
+        for (int i = 0; i < m; i++) {
+            positions[i] = i * size;
+            ends[i] = Math.min(i * size + to, Math.min((i + 1) * size, n));
+            heads.add(i);
+        }
+        final X[] result = Arrays.copyOf(xs, to - from);
+        for (int r = 0; r < to; r++) {
+            final int i = heads.remove();
+            if (r >= from) result[r - from] = xs[positions[i]];
+            if (++positions[i] < ends[i]) heads.add(i);
+        }
+        return result;
+    }
+
+    /**
+     * Method to partially sort xs[lo, hi) such that the elements xs[a, b) are the same as they would be after a full sort.
+     */
+    static <X> void partialSort(X[] xs, int lo, int hi, int a, int b, Comparator<? super X> comparator) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(hi - lo));
+        while (hi - lo > INSERTION_CUTOFF) {
+            if (depth-- == 0) {
+                Arrays.sort(xs, lo, hi, comparator);
+                return;
+            }
+            medianOfThree(xs, lo, hi, comparator);
+            // NOTE Dijkstra's three-way partition: [lo, lt) < p; [lt, gt) == p; [gt, hi) > p.
+            final X p = xs[lo];
+            int lt = lo, i = lo + 1, gt = hi;
+            while (i < gt) {
+                final int cf = comparator.compare(xs[i], p);
+                if (cf < 0) swap(xs, lt++, i++);
+                else if (cf > 0) swap(xs, i, --gt);
+                else i++;
+            }
+            final boolean left = a < lt, right = b > gt;
+            if (left && right) {
+                // NOTE recurse on the smaller side and iterate on the larger.
+                if (lt - lo < hi - gt) {
+                    partialSort(xs, lo, lt, a, b, comparator);
+                    lo = gt;
+                } else {
+                    partialSort(xs, gt, hi, a, b, comparator);
+                    hi = lt;
+                }
+            } else if (left) hi = lt;
+            else if (right) lo = gt;
+            else return;
+        }
+        for (int i = lo + 1; i < hi; i++)
+            for (int j = i; j > lo && comparator.compare(xs[j], xs[j - 1]) < 0; j--) swap(xs, j, j - 1);
+    }
+
+    private static <X> void medianOfThree(X[] xs, int lo, int hi, Comparator<? super X> comparator) {
+        final int mid = (lo + hi) >>> 1, last = hi - 1;
+        if (comparator.compare(xs[mid], xs[lo]) < 0) swap(xs, mid, lo);
+        if (comparator.compare(xs[last], xs[mid]) < 0) {
+            swap(xs, last, mid);
+            if (comparator.compare(xs[mid], xs[lo]) < 0) swap(xs, mid, lo);
+        }
+        swap(xs, lo, mid);
+    }
+
+    private static void swap(Object[] xs, int i, int j) {
+        final Object temp = xs[i];
+        xs[i] = xs[j];
+        xs[j] = temp;
+    }
+
+    /**
+     * In AUTO mode, HEAP is used only if k is no greater than this...
+     */
+    static final int HEAP_MAXIMUM = 1024;
+
+    /**
+     * ...and n is at least this many times k.
+     */
+    static final int HEAP_RATIO = 64;
+
+    /**
+     * In AUTO mode, PARALLEL is used only for arrays at least this long.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private static final int INSERTION_CUTOFF = 16;
+
+    private final Mode mode;
+    private final ForkJoinPool pool;
+}
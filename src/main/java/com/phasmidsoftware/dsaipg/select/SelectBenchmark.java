@@ -6,8 +6,9 @@ package com.phasmidsoftware.dsaipg.select;
 
 import com.phasmidsoftware.dsaipg.sort.Helper;
 import com.phasmidsoftware.dsaipg.sort.NonInstrumentingComparableHelper;
-import com.phasmidsoftware.dsaipg.util.Benchmark;
-import com.phasmidsoftware.dsaipg.util.Benchmark_Timer;
+import com.phasmidsoftware.dsaipg.util.BenchmarkResult;
+import com.phasmidsoftware.dsaipg.util.BenchmarkResults;
+import com.phasmidsoftware.dsaipg.util.Benchmark_Rigorous;
 import com.phasmidsoftware.dsaipg.util.Config;
 import org.jetbrains.annotations.NotNull;
 
@@ -18,6 +19,7 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -58,10 +60,38 @@ public class SelectBenchmark {
         System.out.println("SelectBenchmark: N=" + N);
         Config config = Config.load(SelectBenchmark.class);
         try (Helper<Integer> helper = new NonInstrumentingComparableHelper<>("SelectBenchmark", N, config)) {
-            return quickAndSlowBenchmarks(helper, N);
+            return quickAndSlowBenchmarks(helper, N) + partialSortBenchmarks(helper, N);
         }
     }
 
+    /**
+     * Executes a set of benchmarks to compare the ways of obtaining the k smallest elements (in order) of a random array:
+     * a full sort (the baseline), and PartialSort in each of its HEAP, INTROSELECT and PARALLEL modes.
+     * Each is run for a small k (10) and for a large k (N/10).
+     *
+     * @param helper a helper object used to create input data for the benchmarks.
+     * @param N      the size of the array to be generated and used in the benchmarks.
+     * @return a formatted string containing the benchmark results.
+     */
+    @NotNull
+    private String partialSortBenchmarks(Helper<Integer> helper, int N) {
+        helper.init(N);
+        StringBuilder sb = new StringBuilder();
+        Supplier<Integer[]> supplier = () -> helper.random(Integer.class, Random::nextInt);
+        for (int k : new int[]{Math.min(10, N), N / 10}) {
+            sb.append(resultMessage("FullSort k=" + k + ",random", doBenchmark("FullSort", xs -> {
+                Arrays.sort(xs);
+                Arrays.copyOf(xs, k);
+            }, supplier, runs), N));
+            for (PartialSort.Mode mode : new PartialSort.Mode[]{PartialSort.Mode.HEAP, PartialSort.Mode.INTROSELECT, PartialSort.Mode.PARALLEL}) {
+                PartialSort<Integer> partialSort = new PartialSort<>(mode);
+                String description = "PartialSort/" + mode + " k=" + k;
+                sb.append(resultMessage(description + ",random", doBenchmark(description, xs -> partialSort.smallest(xs, k), supplier, runs), N));
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Executes a set of benchmarks to compare the performance of QuickSelect and SlowSelect
      * algorithms under different types of input data: random, ordered, partially-ordered,
@@ -114,34 +144,49 @@ public class SelectBenchmark {
     /**
      * Generates a formatted result message consisting of the input string, a specific class-level field value,
      * and the provided numeric values.
+     * The result is also recorded via BenchmarkResults.
      *
-     * @param s the input string to include in the result message.
-     * @param d a double value to include in the result message.
-     * @param n an integer value to include in the result message.
+     * @param s      the input string (method and array-ordering) to include in the result message.
+     * @param result the result of the benchmark.
+     * @param n      an integer value to include in the result message.
      * @return a formatted string that combines the inputs along with a class-level field value.
      */
-    private String resultMessage(String s, double d, int n) {
-        return s + "," + runs + "," + n + "," + d + "\n";
+    private String resultMessage(String s, BenchmarkResult result, int n) {
+        BenchmarkResults.record(s.replace(',', '/'), n, result, null);
+        return s + "," + runs + "," + n + "," + result.meanMillis() + "\n";
     }
 
     /**
-     * Executes a benchmark for a selection algorithm and computes the average execution time.
+     * Executes a benchmark for a selection algorithm and measures the distribution of its execution times.
      *
      * @param description a brief description of the benchmark or the algorithm being tested.
      * @param select the selection algorithm that implements the Select interface, used to find the k-th smallest element.
      * @param k the index (0-based) of the k-th smallest element to find in the arrays generated during benchmarking.
      * @param supplier a supplier that generates input arrays for the benchmark.
      * @param runs the number of times the benchmark will execute to compute the average time.
-     * @return the average execution time of the benchmark in milliseconds.
+     * @return the result of the benchmark.
+     */
+    private static BenchmarkResult doBenchmark(String description, Select<Integer> select, int k, Supplier<Integer[]> supplier, final int runs) {
+        return doBenchmark(description, (xs) -> select.select(xs, k), supplier, runs);
+    }
+
+    /**
+     * Executes a benchmark for a function which operates on (a copy of) each generated array.
+     *
+     * @param description a brief description of the benchmark.
+     * @param function    the function to be benchmarked.
+     * @param supplier    a supplier that generates input arrays for the benchmark.
+     * @param runs        the number of times the benchmark will execute.
+     * @return the result of the benchmark.
      */
-    private static double doBenchmark(String description, Select<Integer> select, int k, Supplier<Integer[]> supplier, final int runs) {
-        final Benchmark<Integer[]> benchmark = new Benchmark_Timer<>(
+    private static BenchmarkResult doBenchmark(String description, Consumer<Integer[]> function, Supplier<Integer[]> supplier, final int runs) {
+        final Benchmark_Rigorous<Integer[]> benchmark = new Benchmark_Rigorous<>(
                 description,
                 (xs) -> Arrays.copyOf(xs, xs.length),
-                (xs) -> select.select(xs, k),
+                function,
                 null
         );
-        return benchmark.runFromSupplier(supplier, runs);
+        return benchmark.measure(supplier, runs);
     }
 
     /**
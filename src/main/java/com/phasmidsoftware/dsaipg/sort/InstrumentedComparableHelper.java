@@ -58,11 +58,11 @@ public class InstrumentedComparableHelper<X extends Comparable<X>> extends Instr
      * @param config      the configuration.
      */
     public InstrumentedComparableHelper(String description, int n, long seed, int nRuns, Config config) {
-        this(description, n, new Random(seed), nRuns, new Instrumenter(config), config);
+        this(description, n, new Random(seed), nRuns, SamplingInstrumenter.create(config), config);
     }
 
     public InstrumentedComparableHelper(String description, int nElements, long seed, Config config) {
-        this(description, nElements, new Random(seed), getRunsConfig(config), new Instrumenter(config), config);
+        this(description, nElements, new Random(seed), getRunsConfig(config), SamplingInstrumenter.create(config), config);
     }
 
     /**
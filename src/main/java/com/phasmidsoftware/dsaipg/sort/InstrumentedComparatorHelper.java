@@ -4,7 +4,6 @@
 
 package com.phasmidsoftware.dsaipg.sort;
 
-import com.phasmidsoftware.dsaipg.sort.elementary.InsertionSortComparator;
 import com.phasmidsoftware.dsaipg.util.Config;
 import com.phasmidsoftware.dsaipg.util.LazyLogger;
 
@@ -171,13 +170,13 @@ public class InstrumentedComparatorHelper<X> extends BaseComparatorHelper<X> {
     }
 
     /**
-     * Count the number of inversions of this array.
+     * Count the number of inversions of this array (in linearithmic time, on a copy of xs).
      *
      * @param xs an array of Xs.
      * @return the number of inversions.
      */
     public long inversions(X[] xs) {
-        return InsertionSortComparator.countInversions(xs, getComparator());
+        return Inversions.count(xs, getComparator());
     }
 
     /**
@@ -409,7 +408,7 @@ public class InstrumentedComparatorHelper<X> extends BaseComparatorHelper<X> {
      */
     public X[] preProcess(X[] xs) {
         final X[] result = super.preProcess(xs);
-        // NOTE: because counting inversions is so slow, we only do if for a (configured) number of samples.
+        // NOTE: although counting inversions is linearithmic, we only do it for a (configured) number of samples.
         if (countInversions-- > 0) {
             if (instrumenter.getStatPack() != null)
                 instrumenter.getStatPack().add(Instrumenter.INVERSIONS, inversions(result));
@@ -504,11 +503,11 @@ public class InstrumentedComparatorHelper<X> extends BaseComparatorHelper<X> {
      * @param config      the configuration.
      */
     public InstrumentedComparatorHelper(String description, Comparator<X> comparator, int n, long seed, int nRuns, Config config) {
-        this(description, comparator, n, new Random(seed), nRuns, new Instrumenter(config), config);
+        this(description, comparator, n, new Random(seed), nRuns, SamplingInstrumenter.create(config), config);
     }
 
     public InstrumentedComparatorHelper(String description, Comparator<X> comparator, int nElements, long seed, Config config) {
-        this(description, comparator, nElements, new Random(seed), getRunsConfig(config), new Instrumenter(config), config);
+        this(description, comparator, nElements, new Random(seed), getRunsConfig(config), SamplingInstrumenter.create(config), config);
     }
 
     /**
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Utilities for counting inversions in linearithmic time.
+ * <p>
+ * An inversion is a pair of indices i &lt; j such that xs[j] is strictly less than xs[i].
+ * Equal elements do not form an inversion, so the counts agree with the number of fixes made by insertion sort
+ * (see InsertionSortComparator.countInversions, which takes quadratic time).
+ * <p>
+ * The array passed in is never changed: the counting is done on a copy.
+ */
+public final class Inversions {
+
+    /**
+     * Count the inversions of xs, according to comparator, using a bottom-up merge sort (on a copy of xs).
+     * Runs of <code>RUN</code> elements are first sorted (and counted) by insertion sort;
+     * thereafter, each time an element is taken from the right-hand run of a merge,
+     * it is counted as inverted with every remaining element of the left-hand run.
+     *
+     * @param xs         an array of X.
+     * @param comparator the comparator which defines the order.
+     * @param <X>        the underlying type of xs.
+     * @return the number of inversions in xs.
+     */
+    public static <X> long count(X[] xs, Comparator<? super X> comparator) {
+        int n = xs.length;
+        if (n < 2) return 0;
+        X[] a = Arrays.copyOf(xs, n);
+        long result = 0;
+        for (int lo = 0; lo < n; lo += RUN) result += insertionSort(a, lo, Math.min(lo + RUN, n), comparator);
+        if (n <= RUN) return result;
+        X[] b = Arrays.copyOf(a, n);
+        for (int width = RUN; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n), hi = Math.min(lo + 2 * width, n);
+                result += merge(a, b, lo, mid, hi, comparator);
+            }
+            X[] temp = a;
+            a = b;
+            b = temp;
+        }
+        return result;
+    }
+
+    /**
+     * Count the inversions of xs, according to the natural order of X.
+     *
+     * @param xs  an array of comparable X.
+     * @param <X> the underlying type of xs.
+     * @return the number of inversions in xs.
+     */
+    public static <X extends Comparable<X>> long count(X[] xs) {
+        return count(xs, Comparator.naturalOrder());
+    }
+
+    /**
+     * Count the inversions of an array of ints, using a Fenwick (binary indexed) tree of ranks.
+     * The keys are first ranked (by sorting a copy); then, scanning from right to left,
+     * each key is counted as inverted with the number of keys already seen whose rank is lower.
+     *
+     * @param xs an array of int.
+     * @return the number of inversions in xs.
+     */
+    public static long count(int[] xs) {
+        int n = xs.length;
+        if (n < 2) return 0;
+        int[] keys = Arrays.copyOf(xs, n);
+        Arrays.sort(keys);
+        int m = 0; // the number of distinct keys.
+        for (int i = 0; i < n; i++) if (i == 0 || keys[i] != keys[i - 1]) keys[m++] = keys[i];
+        long[] tree = new long[m + 1];
+        long result = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int rank = Arrays.binarySearch(keys, 0, m, xs[i]); // zero-based
+            // NOTE the prefix sum up to (but not including) rank counts the strictly smaller keys seen so far.
+            for (int k = rank; k > 0; k -= k & -k) result += tree[k];
+            for (int k = rank + 1; k <= m; k += k & -k) tree[k]++;
+        }
+        return result;
+    }
+
+    private static <X> long insertionSort(X[] xs, int from, int to, Comparator<? super X> comparator) {
+        long result = 0;
+        for (int i = from + 1; i < to; i++) {
+            X x = xs[i];
+            int j = i;
+            while (j > from && comparator.compare(x, xs[j - 1]) < 0) {
+                xs[j] = xs[j - 1];
+                j--;
+            }
+            xs[j] = x;
+            result += i - j;
+        }
+        return result;
+    }
+
+    // Merge source[lo..mid) and source[mid..hi) into target[lo..hi), returning the number of inversions between the two runs.
+    private static <X> long merge(X[] source, X[] target, int lo, int mid, int hi, Comparator<? super X> comparator) {
+        if (mid >= hi || comparator.compare(source[mid - 1], source[mid]) <= 0) {
+            System.arraycopy(source, lo, target, lo, hi - lo);
+            return 0;
+        }
+        long result = 0;
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++)
+            if (i >= mid) target[k] = source[j++];
+            else if (j >= hi) target[k] = source[i++];
+            else if (comparator.compare(source[j], source[i]) < 0) {
+                result += mid - i;
+                target[k] = source[j++];
+            } else target[k] = source[i++];
+        return result;
+    }
+
+    private Inversions() {
+    }
+
+    private static final int RUN = 16;
+}
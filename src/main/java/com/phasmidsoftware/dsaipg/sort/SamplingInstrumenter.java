@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort;
+
+import com.phasmidsoftware.dsaipg.util.Config;
+
+/**
+ * An Instrumenter which only instruments a sample of the sort invocations.
+ * <p>
+ * One in every <code>period</code> sorts (the first, then the period+1th, etc.) is instrumented in full;
+ * for all other sorts, every increment is a no-op and, in particular, countFixes() yields false
+ * so that the (expensive) enumeration of fixes on each swap is avoided.
+ * Only the instrumented sorts contribute to the StatPack, whose means are therefore (unbiased) estimates
+ * of the per-sort means. The StatPack is told the fraction of sorts which have been sampled,
+ * so that its totals (and {@link #extrapolatedTotal(String)}) are extrapolated to all sorts.
+ * <p>
+ * NOTE: a sort invocation is delimited by gatherStatistic (which is invoked by the helper's postProcess).
+ * <p>
+ * The period is configured by the <code>sampleperiod</code> option of the [instrumenting] section (see {@link #create(Config)}).
+ */
+public class SamplingInstrumenter extends Instrumenter {
+
+    /**
+     * Constructor.
+     *
+     * @param period the sampling period (1 means instrument every sort).
+     * @param config the configuration (which determines what is counted).
+     */
+    public SamplingInstrumenter(int period, Config config) {
+        super(config);
+        if (period < 1) throw new HelperException("SamplingInstrumenter: period must be positive: " + period);
+        this.period = period;
+    }
+
+    public void incrementCopies(int n) {
+        if (active) super.incrementCopies(n);
+    }
+
+    public void incrementHits(long n) {
+        if (active) super.incrementHits(n);
+    }
+
+    public void incrementLookups() {
+        if (active) super.incrementLookups();
+    }
+
+    public void incrementFixes(int n) {
+        if (active) super.incrementFixes(n);
+    }
+
+    public void incrementCompares() {
+        if (active) super.incrementCompares();
+    }
+
+    public void incrementSwaps(int n) {
+        if (active) super.incrementSwaps(n);
+    }
+
+    public boolean countFixes() {
+        return active && super.countFixes();
+    }
+
+    /**
+     * Method to be invoked at the end of each sort.
+     * If this sort was sampled, the counts are added to the StatPack.
+     * In any case, the StatPack is updated with the fraction of sorts sampled so far,
+     * and we determine whether the next sort is to be sampled.
+     */
+    public void gatherStatistic() {
+        if (active) {
+            super.gatherStatistic();
+            sampled++;
+        }
+        invocations++;
+        if (sampled > 0 && getStatPack() != null)
+            getStatPack().setSampleFraction((double) sampled / invocations, SAMPLED_KEYS);
+        active = invocations % period == 0;
+    }
+
+    /**
+     * Estimate the total (over all sort invocations) for the given key.
+     *
+     * @param key one of the keys of the StatPack, for example COMPARES.
+     * @return the total of the sampled values divided by the fraction of invocations which were sampled.
+     */
+    public double extrapolatedTotal(String key) {
+        if (sampled == 0) return 0;
+        return getStatPack().total(key);
+    }
+
+    /**
+     * @return true if the current sort invocation is being instrumented.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getSampled() {
+        return sampled;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Factory method to create an Instrumenter according to the config:
+     * if the <code>sampleperiod</code> option of [instrumenting] is greater than 1, the result is a SamplingInstrumenter;
+     * otherwise, it is an ordinary Instrumenter.
+     *
+     * @param config the configuration.
+     * @return an Instrumenter.
+     */
+    public static Instrumenter create(Config config) {
+        int period = config.getInt(INSTRUMENTING, SAMPLE_PERIOD, 1);
+        return period > 1 ? new SamplingInstrumenter(period, config) : new Instrumenter(config);
+    }
+
+    public static final String SAMPLE_PERIOD = "sampleperiod";
+
+    /**
+     * The keys whose values are gathered only from the sampled sorts.
+     * NOTE: INVERSIONS is not included because inversions are counted (in preProcess) independently of the sampling.
+     */
+    private static final String[] SAMPLED_KEYS = {COMPARES, SWAPS, COPIES, FIXES, HITS, LOOKUPS};
+
+    private final int period;
+    private boolean active = true;
+    private long invocations = 0;
+    private long sampled = 0;
+}
@@ -10,10 +10,14 @@ import com.phasmidsoftware.dsaipg.util.Config;
 import com.phasmidsoftware.dsaipg.util.LazyLogger;
 
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static com.phasmidsoftware.dsaipg.sort.InstrumentedComparatorHelper.getRunsConfig;
 
@@ -26,6 +30,11 @@ import static com.phasmidsoftware.dsaipg.sort.InstrumentedComparatorHelper.getRu
  *     NOTE: there is an alternative implementation of BucketSort in the huskySort package.
  * There are considerable differences so, for now, we'll leave both versions as is.
  * </p>
+ * <p>
+ *     A BucketSort created by {@link #SampleSort(int, int, Config)} operates in sample-sort mode:
+ * the bucket boundaries are splitters chosen from a random sample (rather than equal-width intervals),
+ * so that the buckets are of similar size even for skewed data.
+ * </p>
  *
  * @param <X> the underlying type which must extend Comparable.
  */
@@ -81,6 +90,10 @@ public class BucketSort<X extends Comparable<X>> extends ClassificationSorter<X,
      * @throws SortException if the classifier is undefined and the type of elements is not a number.
      */
     public void sort(X[] xs, int from, int to) {
+        if (sampling) {
+            sampleSort(xs, from, to);
+            return;
+        }
         if (classifier == null) {
             if (Number.class.isAssignableFrom(xs[0].getClass())) {
                 Function<X, Integer> numberClassifier = getNumberClassifier((Number[]) xs, 0, to, buckets.length);
@@ -103,11 +116,25 @@ public class BucketSort<X extends Comparable<X>> extends ClassificationSorter<X,
      * @param buckets    an array of Objects which will form the buckets for this BucketSort.
      */
     public BucketSort(Helper<X> helper, Function<X, Integer> classifier, Object[] buckets) {
+        this(helper, classifier, buckets, false);
+    }
+
+    /**
+     * Constructor which determines whether this BucketSort operates in sample-sort mode.
+     * NOTE: in sample-sort mode, the buckets are regions of the array being sorted, so no lists are allocated for them.
+     *
+     * @param helper     the Helper to use.
+     * @param classifier the classifier to yield an integer from an X (may be null on instantiation).
+     * @param buckets    an array of Objects which will form the buckets for this BucketSort.
+     * @param sampling   true if this BucketSort is to operate in sample-sort mode.
+     */
+    private BucketSort(Helper<X> helper, Function<X, Integer> classifier, Object[] buckets, boolean sampling) {
         super(helper, convertToBiFunction(classifier));
         this.buckets = buckets;
+        this.sampling = sampling;
         Helper<X> insertionSortHelper = helper.clone("insertion sort");
         this.sort = new InsertionSort<>(insertionSortHelper);
-        for (int i = 0; i < buckets.length; i++) buckets[i] = new ArrayList<>();
+        if (!sampling) for (int i = 0; i < buckets.length; i++) buckets[i] = new ArrayList<>();
         closeHelper = true;
         logger.info(DESCRIPTION + ": " + buckets.length + " buckets of mean size: " + 1.0 * helper.getN() / buckets.length);
     }
@@ -166,6 +193,144 @@ public class BucketSort<X extends Comparable<X>> extends ClassificationSorter<X,
         return new BucketSort<>(HelperFactory.createGeneric(DESCRIPTION, String.CASE_INSENSITIVE_ORDER, N, getRunsConfig(config), config), classifier, new Object[nBuckets]);
     }
 
+    /**
+     * Creates a bucket sort instance which operates in sample-sort mode.
+     * The splitters (bucket boundaries) are chosen from a random sample of the elements to be sorted,
+     * so no classifier is required and skewed data are distributed evenly amongst the buckets.
+     * When the helper is not instrumenting, classification, scattering and the sorting of buckets are all done in parallel.
+     *
+     * @param nBuckets the (maximum) number of buckets to use for sorting.
+     * @param N        the number of elements to be processed (used primarily for helper initialization).
+     * @param config   the configuration settings to customize the sorting process.
+     * @param <X>      the underlying type which must extend Comparable.
+     * @return a BucketSort instance configured for sample sorting.
+     */
+    public static <X extends Comparable<X>> BucketSort<X> SampleSort(int nBuckets, int N, Config config) {
+        return new BucketSort<X>(HelperFactory.create(DESCRIPTION, N, config), null, new Object[nBuckets], true);
+    }
+
+    /**
+     * Sorts the array `xs` within the specified range using sample sort.
+     * <ol>
+     *     <li>splitters are chosen from a sorted random sample of <code>OVERSAMPLING</code> elements per bucket;</li>
+     *     <li>each chunk of the range is classified (by binary search of the splitters) into its own histogram;</li>
+     *     <li>the histograms yield, for each chunk, the destination of each bucket, so chunks can scatter independently;</li>
+     *     <li>each bucket is sorted independently.</li>
+     * </ol>
+     * NOTE: steps 2 thru 4 are run in parallel only if the helper is not instrumenting (the counters are not thread-safe).
+     *
+     * @param xs   the array of elements to be sorted.
+     * @param from the starting index of the range to be sorted (inclusive).
+     * @param to   the ending index of the range to be sorted (exclusive).
+     */
+    private void sampleSort(X[] xs, int from, int to) {
+        int n = to - from;
+        int nBuckets = Math.min(buckets.length, n / OVERSAMPLING);
+        if (nBuckets <= 1) {
+            Arrays.sort(xs, from, to, helper);
+            return;
+        }
+        X[] splitters = chooseSplitters(xs, from, to, nBuckets);
+        boolean parallel = !helper.instrumented() && n >= PARALLEL_THRESHOLD;
+        int nChunks = parallel ? Math.max(1, ForkJoinPool.getCommonPoolParallelism()) : 1;
+
+        // Classify each element and build a histogram for each chunk.
+        X[] aux = Arrays.copyOfRange(xs, from, to);
+        helper.incrementCopies(n);
+        helper.incrementHits(2L * n);
+        int[] classes = new int[n];
+        int[][] histograms = new int[nChunks][nBuckets];
+        range(nChunks, parallel).forEach(t -> {
+            int[] histogram = histograms[t];
+            for (int i = chunkStart(n, nChunks, t), end = chunkStart(n, nChunks, t + 1); i < end; i++) {
+                int b = locate(splitters, aux[i]);
+                classes[i] = b;
+                histogram[b]++;
+            }
+        });
+
+        // Convert the histograms into destinations (bucket by bucket, then chunk by chunk).
+        int[] boundaries = new int[nBuckets + 1];
+        for (int b = 0, total = 0; b < nBuckets; b++) {
+            boundaries[b] = total;
+            for (int[] histogram : histograms) {
+                int count = histogram[b];
+                histogram[b] = total;
+                total += count;
+            }
+            boundaries[b + 1] = total;
+        }
+
+        // Scatter each chunk into its destinations.
+        helper.incrementCopies(n);
+        helper.incrementHits(2L * n);
+        range(nChunks, parallel).forEach(t -> {
+            int[] next = histograms[t];
+            for (int i = chunkStart(n, nChunks, t), end = chunkStart(n, nChunks, t + 1); i < end; i++)
+                xs[from + next[classes[i]]++] = aux[i];
+        });
+
+        range(nBuckets, parallel).forEach(b -> Arrays.sort(xs, from + boundaries[b], from + boundaries[b + 1], helper));
+    }
+
+    /**
+     * Chooses nBuckets-1 splitters from a sorted random sample of the elements of xs between from and to.
+     *
+     * @param xs       the array of elements to be sorted.
+     * @param from     the starting index of the range (inclusive).
+     * @param to       the ending index of the range (exclusive).
+     * @param nBuckets the number of buckets.
+     * @return an ordered array of splitters.
+     */
+    private X[] chooseSplitters(X[] xs, int from, int to, int nBuckets) {
+        int s = Math.min(to - from, nBuckets * OVERSAMPLING);
+        X[] sample = newArray(xs, s);
+        helper.incrementHits(s);
+        for (int i = 0; i < s; i++) sample[i] = xs[from + random.nextInt(to - from)];
+        Arrays.sort(sample, helper);
+        X[] splitters = newArray(xs, nBuckets - 1);
+        for (int k = 0; k < nBuckets - 1; k++) splitters[k] = sample[(k + 1) * s / nBuckets];
+        return splitters;
+    }
+
+    /**
+     * Creates an (empty) array of the same component type as xs.
+     *
+     * @param xs     an array whose component type is to be used.
+     * @param length the length of the new array.
+     * @return a new array of X.
+     */
+    @SuppressWarnings("unchecked")
+    private static <X> X[] newArray(X[] xs, int length) {
+        return (X[]) Array.newInstance(xs.getClass().getComponentType(), length);
+    }
+
+    /**
+     * Locates the bucket for x, i.e. the number of splitters which are not greater than x.
+     *
+     * @param splitters the ordered splitters.
+     * @param x         the element to be classified.
+     * @return the bucket index (between 0 and splitters.length, inclusive).
+     */
+    private int locate(X[] splitters, X x) {
+        int lo = 0, hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (helper.compare(x, splitters[mid]) < 0) hi = mid;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    private static int chunkStart(int n, int nChunks, int t) {
+        return (int) ((long) n * t / nChunks);
+    }
+
+    private static IntStream range(int n, boolean parallel) {
+        IntStream result = IntStream.range(0, n);
+        return parallel ? result.parallel() : result;
+    }
+
     /**
      * Clears all elements from each bucket in the {@code buckets} array.
      * <p>
@@ -351,7 +516,19 @@ public class BucketSort<X extends Comparable<X>> extends ClassificationSorter<X,
         }
     }
 
+    /**
+     * The number of sampled elements per bucket in sample-sort mode.
+     */
+    private static final int OVERSAMPLING = 16;
+
+    /**
+     * The minimum number of elements for which sample-sort mode will run in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+
     private final Object[] buckets;
     private final Sort<X> sort;
+    private final Random random = new Random();
+    private final boolean sampling;
 
 }
\ No newline at end of file
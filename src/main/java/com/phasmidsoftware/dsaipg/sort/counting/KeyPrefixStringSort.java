@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort.counting;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.sort.HelperFactory;
+import com.phasmidsoftware.dsaipg.sort.SortWithHelper;
+import com.phasmidsoftware.dsaipg.util.CodePointMapper;
+import com.phasmidsoftware.dsaipg.util.Config;
+
+import java.util.Arrays;
+
+/**
+ * Implements a key-prefix String sort.
+ * <p>
+ * Instead of dereferencing each String on every comparison (as do MSDStringSort and QuickSort_3way via the Helper),
+ * we dereference each String exactly once, packing its first few mapped code points (see CodePointMapper)
+ * into a long key which is held in a primitive array alongside an index array.
+ * The (key, index) pairs are then sorted by an LSD radix sort on the bytes of the key, which is entirely cache-friendly.
+ * Only those runs of elements whose keys tie (and which may differ beyond the prefix) are resolved by a full comparison.
+ * <p>
+ * NOTE: the ordering is that defined by the comparator of the CodePointMapper, which is also the comparator of the Helper.
+ */
+public class KeyPrefixStringSort extends SortWithHelper<String> {
+
+    public static final String DESCRIPTION = "Key-prefix string sort ";
+
+    /**
+     * The maximum number of code points which will be packed into a key.
+     */
+    public static final int PREFIX_LENGTH = 8;
+
+    /**
+     * Primary constructor.
+     *
+     * @param mapper the required CodePointMapper.
+     * @param helper the appropriate Helper (whose comparator must be consistent with mapper).
+     */
+    public KeyPrefixStringSort(CodePointMapper mapper, Helper<String> helper) {
+        super(helper);
+        this.mapper = mapper;
+        this.bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(mapper.range - 1));
+        this.width = Math.min(PREFIX_LENGTH, Long.SIZE / bits);
+    }
+
+    /**
+     * Constructor for a KeyPrefixStringSort which creates its own Helper.
+     *
+     * @param mapper the CodePointMapper used to map the characters of the strings.
+     * @param N      the number of elements expected to be sorted.
+     * @param nRuns  the number of runs expected.
+     * @param config the configuration.
+     */
+    public KeyPrefixStringSort(CodePointMapper mapper, int N, int nRuns, Config config) {
+        this(mapper, HelperFactory.createGeneric(DESCRIPTION + mapper, mapper.comparator, N, nRuns, config));
+        closeHelper = true;
+    }
+
+    /**
+     * Generic, mutating sort method which operates on a sub-array.
+     *
+     * @param xs   sort the array xs from "from" until "to" (exclusive of to).
+     * @param from the index of the first element to sort.
+     * @param to   the index of the first element not to sort.
+     */
+    public void sort(String[] xs, int from, int to) {
+        int n = to - from;
+        if (n <= 1) return;
+        long[] keys = new long[n];
+        int[] indices = new int[n];
+        boolean[] truncated = new boolean[n];
+
+        // Dereference each String exactly once.
+        helper.incrementHits(n);
+        for (int i = 0; i < n; i++) {
+            String x = xs[from + i];
+            helper.incrementLookups();
+            keys[i] = pack(x);
+            indices[i] = i;
+            truncated[i] = x.length() > width;
+        }
+
+        radixSort(keys, indices, n);
+
+        // Gather the Strings in (prefix) order.
+        String[] aux = new String[n];
+        helper.incrementCopies(n);
+        helper.incrementHits(2L * n);
+        for (int i = 0; i < n; i++) aux[i] = xs[from + indices[i]];
+
+        // Resolve ties by full comparison, but only where the strings may differ beyond the prefix.
+        int lo = 0;
+        while (lo < n) {
+            int hi = lo + 1;
+            boolean ambiguous = truncated[indices[lo]];
+            while (hi < n && keys[hi] == keys[lo]) ambiguous |= truncated[indices[hi++]];
+            if (ambiguous && hi - lo > 1) Arrays.sort(aux, lo, hi, helper);
+            lo = hi;
+        }
+
+        helper.copyBlock(aux, 0, xs, from, n);
+    }
+
+    /**
+     * Pack the first <code>width</code> mapped code points of <code>x</code> into a long.
+     * Missing code points (beyond the end of <code>x</code>) are treated as zero, consistent with the comparators of CodePointMapper.
+     *
+     * @param x a String.
+     * @return the key corresponding to the prefix of x.
+     */
+    long pack(String x) {
+        int length = x.length();
+        long key = 0L;
+        for (int d = 0; d < width; d++)
+            key = (key << bits) | (d < length ? mapper.map(x.charAt(d)) : 0);
+        return key;
+    }
+
+    /**
+     * Sort the parallel arrays keys and indices by (unsigned) key, using an LSD radix sort with 8-bit digits.
+     * Passes for which every key has the same digit are skipped (these are typically the high-order bytes of short keys).
+     *
+     * @param keys    the keys.
+     * @param indices the indices which accompany the keys.
+     * @param n       the number of elements.
+     */
+    private void radixSort(long[] keys, int[] indices, int n) {
+        long[] keysAux = new long[n];
+        int[] indicesAux = new int[n];
+        int[] count = new int[RADIX];
+        long[] ks = keys;
+        int[] is = indices;
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            Arrays.fill(count, 0);
+            helper.incrementHits(n);
+            for (int i = 0; i < n; i++) count[(int) (ks[i] >>> shift) & MASK]++;
+            if (count[(int) (ks[0] >>> shift) & MASK] == n) continue;
+            // Convert counts into starting positions.
+            for (int r = 0, total = 0; r < RADIX; r++) {
+                int c = count[r];
+                count[r] = total;
+                total += c;
+            }
+            helper.incrementHits(4L * n);
+            for (int i = 0; i < n; i++) {
+                int j = count[(int) (ks[i] >>> shift) & MASK]++;
+                keysAux[j] = ks[i];
+                indicesAux[j] = is[i];
+            }
+            long[] kt = ks;
+            ks = keysAux;
+            keysAux = kt;
+            int[] it = is;
+            is = indicesAux;
+            indicesAux = it;
+        }
+        if (ks != keys) {
+            System.arraycopy(ks, 0, keys, 0, n);
+            System.arraycopy(is, 0, indices, 0, n);
+        }
+    }
+
+    private static final int RADIX = 256;
+    private static final int MASK = RADIX - 1;
+
+    private final CodePointMapper mapper;
+    private final int bits;
+    private final int width;
+}
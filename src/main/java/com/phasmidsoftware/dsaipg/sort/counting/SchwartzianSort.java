@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort.counting;
+
+import com.phasmidsoftware.dsaipg.sort.Sort;
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.time.chrono.ChronoLocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sort of records by a sequence of keys (most significant first) using the Schwartzian transform
+ * ("decorate-sort-undecorate"): cf. HashCodeSort, which does the same with a single key (the hash code).
+ * <p>
+ * Each key of each record is extracted exactly once, into a primitive (long) array.
+ * Then an array of record indices is sorted by an LSD radix sort: key by key, from the least significant to the most significant,
+ * and, within each key, by 8-bit digits of (key - min) from the least significant digit,
+ * skipping digits beyond the range of the key and passes in which all the digits are the same.
+ * Because each pass is stable, the result is ordered lexicographically by the keys (as signed longs),
+ * and records with identical keys remain in their original order (or are ordered by the optional tie-breaker).
+ * Finally, the records themselves are permuted in place by following the cycles of the permutation.
+ * <p>
+ * Thus, no Comparator is invoked (except for ties, if there is a tie-breaker) and the records are each moved only once.
+ * For example, LocalDateTime values are sorted by two keys: epoch day and nano of day (see {@link #dateTimeSort()}).
+ *
+ * @param <X> the type of the records (which need not be Comparable).
+ */
+public class SchwartzianSort<X> implements Sort<X> {
+
+    public static final String DESCRIPTION = "Schwartzian sort";
+
+    /**
+     * Factory method to create a SchwartzianSort for the given keys.
+     *
+     * @param description the description.
+     * @param keys        the key extractors, most significant first.
+     * @param <X>         the type of the records.
+     * @return a new SchwartzianSort.
+     */
+    @SafeVarargs
+    public static <X> SchwartzianSort<X> create(String description, ToLongFunction<? super X>... keys) {
+        // NOTE the elements of keys are copied (rather than keys itself being passed on), so that the array cannot escape.
+        final List<ToLongFunction<? super X>> list = new ArrayList<>(keys.length);
+        for (ToLongFunction<? super X> key : keys) list.add(key);
+        return new SchwartzianSort<X>(description, list, null);
+    }
+
+    /**
+     * Factory method to create a SchwartzianSort of date-times (LocalDateTime, etc.),
+     * the keys of which are the epoch day and the nano of day.
+     *
+     * @param <X> the type of the date-times.
+     * @return a new SchwartzianSort.
+     */
+    public static <X extends ChronoLocalDateTime<?>> SchwartzianSort<X> dateTimeSort() {
+        return create(DESCRIPTION + " (date-time)", x -> x.toLocalDate().toEpochDay(), x -> x.toLocalTime().toNanoOfDay());
+    }
+
+    /**
+     * Method to convert a double-valued key into a long-valued key with the same ordering (as by Double.compare).
+     *
+     * @param f a function which yields a double key.
+     * @param <X> the type of the records.
+     * @return a function which yields an equivalent long key.
+     */
+    public static <X> ToLongFunction<X> doubleKey(ToDoubleFunction<X> f) {
+        return x -> {
+            final long bits = Double.doubleToLongBits(f.applyAsDouble(x));
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        };
+    }
+
+    /**
+     * Constructor for a SchwartzianSort.
+     *
+     * @param description the description.
+     * @param keys        the key extractors, most significant first (there must be at least one).
+     * @param tieBreaker  a comparator for records whose keys are all equal (if null, such records retain their original order).
+     */
+    public SchwartzianSort(String description, List<ToLongFunction<? super X>> keys, Comparator<? super X> tieBreaker) {
+        if (keys.isEmpty()) throw new SortException("SchwartzianSort: there must be at least one key");
+        this.description = description;
+        this.keys = new ArrayList<>(keys);
+        this.tieBreaker = tieBreaker;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void sort(X[] xs, int from, int to) {
+        final int n = to - from;
+        if (n < 2) return;
+        // NOTE decorate: extract each key of each record exactly once.
+        final long[][] values = new long[keys.size()][n];
+        for (int j = 0; j < keys.size(); j++) {
+            final ToLongFunction<? super X> key = keys.get(j);
+            final long[] vs = values[j];
+            for (int i = 0; i < n; i++) vs[i] = key.applyAsLong(xs[from + i]);
+        }
+        // NOTE sort: the permutation (indices relative to from) by radix sort on the keys.
+        final int[] permutation = radixSort(values, n);
+        final List<int[]> ties = tieBreaker != null ? findTies(values, permutation) : null;
+        // NOTE undecorate: move each record (once) to its final position.
+        permute(xs, from, permutation);
+        if (ties != null)
+            for (int[] tie : ties) Arrays.sort(xs, from + tie[0], from + tie[1], tieBreaker);
+    }
+
+    public void init(int n) {
+        // NOTE nothing to do.
+    }
+
+    public void close() {
+        // NOTE nothing to do.
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * Method to sort the indices 0 through n-1 by the keys (values[0] being the most significant).
+     *
+     * @param values the key values: values[j][i] is key j of record i.
+     * @param n      the number of records.
+     * @return the permutation: element i of the result is the index of the record which belongs at position i.
+     */
+    static int[] radixSort(long[][] values, int n) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) permutation[i] = i;
+        int[] permutationAux = new int[n];
+        long[] digits = new long[n];
+        long[] digitsAux = new long[n];
+        final int[] count = new int[RADIX];
+        for (int j = values.length - 1; j >= 0; j--) {
+            final long[] vs = values[j];
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                final long v = vs[permutation[i]];
+                digits[i] = v;
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            if (min == max) continue;
+            // NOTE the range (max - min) is correct as an unsigned value, even if it overflows.
+            final int bits = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+            for (int i = 0; i < n; i++) digits[i] -= min;
+            for (int shift = 0; shift < bits; shift += BITS) {
+                Arrays.fill(count, 0);
+                for (int i = 0; i < n; i++) count[(int) (digits[i] >>> shift) & MASK]++;
+                if (count[(int) (digits[0] >>> shift) & MASK] == n) continue;
+                for (int r = 0, total = 0; r < RADIX; r++) {
+                    final int c = count[r];
+                    count[r] = total;
+                    total += c;
+                }
+                for (int i = 0; i < n; i++) {
+                    final int k = count[(int) (digits[i] >>> shift) & MASK]++;
+                    digitsAux[k] = digits[i];
+                    permutationAux[k] = permutation[i];
+                }
+                long[] tempDigits = digits;
+                digits = digitsAux;
+                digitsAux = tempDigits;
+                int[] tempPermutation = permutation;
+                permutation = permutationAux;
+                permutationAux = tempPermutation;
+            }
+        }
+        return permutation;
+    }
+
+    /**
+     * Method to permute xs[from, from+n) in place, such that xs[from+i] becomes the original xs[from+permutation[i]].
+     * The permutation is destroyed.
+     */
+    static <X> void permute(X[] xs, int from, int[] permutation) {
+        for (int i = 0; i < permutation.length; i++) {
+            if (permutation[i] == i) continue;
+            final X temp = xs[from + i];
+            int j = i;
+            while (permutation[j] != i) {
+                final int next = permutation[j];
+                xs[from + j] = xs[from + next];
+                permutation[j] = j;
+                j = next;
+            }
+            xs[from + j] = temp;
+            permutation[j] = j;
+        }
+    }
+
+    /**
+     * @return the ranges [lo, hi) of (sorted) positions whose records have identical keys.
+     */
+    private static List<int[]> findTies(long[][] values, int[] permutation) {
+        final List<int[]> result = new ArrayList<>();
+        int lo = 0;
+        for (int i = 1; i <= permutation.length; i++)
+            if (i == permutation.length || !sameKeys(values, permutation[lo], permutation[i])) {
+                if (i - lo > 1) result.add(new int[]{lo, i});
+                lo = i;
+            }
+        return result;
+    }
+
+    private static boolean sameKeys(long[][] values, int a, int b) {
+        for (long[] vs : values) if (vs[a] != vs[b]) return false;
+        return true;
+    }
+
+    private static final int BITS = 8;
+    private static final int RADIX = 1 << BITS;
+    private static final int MASK = RADIX - 1;
+
+    private final String description;
+    private final List<ToLongFunction<? super X>> keys;
+    private final Comparator<? super X> tieBreaker;
+}
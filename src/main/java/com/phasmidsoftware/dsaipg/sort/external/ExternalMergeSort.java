@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort.external;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.sort.SortException;
+import com.phasmidsoftware.dsaipg.sort.SortWithHelper;
+import com.phasmidsoftware.dsaipg.util.Config;
+import com.phasmidsoftware.dsaipg.util.LazyLogger;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * External merge sort, for datasets which are too large to be held in memory.
+ * <p>
+ * The input is streamed through a bounded buffer of <code>runSize</code> elements.
+ * Each time the buffer fills, it is sorted in memory by the given (in-memory) sorter and then spilled as a run
+ * to a temporary file (written via a FileChannel).
+ * The runs are then merged, at most <code>fanIn</code> at a time, using a heap (priority queue) of buffered readers.
+ * If there are more than <code>fanIn</code> runs, intermediate merge passes are performed.
+ * If the input fits into a single run, it is never spilled at all.
+ * <p>
+ * Runs are written as a sequence of length-prefixed records, as encoded by a {@link Codec}.
+ * The merge is stable: ties are resolved in favor of the earlier run.
+ *
+ * @param <X> the underlying type of the elements to be sorted.
+ */
+public class ExternalMergeSort<X> {
+
+    /**
+     * Interface to define how an element is encoded as (and decoded from) bytes, for spilling to disk.
+     *
+     * @param <X> the underlying type.
+     */
+    public interface Codec<X> {
+        byte[] encode(X x);
+
+        X decode(byte[] bytes);
+    }
+
+    /**
+     * A Codec for Strings (UTF-8).
+     */
+    public static final Codec<String> STRING_CODEC = new Codec<>() {
+        public byte[] encode(String x) {
+            return x.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * A Codec for Integers (four bytes, big-endian).
+     */
+    public static final Codec<Integer> INTEGER_CODEC = new Codec<>() {
+        public byte[] encode(Integer x) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(x).array();
+        }
+
+        public Integer decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    /**
+     * Primary constructor.
+     *
+     * @param sorter        the in-memory sorter which will be used to sort each run (its helper defines the ordering).
+     * @param clazz         the class of X (required to create the run buffer).
+     * @param codec         the Codec which is used to spill elements to disk.
+     * @param runSize       the maximum number of elements to be held (and sorted) in memory at any one time.
+     * @param fanIn         the maximum number of runs to be merged at one time (at least 2).
+     * @param tempDirectory the directory in which the runs will be written.
+     */
+    public ExternalMergeSort(SortWithHelper<X> sorter, Class<X> clazz, Codec<X> codec, int runSize, int fanIn, Path tempDirectory) {
+        if (runSize < 1) throw new SortException("ExternalMergeSort: runSize must be positive: " + runSize);
+        if (fanIn < 2) throw new SortException("ExternalMergeSort: fanIn must be at least 2: " + fanIn);
+        this.sorter = sorter;
+        this.helper = sorter.getHelper();
+        this.clazz = clazz;
+        this.codec = codec;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Constructor which takes the run size, fan-in and temporary directory from the [externalsort] section of config.
+     *
+     * @param sorter the in-memory sorter which will be used to sort each run.
+     * @param clazz  the class of X.
+     * @param codec  the Codec which is used to spill elements to disk.
+     * @param config the configuration.
+     */
+    public ExternalMergeSort(SortWithHelper<X> sorter, Class<X> clazz, Codec<X> codec, Config config) {
+        this(sorter, clazz, codec,
+                config.getInt(EXTERNALSORT, "runsize", DEFAULT_RUN_SIZE),
+                config.getInt(EXTERNALSORT, "fanin", DEFAULT_FAN_IN),
+                Paths.get(config.getString(EXTERNALSORT, "tempdir", System.getProperty("java.io.tmpdir"))));
+    }
+
+    /**
+     * Sort the elements provided by input, passing them in order to output.
+     *
+     * @param input  an iterator of elements (which need not fit in memory).
+     * @param output a consumer of the sorted elements.
+     * @return the number of elements sorted.
+     * @throws IOException if a temporary file cannot be written or read.
+     */
+    public long sort(Iterator<X> input, Consumer<X> output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        // NOTE the helper is initialized for a full run (the final run may be shorter).
+        sorter.init(runSize);
+        try {
+            @SuppressWarnings("unchecked") X[] buffer = (X[]) Array.newInstance(clazz, runSize);
+            long count = 0;
+            int n = 0;
+            while (input.hasNext()) {
+                buffer[n++] = input.next();
+                count++;
+                if (n == runSize) {
+                    sortRun(buffer, n);
+                    runs.add(spill(buffer, n));
+                    n = 0;
+                }
+            }
+            if (runs.isEmpty()) {
+                // NOTE the entire input fits into one run, so there is no need for any I/O.
+                sortRun(buffer, n);
+                for (int i = 0; i < n; i++) output.accept(buffer[i]);
+                return count;
+            }
+            if (n > 0) {
+                sortRun(buffer, n);
+                runs.add(spill(buffer, n));
+            }
+            buffer = null; // allow the buffer to be collected before merging.
+            logger.debug("ExternalMergeSort: " + count + " elements in " + runs.size() + " runs");
+            while (runs.size() > fanIn) runs = mergePass(runs);
+            merge(runs, output::accept);
+            return count;
+        } finally {
+            for (Path run : runs) Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * Sort the lines of a text file (which need not fit in memory) into another text file.
+     *
+     * @param sorter an ExternalMergeSort of Strings.
+     * @param input  the path of the input file.
+     * @param output the path of the output file.
+     * @return the number of lines sorted.
+     * @throws IOException if there is a problem reading or writing.
+     */
+    public static long sortLines(ExternalMergeSort<String> sorter, Path input, Path output) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            UncheckedIOException[] failure = new UncheckedIOException[1];
+            long result = sorter.sort(reader.lines().iterator(), line -> {
+                if (failure[0] == null)
+                    try {
+                        writer.write(line);
+                        writer.newLine();
+                    } catch (IOException e) {
+                        failure[0] = new UncheckedIOException(e);
+                    }
+            });
+            if (failure[0] != null) throw failure[0].getCause();
+            return result;
+        }
+    }
+
+    private void sortRun(X[] buffer, int n) {
+        sorter.sort(buffer, 0, n);
+    }
+
+    /**
+     * Merge the given runs in groups of (at most) fanIn, yielding a list of longer runs.
+     * The input runs are deleted as soon as they have been merged.
+     */
+    private List<Path> mergePass(List<Path> runs) throws IOException {
+        List<Path> result = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                Path merged = createRunFile();
+                result.add(merged);
+                try (RunWriter writer = new RunWriter(merged)) {
+                    merge(group, writer::write);
+                }
+                for (Path run : group) Files.deleteIfExists(run);
+            }
+            return result;
+        } catch (IOException e) {
+            for (Path run : result) Files.deleteIfExists(run);
+            throw e;
+        }
+    }
+
+    /**
+     * Perform a k-way merge of the given runs, passing the elements in order to output.
+     */
+    private void merge(List<Path> runs, RunConsumer<X> output) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            PriorityQueue<RunReader> heap = new PriorityQueue<>(runs.size(), (r1, r2) -> {
+                int cf = helper.compare(r1.head, r2.head);
+                return cf != 0 ? cf : Integer.compare(r1.index, r2.index);
+            });
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run, readers.size());
+                readers.add(reader);
+                if (reader.advance()) heap.add(reader);
+            }
+            while (!heap.isEmpty()) {
+                RunReader reader = heap.poll();
+                output.accept(reader.head);
+                if (reader.advance()) heap.add(reader);
+            }
+        } finally {
+            for (RunReader reader : readers) reader.close();
+        }
+    }
+
+    private Path spill(X[] buffer, int n) throws IOException {
+        Path result = createRunFile();
+        try (RunWriter writer = new RunWriter(result)) {
+            for (int i = 0; i < n; i++) writer.write(buffer[i]);
+        }
+        return result;
+    }
+
+    private Path createRunFile() throws IOException {
+        return Files.createTempFile(tempDirectory, "run", ".bin");
+    }
+
+    private interface RunConsumer<X> {
+        void accept(X x) throws IOException;
+    }
+
+    /**
+     * Writes length-prefixed records to a run file through a FileChannel.
+     */
+    private class RunWriter implements Closeable {
+        RunWriter(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(X x) throws IOException {
+            byte[] bytes = codec.encode(x);
+            if (buffer.remaining() < Integer.BYTES + bytes.length) {
+                flush();
+                if (buffer.capacity() < Integer.BYTES + bytes.length)
+                    buffer = ByteBuffer.allocateDirect(Integer.BYTES + bytes.length);
+            }
+            buffer.putInt(bytes.length).put(bytes);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private final FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads length-prefixed records from a run file, keeping the current record as head.
+     */
+    private class RunReader implements Closeable {
+        RunReader(Path path, int index) throws IOException {
+            this.index = index;
+            this.input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), IO_BUFFER_SIZE));
+        }
+
+        /**
+         * Read the next record into head.
+         *
+         * @return true if there was a record; false if the run is exhausted.
+         */
+        boolean advance() throws IOException {
+            int length;
+            try {
+                length = input.readInt();
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            head = codec.decode(bytes);
+            return true;
+        }
+
+        public void close() throws IOException {
+            input.close();
+        }
+
+        private final int index;
+        private final DataInputStream input;
+        private X head;
+    }
+
+    public static final String EXTERNALSORT = "externalsort";
+    public static final int DEFAULT_RUN_SIZE = 1_000_000;
+    public static final int DEFAULT_FAN_IN = 64;
+
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final static LazyLogger logger = new LazyLogger(ExternalMergeSort.class);
+
+    private final SortWithHelper<X> sorter;
+    private final Helper<X> helper;
+    private final Class<X> clazz;
+    private final Codec<X> codec;
+    private final int runSize;
+    private final int fanIn;
+    private final Path tempDirectory;
+}
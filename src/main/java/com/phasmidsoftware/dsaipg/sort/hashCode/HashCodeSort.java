@@ -5,11 +5,18 @@
 package com.phasmidsoftware.dsaipg.sort.hashCode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Class HashCodeSort.
+ * <p>
+ * This is a key-extraction sort: the hash code of each element is extracted exactly once and the parallel arrays
+ * of hashes and indices are sorted by an LSD radix sort (in linear time).
+ * Because hashCode is assumed to be consistent with the natural ordering of X (that's to say that if x1 < x2 then
+ * x1.hashCode() <= x2.hashCode()), the only remaining work is to order each run of equal hashes by comparison.
  *
  * @param <X> the underlying comparable type.
  */
@@ -26,42 +33,67 @@ public class HashCodeSort<X extends Comparable<X>> {
         int[] indices = new int[n];
         int[] hashes = new int[n];
         init(a, indices, hashes);
-        insertionSort(n, indices, hashes);
-        verify(n, indices, hashes, a);
+        radixSort(n, indices, hashes);
         return createResult(n, indices, hashes, a);
     }
 
-    // Sort the arrays indices and hashes by comparing hashes
-    private void insertionSort(int n, int[] indices, int[] hashes) {
-        // TO IMPLEMENT (8 points)
-        for (int i = 0; i < n; i++)
-            for (int j = i; j > 0; j--)
-                if (hashes[j] < hashes[j - 1]) {
-                    exchange(indices, j);
-                    exchange(hashes, j);
-                }
-    }
-
-    // Verify that the arrays are in true order according to natural ordering on X
-    private void verify(int n, int[] indices, int[] hashes, List<X> a) {
-        // TO IMPLEMENT (8 points)
-        for (int i = 1; i < n; i++)
-            if (hashes[i - 1] == hashes[i])
-                if (a.get(indices[i - 1]).compareTo(a.get(indices[i])) > 0)
-                    exchange(indices, i);
+    // Sort the arrays indices and hashes by comparing (signed) hashes, using an LSD radix sort on 8-bit digits.
+    // Passes for which all hashes share the same digit are skipped.
+    private void radixSort(int n, int[] indices, int[] hashes) {
+        int[] hashesAux = new int[n];
+        int[] indicesAux = new int[n];
+        int[] count = new int[RADIX];
+        int[] hs = hashes;
+        int[] is = indices;
+        for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+            // NOTE flipping the sign bit on the most significant digit yields the signed order.
+            int flip = shift == Integer.SIZE - BITS ? RADIX / 2 : 0;
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) count[digit(hs[i], shift, flip)]++;
+            if (n == 0 || count[digit(hs[0], shift, flip)] == n) continue;
+            for (int r = 0, total = 0; r < RADIX; r++) {
+                int c = count[r];
+                count[r] = total;
+                total += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int j = count[digit(hs[i], shift, flip)]++;
+                hashesAux[j] = hs[i];
+                indicesAux[j] = is[i];
+            }
+            int[] temp = hs;
+            hs = hashesAux;
+            hashesAux = temp;
+            temp = is;
+            is = indicesAux;
+            indicesAux = temp;
+        }
+        if (hs != hashes) {
+            System.arraycopy(hs, 0, hashes, 0, n);
+            System.arraycopy(is, 0, indices, 0, n);
+        }
     }
 
-    // Exchange elements i-1 and i in the array
-    private void exchange(int[] array, int i) {
-        final int temp = array[i];
-        array[i] = array[i - 1];
-        array[i - 1] = temp;
+    // Yield the digit of hash at the given shift (with the optional sign flip).
+    private static int digit(int hash, int shift, int flip) {
+        return ((hash >>> shift) & MASK) ^ flip;
     }
 
-    // Build the resulting List<X> from the indices
+    // Build the resulting (mutable) List<X> from the indices, in a pre-sized ArrayList.
+    // Each run of equal hashes is then put into true order according to natural ordering on X.
     private List<X> createResult(int n, int[] indices, int[] hashes, List<X> a) {
-        List<X> result = new ArrayList<>();
-        for (int i = 0; i < n; i++) result.add(a.get(indices[i]));
+        // NOTE that a may not support efficient random access (e.g. a LinkedList).
+        List<X> xs = a instanceof RandomAccess ? a : new ArrayList<>(a);
+        List<X> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) result.add(xs.get(indices[i]));
+        int lo = 0;
+        while (lo < n) {
+            int hi = lo + 1;
+            while (hi < n && hashes[hi] == hashes[lo]) hi++;
+            // NOTE that the radix sort is stable so that equal elements remain in their original order.
+            if (hi - lo > 1) result.subList(lo, hi).sort(null);
+            lo = hi;
+        }
         return result;
     }
 
@@ -73,4 +105,8 @@ public class HashCodeSort<X extends Comparable<X>> {
             hashes[index++] = x.hashCode();
         }
     }
-}
\ No newline at end of file
+
+    private static final int BITS = 8;
+    private static final int RADIX = 1 << BITS;
+    private static final int MASK = RADIX - 1;
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort.linearithmic;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.sort.SortWithComparableHelper;
+import com.phasmidsoftware.dsaipg.util.Config;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.phasmidsoftware.dsaipg.sort.InstrumentedComparatorHelper.getRunsConfig;
+
+/**
+ * Stable natural merge sort in the style of Timsort (cf. TimSort which simply delegates to Arrays.sort).
+ * <p>
+ * The array is first divided into runs: each run is either non-descending or strictly descending
+ * (a descending run is reversed in place, which, because it is strict, preserves stability).
+ * Any run shorter than minRun (between 16 and 32, chosen so that n/minRun is close to a power of two)
+ * is extended to minRun elements by binary insertion sort.
+ * <p>
+ * The runs are then merged pairwise as a balanced tree (rather than by Timsort's stack invariants),
+ * so that the merges of disjoint pairs of runs are independent of each other:
+ * if the helper is not instrumented (and the array is large enough), they are scheduled in parallel on a ForkJoinPool.
+ * Before each merge, the elements at either end which are already in place are skipped (by galloping),
+ * and, during the merge, once one side has won MIN_GALLOP times in succession,
+ * its remaining winners are found by galloping (exponential followed by binary search) and copied as a block.
+ * <p>
+ * Thus an input which is already sorted costs n-1 comparisons, and an input which consists of a few long sorted
+ * runs (such as a concatenation of sorted batches) costs little more than n lg r comparisons for r runs.
+ * <p>
+ * NOTE: if the helper is instrumented, all merges are performed sequentially (the counters of the helper are not thread-safe).
+ *
+ * @param <X> the underlying comparable type.
+ */
+public class NaturalMergeSort<X extends Comparable<X>> extends SortWithComparableHelper<X> {
+
+    public static final String DESCRIPTION = "Natural merge sort";
+
+    /**
+     * Constructor for NaturalMergeSort
+     *
+     * @param helper an explicit instance of Helper to be used.
+     * @param pool   the ForkJoinPool on which merges are scheduled (if null, merges are always sequential).
+     */
+    public NaturalMergeSort(Helper<X> helper, ForkJoinPool pool) {
+        super(helper);
+        this.pool = pool;
+    }
+
+    /**
+     * Constructor for NaturalMergeSort which uses the common ForkJoinPool.
+     *
+     * @param helper an explicit instance of Helper to be used.
+     */
+    public NaturalMergeSort(Helper<X> helper) {
+        this(helper, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for NaturalMergeSort
+     *
+     * @param N      the number elements we expect to sort.
+     * @param nRuns  the expected number of runs.
+     * @param config the configuration.
+     */
+    public NaturalMergeSort(int N, int nRuns, Config config) {
+        super(DESCRIPTION, N, nRuns, config);
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Constructor for NaturalMergeSort
+     *
+     * @param config the configuration.
+     */
+    public NaturalMergeSort(Config config) {
+        this(0, getRunsConfig(config), config);
+    }
+
+    public void sort(X[] xs, int from, int to) {
+        final int n = to - from;
+        runs = n > 0 ? 1 : 0;
+        if (n < 2) return;
+        final int minRun = minRunLength(n);
+        final int[] starts = new int[n / minRun + 2];
+        int count = 0;
+        for (int lo = from; lo < to; ) {
+            starts[count++] = lo;
+            int hi = findRun(xs, lo, to);
+            final int forced = Math.min(lo + minRun, to);
+            if (hi < forced) {
+                binaryInsertionSort(xs, lo, hi, forced);
+                hi = forced;
+            }
+            lo = hi;
+        }
+        starts[count] = to;
+        runs = count;
+        if (count == 1) return;
+        // NOTE aux has the same component type as xs (rather than being a raw Comparable[]).
+        @SuppressWarnings("unchecked") final X[] aux = (X[]) Array.newInstance(xs.getClass().getComponentType(), n);
+        final boolean parallel = pool != null && !helper.instrumented() && n >= PARALLEL_THRESHOLD;
+        final MergeTask task = new MergeTask(xs, aux, from, starts, 0, count, parallel);
+        if (parallel) pool.invoke(task);
+        else task.compute();
+    }
+
+    /**
+     * @return the number of runs (after extension to minRun) found by the most recent sort.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Method to yield the minimum run length for an array of n elements.
+     * This is n itself if n is less than MIN_MERGE;
+     * otherwise, it is a value k between MIN_MERGE/2 and MIN_MERGE such that n/k is equal to, or slightly less than, a power of two.
+     *
+     * @param n the number of elements.
+     * @return the minimum run length.
+     */
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Method to find the end of the run which begins at lo, reversing it if it is (strictly) descending.
+     *
+     * @return the (exclusive) end of the run.
+     */
+    private int findRun(X[] xs, int lo, int to) {
+        int hi = lo + 1;
+        if (hi == to) return hi;
+        if (helper.less(xs, hi++, lo)) {
+            while (hi < to && helper.less(xs, hi, hi - 1)) hi++;
+            for (int i = lo, j = hi - 1; i < j; i++, j--) helper.swap(xs, i, j);
+        } else
+            while (hi < to && !helper.less(xs, hi, hi - 1)) hi++;
+        return hi;
+    }
+
+    /**
+     * Method to extend the sorted run xs[lo, start) to xs[lo, to) by binary insertion.
+     * Equal elements are inserted after existing elements (for stability).
+     */
+    private void binaryInsertionSort(X[] xs, int lo, int start, int to) {
+        for (int i = start; i < to; i++) {
+            final X x = helper.get(xs, i);
+            final int position = upperBound(x, xs, lo, i);
+            if (position < i) {
+                helper.copyBlock(xs, position, xs, position + 1, i - position);
+                helper.copy(x, xs, position);
+                helper.incrementFixes(i - position);
+            }
+        }
+    }
+
+    /**
+     * Method to merge the adjacent sorted runs xs[lo, mid) and xs[mid, hi), using aux (offset by base) as a buffer.
+     */
+    private void merge(X[] xs, X[] aux, int base, int lo, int mid, int hi) {
+        // NOTE skip the elements of the left run which are no greater than the first element of the right run.
+        lo = gallopUpperBound(helper.get(xs, mid), xs, lo, mid);
+        if (lo == mid) return;
+        // NOTE skip the elements of the right run which are no less than the last element of the left run.
+        hi = gallopLowerBound(helper.get(xs, mid - 1), xs, mid, hi);
+        helper.copyBlock(xs, lo, aux, lo - base, mid - lo);
+        int i = lo - base, j = mid, k = lo;
+        final int iEnd = mid - base;
+        int leftWins = 0, rightWins = 0;
+        while (i < iEnd && j < hi) {
+            if (leftWins >= MIN_GALLOP) {
+                final int count = gallopUpperBound(helper.get(xs, j), aux, i, iEnd) - i;
+                helper.copyBlock(aux, i, xs, k, count);
+                i += count;
+                k += count;
+                if (count < MIN_GALLOP) leftWins = 0;
+                if (i == iEnd) break;
+            }
+            if (rightWins >= MIN_GALLOP) {
+                final int count = gallopLowerBound(helper.get(aux, i), xs, j, hi) - j;
+                helper.copyBlock(xs, j, xs, k, count);
+                helper.incrementFixes(count * (iEnd - i));
+                j += count;
+                k += count;
+                if (count < MIN_GALLOP) rightWins = 0;
+                if (j == hi) break;
+            }
+            final X v = helper.get(aux, i), w = helper.get(xs, j);
+            if (helper.less(w, v)) {
+                helper.incrementFixes(iEnd - i);
+                helper.copy(w, xs, k++);
+                j++;
+                rightWins++;
+                leftWins = 0;
+            } else {
+                helper.copy(v, xs, k++);
+                i++;
+                leftWins++;
+                rightWins = 0;
+            }
+        }
+        // NOTE any remaining elements of the right run are already in place.
+        if (i < iEnd) helper.copyBlock(aux, i, xs, k, iEnd - i);
+    }
+
+    /**
+     * @return the index of the first element of xs[from, to) which is greater than x (found by binary search).
+     */
+    private int upperBound(X x, X[] xs, int from, int to) {
+        while (from < to) {
+            final int m = (from + to) >>> 1;
+            if (helper.less(x, helper.get(xs, m))) to = m;
+            else from = m + 1;
+        }
+        return from;
+    }
+
+    /**
+     * @return the index of the first element of xs[from, to) which is not less than x (found by binary search).
+     */
+    private int lowerBound(X x, X[] xs, int from, int to) {
+        while (from < to) {
+            final int m = (from + to) >>> 1;
+            if (helper.less(helper.get(xs, m), x)) from = m + 1;
+            else to = m;
+        }
+        return from;
+    }
+
+    /**
+     * @return the index of the first element of xs[from, to) which is greater than x (found by galloping from the left).
+     */
+    private int gallopUpperBound(X x, X[] xs, int from, int to) {
+        int step = 1, lo = from;
+        while (lo < to && !helper.less(x, helper.get(xs, lo))) {
+            from = lo + 1;
+            lo = from + step - 1;
+            step <<= 1;
+        }
+        return upperBound(x, xs, from, Math.min(lo, to));
+    }
+
+    /**
+     * @return the index of the first element of xs[from, to) which is not less than x (found by galloping from the left).
+     */
+    private int gallopLowerBound(X x, X[] xs, int from, int to) {
+        int step = 1, lo = from;
+        while (lo < to && helper.less(helper.get(xs, lo), x)) {
+            from = lo + 1;
+            lo = from + step - 1;
+            step <<= 1;
+        }
+        return lowerBound(x, xs, from, Math.min(lo, to));
+    }
+
+    /**
+     * Task to merge the runs with indices [first, last) (as given by starts) into one sorted run.
+     */
+    private class MergeTask extends RecursiveAction {
+        MergeTask(X[] xs, X[] aux, int base, int[] starts, int first, int last, boolean parallel) {
+            this.xs = xs;
+            this.aux = aux;
+            this.base = base;
+            this.starts = starts;
+            this.first = first;
+            this.last = last;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first < 2) return;
+            final int middle = (first + last) >>> 1;
+            final MergeTask left = new MergeTask(xs, aux, base, starts, first, middle, parallel);
+            final MergeTask right = new MergeTask(xs, aux, base, starts, middle, last, parallel);
+            if (parallel && starts[last] - starts[first] >= PARALLEL_THRESHOLD) invokeAll(left, right);
+            else {
+                left.compute();
+                right.compute();
+            }
+            merge(xs, aux, base, starts[first], starts[middle], starts[last]);
+        }
+
+        private final X[] xs;
+        private final X[] aux;
+        private final int base;
+        private final int[] starts;
+        private final int first;
+        private final int last;
+        private final boolean parallel;
+    }
+
+    /**
+     * Arrays shorter than this are sorted entirely by binary insertion.
+     */
+    static final int MIN_MERGE = 32;
+
+    /**
+     * The number of successive wins by one side of a merge after which we begin to gallop.
+     */
+    static final int MIN_GALLOP = 7;
+
+    /**
+     * Merges of fewer than this number of elements are not split into parallel tasks.
+     */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    private final ForkJoinPool pool;
+    private int runs;
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.sort.linearithmic;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.util.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.phasmidsoftware.dsaipg.sort.InstrumentedComparatorHelper.getRunsConfig;
+
+/**
+ * Implementation of QuickSort which uses block partitioning (after Edelkamp and Weiß, "BlockQuicksort").
+ * <p>
+ * Rather than swapping each misplaced element as soon as it is found (which involves a conditional branch which
+ * is mispredicted about half the time), the partitioner scans a block of <code>BLOCK</code> elements from each end,
+ * recording the offsets of misplaced elements in a buffer without branching (the offset is always stored,
+ * but the count is only incremented if the element is misplaced).
+ * The misplaced elements are then swapped in pairs.
+ * <p>
+ * In addition, this implementation does not recurse and does not create Partition objects:
+ * pending sub-arrays are kept in a stack of primitive bounds which is reused from one sort to the next.
+ * The larger sub-array is always pushed, so the stack never grows beyond about lg N entries.
+ * <p>
+ * NOTE: if the helper is instrumented, all reads, comparisons, and swaps go through the helper
+ * (so the statistics are comparable with those of the other quicksorts); otherwise, the arrays are accessed directly.
+ *
+ * @param <X> the type of elements to be sorted, which must implement Comparable.
+ */
+public class QuickSort_Block<X extends Comparable<X>> extends QuickSort<X> {
+
+    public static final String DESCRIPTION = "QuickSort block";
+
+    public QuickSort_Block(String description, int N, final int nRuns, Config config) {
+        super(description, N, nRuns, config);
+        setPartitioner(createPartitioner());
+    }
+
+    /**
+     * Constructor for QuickSort_Block
+     *
+     * @param helper an explicit instance of Helper to be used.
+     */
+    public QuickSort_Block(Helper<X> helper) {
+        super(helper);
+        setPartitioner(createPartitioner());
+    }
+
+    /**
+     * Constructor for QuickSort_Block
+     *
+     * @param N      the number elements we expect to sort.
+     * @param nRuns  the number of runs.
+     * @param config the configuration.
+     */
+    public QuickSort_Block(int N, final int nRuns, Config config) {
+        this(DESCRIPTION, N, nRuns, config);
+    }
+
+    /**
+     * Constructor for QuickSort_Block
+     *
+     * @param config the configuration.
+     */
+    public QuickSort_Block(Config config) {
+        this(0, getRunsConfig(config), config);
+    }
+
+    /**
+     * Sort the sub-array xs[from] ... xs[to-1] without recursion.
+     *
+     * @param xs    the complete array from which this sub-array derives.
+     * @param from  the index of the first element to sort.
+     * @param to    the index of the first element not to sort.
+     * @param depth the depth of the (notional) recursion.
+     */
+    @Override
+    public void sort(X[] xs, int from, int to, int depth) {
+        int top = push(0, from, to, depth);
+        while (top > 0) {
+            top -= 3;
+            int lo = stack[top], hi = stack[top + 1], d = stack[top + 2];
+            while (!terminator(xs, lo, hi, d)) {
+                helper.registerDepth(d);
+                int j = partition(xs, lo, hi);
+                d++;
+                // NOTE push the larger sub-array and carry on with the smaller.
+                if (j - lo < hi - j - 1) {
+                    top = push(top, j + 1, hi, d);
+                    hi = j;
+                } else {
+                    top = push(top, lo, j, d);
+                    lo = j + 1;
+                }
+            }
+        }
+    }
+
+    public Partitioner<X> createPartitioner() {
+        return new Partitioner_Block();
+    }
+
+    /**
+     * Partitioner which yields the two partitions resulting from a single block partition.
+     * NOTE: this is not used by sort (above), which avoids creating Partition objects.
+     */
+    public class Partitioner_Block implements Partitioner<X> {
+
+        /**
+         * Method to partition the given partition into smaller partitions.
+         *
+         * @param partition the partition to divide up.
+         * @return a list of two partitions (the pivot itself belongs to neither).
+         */
+        public List<Partition<X>> partition(Partition<X> partition) {
+            int j = QuickSort_Block.this.partition(partition.xs, partition.from, partition.to);
+            List<Partition<X>> partitions = new ArrayList<>();
+            partitions.add(new Partition<>(partition.xs, partition.from, j));
+            partitions.add(new Partition<>(partition.xs, j + 1, partition.to));
+            return partitions;
+        }
+    }
+
+    /**
+     * Partition xs[from] ... xs[to-1] (at least four elements) about the median of three elements.
+     *
+     * @param xs   the array.
+     * @param from the index of the first element to partition.
+     * @param to   the index of the first element not to partition.
+     * @return the final index of the pivot: every element to its left is not greater and every element to its right is not less.
+     */
+    int partition(X[] xs, int from, int to) {
+        boolean instrumented = helper.instrumented();
+        medianToFront(xs, from, to, instrumented);
+        X v = xs[from];
+        int l = from + 1, r = to - 1; // the unpartitioned elements are xs[l] ... xs[r].
+        int numL = 0, numR = 0, startL = 0, startR = 0;
+        while (r - l + 1 > 2 * BLOCK) {
+            if (numL == 0) {
+                startL = 0;
+                if (instrumented)
+                    for (int k = 0; k < BLOCK; k++) {
+                        offsetsL[numL] = k;
+                        numL += helper.compare(helper.get(xs, l + k), v) >= 0 ? 1 : 0;
+                    }
+                else
+                    for (int k = 0; k < BLOCK; k++) {
+                        offsetsL[numL] = k;
+                        numL += xs[l + k].compareTo(v) >= 0 ? 1 : 0;
+                    }
+            }
+            if (numR == 0) {
+                startR = 0;
+                if (instrumented)
+                    for (int k = 0; k < BLOCK; k++) {
+                        offsetsR[numR] = k;
+                        numR += helper.compare(helper.get(xs, r - k), v) <= 0 ? 1 : 0;
+                    }
+                else
+                    for (int k = 0; k < BLOCK; k++) {
+                        offsetsR[numR] = k;
+                        numR += xs[r - k].compareTo(v) <= 0 ? 1 : 0;
+                    }
+            }
+            int num = Math.min(numL, numR);
+            if (instrumented)
+                for (int k = 0; k < num; k++)
+                    helper.swap(xs, l + offsetsL[startL + k], r - offsetsR[startR + k]);
+            else
+                for (int k = 0; k < num; k++) {
+                    int i = l + offsetsL[startL + k], j = r - offsetsR[startR + k];
+                    X temp = xs[i];
+                    xs[i] = xs[j];
+                    xs[j] = temp;
+                }
+            numL -= num;
+            numR -= num;
+            startL += num;
+            startR += num;
+            if (numL == 0) l += BLOCK;
+            if (numR == 0) r -= BLOCK;
+        }
+        // NOTE finish off (including any block which still has unmatched offsets) with a conventional Hoare partition.
+        // Everything to the left of l is not greater than v, and everything to the right of r is not less than v.
+        int i = l - 1, j = r + 1;
+        if (instrumented) {
+            while (true) {
+                while (helper.less(xs, ++i, v)) if (i == to - 1) break;
+                while (helper.less(xs, v, --j)) if (j == from) break;
+                if (i >= j) break;
+                helper.swap(xs, i, j);
+            }
+            helper.swap(xs, from, j);
+        } else {
+            while (true) {
+                while (xs[++i].compareTo(v) < 0) if (i == to - 1) break;
+                while (v.compareTo(xs[--j]) < 0) if (j == from) break;
+                if (i >= j) break;
+                X temp = xs[i];
+                xs[i] = xs[j];
+                xs[j] = temp;
+            }
+            xs[from] = xs[j];
+            xs[j] = v;
+        }
+        return j;
+    }
+
+    /**
+     * Order xs[from], xs[mid] and xs[to-1] and then swap the median into xs[from].
+     */
+    private void medianToFront(X[] xs, int from, int to, boolean instrumented) {
+        int mid = (from + to) >>> 1, last = to - 1;
+        if (instrumented) {
+            helper.swapConditional(xs, from, mid);
+            helper.swapConditional(xs, mid, last);
+            helper.swapConditional(xs, from, mid);
+            helper.swap(xs, from, mid);
+        } else {
+            if (xs[mid].compareTo(xs[from]) < 0) swap(xs, from, mid);
+            if (xs[last].compareTo(xs[mid]) < 0) swap(xs, mid, last);
+            if (xs[mid].compareTo(xs[from]) < 0) swap(xs, from, mid);
+            swap(xs, from, mid);
+        }
+    }
+
+    private void swap(X[] xs, int i, int j) {
+        X temp = xs[i];
+        xs[i] = xs[j];
+        xs[j] = temp;
+    }
+
+    /**
+     * Push the bounds (and depth) of a sub-array onto the stack.
+     *
+     * @return the new top of the stack.
+     */
+    private int push(int top, int from, int to, int depth) {
+        if (top + 3 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+        stack[top] = from;
+        stack[top + 1] = to;
+        stack[top + 2] = depth;
+        return top + 3;
+    }
+
+    /**
+     * The number of elements scanned at a time from each end.
+     */
+    static final int BLOCK = 128;
+
+    private final int[] offsetsL = new int[BLOCK];
+    private final int[] offsetsR = new int[BLOCK];
+    private int[] stack = new int[3 * 64];
+}
@@ -4,6 +4,9 @@
 
 package com.phasmidsoftware.dsaipg.sort.par;
 
+import com.phasmidsoftware.dsaipg.util.BenchmarkRecord;
+import com.phasmidsoftware.dsaipg.util.BenchmarkResults;
+
 import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -38,6 +41,7 @@ public class Main {
             long endTime = System.currentTimeMillis();
             time = (endTime - startTime);
             timeList.add(time);
+            BenchmarkResults.record(BenchmarkRecord.create("ParSort/cutoff=" + ParSort.cutoff, array.length, 10, time / 10.0));
 
 
             System.out.println("cutoff：" + (ParSort.cutoff) + "\t\t10times Time:" + time + "ms");
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Tool to compare two sets of BenchmarkRecords (a baseline and a candidate) and to flag regressions.
+ * <p>
+ * Records are matched by their key (algorithm and N); where a file has more than one record for the same key,
+ * the last one is used.
+ * The mean times of a matched pair are compared using Welch's t-test (using the standard deviations and the
+ * numbers of runs of the two records).
+ * A regression is flagged when the candidate is slower by more than <code>threshold</code> (relative)
+ * and the difference is statistically significant (at the 95% level).
+ * The means of the instrumentation counters (compares, swaps, etc.) are subject to the same test:
+ * a counter is flagged as a regression when it has grown by more than <code>threshold</code> and the difference is significant.
+ * NOTE: the inputs of the benchmarks are usually random, so the counters vary from run to run;
+ * a counter whose standard deviation is not recorded in both records cannot be tested and is never flagged.
+ * <p>
+ * The main program takes the paths of the baseline and candidate files (and, optionally, the threshold),
+ * prints the comparisons and exits with status 1 if there are any regressions (so that it may be used to gate a pipeline).
+ */
+public class BenchmarkComparator {
+
+    /**
+     * Main program.
+     *
+     * @param args the baseline path, the candidate path and (optionally) the threshold (default 0.05).
+     * @throws IOException if either file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkComparator baseline candidate [threshold]");
+            System.exit(2);
+        }
+        final double threshold = args.length > 2 ? Double.parseDouble(args[2]) : THRESHOLD;
+        final List<BenchmarkRecord> baseline = new BenchmarkResults(Paths.get(args[0])).read();
+        final List<BenchmarkRecord> candidate = new BenchmarkResults(Paths.get(args[1])).read();
+        final List<Comparison> comparisons = new BenchmarkComparator(threshold).compare(baseline, candidate);
+        int regressions = 0;
+        for (Comparison comparison : comparisons) {
+            System.out.println(comparison);
+            if (comparison.isRegression()) regressions++;
+        }
+        System.out.println(comparisons.size() + " comparisons; " + regressions + " regression(s)");
+        if (regressions > 0) System.exit(1);
+    }
+
+    /**
+     * Compare the candidate records with the baseline records.
+     *
+     * @param baseline  the baseline records.
+     * @param candidate the candidate records.
+     * @return a list of Comparisons, one for each key which is present in both lists (in the order of the candidate).
+     */
+    public List<Comparison> compare(List<BenchmarkRecord> baseline, List<BenchmarkRecord> candidate) {
+        final Map<String, BenchmarkRecord> baselineMap = byKey(baseline);
+        final List<Comparison> result = new ArrayList<>();
+        for (BenchmarkRecord record : byKey(candidate).values()) {
+            final BenchmarkRecord base = baselineMap.get(record.key());
+            if (base != null) result.add(compare(base, record));
+        }
+        return result;
+    }
+
+    /**
+     * Compare one candidate record with its baseline record.
+     *
+     * @param base      the baseline record.
+     * @param candidate the candidate record.
+     * @return a Comparison.
+     */
+    public Comparison compare(BenchmarkRecord base, BenchmarkRecord candidate) {
+        if (!base.key().equals(candidate.key()))
+            throw new SortException("BenchmarkComparator: cannot compare " + base.key() + " with " + candidate.key());
+        final double change = relativeChange(base.getMean(), candidate.getMean());
+        final boolean significant = isSignificant(base, candidate);
+        final List<String> counterRegressions = new ArrayList<>();
+        final Map<String, Double> baseCounters = base.getCounters();
+        final Map<String, Double> baseStdDevs = base.getCounterStdDevs();
+        final Map<String, Double> candidateStdDevs = candidate.getCounterStdDevs();
+        for (Map.Entry<String, Double> entry : candidate.getCounters().entrySet()) {
+            final String key = entry.getKey();
+            final Double x = baseCounters.get(key), sdX = baseStdDevs.get(key), sdY = candidateStdDevs.get(key);
+            if (x != null && sdX != null && sdY != null && relativeChange(x, entry.getValue()) > threshold &&
+                    isSignificant(x, sdX, base.getRuns(), entry.getValue(), sdY, candidate.getRuns()))
+                counterRegressions.add(key);
+        }
+        return new Comparison(candidate.key(), base.getMean(), candidate.getMean(), change, significant,
+                significant && change > threshold, significant && change < -threshold, counterRegressions);
+    }
+
+    /**
+     * Determine, using Welch's t-test, whether the difference of the means of two records is significant at the 95% level.
+     * If either record lacks the information required (fewer than two runs or no variance),
+     * then any difference is deemed to be significant (and only the threshold applies).
+     *
+     * @param x a record.
+     * @param y another record.
+     * @return true if the difference between the means is significant.
+     */
+    static boolean isSignificant(BenchmarkRecord x, BenchmarkRecord y) {
+        return isSignificant(x.getMean(), x.getStdDev(), x.getRuns(), y.getMean(), y.getStdDev(), y.getRuns());
+    }
+
+    /**
+     * Determine, using Welch's t-test, whether the difference of two sample means is significant at the 95% level.
+     * If either sample lacks the information required (fewer than two values or no variance),
+     * then any difference is deemed to be significant.
+     *
+     * @param meanX   the mean of the first sample.
+     * @param stdDevX the standard deviation of the first sample.
+     * @param nx      the size of the first sample.
+     * @param meanY   the mean of the second sample.
+     * @param stdDevY the standard deviation of the second sample.
+     * @param ny      the size of the second sample.
+     * @return true if the difference between the means is significant.
+     */
+    static boolean isSignificant(double meanX, double stdDevX, int nx, double meanY, double stdDevY, int ny) {
+        if (nx < 2 || ny < 2) return true;
+        final double vx = stdDevX * stdDevX / nx, vy = stdDevY * stdDevY / ny;
+        final double variance = vx + vy;
+        if (variance == 0) return true;
+        final double t = Math.abs(meanY - meanX) / Math.sqrt(variance);
+        // NOTE Welch-Satterthwaite approximation to the degrees of freedom.
+        final double df = variance * variance / (vx * vx / (nx - 1) + vy * vy / (ny - 1));
+        return t > BenchmarkResult.tCritical(Math.max(1, (int) Math.floor(df)));
+    }
+
+    /**
+     * Constructor for a BenchmarkComparator.
+     *
+     * @param threshold the relative change (for example 0.05 for 5%) above which a significant slowdown is a regression.
+     */
+    public BenchmarkComparator(double threshold) {
+        if (threshold < 0) throw new SortException("BenchmarkComparator: threshold must not be negative");
+        this.threshold = threshold;
+    }
+
+    /**
+     * Constructor for a BenchmarkComparator with the default threshold.
+     */
+    public BenchmarkComparator() {
+        this(THRESHOLD);
+    }
+
+    /**
+     * The result of comparing a candidate record with its baseline.
+     */
+    public static class Comparison {
+        public Comparison(String key, double baseline, double candidate, double change, boolean significant, boolean slower, boolean faster, List<String> counterRegressions) {
+            this.key = key;
+            this.baseline = baseline;
+            this.candidate = candidate;
+            this.change = change;
+            this.significant = significant;
+            this.slower = slower;
+            this.faster = faster;
+            this.counterRegressions = counterRegressions;
+        }
+
+        /**
+         * @return true if the candidate is significantly slower, or any of its counters has significantly grown, beyond the threshold.
+         */
+        public boolean isRegression() {
+            return slower || !counterRegressions.isEmpty();
+        }
+
+        /**
+         * @return true if the candidate is significantly faster beyond the threshold.
+         */
+        public boolean isImprovement() {
+            return faster;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the relative change of the mean time (positive means slower).
+         */
+        public double getChange() {
+            return change;
+        }
+
+        public boolean isSignificant() {
+            return significant;
+        }
+
+        public List<String> getCounterRegressions() {
+            return counterRegressions;
+        }
+
+        @Override
+        public String toString() {
+            final String verdict = slower ? "REGRESSION" : faster ? "improvement" : "unchanged";
+            final StringBuilder sb = new StringBuilder(key).append(": ").append(verdict).append(" ")
+                    .append(Utilities.formatDecimal3Places(baseline)).append(" -> ").append(Utilities.formatDecimal3Places(candidate))
+                    .append(" mSec (").append(Utilities.formatDecimal3Places(change * 100)).append("%")
+                    .append(significant ? ", significant)" : ", not significant)");
+            if (!counterRegressions.isEmpty()) sb.append("; counter regressions: ").append(counterRegressions);
+            return sb.toString();
+        }
+
+        private final String key;
+        private final double baseline;
+        private final double candidate;
+        private final double change;
+        private final boolean significant;
+        private final boolean slower;
+        private final boolean faster;
+        private final List<String> counterRegressions;
+    }
+
+    private static Map<String, BenchmarkRecord> byKey(List<BenchmarkRecord> records) {
+        final Map<String, BenchmarkRecord> result = new LinkedHashMap<>();
+        for (BenchmarkRecord record : records) {
+            result.remove(record.key());
+            result.put(record.key(), record);
+        }
+        return result;
+    }
+
+    private static double relativeChange(double x, double y) {
+        if (x == 0) return y == 0 ? 0 : Double.POSITIVE_INFINITY;
+        return (y - x) / x;
+    }
+
+    /**
+     * The default threshold (5%).
+     */
+    public static final double THRESHOLD = 0.05;
+
+    private final double threshold;
+}
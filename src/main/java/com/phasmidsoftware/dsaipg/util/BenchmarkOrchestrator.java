@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class to run independent benchmark "cells" concurrently and to aggregate their results into one report.
+ * <p>
+ * A Cell is identified by a config section (for example benchmarkstringsorters), an option (the sorter) and a problem size N.
+ * Cells are run by a fixed pool of <code>parallelism</code> workers, in one of two ways:
+ * <dl>
+ *     <dt>isolated (the default)</dt>
+ *     <dd>each cell runs in its own forked JVM (the main class is invoked with the arguments {@link #CELL} section option N),
+ *     so that cells cannot interfere with each other's heap, GC or JIT compilation.
+ *     If affinity is requested (and taskset is available), each worker's JVMs are pinned to a distinct CPU.
+ *     The output of each JVM is written to a log file in the work directory.</dd>
+ *     <dt>in-process</dt>
+ *     <dd>each cell is run on a worker thread of this JVM (cheaper to start, but the cells share the heap, GC and JIT,
+ *     so timings are subject to cross-talk).</dd>
+ * </dl>
+ * In either case, each cell records its BenchmarkRecords in its own results file (see BenchmarkResults),
+ * and these are gathered (in the order of the cells) when all cells have completed.
+ */
+public class BenchmarkOrchestrator {
+
+    /**
+     * An independent unit of benchmarking work.
+     */
+    public static class Cell {
+        public Cell(String section, String option, long n) {
+            this.section = section;
+            this.option = option;
+            this.n = n;
+        }
+
+        /**
+         * @return the arguments with which the main class should be invoked to run this cell.
+         */
+        public String[] args() {
+            return new String[]{CELL, section, option, String.valueOf(n)};
+        }
+
+        /**
+         * Parse the arguments of a cell (as yielded by args()).
+         *
+         * @param args the arguments.
+         * @return a Cell.
+         */
+        public static Cell parse(String[] args) {
+            if (args.length != 4 || !args[0].equals(CELL))
+                throw new SortException("BenchmarkOrchestrator.Cell: invalid arguments: " + String.join(" ", args));
+            return new Cell(args[1], args[2], Long.parseLong(args[3]));
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public String getOption() {
+            return option;
+        }
+
+        public long getN() {
+            return n;
+        }
+
+        @Override
+        public String toString() {
+            return section + "." + option + "@" + n;
+        }
+
+        private final String section;
+        private final String option;
+        private final long n;
+    }
+
+    /**
+     * Run all the cells and gather their results.
+     *
+     * @param cells the cells to be run.
+     * @return the BenchmarkRecords of all the cells, in the order of the cells.
+     * @throws SortException if any cell fails.
+     */
+    public List<BenchmarkRecord> run(List<Cell> cells) {
+        logger.info("BenchmarkOrchestrator: running " + cells.size() + " cells with parallelism " + parallelism + (isolated ? " in forked JVMs" : " in worker threads"));
+        if (!isolated)
+            logger.warn("BenchmarkOrchestrator: cells running in the same JVM are subject to cross-talk (heap, GC, JIT)");
+        final AtomicInteger workers = new AtomicInteger();
+        final ThreadLocal<Integer> worker = ThreadLocal.withInitial(workers::getAndIncrement);
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "benchmark-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        final List<Path> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < cells.size(); i++) {
+                final int index = i;
+                final Cell cell = cells.get(i);
+                final Path path = workDirectory.resolve("cell-" + i + ".jsonl");
+                Files.deleteIfExists(path);
+                paths.add(path);
+                completionService.submit(() -> {
+                    try {
+                        runCell(cell, path, worker.get());
+                        return index;
+                    } catch (Exception e) {
+                        throw new SortException("BenchmarkOrchestrator: cell " + cell + " failed", e);
+                    }
+                });
+            }
+            // NOTE the cells are awaited in the order of completion, so that the first failure stops the run at once.
+            for (int i = 0; i < cells.size(); i++)
+                try {
+                    completionService.take().get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof SortException) throw (SortException) e.getCause();
+                    throw new SortException("BenchmarkOrchestrator: a cell failed", e.getCause());
+                }
+            final List<BenchmarkRecord> result = new ArrayList<>();
+            for (Path path : paths)
+                if (Files.exists(path)) result.addAll(new BenchmarkResults(path).read());
+            return result;
+        } catch (IOException e) {
+            throw new SortException("BenchmarkOrchestrator: I/O problem", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SortException("BenchmarkOrchestrator: interrupted", e);
+        } finally {
+            executor.shutdownNow();
+            // NOTE wait (briefly) for the workers to kill their forked JVMs, so that none of them outlives this run.
+            try {
+                if (!executor.awaitTermination(KILL_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                    logger.warn("BenchmarkOrchestrator: workers did not terminate");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Run all the cells, then append the gathered results to the given store and log a summary of each.
+     *
+     * @param cells the cells.
+     * @param store the store for the aggregated report (may be null).
+     * @return the BenchmarkRecords of all the cells.
+     * @throws IOException if the store cannot be written.
+     */
+    public List<BenchmarkRecord> runAndReport(List<Cell> cells, BenchmarkResults store) throws IOException {
+        final List<BenchmarkRecord> records = run(cells);
+        for (BenchmarkRecord record : records) {
+            if (store != null) store.append(record);
+            logger.info("Report: " + record.key() + ": mean=" + Utilities.formatDecimal3Places(record.getMean()) +
+                    " +/- " + Utilities.formatDecimal3Places(record.getConfidence()) + " mSec; median=" + Utilities.formatDecimal3Places(record.getMedian()) + " mSec");
+        }
+        if (store != null) logger.info("Report: " + records.size() + " records appended to " + store.getPath());
+        return records;
+    }
+
+    private void runCell(Cell cell, Path path, int worker) throws IOException, InterruptedException {
+        logger.info("BenchmarkOrchestrator: worker " + worker + " starting cell " + cell);
+        if (isolated) {
+            final List<String> command = new ArrayList<>();
+            if (affinity && TASKSET.canExecute()) {
+                command.add(TASKSET.getPath());
+                command.add("-c");
+                command.add(String.valueOf(worker % Runtime.getRuntime().availableProcessors()));
+            }
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmOptions);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("-D" + BenchmarkResults.RESULTS_PROPERTY + "=" + path);
+            command.add(mainClass.getName());
+            for (String arg : cell.args()) command.add(arg);
+            final File log = workDirectory.resolve(path.getFileName().toString().replace(".jsonl", ".log")).toFile();
+            final Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+            try {
+                final int status = process.waitFor();
+                if (status != 0) throw new SortException("BenchmarkOrchestrator: cell " + cell + " exited with status " + status + " (see " + log + ")");
+            } finally {
+                // NOTE if this worker is interrupted (by shutdownNow, after another cell has failed), the forked JVM must not outlive it.
+                kill(process);
+            }
+        } else {
+            BenchmarkResults.setThreadStore(path);
+            try {
+                inProcessRunner.accept(cell);
+            } finally {
+                BenchmarkResults.setThreadStore(null);
+            }
+        }
+        logger.info("BenchmarkOrchestrator: worker " + worker + " finished cell " + cell);
+    }
+
+    /**
+     * Kill the given process (if it is still alive) and wait (briefly) for it to terminate.
+     *
+     * @param process the process.
+     */
+    private static void kill(Process process) {
+        if (!process.isAlive()) return;
+        process.destroyForcibly();
+        try {
+            if (!process.waitFor(KILL_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                logger.warn("BenchmarkOrchestrator: process " + process.pid() + " did not terminate");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delete a (work) directory together with everything in it.
+     * NOTE: the directory need not exist.
+     *
+     * @param directory the directory to be deleted.
+     * @throws IOException if the directory (or any of its contents) cannot be deleted.
+     */
+    public static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        final List<Path> paths;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        // NOTE the contents of a directory come after the directory in reverse order.
+        for (Path path : paths) Files.delete(path);
+    }
+
+    /**
+     * Constructor for a BenchmarkOrchestrator.
+     *
+     * @param parallelism     the number of cells which may run at the same time.
+     * @param isolated        true if each cell should run in its own JVM.
+     * @param affinity        true if each worker's JVMs should be pinned to a CPU (ignored unless isolated).
+     * @param jvmOptions      options (for example -Xmx4g) for the forked JVMs.
+     * @param workDirectory   the directory for the results (and logs) of the cells.
+     * @param mainClass       the main class to be invoked (with the cell arguments) in a forked JVM.
+     * @param inProcessRunner the function which runs a cell in this JVM (used unless isolated).
+     */
+    public BenchmarkOrchestrator(int parallelism, boolean isolated, boolean affinity, List<String> jvmOptions, Path workDirectory, Class<?> mainClass, Consumer<Cell> inProcessRunner) {
+        if (parallelism < 1) throw new SortException("BenchmarkOrchestrator: parallelism must be positive");
+        this.parallelism = parallelism;
+        this.isolated = isolated;
+        this.affinity = affinity;
+        this.jvmOptions = new ArrayList<>(jvmOptions);
+        this.workDirectory = workDirectory;
+        this.mainClass = mainClass;
+        this.inProcessRunner = inProcessRunner;
+    }
+
+    /**
+     * The first argument which signifies that the main program should run just one cell.
+     */
+    public static final String CELL = "--cell";
+
+    private static final File TASKSET = new File("/usr/bin/taskset");
+    private static final int KILL_TIMEOUT_SECONDS = 10;
+
+    private final int parallelism;
+    private final boolean isolated;
+    private final boolean affinity;
+    private final List<String> jvmOptions;
+    private final Path workDirectory;
+    private final Class<?> mainClass;
+    private final Consumer<Cell> inProcessRunner;
+
+    final static LazyLogger logger = new LazyLogger(BenchmarkOrchestrator.class);
+}
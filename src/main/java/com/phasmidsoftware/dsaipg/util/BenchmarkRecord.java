@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The common (machine-readable) schema for the result of one benchmark "cell," that's to say one algorithm at one problem size.
+ * <p>
+ * A record comprises the algorithm (with any variant, for example "QuickSelect/random"), the problem size N,
+ * the number of timed runs, the distribution of the run times (in milliseconds), GC and allocation counts,
+ * and the means (and, where known, the standard deviations) of any instrumentation counters
+ * (for example compares and swaps, taken from a StatPack).
+ * <p>
+ * A record may be rendered (and parsed) as a line of JSON (see {@link #toJson()}) or as a line of CSV (see {@link #toCsv()}).
+ * Records are usually written and read via BenchmarkResults.
+ */
+public class BenchmarkRecord {
+
+    /**
+     * Create a BenchmarkRecord from a BenchmarkResult.
+     *
+     * @param algorithm the algorithm (and variant).
+     * @param n         the problem size.
+     * @param result    the result of the benchmark.
+     * @return a new BenchmarkRecord (without counters).
+     */
+    public static BenchmarkRecord create(String algorithm, int n, BenchmarkResult result) {
+        return new BenchmarkRecord(Instant.now().toString(), algorithm, n, result.getCount(),
+                result.meanMillis(), toMillis(result.median()), toMillis(result.p90()), toMillis(result.p99()),
+                toMillis(result.stdDev()), toMillis(result.confidenceHalfWidth()), result.outliers(), result.gcCount(),
+                result.meanAllocation(), new TreeMap<>());
+    }
+
+    /**
+     * Create a BenchmarkRecord when only the mean time is known (for example, from Benchmark_Timer).
+     * The distribution is unknown so the median and percentiles are set to the mean and the standard deviation is zero.
+     *
+     * @param algorithm  the algorithm (and variant).
+     * @param n          the problem size.
+     * @param runs       the number of runs.
+     * @param meanMillis the mean time per run (mSec).
+     * @return a new BenchmarkRecord (without counters).
+     */
+    public static BenchmarkRecord create(String algorithm, int n, int runs, double meanMillis) {
+        return new BenchmarkRecord(Instant.now().toString(), algorithm, n, runs, meanMillis, meanMillis, meanMillis, meanMillis, 0, 0, 0, 0, -1, new TreeMap<>());
+    }
+
+    /**
+     * Method to yield a copy of this record with the means and standard deviations of the counters of the given StatPack.
+     * Counters which have no values are ignored, as are standard deviations which are not finite (for example, of a single value).
+     *
+     * @param statPack a StatPack (may be null, in which case this is returned).
+     * @return a BenchmarkRecord.
+     */
+    public BenchmarkRecord withCounters(StatPack statPack) {
+        if (statPack == null) return this;
+        final Map<String, Double> map = new TreeMap<>(counters);
+        final Map<String, Double> stdDevs = new TreeMap<>(counterStdDevs);
+        for (String key : statPack.keys())
+            if (statPack.getCount(key) > 0) {
+                map.put(key, statPack.mean(key));
+                final double sd = statPack.stdDev(key);
+                if (Double.isFinite(sd)) stdDevs.put(key, sd);
+            }
+        return new BenchmarkRecord(timestamp, algorithm, n, runs, mean, median, p90, p99, stdDev, confidence, outliers, gcCount, allocation, map, stdDevs);
+    }
+
+    /**
+     * @return the key which identifies the benchmark cell (algorithm and N) for comparison purposes.
+     */
+    public String key() {
+        return algorithm + "@" + n;
+    }
+
+    /**
+     * NOTE: JSON has no representation of NaN or infinity, so any such value (for example, the standard deviation
+     * of a single run) is written as null, which is read back as NaN.
+     *
+     * @return this record as a single line of JSON (with no trailing newline).
+     */
+    public String toJson() {
+        final StringBuilder sb = new StringBuilder("{");
+        sb.append("\"timestamp\":").append(quote(timestamp));
+        sb.append(",\"algorithm\":").append(quote(algorithm));
+        sb.append(",\"n\":").append(n);
+        sb.append(",\"runs\":").append(runs);
+        sb.append(",\"mean\":").append(jsonNumber(mean));
+        sb.append(",\"median\":").append(jsonNumber(median));
+        sb.append(",\"p90\":").append(jsonNumber(p90));
+        sb.append(",\"p99\":").append(jsonNumber(p99));
+        sb.append(",\"stdDev\":").append(jsonNumber(stdDev));
+        sb.append(",\"ci95\":").append(jsonNumber(confidence));
+        sb.append(",\"outliers\":").append(outliers);
+        sb.append(",\"gcCount\":").append(gcCount);
+        sb.append(",\"allocation\":").append(jsonNumber(allocation));
+        sb.append(",\"counters\":");
+        appendJsonObject(sb, counters);
+        sb.append(",\"counterStdDevs\":");
+        appendJsonObject(sb, counterStdDevs);
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Parse a line of JSON (as written by toJson) into a BenchmarkRecord.
+     * NOTE: unknown properties are ignored, so that the schema may be extended.
+     *
+     * @param line a line of JSON.
+     * @return a BenchmarkRecord.
+     * @throws SortException if the line cannot be parsed.
+     */
+    public static BenchmarkRecord parseJson(String line) {
+        final Map<String, Object> map = new JsonParser(line).parseObject();
+        return new BenchmarkRecord(
+                (String) map.getOrDefault("timestamp", ""),
+                (String) map.get("algorithm"),
+                (int) toDouble(map.get("n")),
+                (int) toDouble(map.get("runs")),
+                toDouble(map.get("mean")),
+                toDouble(map.get("median")),
+                toDouble(map.get("p90")),
+                toDouble(map.get("p99")),
+                toDouble(map.get("stdDev")),
+                toDouble(map.getOrDefault("ci95", 0.0)),
+                (int) toDouble(map.getOrDefault("outliers", 0.0)),
+                (long) toDouble(map.getOrDefault("gcCount", 0.0)),
+                toDouble(map.getOrDefault("allocation", -1.0)),
+                toDoubleMap(map.get("counters")),
+                toDoubleMap(map.get("counterStdDevs")));
+    }
+
+    /**
+     * @return this record as a single line of CSV (see CSV_HEADER) with no trailing newline.
+     * The counters (and their standard deviations) are each rendered in a single column as semicolon-separated key=value pairs.
+     */
+    public String toCsv() {
+        return String.join(",", csvField(timestamp), csvField(algorithm), String.valueOf(n), String.valueOf(runs),
+                String.valueOf(mean), String.valueOf(median), String.valueOf(p90), String.valueOf(p99),
+                String.valueOf(stdDev), String.valueOf(confidence), String.valueOf(outliers), String.valueOf(gcCount),
+                String.valueOf(allocation), csvField(csvPairs(counters)), csvField(csvPairs(counterStdDevs)));
+    }
+
+    /**
+     * Parse a line of CSV (as written by toCsv) into a BenchmarkRecord.
+     * NOTE: a line without the final (counterStdDevs) column, as written before that column was added, is also accepted.
+     *
+     * @param line a line of CSV (not the header).
+     * @return a BenchmarkRecord.
+     * @throws SortException if the line cannot be parsed.
+     */
+    public static BenchmarkRecord parseCsv(String line) {
+        final List<String> fields = splitCsv(line);
+        if (fields.size() != CSV_COLUMNS && fields.size() != CSV_COLUMNS - 1)
+            throw new SortException("BenchmarkRecord.parseCsv: expected " + CSV_COLUMNS + " fields but got " + fields.size() + ": " + line);
+        try {
+            return new BenchmarkRecord(fields.get(0), fields.get(1), Integer.parseInt(fields.get(2)), Integer.parseInt(fields.get(3)),
+                    Double.parseDouble(fields.get(4)), Double.parseDouble(fields.get(5)), Double.parseDouble(fields.get(6)),
+                    Double.parseDouble(fields.get(7)), Double.parseDouble(fields.get(8)), Double.parseDouble(fields.get(9)),
+                    Integer.parseInt(fields.get(10)), Long.parseLong(fields.get(11)), Double.parseDouble(fields.get(12)),
+                    parseCsvPairs(fields.get(13)), fields.size() == CSV_COLUMNS ? parseCsvPairs(fields.get(14)) : new TreeMap<>());
+        } catch (NumberFormatException e) {
+            throw new SortException("BenchmarkRecord.parseCsv: bad number in: " + line, e);
+        }
+    }
+
+    public BenchmarkRecord(String timestamp, String algorithm, int n, int runs, double mean, double median, double p90, double p99, double stdDev, double confidence, int outliers, long gcCount, double allocation, Map<String, Double> counters, Map<String, Double> counterStdDevs) {
+        if (algorithm == null) throw new SortException("BenchmarkRecord: algorithm must be specified");
+        this.timestamp = timestamp;
+        this.algorithm = algorithm;
+        this.n = n;
+        this.runs = runs;
+        this.mean = mean;
+        this.median = median;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.stdDev = stdDev;
+        this.confidence = confidence;
+        this.outliers = outliers;
+        this.gcCount = gcCount;
+        this.allocation = allocation;
+        this.counters = new TreeMap<>(counters);
+        this.counterStdDevs = new TreeMap<>(counterStdDevs);
+    }
+
+    public BenchmarkRecord(String timestamp, String algorithm, int n, int runs, double mean, double median, double p90, double p99, double stdDev, double confidence, int outliers, long gcCount, double allocation, Map<String, Double> counters) {
+        this(timestamp, algorithm, n, runs, mean, median, p90, p99, stdDev, confidence, outliers, gcCount, allocation, counters, new TreeMap<>());
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return the mean time per run (mSec).
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getStdDev() {
+        return stdDev;
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval of the mean (mSec).
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public int getOutliers() {
+        return outliers;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * @return the mean number of bytes allocated per run (or -1 if unknown).
+     */
+    public double getAllocation() {
+        return allocation;
+    }
+
+    public Map<String, Double> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    /**
+     * @return the standard deviations of those counters for which it is known.
+     */
+    public Map<String, Double> getCounterStdDevs() {
+        return new TreeMap<>(counterStdDevs);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    public static final String CSV_HEADER = "timestamp,algorithm,n,runs,mean,median,p90,p99,stdDev,ci95,outliers,gcCount,allocation,counters,counterStdDevs";
+
+    private static final int CSV_COLUMNS = 15;
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String jsonNumber(double x) {
+        return Double.isFinite(x) ? String.valueOf(x) : "null";
+    }
+
+    private static double toDouble(Object object) {
+        if (object == null) return Double.NaN; // NOTE: see jsonNumber.
+        if (object instanceof Number) return ((Number) object).doubleValue();
+        throw new SortException("BenchmarkRecord: expected a number but got: " + object);
+    }
+
+    private static Map<String, Double> toDoubleMap(Object object) {
+        final Map<String, Double> result = new TreeMap<>();
+        if (object instanceof Map)
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet())
+                result.put(entry.getKey().toString(), toDouble(entry.getValue()));
+        return result;
+    }
+
+    private static void appendJsonObject(StringBuilder sb, Map<String, Double> map) {
+        sb.append("{");
+        boolean first = true;
+        for (Map.Entry<String, Double> entry : map.entrySet()) {
+            if (!first) sb.append(",");
+            sb.append(quote(entry.getKey())).append(":").append(jsonNumber(entry.getValue()));
+            first = false;
+        }
+        sb.append("}");
+    }
+
+    private static String csvPairs(Map<String, Double> map) {
+        final StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Double> entry : map.entrySet()) {
+            if (sb.length() > 0) sb.append(";");
+            sb.append(entry.getKey()).append("=").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, Double> parseCsvPairs(String s) {
+        final Map<String, Double> result = new TreeMap<>();
+        if (!s.isEmpty())
+            for (String pair : s.split(";")) {
+                final int equals = pair.indexOf('=');
+                if (equals < 0) throw new SortException("BenchmarkRecord.parseCsv: bad counter: " + pair);
+                result.put(pair.substring(0, equals), Double.parseDouble(pair.substring(equals + 1)));
+            }
+        return result;
+    }
+
+    private static String quote(String s) {
+        final StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray())
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        return sb.append('"').toString();
+    }
+
+    private static String csvField(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    private static List<String> splitCsv(String line) {
+        final List<String> result = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"')
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else quoted = false;
+                else field.append(c);
+            } else if (c == '"') quoted = true;
+            else if (c == ',') {
+                result.add(field.toString());
+                field.setLength(0);
+            } else field.append(c);
+        }
+        result.add(field.toString());
+        return result;
+    }
+
+    /**
+     * A minimal parser for the JSON which we write: objects, strings, numbers, booleans and null (but not arrays).
+     */
+    private static class JsonParser {
+        JsonParser(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> parseObject() {
+            final Map<String, Object> result = new TreeMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                i++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                final String key = parseString();
+                skipWhitespace();
+                expect(':');
+                result.put(key, parseValue());
+                skipWhitespace();
+                if (peek() == ',') i++;
+                else {
+                    expect('}');
+                    return result;
+                }
+            }
+        }
+
+        private Object parseValue() {
+            skipWhitespace();
+            final char c = peek();
+            if (c == '{') return parseObject();
+            if (c == '"') return parseString();
+            if (s.startsWith("true", i)) {
+                i += 4;
+                return Boolean.TRUE;
+            }
+            if (s.startsWith("false", i)) {
+                i += 5;
+                return Boolean.FALSE;
+            }
+            if (s.startsWith("null", i)) {
+                i += 4;
+                return null;
+            }
+            final int start = i;
+            while (i < s.length() && "+-0123456789.eEInfinityNa".indexOf(s.charAt(i)) >= 0) i++;
+            try {
+                return Double.parseDouble(s.substring(start, i));
+            } catch (NumberFormatException e) {
+                throw new SortException("BenchmarkRecord: bad JSON number at " + start + ": " + s);
+            }
+        }
+
+        private String parseString() {
+            expect('"');
+            final StringBuilder sb = new StringBuilder();
+            while (true) {
+                final char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') sb.append(c);
+                else {
+                    final char e = next();
+                    switch (e) {
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 'r':
+                            sb.append('\r');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'u':
+                            if (i + 4 > s.length()) throw new SortException("BenchmarkRecord: bad JSON escape: " + s);
+                            sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                            i += 4;
+                            break;
+                        default:
+                            sb.append(e);
+                    }
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        }
+
+        private char peek() {
+            if (i >= s.length()) throw new SortException("BenchmarkRecord: unexpected end of JSON: " + s);
+            return s.charAt(i);
+        }
+
+        private char next() {
+            final char c = peek();
+            i++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c) throw new SortException("BenchmarkRecord: expected '" + c + "' at " + (i - 1) + " in JSON: " + s);
+        }
+
+        private final String s;
+        private int i = 0;
+    }
+
+    private final String timestamp;
+    private final String algorithm;
+    private final int n;
+    private final int runs;
+    private final double mean;
+    private final double median;
+    private final double p90;
+    private final double p99;
+    private final double stdDev;
+    private final double confidence;
+    private final int outliers;
+    private final long gcCount;
+    private final double allocation;
+    private final Map<String, Double> counters;
+    private final Map<String, Double> counterStdDevs;
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import java.util.Arrays;
+
+/**
+ * The result of a benchmark run by Benchmark_Rigorous.
+ * <p>
+ * The raw material is the array of timed samples (in nanoseconds), one per run, together with the number of
+ * garbage collections and the number of bytes allocated (by the benchmarking thread) during each run.
+ * From these, we derive the usual summary statistics: mean, median, percentiles, standard deviation,
+ * a 95% confidence interval for the mean, and the number of outliers.
+ * <p>
+ * NOTE: the samples are kept in the order in which they were taken; percentiles are computed on a sorted copy.
+ */
+public class BenchmarkResult {
+
+    /**
+     * Constructor for BenchmarkResult.
+     *
+     * @param description the description of the benchmark.
+     * @param nanos       the elapsed time of each run (nanoseconds).
+     * @param gcCounts    the number of garbage collections during each run.
+     * @param gcMillis    the total time spent in garbage collection during the timed runs (milliseconds).
+     * @param allocations the number of bytes allocated during each run (or -1 if this cannot be measured).
+     * @param warmupRuns  the total number of warmup runs (over all rounds).
+     * @param rounds      the number of rounds.
+     */
+    public BenchmarkResult(String description, long[] nanos, long[] gcCounts, long gcMillis, long[] allocations, int warmupRuns, int rounds) {
+        if (nanos.length == 0) throw new IllegalArgumentException("BenchmarkResult: no samples for " + description);
+        if (gcCounts.length != nanos.length || allocations.length != nanos.length)
+            throw new IllegalArgumentException("BenchmarkResult: inconsistent sample lengths for " + description);
+        this.description = description;
+        this.nanos = nanos;
+        this.gcCounts = gcCounts;
+        this.gcMillis = gcMillis;
+        this.allocations = allocations;
+        this.warmupRuns = warmupRuns;
+        this.rounds = rounds;
+        this.sorted = Arrays.copyOf(nanos, nanos.length);
+        Arrays.sort(sorted);
+    }
+
+    /**
+     * @return the number of timed runs.
+     */
+    public int getCount() {
+        return nanos.length;
+    }
+
+    /**
+     * @return the mean time per run in nanoseconds.
+     */
+    public double mean() {
+        double sum = 0;
+        for (long x : nanos) sum += x;
+        return sum / nanos.length;
+    }
+
+    /**
+     * @return the mean time per run in milliseconds (for compatibility with Benchmark.runFromSupplier).
+     */
+    public double meanMillis() {
+        return mean() / 1_000_000.0;
+    }
+
+    /**
+     * @return the median time per run in nanoseconds.
+     */
+    public double median() {
+        return percentile(50);
+    }
+
+    /**
+     * Method to yield a percentile of the run times, by linear interpolation between the closest ranks.
+     *
+     * @param p the percentile (between 0 and 100).
+     * @return the time (in nanoseconds) below which p percent of the runs fall.
+     */
+    public double percentile(double p) {
+        if (p < 0 || p > 100) throw new IllegalArgumentException("BenchmarkResult: invalid percentile: " + p);
+        double rank = p / 100 * (sorted.length - 1);
+        int lo = (int) Math.floor(rank);
+        int hi = Math.min(lo + 1, sorted.length - 1);
+        return sorted[lo] + (rank - lo) * (sorted[hi] - sorted[lo]);
+    }
+
+    /**
+     * @return the 90th percentile in nanoseconds.
+     */
+    public double p90() {
+        return percentile(90);
+    }
+
+    /**
+     * @return the 99th percentile in nanoseconds.
+     */
+    public double p99() {
+        return percentile(99);
+    }
+
+    /**
+     * @return the minimum time in nanoseconds.
+     */
+    public long min() {
+        return sorted[0];
+    }
+
+    /**
+     * @return the maximum time in nanoseconds.
+     */
+    public long max() {
+        return sorted[sorted.length - 1];
+    }
+
+    /**
+     * Method to yield the sample standard deviation (i.e. with Bessel's correction).
+     *
+     * @return the standard deviation of the run times in nanoseconds (zero if there is only one sample).
+     */
+    public double stdDev() {
+        int n = nanos.length;
+        if (n < 2) return 0;
+        double mean = mean();
+        double sumSquares = 0;
+        for (long x : nanos) sumSquares += (x - mean) * (x - mean);
+        return Math.sqrt(sumSquares / (n - 1));
+    }
+
+    /**
+     * Method to yield the half-width of the 95% confidence interval for the mean,
+     * using Student's t distribution with n-1 degrees of freedom.
+     *
+     * @return the half-width of the confidence interval in nanoseconds.
+     */
+    public double confidenceHalfWidth() {
+        int n = nanos.length;
+        if (n < 2) return 0;
+        return tCritical(n - 1) * stdDev() / Math.sqrt(n);
+    }
+
+    /**
+     * @return the lower bound of the 95% confidence interval for the mean (nanoseconds).
+     */
+    public double confidenceLower() {
+        return mean() - confidenceHalfWidth();
+    }
+
+    /**
+     * @return the upper bound of the 95% confidence interval for the mean (nanoseconds).
+     */
+    public double confidenceUpper() {
+        return mean() + confidenceHalfWidth();
+    }
+
+    /**
+     * Method to count the outliers, according to Tukey's fences,
+     * i.e. those samples which lie more than 1.5 inter-quartile ranges below the first or above the third quartile.
+     *
+     * @return the number of outliers.
+     */
+    public int outliers() {
+        double q1 = percentile(25), q3 = percentile(75);
+        double fence = 1.5 * (q3 - q1);
+        int result = 0;
+        for (long x : sorted) if (x < q1 - fence || x > q3 + fence) result++;
+        return result;
+    }
+
+    /**
+     * @return the total number of garbage collections during the timed runs.
+     */
+    public long gcCount() {
+        long result = 0;
+        for (long x : gcCounts) result += x;
+        return result;
+    }
+
+    /**
+     * @return the total time spent in garbage collection during the timed runs (milliseconds).
+     */
+    public long gcMillis() {
+        return gcMillis;
+    }
+
+    /**
+     * @return the mean number of bytes allocated per run (or -1 if allocation could not be measured).
+     */
+    public double meanAllocation() {
+        double sum = 0;
+        for (long x : allocations) {
+            if (x < 0) return -1;
+            sum += x;
+        }
+        return sum / allocations.length;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long[] getNanos() {
+        return Arrays.copyOf(nanos, nanos.length);
+    }
+
+    public long[] getGcCounts() {
+        return Arrays.copyOf(gcCounts, gcCounts.length);
+    }
+
+    public long[] getAllocations() {
+        return Arrays.copyOf(allocations, allocations.length);
+    }
+
+    public int getWarmupRuns() {
+        return warmupRuns;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @return a summary of this result, with times in milliseconds.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(description).append(": n=").append(nanos.length)
+                .append(" (").append(rounds).append(rounds == 1 ? " round, " : " rounds, ").append(warmupRuns).append(" warmup)")
+                .append("; mean=").append(formatMillis(mean()))
+                .append(" +/- ").append(formatMillis(confidenceHalfWidth()))
+                .append("; median=").append(formatMillis(median()))
+                .append("; p90=").append(formatMillis(p90()))
+                .append("; p99=").append(formatMillis(p99()))
+                .append("; stdDev=").append(formatMillis(stdDev()))
+                .append(" mSec; outliers=").append(outliers())
+                .append("; GCs=").append(gcCount()).append(" (").append(gcMillis).append(" mSec)");
+        double allocation = meanAllocation();
+        if (allocation >= 0) sb.append("; allocated/run=").append(Utilities.formatWhole(Math.round(allocation))).append(" bytes");
+        return sb.toString();
+    }
+
+    /**
+     * Method to yield the two-sided 95% critical value of Student's t distribution.
+     * Exact (tabulated) values are used for up to 30 degrees of freedom;
+     * beyond that, we use the approximation 1.96 + 2.4/df, which converges on the normal value.
+     *
+     * @param df the degrees of freedom (at least 1).
+     * @return the critical value.
+     */
+    static double tCritical(int df) {
+        if (df < 1) throw new IllegalArgumentException("BenchmarkResult: invalid degrees of freedom: " + df);
+        return df <= T_TABLE.length ? T_TABLE[df - 1] : 1.96 + 2.4 / df;
+    }
+
+    private static String formatMillis(double nanos) {
+        return Utilities.formatDecimal3Places(nanos / 1_000_000.0);
+    }
+
+    private static final double[] T_TABLE = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    private final String description;
+    private final long[] nanos;
+    private final long[] sorted;
+    private final long[] gcCounts;
+    private final long gcMillis;
+    private final long[] allocations;
+    private final int warmupRuns;
+    private final int rounds;
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A store of BenchmarkRecords, held in a file which is either in JSON Lines format (one JSON object per line)
+ * or in CSV format (with a header line).
+ * The format is determined by the extension of the file: ".csv" for CSV; anything else for JSON Lines.
+ * <p>
+ * Records are always appended, so that a file may accumulate the results of many benchmarks (and many invocations).
+ * <p>
+ * The benchmarks (SortBenchmark, SelectBenchmark, etc.) write their results via {@link #record(BenchmarkRecord)},
+ * which appends to the file named by the system property <code>benchmark.results</code> (if it is set).
+ * The results of two such files may then be compared by BenchmarkComparator.
+ */
+public class BenchmarkResults {
+
+    /**
+     * Append a record to the default store (if there is one).
+     * The default store is the one set for the current thread (see setThreadStore), if any,
+     * otherwise the one named by the system property <code>benchmark.results</code>.
+     *
+     * @param record the record.
+     */
+    public static void record(BenchmarkRecord record) {
+        final Path threadStore = THREAD_STORE.get();
+        final String path = threadStore != null ? threadStore.toString() : System.getProperty(RESULTS_PROPERTY);
+        if (path == null || path.isEmpty()) return;
+        try {
+            new BenchmarkResults(Paths.get(path)).append(record);
+        } catch (IOException e) {
+            logger.warn("BenchmarkResults: unable to record result in " + path + ": " + e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Set (or, if path is null, clear) the default store for the current thread.
+     * This allows benchmarks which run concurrently in the same JVM (see BenchmarkOrchestrator) to record their results separately.
+     *
+     * @param path the path of the store for this thread (or null).
+     */
+    public static void setThreadStore(Path path) {
+        if (path == null) THREAD_STORE.remove();
+        else THREAD_STORE.set(path);
+    }
+
+    /**
+     * Append a record, created from the given result (and StatPack), to the default store (if there is one).
+     *
+     * @param algorithm the algorithm (and variant).
+     * @param n         the problem size.
+     * @param result    the result of the benchmark.
+     * @param statPack  the statistics of the instrumented counters (may be null).
+     */
+    public static void record(String algorithm, int n, BenchmarkResult result, StatPack statPack) {
+        record(BenchmarkRecord.create(algorithm, n, result).withCounters(statPack));
+    }
+
+    /**
+     * Append a record to this store.
+     *
+     * @param record the record.
+     * @throws IOException if the file cannot be written.
+     */
+    public void append(BenchmarkRecord record) throws IOException {
+        synchronized (BenchmarkResults.class) {
+            final boolean isNew = !Files.exists(path) || Files.size(path) == 0;
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (csv && isNew) {
+                    writer.write(BenchmarkRecord.CSV_HEADER);
+                    writer.newLine();
+                }
+                writer.write(csv ? record.toCsv() : record.toJson());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Read all the records of this store.
+     *
+     * @return a list of BenchmarkRecords, in the order in which they were written.
+     * @throws IOException   if the file cannot be read.
+     * @throws SortException if a line cannot be parsed.
+     */
+    public List<BenchmarkRecord> read() throws IOException {
+        final List<BenchmarkRecord> result = new ArrayList<>();
+        boolean header = csv;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.trim().isEmpty()) continue;
+            if (header) {
+                header = false;
+                if (line.startsWith(BenchmarkRecord.CSV_HEADER.substring(0, BenchmarkRecord.CSV_HEADER.indexOf(',')))) continue;
+            }
+            result.add(csv ? BenchmarkRecord.parseCsv(line) : BenchmarkRecord.parseJson(line));
+        }
+        return result;
+    }
+
+    /**
+     * Constructor for a BenchmarkResults store.
+     *
+     * @param path the path of the file (".csv" for CSV, otherwise JSON Lines).
+     */
+    public BenchmarkResults(Path path) {
+        this.path = path;
+        this.csv = path.toString().toLowerCase().endsWith(".csv");
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean isCsv() {
+        return csv;
+    }
+
+    /**
+     * The system property which names the default store (for example -Dbenchmark.results=results.jsonl).
+     */
+    public static final String RESULTS_PROPERTY = "benchmark.results";
+
+    private static final ThreadLocal<Path> THREAD_STORE = new ThreadLocal<>();
+
+    private final Path path;
+    private final boolean csv;
+
+    final static LazyLogger logger = new LazyLogger(BenchmarkResults.class);
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static com.phasmidsoftware.dsaipg.util.Utilities.formatWhole;
+
+/**
+ * This class implements a more rigorous alternative to Benchmark_Timer.
+ * The three phases of a run (fPre, fRun, fPost) are exactly as for Benchmark_Timer,
+ * and, as for Benchmark_Timer, only fRun is timed.
+ * <p>
+ * The differences are as follows:
+ * <ol>
+ *     <li>Warmup continues until the JVM has reached a steady state, that's to say until the median time of the
+ *     latest window of warmup runs differs from the median of the previous window by no more than <code>tolerance</code>
+ *     (or until the warmup limit has been reached).
+ *     As for Benchmark_Timer, the warmup limit scales with m: it is m/15 (but at least one and at most <code>maxWarmup</code>),
+ *     so that warmup never takes more than a small fraction of the time budgeted for the m timed runs.</li>
+ *     <li>The m timed runs are divided between a number of rounds.
+ *     Each round begins with a garbage collection and its own (share of the) warmup, so that one unlucky GC history
+ *     cannot dominate the result.
+ *     NOTE: the rounds are run in this JVM, one after the other (they are not forked JVMs).</li>
+ *     <li>Each run is timed individually, in nanoseconds, and the number of garbage collections and
+ *     (where the JVM supports it) the number of bytes allocated by this thread are recorded for each run.</li>
+ *     <li>The result is a BenchmarkResult, which yields median, p90, p99, standard deviation, confidence interval and outliers.</li>
+ * </ol>
+ * <p>
+ * Benchmark_Rigorous also implements Benchmark so that runFromSupplier (which yields the mean in milliseconds)
+ * may be used as a drop-in replacement for Benchmark_Timer.
+ * <p>
+ * The default number of rounds, the warmup window and the maximum warmup are given by the [benchmark] section of config.ini.
+ *
+ * @param <T> The generic type T is that of the input to the function fRun.
+ */
+public class Benchmark_Rigorous<T> implements Benchmark<T> {
+
+    /**
+     * Run function fRun (approximately) m times and return the mean time in milliseconds.
+     *
+     * @param supplier a Supplier of a T
+     * @param m        the number of times the function fRun will be timed.
+     * @return the mean number of milliseconds taken for each run of function fRun.
+     */
+    public double runFromSupplier(Supplier<T> supplier, int m) {
+        final BenchmarkResult result = measure(supplier, m);
+        logger.info(result.toString());
+        return result.meanMillis();
+    }
+
+    /**
+     * Run function fRun m times (at least once) and return a BenchmarkResult.
+     *
+     * @param supplier a Supplier of a T
+     * @param m        the number of times the function fRun will be timed.
+     * @return a BenchmarkResult.
+     */
+    public BenchmarkResult measure(Supplier<T> supplier, int m) {
+        final int n = Integer.max(1, m);
+        // NOTE there can be no more rounds than runs.
+        final int r = Integer.min(rounds, n);
+        logger.info("Begin run: " + description + " with " + formatWhole(n) + " runs in " + r + " round(s)");
+        final int limit = Integer.max(1, getWarmupLimit(n, maxWarmup) / r);
+        final long[] nanos = new long[n];
+        final long[] gcCounts = new long[n];
+        final long[] allocations = new long[n];
+        long gcMillis = 0;
+        int warmupRuns = 0;
+        for (int round = 0, k = 0; round < r; round++) {
+            System.gc();
+            warmupRuns += warmup(supplier, limit);
+            final long gcTimeStart = gcTime();
+            // NOTE the first n % r rounds each have one extra run.
+            final int perRound = n / r + (round < n % r ? 1 : 0);
+            for (int i = 0; i < perRound; i++, k++) {
+                T t = prepare(supplier);
+                final long gcStart = gcCount(), allocationStart = allocatedBytes();
+                final long start = System.nanoTime();
+                fRun.accept(t);
+                nanos[k] = System.nanoTime() - start;
+                final long allocationEnd = allocatedBytes();
+                gcCounts[k] = gcCount() - gcStart;
+                allocations[k] = allocationStart < 0 ? -1 : allocationEnd - allocationStart;
+                if (fPost != null) fPost.accept(t);
+            }
+            gcMillis += gcTime() - gcTimeStart;
+        }
+        return new BenchmarkResult(description, nanos, gcCounts, gcMillis, allocations, warmupRuns, r);
+    }
+
+    /**
+     * Constructor for a Benchmark_Rigorous with all parameters specified.
+     *
+     * @param description the description of the benchmark.
+     * @param fPre        a function of T => T which is run before each invocation of fRun (but with the clock stopped) (may be null).
+     * @param fRun        the function whose timing you want to measure.
+     * @param fPost       a function which is run after each timed invocation of fRun (with the clock stopped) (may be null).
+     * @param rounds      the number of rounds (at least 1).
+     * @param window      the number of warmup runs in each window (at least 1).
+     * @param tolerance   the relative difference between the medians of successive windows which signifies a steady state.
+     * @param maxWarmup   the maximum number of warmup runs (over all rounds).
+     */
+    public Benchmark_Rigorous(String description, UnaryOperator<T> fPre, Consumer<T> fRun, Consumer<T> fPost, int rounds, int window, double tolerance, int maxWarmup) {
+        if (rounds < 1 || window < 1 || maxWarmup < 1 || tolerance < 0)
+            throw new IllegalArgumentException("Benchmark_Rigorous: invalid parameters for " + description);
+        this.description = description;
+        this.fPre = fPre;
+        this.fRun = fRun;
+        this.fPost = fPost;
+        this.rounds = rounds;
+        this.window = window;
+        this.tolerance = tolerance;
+        this.maxWarmup = maxWarmup;
+    }
+
+    /**
+     * Constructor for a Benchmark_Rigorous with the default (configured) number of rounds and warmup settings.
+     *
+     * @param description the description of the benchmark.
+     * @param fPre        a function of T => T which is run before each invocation of fRun (but with the clock stopped) (may be null).
+     * @param fRun        the function whose timing you want to measure.
+     * @param fPost       a function which is run after each timed invocation of fRun (with the clock stopped) (may be null).
+     */
+    public Benchmark_Rigorous(String description, UnaryOperator<T> fPre, Consumer<T> fRun, Consumer<T> fPost) {
+        this(description, fPre, fRun, fPost, ROUNDS, WINDOW, TOLERANCE, MAX_WARMUP);
+    }
+
+    /**
+     * Constructor for a Benchmark_Rigorous where only the (timed) run function is specified.
+     *
+     * @param description the description of the benchmark.
+     * @param f           the function whose timing you want to measure.
+     */
+    public Benchmark_Rigorous(String description, Consumer<T> f) {
+        this(description, null, f, null);
+    }
+
+    /**
+     * Calculate the limit on the number of warmup runs (over all rounds) for m timed runs.
+     *
+     * @param m         the number of timed runs.
+     * @param maxWarmup the maximum number of warmup runs.
+     * @return at least one and at most the lower of maxWarmup or m/15.
+     */
+    static int getWarmupLimit(int m, int maxWarmup) {
+        return Integer.max(1, Integer.min(maxWarmup, m / 15));
+    }
+
+    /**
+     * Warm up (without recording anything) until a steady state is reached or limit runs have been made.
+     * NOTE: if limit is less than two windows, we simply make limit runs.
+     *
+     * @param supplier a Supplier of a T.
+     * @param limit    the maximum number of warmup runs.
+     * @return the number of warmup runs.
+     */
+    int warmup(Supplier<T> supplier, int limit) {
+        final long[] times = new long[limit];
+        int runs = 0;
+        while (runs < limit) {
+            T t = prepare(supplier);
+            final long start = System.nanoTime();
+            fRun.accept(t);
+            times[runs++] = System.nanoTime() - start;
+            if (runs >= 2 * window && isSteady(times, runs, window, tolerance)) break;
+        }
+        return runs;
+    }
+
+    /**
+     * Method to determine whether the most recent window of times is consistent with the window before it.
+     *
+     * @param times     the times so far.
+     * @param runs      the number of times (at least 2 * window).
+     * @param window    the window size.
+     * @param tolerance the maximum relative difference between the medians of the two windows.
+     * @return true if the relative difference of the medians is within tolerance.
+     */
+    static boolean isSteady(long[] times, int runs, int window, double tolerance) {
+        final double previous = median(times, runs - 2 * window, runs - window);
+        final double latest = median(times, runs - window, runs);
+        return Math.abs(latest - previous) <= tolerance * previous;
+    }
+
+    private static double median(long[] xs, int from, int to) {
+        final long[] ys = Arrays.copyOfRange(xs, from, to);
+        Arrays.sort(ys);
+        final int mid = ys.length / 2;
+        return ys.length % 2 == 1 ? ys[mid] : (ys[mid - 1] + ys[mid]) / 2.0;
+    }
+
+    private T prepare(Supplier<T> supplier) {
+        T t = supplier.get();
+        return fPre != null ? fPre.apply(t) : t;
+    }
+
+    private static long gcCount() {
+        long result = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) result += Math.max(0, bean.getCollectionCount());
+        return result;
+    }
+
+    private static long gcTime() {
+        long result = 0;
+        for (GarbageCollectorMXBean bean : gcBeans) result += Math.max(0, bean.getCollectionTime());
+        return result;
+    }
+
+    /**
+     * @return the total number of bytes allocated so far by the current thread, or -1 if this is not supported.
+     */
+    private static long allocatedBytes() {
+        if (allocationBean == null) return -1;
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean result = (com.sun.management.ThreadMXBean) bean;
+            if (result.isThreadAllocatedMemorySupported()) {
+                if (!result.isThreadAllocatedMemoryEnabled()) result.setThreadAllocatedMemoryEnabled(true);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static Config loadConfig() {
+        try {
+            return Config.load(Benchmark_Rigorous.class);
+        } catch (IOException e) {
+            logger.warn("Benchmark_Rigorous: cannot load config.ini (using default settings): " + e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    private static int getConfigInt(String option, int defaultValue) {
+        return config != null ? config.getInt(BENCHMARK, option, defaultValue) : defaultValue;
+    }
+
+    public static final String BENCHMARK = "benchmark";
+
+    final static LazyLogger logger = new LazyLogger(Benchmark_Rigorous.class);
+
+    private static final Config config = loadConfig();
+
+    /**
+     * The default number of rounds (config: rounds).
+     */
+    public static final int ROUNDS = getConfigInt("rounds", 1);
+    /**
+     * The default size of a warmup window (config: window).
+     */
+    public static final int WINDOW = getConfigInt("window", 2);
+    public static final double TOLERANCE = 0.05;
+    /**
+     * The default maximum number of warmup runs (config: maxwarmup).
+     */
+    public static final int MAX_WARMUP = getConfigInt("maxwarmup", 10);
+
+    private final String description;
+    private final UnaryOperator<T> fPre;
+    private final Consumer<T> fRun;
+    private final Consumer<T> fPost;
+    private final int rounds;
+    private final int window;
+    private final double tolerance;
+    private final int maxWarmup;
+
+    private static final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    private static final com.sun.management.ThreadMXBean allocationBean = getAllocationBean();
+}
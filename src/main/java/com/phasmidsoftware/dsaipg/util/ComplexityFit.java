@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Class to fit a series of measurements (times or instrumented counts) to candidate growth models.
+ * <p>
+ * Two kinds of fit are made:
+ * <ol>
+ *     <li>A power law: y = a n^k, fitted by least squares on log y against log n.
+ *     This yields the empirical exponent k (for example, about 2 for a quadratic algorithm)
+ *     and the coefficient a, together with the coefficient of determination (R^2) of the log-log fit.</li>
+ *     <li>For each candidate Model (constant, n, n log n, n^2, n^2 log n, n^3), the form y = c + b f(n),
+ *     fitted by weighted least squares (with weights 1/y^2, so that the relative, rather than the absolute, error is minimized,
+ *     otherwise the largest N would dominate).
+ *     The best model is the one with the highest R^2 (models whose coefficient b is negative are rejected).</li>
+ * </ol>
+ * <p>
+ * Since the local slope of n log n on a log-log plot is 1 + 1/ln n (not 1), a claim such as "this sort is linearithmic"
+ * is checked (see {@link #isConsistentWith(Model, double)}) by comparing the empirical exponent
+ * with the exponent of the model itself over the same values of n.
+ * <p>
+ * Measurements are typically made over a doubling series of N (see {@link #doubling(int, int, IntToDoubleFunction)}).
+ */
+public class ComplexityFit {
+
+    /**
+     * The candidate growth models.
+     */
+    public enum Model {
+        CONSTANT("1", n -> 1),
+        LINEAR("n", n -> n),
+        LINEARITHMIC("n log n", n -> n * Utilities.lg(n)),
+        QUADRATIC("n^2", n -> n * n),
+        QUADRITHMIC("n^2 log n", n -> n * n * Utilities.lg(n)),
+        CUBIC("n^3", n -> n * n * n);
+
+        Model(String name, DoubleUnaryOperator f) {
+            this.name = name;
+            this.f = f;
+        }
+
+        public double apply(double n) {
+            return f.applyAsDouble(n);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        private final String name;
+        private final DoubleUnaryOperator f;
+    }
+
+    /**
+     * The fit of the form y = constant + coefficient * f(n) for one Model.
+     */
+    public static class Fit {
+        public Fit(Model model, double constant, double coefficient, double rSquared) {
+            this.model = model;
+            this.constant = constant;
+            this.coefficient = coefficient;
+            this.rSquared = rSquared;
+        }
+
+        public Model getModel() {
+            return model;
+        }
+
+        public double getConstant() {
+            return constant;
+        }
+
+        public double getCoefficient() {
+            return coefficient;
+        }
+
+        public double getRSquared() {
+            return rSquared;
+        }
+
+        @Override
+        public String toString() {
+            return model + ": " + formatSignificant(constant) + " + " + formatSignificant(coefficient) + " * " + model + " (R^2=" + Utilities.formatDecimal3Places(rSquared) + ")";
+        }
+
+        private final Model model;
+        private final double constant;
+        private final double coefficient;
+        private final double rSquared;
+    }
+
+    /**
+     * Run the measure function over a doubling series of N and fit the results.
+     *
+     * @param start   the first value of N.
+     * @param steps   the number of values of N (at least 3).
+     * @param measure a function which yields the measurement (time or count) for a given N.
+     * @return a ComplexityFit.
+     */
+    public static ComplexityFit doubling(int start, int steps, IntToDoubleFunction measure) {
+        if (start < 1 || steps < 3) throw new SortException("ComplexityFit.doubling: invalid series: " + start + ", " + steps);
+        final double[] ns = new double[steps];
+        final double[] ys = new double[steps];
+        long n = start;
+        for (int i = 0; i < steps; i++, n *= 2) {
+            if (n > Integer.MAX_VALUE) throw new SortException("ComplexityFit.doubling: N is too large: " + n);
+            ns[i] = n;
+            ys[i] = measure.applyAsDouble((int) n);
+            logger.debug("ComplexityFit.doubling: N=" + n + ": " + ys[i]);
+        }
+        return fit(ns, ys);
+    }
+
+    /**
+     * Fit the given measurements.
+     *
+     * @param ns the values of N (positive).
+     * @param ys the corresponding measurements (positive).
+     * @return a ComplexityFit.
+     */
+    public static ComplexityFit fit(double[] ns, double[] ys) {
+        if (ns.length != ys.length || ns.length < 3) throw new SortException("ComplexityFit: need at least three (n, y) pairs");
+        for (int i = 0; i < ns.length; i++)
+            if (ns[i] <= 0 || ys[i] <= 0) throw new SortException("ComplexityFit: values must be positive: n=" + ns[i] + ", y=" + ys[i]);
+        return new ComplexityFit(ns, ys);
+    }
+
+    /**
+     * @return the empirical exponent k of the power law y = a n^k.
+     */
+    public double getExponent() {
+        return exponent;
+    }
+
+    /**
+     * @return the coefficient a of the power law y = a n^k.
+     */
+    public double getCoefficient() {
+        return coefficient;
+    }
+
+    /**
+     * @return the coefficient of determination of the (log-log) power-law fit.
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    /**
+     * @return the best fit amongst the candidate models.
+     */
+    public Fit getBest() {
+        return best;
+    }
+
+    /**
+     * @param model a candidate model.
+     * @return the fit for that model.
+     */
+    public Fit getFit(Model model) {
+        return fits.get(model);
+    }
+
+    /**
+     * Method to yield the exponent which the given model would exhibit over the values of n of this fit.
+     *
+     * @param model a model.
+     * @return the slope of log f(n) against log n.
+     */
+    public double expectedExponent(Model model) {
+        final double[] xs = new double[ns.length], ys = new double[ns.length];
+        for (int i = 0; i < ns.length; i++) {
+            xs[i] = Math.log(ns[i]);
+            ys[i] = Math.log(model.apply(ns[i]));
+        }
+        return leastSquares(xs, ys, null)[1];
+    }
+
+    /**
+     * Method to determine whether the measurements are consistent with a claimed model.
+     *
+     * @param model     the claimed model.
+     * @param tolerance the maximum difference between the empirical exponent and that of the model (for example 0.15).
+     * @return true if the empirical exponent is within tolerance of the expected exponent of model.
+     */
+    public boolean isConsistentWith(Model model, double tolerance) {
+        return Math.abs(exponent - expectedExponent(model)) <= tolerance;
+    }
+
+    /**
+     * Log the result of comparing this fit with a claimed model, as a warning if it is inconsistent.
+     *
+     * @param description the description of what was measured.
+     * @param model       the claimed model.
+     * @param tolerance   the tolerance (see isConsistentWith).
+     * @return true if consistent.
+     */
+    public boolean validate(String description, Model model, double tolerance) {
+        final boolean result = isConsistentWith(model, tolerance);
+        final String message = description + ": " + this + "; claimed " + model + " (expected exponent " + Utilities.formatDecimal3Places(expectedExponent(model)) + ")";
+        if (result) logger.info(message + ": consistent");
+        else logger.warn(message + ": NOT consistent");
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "exponent=" + Utilities.formatDecimal3Places(exponent) + ", coefficient=" + formatSignificant(coefficient) +
+                " (R^2=" + Utilities.formatDecimal3Places(rSquared) + "); best model: " + best;
+    }
+
+    private ComplexityFit(double[] ns, double[] ys) {
+        this.ns = ns;
+        final int m = ns.length;
+        final double[] logNs = new double[m], logYs = new double[m];
+        for (int i = 0; i < m; i++) {
+            logNs[i] = Math.log(ns[i]);
+            logYs[i] = Math.log(ys[i]);
+        }
+        final double[] powerLaw = leastSquares(logNs, logYs, null);
+        coefficient = Math.exp(powerLaw[0]);
+        exponent = powerLaw[1];
+        rSquared = powerLaw[2];
+        final double[] weights = new double[m];
+        for (int i = 0; i < m; i++) weights[i] = 1 / (ys[i] * ys[i]);
+        fits = new EnumMap<>(Model.class);
+        Fit bestFit = null;
+        for (Model model : Model.values()) {
+            final Fit fit;
+            if (model == Model.CONSTANT) {
+                double sw = 0, swy = 0;
+                for (int i = 0; i < m; i++) {
+                    sw += weights[i];
+                    swy += weights[i] * ys[i];
+                }
+                fit = new Fit(model, swy / sw, 0, 0);
+            } else {
+                final double[] xs = new double[m];
+                for (int i = 0; i < m; i++) xs[i] = model.apply(ns[i]);
+                final double[] result = leastSquares(xs, ys, weights);
+                fit = new Fit(model, result[0], result[1], result[2]);
+            }
+            fits.put(model, fit);
+            if (fit.coefficient >= 0 && (bestFit == null || fit.rSquared > bestFit.rSquared)) bestFit = fit;
+        }
+        best = bestFit;
+    }
+
+    /**
+     * Weighted least squares fit of y = a + b x.
+     *
+     * @param xs      the x values.
+     * @param ys      the y values.
+     * @param weights the weights (or null for unit weights).
+     * @return an array of a, b and R^2.
+     */
+    private static double[] leastSquares(double[] xs, double[] ys, double[] weights) {
+        double sw = 0, swx = 0, swy = 0, swxx = 0, swxy = 0;
+        for (int i = 0; i < xs.length; i++) {
+            final double w = weights == null ? 1 : weights[i];
+            sw += w;
+            swx += w * xs[i];
+            swy += w * ys[i];
+            swxx += w * xs[i] * xs[i];
+            swxy += w * xs[i] * ys[i];
+        }
+        final double denominator = sw * swxx - swx * swx;
+        final double b = denominator == 0 ? 0 : (sw * swxy - swx * swy) / denominator;
+        final double a = (swy - b * swx) / sw;
+        final double mean = swy / sw;
+        double residual = 0, total = 0;
+        for (int i = 0; i < xs.length; i++) {
+            final double w = weights == null ? 1 : weights[i];
+            final double e = ys[i] - a - b * xs[i], d = ys[i] - mean;
+            residual += w * e * e;
+            total += w * d * d;
+        }
+        return new double[]{a, b, total == 0 ? 1 : 1 - residual / total};
+    }
+
+    private static String formatSignificant(double x) {
+        return String.format("%.4g", x);
+    }
+
+    private final double[] ns;
+    private final double exponent;
+    private final double coefficient;
+    private final double rSquared;
+    private final Map<Model, Fit> fits;
+    private final Fit best;
+
+    final static LazyLogger logger = new LazyLogger(ComplexityFit.class);
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Shared loader of the word lists which are used by the benchmarks (SortBenchmark, SymbolTableBenchmark, BSTBenchmark, etc.).
+ * <p>
+ * The corpora are in the Leipzig format: each line consists of an identifier, a tab, and then text.
+ * The words of a line are the runs of letters which follow the (first) tab, where the runs may be separated by whitespace,
+ * (ASCII) punctuation or full-width commas: the first character which is none of these ends the line.
+ * This is exactly what is matched by {@link SortBenchmarkHelper#regexLeipzig}, but the parsing here is done by hand,
+ * without regular expressions (and therefore without backtracking).
+ * <p>
+ * A file is memory-mapped and divided into chunks (at line boundaries) which are decoded and parsed in parallel.
+ * The words of all the chunks are then combined (in order), duplicates and words shorter than two characters are removed.
+ * The resulting arrays are cached (by resource) so that the several phases of a benchmark need only load a corpus once.
+ */
+public class Corpus {
+
+    /**
+     * Method to yield the distinct words of a Leipzig corpus which is a resource (on the class path).
+     * The words are cached, but the caller always gets its own copy of the array.
+     *
+     * @param resource the name of the resource, for example "eng-uk_web_2002_10K-sentences.txt".
+     * @return an array of distinct words, in order of their first appearance.
+     * @throws FileNotFoundException if the resource cannot be found or read.
+     */
+    public static String[] getLeipzigWords(String resource) throws FileNotFoundException {
+        String[] words = cache.get(resource);
+        if (words == null) {
+            try {
+                words = loadLeipzigWords(getPath(resource), Runtime.getRuntime().availableProcessors());
+            } catch (IOException e) {
+                throw new FileNotFoundException(resource + ": " + e.getLocalizedMessage());
+            }
+            final String[] previous = cache.putIfAbsent(resource, words);
+            if (previous != null) words = previous;
+            logger.info("Testing with words: " + Utilities.formatWhole(words.length) + " from " + resource);
+        }
+        return words.clone();
+    }
+
+    /**
+     * Method to load the distinct words of a Leipzig corpus (this is not cached).
+     *
+     * @param path   the path of the file.
+     * @param chunks the (approximate) number of chunks into which the file is divided for parallel parsing.
+     * @return an array of distinct words, in order of their first appearance.
+     * @throws IOException if the file cannot be read.
+     */
+    public static String[] loadLeipzigWords(Path path, int chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long[] boundaries = getBoundaries(channel, chunks);
+            final List<List<String>> parsed = IntStream.range(0, boundaries.length - 1).parallel()
+                    .mapToObj(i -> parseChunk(channel, boundaries[i], boundaries[i + 1]))
+                    .collect(Collectors.toList());
+            final Set<String> words = new LinkedHashSet<>();
+            for (List<String> list : parsed)
+                for (String word : list)
+                    if (word.length() >= MINIMUM_LENGTH) words.add(word);
+            return words.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Method to parse one line of a Leipzig corpus.
+     *
+     * @param line the line.
+     * @return the words of the line (possibly none).
+     */
+    public static List<String> parseLeipzigLine(CharSequence line) {
+        final List<String> result = new ArrayList<>();
+        parseLeipzigLine(line, 0, line.length(), result);
+        return result;
+    }
+
+    /**
+     * Method to clear the cache of words.
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Method to add the words of the line (from, to) of chars to words.
+     */
+    static void parseLeipzigLine(CharSequence chars, int from, int to, List<String> words) {
+        int i = from;
+        while (i < to && chars.charAt(i) != '\t') i++;
+        if (i++ == to) return;
+        int start = -1;
+        while (i < to) {
+            final int cp = Character.codePointAt(chars, i);
+            if (Character.isLetter(cp)) {
+                if (start < 0) start = i;
+            } else {
+                if (start >= 0) {
+                    words.add(chars.subSequence(start, i).toString());
+                    start = -1;
+                }
+                if (!isSeparator(cp)) return;
+            }
+            i += Character.charCount(cp);
+        }
+        if (start >= 0) words.add(chars.subSequence(start, to).toString());
+    }
+
+    /**
+     * @return true if cp is whitespace (as in \s), ASCII punctuation (as in \p{Punct}) or a full-width comma.
+     */
+    private static boolean isSeparator(int cp) {
+        switch (cp) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case 0x0B:
+            case '\f':
+            case '\r':
+            case 0xFF0C:
+                return true;
+            default:
+                return cp >= '!' && cp <= '~' && !Character.isLetterOrDigit(cp);
+        }
+    }
+
+    private static List<String> parseChunk(FileChannel channel, long start, long end) {
+        try {
+            final ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            final CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes);
+            final List<String> result = new ArrayList<>();
+            final int n = chars.length();
+            int from = 0;
+            for (int i = 0; i < n; i++)
+                if (chars.charAt(i) == '\n') {
+                    parseLeipzigLine(chars, from, i, result);
+                    from = i + 1;
+                }
+            if (from < n) parseLeipzigLine(chars, from, n, result);
+            return result;
+        } catch (CharacterCodingException e) {
+            throw new SortException("Corpus: unable to decode chunk at " + start, e);
+        } catch (IOException e) {
+            throw new SortException("Corpus: unable to map chunk at " + start, e);
+        }
+    }
+
+    /**
+     * Method to divide the file into chunks, each of which starts at the beginning of a line
+     * (since a newline byte never occurs within a multibyte UTF-8 character, this is safe).
+     * No chunk is larger than MAXIMUM_CHUNK (a mapped region is limited to 2GB).
+     */
+    private static long[] getBoundaries(FileChannel channel, int chunks) throws IOException {
+        final long size = channel.size();
+        final long target = Math.max(Math.min(size / Math.max(chunks, 1) + 1, MAXIMUM_CHUNK), MINIMUM_CHUNK);
+        final List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = 0;
+        while (size - position > target) {
+            long next = position + target;
+            long found = -1;
+            while (found < 0 && next < size) {
+                buffer.clear();
+                final int read = channel.read(buffer, next);
+                if (read <= 0) break;
+                for (int i = 0; i < read; i++)
+                    if (buffer.get(i) == '\n') {
+                        found = next + i + 1;
+                        break;
+                    }
+                next += read;
+            }
+            if (found < 0 || found >= size) break;
+            if (found - position > Integer.MAX_VALUE)
+                throw new SortException("Corpus: line is too long at " + position);
+            boundaries.add(found);
+            position = found;
+        }
+        boundaries.add(size);
+        final long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) result[i] = boundaries.get(i);
+        return result;
+    }
+
+    private static Path getPath(String resource) throws FileNotFoundException {
+        final URL url = Corpus.class.getClassLoader().getResource(resource);
+        if (url == null) throw new FileNotFoundException(resource + " in " + Corpus.class);
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException | RuntimeException e) {
+            throw new FileNotFoundException(resource + ": " + e.getLocalizedMessage());
+        }
+    }
+
+    // NOTE private constructor (utility class)
+    private Corpus() {
+    }
+
+    private static final int MINIMUM_LENGTH = 2;
+    private static final long MINIMUM_CHUNK = 1 << 16;
+    private static final long MAXIMUM_CHUNK = 1 << 28;
+
+    private static final Map<String, String[]> cache = new ConcurrentHashMap<>();
+
+    final static LazyLogger logger = new LazyLogger(Corpus.class);
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.ConcurrentFrequencyCounter;
+
+import java.io.FileNotFoundException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import static com.phasmidsoftware.dsaipg.util.Utilities.formatWhole;
+
+/**
+ * Class to measure the throughput of word-frequency counting as the number of threads increases:
+ * (1) a single-threaded HashMap (the baseline);
+ * (2) ConcurrentFrequencyCounter.increment from a parallel stream (lock striping);
+ * (3) ConcurrentFrequencyCounter.count (per-thread tallies merged at the end).
+ * <p>
+ * The words are drawn from a Leipzig corpus with a skewed distribution (so that, as in real text, a few words are very common).
+ */
+public class FrequencyCounterBenchmark {
+
+    /**
+     * The main method serves as the entry point for the FrequencyCounterBenchmark application.
+     *
+     * @param args the numbers of words to be counted (default: 1,000,000).
+     * @throws FileNotFoundException if the corpus cannot be found.
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        final String[] words = Corpus.getLeipzigWords("eng-uk_web_2002_100K-sentences.txt");
+        final int[] ns = args.length == 0 ? new int[]{1_000_000} : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        final FrequencyCounterBenchmark benchmark = new FrequencyCounterBenchmark(words, 10, new Random());
+        for (int n : ns) benchmark.runBenchmarks(n, getThreadCounts(Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructor for a FrequencyCounterBenchmark.
+     *
+     * @param words  the source of the words to be counted.
+     * @param nRuns  the number of runs of each benchmark.
+     * @param random the source of randomness.
+     */
+    public FrequencyCounterBenchmark(String[] words, int nRuns, Random random) {
+        this.words = words;
+        this.nRuns = nRuns;
+        this.random = random;
+    }
+
+    /**
+     * Method to run the benchmarks for n words with each of the given numbers of threads.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param n       the number of words to be counted in each run.
+     * @param threads the numbers of threads.
+     * @return a map of description to throughput (words per microsecond).
+     */
+    Map<String, Double> runBenchmarks(int n, int[] threads) {
+        logger.info("FrequencyCounterBenchmark: counting " + formatWhole(n) + " words with threads: " + Arrays.toString(threads));
+        final String[] xs = generateWords(n);
+        final Map<String, Double> result = new LinkedHashMap<>();
+        result.put("HashMap/1", measure("HashMap/1", xs, FrequencyCounterBenchmark::countHashMap));
+        for (int t : threads) {
+            final ForkJoinPool pool = new ForkJoinPool(t);
+            try {
+                result.put("increment/" + t, measure("ConcurrentFrequencyCounter.increment/" + t, xs, ys -> pool.submit(() -> {
+                    final ConcurrentFrequencyCounter<String> counter = new ConcurrentFrequencyCounter<>();
+                    Arrays.stream(ys).parallel().forEach(counter::increment);
+                    check(counter, ys.length);
+                }).join()));
+                result.put("count/" + t, measure("ConcurrentFrequencyCounter.count/" + t, xs, ys -> pool.submit(() -> {
+                    final ConcurrentFrequencyCounter<String> counter = new ConcurrentFrequencyCounter<>();
+                    counter.count(Arrays.stream(ys));
+                    check(counter, ys.length);
+                }).join()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to generate n words, skewed towards the beginning of the words array.
+     */
+    String[] generateWords(int n) {
+        final String[] result = new String[n];
+        for (int i = 0; i < n; i++) result[i] = words[(int) (words.length * Math.pow(random.nextDouble(), 3))];
+        return result;
+    }
+
+    /**
+     * Method to run and record a benchmark.
+     *
+     * @return the throughput, in words per microsecond.
+     */
+    private double measure(String description, String[] xs, Consumer<String[]> function) {
+        final Benchmark_Rigorous<String[]> benchmark = new Benchmark_Rigorous<>(description, null, function, null);
+        final BenchmarkResult result = benchmark.measure(() -> xs, nRuns);
+        final double throughput = xs.length / result.meanMillis() / 1000;
+        logger.info(description + ": " + result.meanMillis() + " mSec, " + throughput + " words/uSec");
+        BenchmarkResults.record(description, xs.length, result, null);
+        return throughput;
+    }
+
+    private static void countHashMap(String[] xs) {
+        final Map<String, Integer> map = new HashMap<>();
+        for (String x : xs) map.merge(x, 1, Integer::sum);
+    }
+
+    private static void check(ConcurrentFrequencyCounter<String> counter, int n) {
+        if (counter.total() != n)
+            throw new RuntimeException("FrequencyCounterBenchmark: total is " + counter.total() + " but should be " + n);
+    }
+
+    /**
+     * @return 1, 2, 4, ... up to (and including) processors.
+     */
+    static int[] getThreadCounts(int processors) {
+        final List<Integer> result = new ArrayList<>();
+        for (int t = 1; t < processors; t *= 2) result.add(t);
+        result.add(processors);
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    final static LazyLogger logger = new LazyLogger(FrequencyCounterBenchmark.class);
+
+    private final String[] words;
+    private final int nRuns;
+    private final Random random;
+}
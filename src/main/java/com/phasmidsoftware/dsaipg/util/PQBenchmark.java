@@ -3,6 +3,8 @@
  */
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.adt.pq.DaryHeap;
+import com.phasmidsoftware.dsaipg.adt.pq.DoubleIntHeap;
 import com.phasmidsoftware.dsaipg.adt.pq.PQException;
 import com.phasmidsoftware.dsaipg.adt.pq.PriorityQueue;
 
@@ -11,12 +13,12 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Consumer;
 
-import static com.phasmidsoftware.dsaipg.util.SortBenchmarkHelper.getWords;
 
 /**
  * The {@code PQBenchmark} class is designed to benchmark operations performed with priority queues.
  * It includes methods to evaluate insertion and deletion performance using different configurations
- * and algorithms. This class uses external configuration for its settings and employs benchmarking
+ * and algorithms: binary heaps (PriorityQueue), 4-ary and 8-ary heaps (DaryHeap), each with and without Floyd's method,
+ * and a 4-ary heap of primitive priorities (DoubleIntHeap). This class uses external configuration for its settings and employs benchmarking
  * utilities to measure execution times of the operations.
  */
 public class PQBenchmark {
@@ -32,70 +34,129 @@ public class PQBenchmark {
 
     /**
      * The main method serves as the entry point for the PQBenchmark application. It initializes
-     * the configuration, logs application information, performs benchmarking for insertion and
-     * deletion operations with and without Floyd's method, and outputs the results.
+     * the configuration and, for each size, benchmarks the insertion and deletion operations of
+     * the binary, 4-ary and 8-ary heaps, with and without Floyd's method, and of the primitive heap.
      *
-     * @param args command-line arguments, expected to specify word counts for benchmarking;
-     *             may be empty if no counts are provided.
+     * @param args command-line arguments, which may specify the sizes (numbers of insertions) for benchmarking;
+     *             if empty, then the sizes are powers of ten from 10^3 to 10^7.
+     *             NOTE: 10^8 is also feasible, given a heap of several gigabytes (for the boxed elements).
      * @throws IOException if an error occurs during configuration loading.
      */
     public static void main(String[] args) throws IOException {
         Config config = Config.load(PQBenchmark.class);
-        // XXX this does not look at all correct. Why huskysort?
-        logger.info("SortBenchmark.main: " + config.get("huskysort", "version") + " with word counts: " + Arrays.toString(args));
-        if (args.length == 0) logger.warn("No word counts specified on the command line");
+        final int[] ns = args.length == 0 ? new int[]{1_000, 10_000, 100_000, 1_000_000, 10_000_000} : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        logger.info("PQBenchmark.main: with sizes: " + Arrays.toString(ns));
         PQBenchmark benchmark = new PQBenchmark(config);
-        System.out.println("with floyd: " + benchmark.insertDeleteN(10000, 1000, true));
-        System.out.println("no floyd: " + benchmark.insertDeleteN(10000, 1000, false));
+        for (int n : ns) System.out.println(n + ": " + benchmark.runBenchmarks(n, (int) Math.max(2, Math.min(1000, 10_000_000L / n))));
     }
 
     /**
-     * Inserts and conditionally deletes elements from a priority queue using Floyd insertion or standard insertion.
-     * This method processes an integer array by inserting elements into a priority queue and, based on a random condition,
-     * attempts to remove an element from the queue.
+     * Method to benchmark each of the heap variants with the same random sequence of n insertions,
+     * each one followed (with probability one half) by a deletion.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
      *
-     * @param a     the array of integers to be inserted into the priority queue
-     * @param floyd a flag that determines whether to use Floyd insertion method for the priority queue
+     * @param n the number of insertions.
+     * @param m the number of runs of each benchmark.
+     * @return a map of description to mean time (in milliseconds).
      */
-    // Insert and delete random integer array with floyd methods according to parameter
-    private void insertArray(int[] a, final boolean floyd) {
-        PriorityQueue<Integer> pq = new PriorityQueue<Integer>(a.length, true, Comparator.naturalOrder(), floyd);
+    Map<String, Double> runBenchmarks(final int n, final int m) {
         final Random random = new Random();
-        for (int j : a) {
-            pq.give(j);
-            if (random.nextBoolean()) {
-                try {
-                    pq.take();
-                } catch (PQException e) {
-                    e.printStackTrace(); // TODO use logging
-                }
+        final int[] xs = new int[n];
+        final boolean[] takes = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextInt(n);
+            takes[i] = random.nextBoolean();
+        }
+        final Map<String, Double> result = new LinkedHashMap<>();
+        for (boolean floyd : new boolean[]{false, true}) {
+            final String suffix = floyd ? "/floyd" : "";
+            result.put("PriorityQueue" + suffix, insertDeleteN("PriorityQueue" + suffix, xs, m, a -> insertArray(a, takes, floyd)));
+            for (int d : new int[]{4, 8})
+                result.put("DaryHeap/" + d + suffix, insertDeleteN("DaryHeap/" + d + suffix, xs, m, a -> insertArrayDary(a, takes, d, floyd)));
+        }
+        result.put("DoubleIntHeap/4", insertDeleteN("DoubleIntHeap/4", xs, m, a -> insertArrayPrimitive(a, takes)));
+        return result;
+    }
+
+    /**
+     * Inserts and conditionally deletes elements from a (binary) PriorityQueue, with or without Floyd's method.
+     *
+     * @param a     the array of integers to be inserted into the priority queue.
+     * @param takes whether to take an element after each insertion.
+     * @param floyd a flag that determines whether to use Floyd's method for the priority queue.
+     */
+    private static void insertArray(int[] a, boolean[] takes, final boolean floyd) {
+        PriorityQueue<Integer> pq = new PriorityQueue<Integer>(a.length, true, Comparator.naturalOrder(), floyd);
+        try {
+            for (int i = 0; i < a.length; i++) {
+                pq.give(a[i]);
+                if (takes[i]) pq.take();
+            }
+        } catch (PQException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Inserts and conditionally deletes elements from a d-ary heap, with or without Floyd's method.
+     *
+     * @param a     the array of integers to be inserted into the heap.
+     * @param takes whether to take an element after each insertion.
+     * @param d     the arity of the heap.
+     * @param floyd a flag that determines whether to use Floyd's method for the heap.
+     */
+    private static void insertArrayDary(int[] a, boolean[] takes, int d, final boolean floyd) {
+        DaryHeap<Integer> pq = new DaryHeap<Integer>(d, a.length, true, Comparator.naturalOrder(), floyd);
+        try {
+            for (int i = 0; i < a.length; i++) {
+                pq.give(a[i]);
+                if (takes[i]) pq.take();
             }
+        } catch (PQException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Inserts and conditionally deletes elements from a 4-ary primitive heap (with the index as payload).
+     *
+     * @param a     the array of integers to be inserted (as priorities) into the heap.
+     * @param takes whether to take an element after each insertion.
+     */
+    private static void insertArrayPrimitive(int[] a, boolean[] takes) {
+        DoubleIntHeap pq = new DoubleIntHeap(4, a.length, true);
+        try {
+            for (int i = 0; i < a.length; i++) {
+                pq.give(a[i], i);
+                if (takes[i]) pq.take();
+            }
+        } catch (PQException e) {
+            throw new RuntimeException(e);
         }
     }
 
     /**
      * Performs a benchmark test by inserting and deleting elements, measuring the operation's execution time.
-     * This method uses the Benchmark_Timer to calculate the average runtime for the given operation.
+     * This method uses Benchmark_Rigorous to calculate the average runtime for the given operation (which is also recorded via BenchmarkResults).
      *
-     * @param n      the number of random integers to be generated and processed.
-     * @param m      the number of times the benchmark test is repeated.
-     * @param floyd  a flag indicating whether the Floyd's heap construction method should be used during the insertion.
+     * @param description the description of the benchmark.
+     * @param xs          the random integers to be processed.
+     * @param m           the number of times the benchmark test is repeated.
+     * @param function    the function which inserts (and deletes) the integers.
      * @return the average execution time for the benchmark process, in milliseconds.
      */
-    private double insertDeleteN(final int n, int m, final boolean floyd) {
-        final Random ran = new Random();
-        int[] random = new int[n];
-        for (int i = 0; i < n; i++) {
-            random[i] = ran.nextInt(n);
-        }
-        Benchmark<Boolean> bm = new Benchmark_Timer<>(
-                "testPQwithFloydoff",
+    private static double insertDeleteN(final String description, final int[] xs, int m, Consumer<int[]> function) {
+        Benchmark_Rigorous<int[]> bm = new Benchmark_Rigorous<>(
+                description,
                 null,
-                b -> insertArray(random, floyd),
+                function,
                 null
         );
-        return bm.run(true, m);
-
+        final BenchmarkResult result = bm.measure(() -> xs, m);
+        logger.info(description + ": " + result);
+        BenchmarkResults.record(description, xs.length, result, null);
+        return result.meanMillis();
     }
 
     /**
@@ -129,13 +190,9 @@ public class PQBenchmark {
         return words;
     }
 
-    private static Collection<String> getLeipzigWords(String line) {
-        return getWords(SortBenchmarkHelper.regexLeipzig, line);
-    }
-
     // CONSIDER: to be eliminated soon.
     private static Benchmark<LocalDateTime[]> benchmarkFactory(String description, Consumer<LocalDateTime[]> sorter, Consumer<LocalDateTime[]> checker) {
-        return new Benchmark_Timer<>(
+        return new Benchmark_Rigorous<>(
                 description,
                 (xs) -> Arrays.copyOf(xs, xs.length),
                 sorter,
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024. Robin Hillyard
+ */
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.adt.bqs.Queue_MPMC;
+import com.phasmidsoftware.dsaipg.adt.bqs.Stack_Treiber;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static com.phasmidsoftware.dsaipg.util.Utilities.formatWhole;
+
+/**
+ * Class to measure the throughput of concurrent queues (and a stack) used as work queues between producer and consumer threads:
+ * (1) Queue_MPMC (a bounded, lock-free ring buffer);
+ * (2) java.util.concurrent.ArrayBlockingQueue (bounded, with a lock);
+ * (3) java.util.concurrent.ConcurrentLinkedQueue (unbounded, lock-free, allocating a node per item);
+ * (4) Stack_Treiber (unbounded, lock-free, allocating a node per item).
+ * <p>
+ * Each of p producers gives n/p items and each of p consumers takes n/p items.
+ * A consumer which finds the queue empty (or a producer which finds it full) spins, except for ArrayBlockingQueue,
+ * which is used (as it normally would be) through its blocking put and take.
+ */
+public class QueueBenchmark {
+
+    /**
+     * The main method serves as the entry point for the QueueBenchmark application.
+     *
+     * @param args the numbers of items to be transferred (default: 1,000,000).
+     */
+    public static void main(String[] args) {
+        final int[] ns = args.length == 0 ? new int[]{1_000_000} : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        final QueueBenchmark benchmark = new QueueBenchmark(1024, 10);
+        for (int n : ns)
+            for (int p = 1; p <= Math.max(1, Runtime.getRuntime().availableProcessors() / 2); p *= 2)
+                benchmark.runBenchmarks(n, p);
+    }
+
+    /**
+     * Constructor for a QueueBenchmark.
+     *
+     * @param capacity the capacity of the bounded queues.
+     * @param nRuns    the number of runs of each benchmark.
+     */
+    public QueueBenchmark(int capacity, int nRuns) {
+        this.capacity = capacity;
+        this.nRuns = nRuns;
+    }
+
+    /**
+     * Method to run the benchmarks for n items with p producers and p consumers.
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param n the number of items to be transferred in each run.
+     * @param p the number of producers (and of consumers).
+     * @return a map of description to throughput (items per microsecond).
+     */
+    Map<String, Double> runBenchmarks(int n, int p) {
+        logger.info("QueueBenchmark: transferring " + formatWhole(n) + " items with " + p + " producers and " + p + " consumers");
+        final Map<String, Double> result = new LinkedHashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(2 * p);
+        try {
+            result.put("Queue_MPMC/" + p, measure("Queue_MPMC/" + p, n, p, executor, () -> {
+                final Queue_MPMC<Integer> queue = new Queue_MPMC<>(capacity);
+                return new Channel(queue::offer, () -> spin(queue::poll));
+            }));
+            result.put("ArrayBlockingQueue/" + p, measure("ArrayBlockingQueue/" + p, n, p, executor, () -> {
+                final BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(capacity);
+                return new Channel(x -> {
+                    try {
+                        queue.put(x);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }, () -> {
+                    try {
+                        return queue.take();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }));
+            result.put("ConcurrentLinkedQueue/" + p, measure("ConcurrentLinkedQueue/" + p, n, p, executor, () -> {
+                final java.util.Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+                return new Channel(queue::offer, () -> spin(queue::poll));
+            }));
+            result.put("Stack_Treiber/" + p, measure("Stack_Treiber/" + p, n, p, executor, () -> {
+                final Stack_Treiber<Integer> stack = new Stack_Treiber<>();
+                return new Channel(stack::push, () -> spin(stack::tryPop));
+            }));
+        } finally {
+            executor.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * Method to run and record a benchmark.
+     *
+     * @return the throughput, in items per microsecond.
+     */
+    private double measure(String description, int n, int p, ExecutorService executor, Supplier<Channel> channelFactory) {
+        final int m = n / p; // the number of items per producer (and per consumer)
+        final Benchmark_Rigorous<Channel> benchmark = new Benchmark_Rigorous<>(description, null, channel -> transfer(channel, m, p, executor), null);
+        final BenchmarkResult result = benchmark.measure(channelFactory, nRuns);
+        final double throughput = m * p / result.meanMillis() / 1000;
+        logger.info(description + ": " + result.meanMillis() + " mSec, " + throughput + " items/uSec");
+        BenchmarkResults.record(description, m * p, result, null);
+        return throughput;
+    }
+
+    /**
+     * Method to transfer m items from each of p producers to p consumers, and to wait until all have finished.
+     */
+    private static void transfer(Channel channel, int m, int p, ExecutorService executor) {
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < p; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < m; j++) channel.producer.accept(ITEM);
+            }));
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < m; j++) channel.consumer.get();
+            }));
+        }
+        try {
+            for (Future<?> future : futures) future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("QueueBenchmark: transfer failed", e);
+        }
+    }
+
+    /**
+     * Method to wait (spinning, then yielding, in the same manner as Queue_MPMC.offer) for a non-null result of poll.
+     *
+     * @return the first non-null result of poll.
+     */
+    private static Integer spin(Supplier<Integer> poll) {
+        Integer result;
+        for (int spins = 0; (result = poll.get()) == null; spins++)
+            if (spins < SPINS) Thread.onSpinWait();
+            else Thread.yield();
+        return result;
+    }
+
+    /**
+     * The two ends of a queue (or stack).
+     */
+    private static class Channel {
+        Channel(java.util.function.Consumer<Integer> producer, Supplier<Integer> consumer) {
+            this.producer = producer;
+            this.consumer = consumer;
+        }
+
+        private final java.util.function.Consumer<Integer> producer;
+        private final Supplier<Integer> consumer;
+    }
+
+    private static final Integer ITEM = 42;
+    private static final int SPINS = 100;
+
+    final static LazyLogger logger = new LazyLogger(QueueBenchmark.class);
+
+    private final int capacity;
+    private final int nRuns;
+}
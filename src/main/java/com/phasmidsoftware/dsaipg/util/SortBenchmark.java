@@ -5,18 +5,26 @@ package com.phasmidsoftware.dsaipg.util;
 
 import com.phasmidsoftware.dsaipg.sort.*;
 import com.phasmidsoftware.dsaipg.sort.classic.BucketSort;
+import com.phasmidsoftware.dsaipg.sort.counting.KeyPrefixStringSort;
 import com.phasmidsoftware.dsaipg.sort.counting.LSDStringSort;
 import com.phasmidsoftware.dsaipg.sort.counting.MSDStringSort;
+import com.phasmidsoftware.dsaipg.sort.counting.SchwartzianSort;
 import com.phasmidsoftware.dsaipg.sort.elementary.*;
 import com.phasmidsoftware.dsaipg.sort.linearithmic.TimSort;
 import com.phasmidsoftware.dsaipg.sort.linearithmic.*;
 
+import org.ini4j.Profile;
+
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.chrono.ChronoLocalDateTime;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
@@ -52,8 +60,103 @@ public class SortBenchmark {
         Config config = Config.load(SortBenchmark.class);
         logger.info("!!!!!!!!!!!!!!!!!!!! SortBenchmark Start !!!!!!!!!!!!!!!!!!!!\n");
         logger.info("SortBenchmark.main: version " + config.get("sortbenchmark", "version") + " with word counts: " + Arrays.toString(args));
+        if (args.length > 0 && args[0].equals(BenchmarkOrchestrator.CELL)) {
+            BenchmarkOrchestrator.Cell cell = BenchmarkOrchestrator.Cell.parse(args);
+            new SortBenchmark(restrict(config, cell)).runCell(cell);
+            return;
+        }
         if (args.length == 0) logger.warn("No word counts specified on the command line");
-        new SortBenchmark(config).doMain(args);
+        int parallelism = config.getInt(SORTBENCHMARK, "parallelism", 1);
+        if (parallelism > 1) orchestrate(config, args, parallelism);
+        else new SortBenchmark(config).doMain(args);
+    }
+
+    /**
+     * Method to run the benchmark cells (see getCells) concurrently, according to the options parallelism, isolation
+     * ("process", the default, or "thread") and affinity of the [sortbenchmark] section.
+     * The results of all cells are appended to the store named by the system property benchmark.results (if set).
+     *
+     * @param config      the configuration.
+     * @param args        the command-line arguments (word counts).
+     * @param parallelism the number of cells to run at the same time.
+     * NOTE: the work directory (with the logs of the cells) is deleted only if all the cells succeed;
+     * otherwise, it is kept (and named in the log) so that the failure can be investigated.
+     *
+     * @throws IOException if the results cannot be written.
+     */
+    static void orchestrate(Config config, String[] args, int parallelism) throws IOException {
+        boolean isolated = !config.getString(SORTBENCHMARK, "isolation", "process").equalsIgnoreCase("thread");
+        boolean affinity = config.getBoolean(SORTBENCHMARK, "affinity");
+        String jvmOptions = config.getString(SORTBENCHMARK, "jvmoptions", "");
+        Path workDirectory = Files.createTempDirectory("sortbenchmark");
+        try {
+            BenchmarkOrchestrator orchestrator = new BenchmarkOrchestrator(parallelism, isolated, affinity,
+                    jvmOptions.trim().isEmpty() ? Collections.emptyList() : Arrays.asList(jvmOptions.trim().split("\\s+")),
+                    workDirectory, SortBenchmark.class, cell -> new SortBenchmark(restrict(config, cell)).runCell(cell));
+            String results = System.getProperty(BenchmarkResults.RESULTS_PROPERTY);
+            orchestrator.runAndReport(getCells(config, args), results == null || results.isEmpty() ? null : new BenchmarkResults(Paths.get(results)));
+        } catch (RuntimeException | IOException e) {
+            logger.warn("SortBenchmark.orchestrate: run failed: the work directory " + workDirectory + " has been kept");
+            throw e;
+        }
+        // NOTE the results of the cells have been aggregated, so the work directory is no longer required.
+        try {
+            BenchmarkOrchestrator.deleteRecursively(workDirectory);
+        } catch (IOException e) {
+            logger.warn("SortBenchmark.orchestrate: cannot delete work directory " + workDirectory + ": " + e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Method to enumerate the independent cells of a benchmark:
+     * one for each word count and each sorter which is enabled in the [benchmarkstringsorters] or [benchmarkintegersorters] sections.
+     *
+     * @param config the configuration.
+     * @param args   the command-line arguments (word counts).
+     * @return a list of Cells.
+     */
+    static List<BenchmarkOrchestrator.Cell> getCells(Config config, String[] args) {
+        List<BenchmarkOrchestrator.Cell> result = new ArrayList<>();
+        for (long n : getWordCounts(args).toArray(Long[]::new))
+            for (String section : CELL_SECTIONS)
+                for (String option : getEnabledSorters(config, section))
+                    result.add(new BenchmarkOrchestrator.Cell(section, option, n));
+        return result;
+    }
+
+    /**
+     * Method to yield a configuration in which the only enabled sorter is the one of the given cell.
+     *
+     * @param config the configuration.
+     * @param cell   the cell.
+     * @return a copy of config with all other sorters disabled.
+     */
+    static Config restrict(Config config, BenchmarkOrchestrator.Cell cell) {
+        Config result = config;
+        for (String section : CELL_SECTIONS)
+            for (String option : getEnabledSorters(config, section))
+                if (!section.equals(cell.getSection()) || !option.equals(cell.getOption()))
+                    result = result.copy(section, option, "false");
+        return result.copy(cell.getSection(), cell.getOption(), "true");
+    }
+
+    /**
+     * Method to run one cell of the benchmark (the configuration should have been restricted to that cell).
+     *
+     * @param cell the cell.
+     */
+    void runCell(BenchmarkOrchestrator.Cell cell) {
+        if (cell.getSection().equals(BENCHMARKINTEGERSORTERS)) runIntegerSorts(cell.getN());
+        else doLeipzigBenchmarkEnglish(cell.getN());
+    }
+
+    private static List<String> getEnabledSorters(Config config, String section) {
+        List<String> result = new ArrayList<>();
+        Profile.Section options = config.get(section);
+        if (options != null)
+            for (String option : options.keySet())
+                if ("true".equalsIgnoreCase(options.get(option))) result.add(option);
+        return result;
     }
 
     /**
@@ -64,6 +167,79 @@ public class SortBenchmark {
     void doMain(String[] args) {
         sortStrings(getWordCounts(args));
         sortIntegers(getWordCounts(args));
+        fitComplexities();
+    }
+
+    /**
+     * Method to validate the scaling claims of some representative sorts, by fitting their mean times
+     * (and the mean number of compares, using an instrumented helper) over a doubling series of N.
+     * This is controlled by the options complexitysteps (zero, the default, means do nothing) and complexitystart
+     * of the [sortbenchmark] section.
+     */
+    void fitComplexities() {
+        final int steps = config.getInt(SORTBENCHMARK, "complexitysteps", 0);
+        if (steps < 3) return;
+        final int start = config.getInt(SORTBENCHMARK, "complexitystart", 1000);
+        logger.info("Fitting complexity over " + steps + " doublings of N from " + start);
+        fitIntegerSort("QuickSort dual pivot", n -> new QuickSort_DualPivot<>(n, config), start, steps, 20, ComplexityFit.Model.LINEARITHMIC);
+        fitIntegerSort("InsertionSort", n -> new InsertionSort<>(n, config), Integer.max(1, start / 4), steps, 5, ComplexityFit.Model.QUADRATIC);
+        // NOTE counting fixes would add a linear cost to every swap.
+        final Config instrumented = config.copy("helper", "instrument", "true").copy("instrumenting", "fixes", "false");
+        fitIntegerSortCompares("QuickSort dual pivot", n -> new QuickSort_DualPivot<>(n, instrumented), start, steps, 5, ComplexityFit.Model.LINEARITHMIC);
+    }
+
+    /**
+     * Fit the mean time of an integer sorter over a doubling series of N and validate it against a claimed order of growth.
+     *
+     * @param description    the description of the sorter.
+     * @param sorterFunction a function which, given N, creates a sorter (which will be closed after use).
+     * @param start          the first value of N.
+     * @param steps          the number of values of N.
+     * @param nRuns          the number of timed runs for each N.
+     * @param claim          the claimed order of growth.
+     * @return the ComplexityFit.
+     */
+    static ComplexityFit fitIntegerSort(String description, IntFunction<SortWithHelper<Integer>> sorterFunction, int start, int steps, int nRuns, ComplexityFit.Model claim) {
+        final ComplexityFit fit = ComplexityFit.doubling(start, steps, n -> {
+            final SortWithHelper<Integer> sorter = sorterFunction.apply(n);
+            final Helper<Integer> helper = sorter.getHelper();
+            helper.init(n);
+            // NOTE the warmup is limited since the larger values of N may be slow (especially for quadratic sorts).
+            final Benchmark_Rigorous<Integer[]> benchmark = new Benchmark_Rigorous<>(description, null, sorter::mutatingSort, null, 1, Benchmark_Rigorous.WINDOW, Benchmark_Rigorous.TOLERANCE, 10);
+            final BenchmarkResult result = benchmark.measure(() -> helper.random(Integer.class, Random::nextInt), nRuns);
+            sorter.close();
+            return result.mean();
+        });
+        fit.validate(description + " (time)", claim, COMPLEXITY_TOLERANCE);
+        return fit;
+    }
+
+    /**
+     * Fit the mean number of compares of an (instrumented) integer sorter over a doubling series of N
+     * and validate it against a claimed order of growth.
+     *
+     * @param description    the description of the sorter.
+     * @param sorterFunction a function which, given N, creates a sorter with an instrumenting helper (which will be closed after use).
+     * @param start          the first value of N.
+     * @param steps          the number of values of N.
+     * @param nRuns          the number of sorts for each N.
+     * @param claim          the claimed order of growth.
+     * @return the ComplexityFit.
+     */
+    static ComplexityFit fitIntegerSortCompares(String description, IntFunction<SortWithHelper<Integer>> sorterFunction, int start, int steps, int nRuns, ComplexityFit.Model claim) {
+        final ComplexityFit fit = ComplexityFit.doubling(start, steps, n -> {
+            final SortWithHelper<Integer> sorter = sorterFunction.apply(n);
+            final Helper<Integer> helper = sorter.getHelper();
+            if (!helper.instrumented() || !(helper instanceof BaseHelper))
+                throw new SortException("fitIntegerSortCompares: helper is not instrumented: " + helper);
+            helper.init(n);
+            for (int i = 0; i < nRuns; i++) sorter.mutatingSort(helper.random(Integer.class, Random::nextInt));
+            final long compares = ((BaseHelper<Integer>) helper).getCompares();
+            sorter.close();
+            return (double) compares / nRuns;
+        });
+        fit.validate(description + " (compares)", claim, COMPLEXITY_TOLERANCE);
+        return fit;
     }
 
     /**
@@ -102,8 +278,14 @@ public class SortBenchmark {
             sortIntegersByShellSort((int) N, 12 * estimateRuns(totalWork, Math.pow(N, 4.0 / 3)));
         if (isConfigBenchmarkIntegerSorter("bucketsort"))
             runIntegerBucketSort((int) N, estimateRuns(totalWork * 2, N));
+        if (isConfigBenchmarkIntegerSorter("samplesort"))
+            runIntegerSampleSort((int) N, estimateRuns(totalWork * 2, N));
         if (isConfigBenchmarkIntegerSorter("quicksort"))
             runIntegerQuickSort((int) N, 10 * estimateRuns(totalWork, Math.log(N) * N));
+        if (isConfigBenchmarkIntegerSorter("quicksortblock"))
+            runIntegerBlockQuickSort((int) N, 10 * estimateRuns(totalWork, Math.log(N) * N));
+        if (isConfigBenchmarkIntegerSorter("naturalmergesort"))
+            runIntegerNaturalMergeSort((int) N, 10 * estimateRuns(totalWork, Math.log(N) * N));
     }
 
     /**
@@ -134,16 +316,20 @@ public class SortBenchmark {
             // NOTE this is intended to replace the run two lines previous. It should take the exact same amount of time.
             runDateTimeSortBenchmark(LocalDateTime.class, localDateTimes, n, 100);
         }
+
+        // NOTE Test on date using the Schwartzian sort: keys (epoch day, nano of day) are extracted once and radix-sorted.
+        if (isConfigBenchmarkDateSorter("schwartzian"))
+            logger.info(benchmarkFactory("ProcessingSort LocalDateTimes using SchwartzianSort::mutatingSort", SchwartzianSort.<LocalDateTime>dateTimeSort()::mutatingSort, null).runFromSupplier(localDateTimeSupplier, 100) + "ms");
     }
 
     /**
-     * Extracts words from the given input line based on the Leipzig regex pattern: {@link SortBenchmarkHelper#regexLeipzig}.
+     * Extracts words from the given input line of a Leipzig corpus (see {@link Corpus#parseLeipzigLine(CharSequence)}).
      *
      * @param line the input string from which words are to be extracted.
      * @return a collection of strings containing the extracted words.
      */
     public static Collection<String> getLeipzigWords(String line) {
-        return getWords(regexLeipzig, line);
+        return Corpus.parseLeipzigLine(line);
     }
 
     /**
@@ -191,12 +377,24 @@ public class SortBenchmark {
 //            }
         }
 
+        if (isConfigBenchmarkStringSorter("keyprefix") && nRunsLinear > 0) {
+            int nRuns = nRunsLinear * 5;
+            try (SortWithHelper<String> sorter = new KeyPrefixStringSort(CodePointMapper.ASCIIExt, nWords, nRuns, config)) {
+                runStringSortBenchmark(words, nWords, nRuns, sorter, timeLoggersLinear);
+            }
+        }
+
         // Linearithmic sorts
         if (isConfigBenchmarkStringSorter("timsort") && nRunsLinearithmic > 0)
             try (SortWithHelper<String> sorter = TimSort.CaseInsensitiveSort(nWords, config)) {
                 runStringSortBenchmark(words, nWords, nRunsLinearithmic * 2, sorter, timeLoggersLinearithmic);
             }
 
+        if (isConfigBenchmarkStringSorter("naturalmergesort") && nRunsLinearithmic > 0)
+            try (SortWithHelper<String> sorter = new NaturalMergeSort<>(nWords, nRunsLinearithmic, config)) {
+                runStringSortBenchmark(words, nWords, nRunsLinearithmic * 2, sorter, timeLoggersLinearithmic);
+            }
+
         if (isConfigBenchmarkStringSorter(MERGESORT))
             runMergeSortBenchmark(words, nWords, nRunsLinearithmic * 4, config);
 
@@ -215,6 +413,11 @@ public class SortBenchmark {
                 runStringSortBenchmark(words, nWords, nRunsLinearithmic * 3, sorter, timeLoggersLinearithmic);
             }
 
+        if (isConfigBenchmarkStringSorter("quicksortblock") && nRunsLinearithmic > 0)
+            try (SortWithHelper<String> sorter = new QuickSort_Block<>(nWords, nRunsLinearithmic, config)) {
+                runStringSortBenchmark(words, nWords, nRunsLinearithmic * 3, sorter, timeLoggersLinearithmic);
+            }
+
         if (isConfigBenchmarkStringSorter("heapsort") && nRunsLinearithmic > 0) {
             try (SortWithHelper<String> sorter = new HeapSort<>(nWords, nRunsLinearithmic, config)) {
                 runStringSortBenchmark(words, nWords, nRunsLinearithmic * 3, sorter, timeLoggersLinearithmic);
@@ -319,6 +522,24 @@ public class SortBenchmark {
         helper.close();
     }
 
+    /**
+     * Executes a benchmarking routine for sorting a skewed integer dataset using BucketSort in sample-sort mode.
+     * The values are cubes of uniformly distributed integers, so that equal-width buckets would be badly unbalanced.
+     *
+     * @param N    the size of the dataset to be sorted; must be a positive integer.
+     * @param runs the number of times the sorting operation will be executed for benchmarking purposes.
+     */
+    private void runIntegerSampleSort(int N, final int runs) {
+        // NOTE the sample is OVERSAMPLING times the number of buckets, so we use fewer (larger) buckets than for BucketSort.
+        int buckets = config.getInt(BENCHMARKINTEGERSORTERS, "samplebuckets", 1024);
+        BucketSort<Integer> sorter = BucketSort.SampleSort(buckets, N, config);
+        Helper<Integer> helper = sorter.getHelper();
+        helper.init(N);
+        Integer[] xs = helper.random(N, Integer.class, r -> (int) Math.pow(r.nextInt(1000), 3));
+        runIntegerSortBenchmark(xs, N, runs, sorter, null, timeLoggersLinearithmic);
+        helper.close();
+    }
+
     /**
      * Runs a benchmark for the pure System sort method (using {@code Arrays.sort}).
      * This method measures the sorting performance of an array of strings over multiple runs.
@@ -329,8 +550,8 @@ public class SortBenchmark {
      * @param random A {@code Random} instance used for shuffling words or other random operations before sorting.
      */
     private static void runPureSystemSortBenchmark(String[] words, int nWords, int nRuns, Random random) {
-        Benchmark<String[]> benchmark = new Benchmark_Timer<>("SystemSort", null, Arrays::sort, null);
-        doPureBenchmark(words, nWords, nRuns, random, benchmark);
+        Benchmark_Rigorous<String[]> benchmark = new Benchmark_Rigorous<>("SystemSort", null, Arrays::sort, null);
+        doPureBenchmark("SystemSort", words, nWords, nRuns, random, benchmark);
     }
 
     /**
@@ -360,6 +581,37 @@ public class SortBenchmark {
         runIntegerSortBenchmark(numbers, N, runs, sorter, sorter::preProcess, timeLoggersLinearithmic);
     }
 
+    /**
+     * Executes a benchmark for sorting an array of integers using QuickSort with block partitioning.
+     * The dataset is generated in the same way as for {@link #runIntegerQuickSort(int, int)} so that the results are comparable.
+     *
+     * @param N    the size of the dataset to be sorted, representing the number of integers in the array.
+     * @param runs the number of sorting operations to be performed for benchmarking purposes.
+     */
+    private void runIntegerBlockQuickSort(int N, final int runs) {
+        SortWithHelper<Integer> sorter = new QuickSort_Block<>(N, runs, config);
+        Integer[] numbers = sorter.getHelper().random(Integer.class, Random::nextInt);
+        runIntegerSortBenchmark(numbers, N, runs, sorter, sorter::preProcess, timeLoggersLinearithmic);
+    }
+
+    /**
+     * Executes a benchmark for sorting an array of integers using NaturalMergeSort.
+     * The dataset is nearly sorted: each (random) array is made into the concatenation of BATCHES sorted batches
+     * (like a series of log batches) by the (untimed) pre-processor, which is the case for which a natural merge sort is designed.
+     *
+     * @param N    the size of the dataset to be sorted, representing the number of integers in the array.
+     * @param runs the number of sorting operations to be performed for benchmarking purposes.
+     */
+    private void runIntegerNaturalMergeSort(int N, final int runs) {
+        SortWithHelper<Integer> sorter = new NaturalMergeSort<>(N, runs, config);
+        Integer[] numbers = sorter.getHelper().random(Integer.class, Random::nextInt);
+        int batch = Math.max(1, N / BATCHES);
+        runIntegerSortBenchmark(numbers, N, runs, sorter, xs -> {
+            for (int i = 0; i < xs.length; i += batch) Arrays.sort(xs, i, Math.min(i + batch, xs.length));
+            return sorter.preProcess(xs);
+        }, timeLoggersLinearithmic);
+    }
+
     /**
      * Sorts strings based on various benchmark configurations and performs
      * Leipzig benchmarks for English text.
@@ -398,7 +650,7 @@ public class SortBenchmark {
 //        String resource = "eng-uk_web_2002_" + (x < 50000 ? "10K" : x < 200000 ? "100K" : "1M") + "-sentences.txt";
         String resource = "eng-uk_web_2002_" + (x < 50000 ? "10K" : "100K") + "-sentences.txt";
         try {
-            benchmarkStringSorters(getWords(resource, SortBenchmark::getLeipzigWords), x);
+            benchmarkStringSorters(Corpus.getLeipzigWords(resource), x);
         } catch (FileNotFoundException e) {
             logger.warn("Unable to find resource: " + resource + "because:", e); // TESTME
         } catch (Exception e) {
@@ -461,6 +713,12 @@ public class SortBenchmark {
     }
 
     public static final String BENCHMARKSTRINGSORTERS = "benchmarkstringsorters";
+    public static final String SORTBENCHMARK = "sortbenchmark";
+
+    /**
+     * The tolerance of the empirical exponent when validating scaling claims (see ComplexityFit.isConsistentWith).
+     */
+    static final double COMPLEXITY_TOLERANCE = 0.15;
     public static final TimeLogger TIME_LOGGER_RAW = new TimeLogger("Raw time per run {mSec}: ", null);
 
     /**
@@ -550,7 +808,7 @@ public class SortBenchmark {
      */
     // CONSIDER: to be eliminated soon.
     private static Benchmark<LocalDateTime[]> benchmarkFactory(String description, Consumer<LocalDateTime[]> sorter, Consumer<LocalDateTime[]> checker) {
-        return new Benchmark_Timer<>(
+        return new Benchmark_Rigorous<>(
                 description,
                 (xs) -> Arrays.copyOf(xs, xs.length),
                 sorter,
@@ -560,17 +818,22 @@ public class SortBenchmark {
 
     /**
      * Executes a pure benchmark test with given parameters.
+     * The result is recorded via BenchmarkResults.
      *
+     * @param description the description of the benchmark (for the record)
      * @param words an array of words to randomly use during the benchmark
      * @param nWords the number of words to include in the test
      * @param nRuns the number of iterations to run the benchmark
      * @param random a Random instance to help in generating random data
      * @param benchmark the Benchmark object used to execute the performance test
      */
-    private static void doPureBenchmark(String[] words, int nWords, int nRuns, Random random, Benchmark<String[]> benchmark) {
+    private static void doPureBenchmark(String description, String[] words, int nWords, int nRuns, Random random, Benchmark_Rigorous<String[]> benchmark) {
         // CONSIDER we should manage the space returned by fillRandomArray and deallocate it after use.
-        final double time = benchmark.runFromSupplier(() -> Utilities.fillRandomArray(String.class, random, nWords, r -> words[r.nextInt(words.length)]), nRuns);
+        final BenchmarkResult result = benchmark.measure(() -> Utilities.fillRandomArray(String.class, random, nWords, r -> words[r.nextInt(words.length)]), nRuns);
+        logger.info(result.toString());
+        final double time = result.meanMillis();
         for (TimeLogger timeLogger : timeLoggersLinearithmic) timeLogger.log("pure benchmark", time, nWords);
+        BenchmarkResults.record(description, nWords, result, null);
     }
 
     // TODO arrange for this to be resurrected.
@@ -703,5 +966,9 @@ public class SortBenchmark {
 
     public static final String BENCHMARKINTEGERSORTERS = "benchmarkintegersorters";
 
+    private static final int BATCHES = 16;
+
+    private static final String[] CELL_SECTIONS = {BENCHMARKSTRINGSORTERS, BENCHMARKINTEGERSORTERS};
+
     private final Config config;
 }
\ No newline at end of file
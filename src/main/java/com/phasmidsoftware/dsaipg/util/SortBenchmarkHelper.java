@@ -8,9 +8,11 @@ package com.phasmidsoftware.dsaipg.util;
 import com.phasmidsoftware.dsaipg.sort.SortException;
 
 import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.InputStreamReader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
@@ -64,7 +66,8 @@ public class SortBenchmarkHelper {
     // TEST
     public static String[] getWords(String resource, Function<String, Collection<String>> getStrings) throws FileNotFoundException {
         List<String> words = new ArrayList<>();
-        final FileReader fr = new FileReader(getFile(resource, SortBenchmarkHelper.class));
+        // NOTE the resources are encoded in UTF-8 (regardless of the platform's default charset).
+        final InputStreamReader fr = new InputStreamReader(new FileInputStream(getFile(resource, SortBenchmarkHelper.class)), StandardCharsets.UTF_8);
         for (Object line : new BufferedReader(fr).lines().toArray()) words.addAll(getStrings.apply((String) line));
         words = words.stream().distinct().filter(new Predicate<>() {
             private static final int MINIMUM_LENGTH = 2;
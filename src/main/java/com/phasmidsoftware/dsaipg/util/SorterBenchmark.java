@@ -4,6 +4,8 @@
 
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.sort.BaseHelper;
+import com.phasmidsoftware.dsaipg.sort.Helper;
 import com.phasmidsoftware.dsaipg.sort.SortWithHelper;
 
 import java.util.function.Consumer;
@@ -12,13 +14,14 @@ import java.util.function.UnaryOperator;
 import static com.phasmidsoftware.dsaipg.util.Utilities.formatWhole;
 
 /**
- * Class to extend Benchmark_Timer for sorting an array of T values.
+ * Class to extend Benchmark_Rigorous for sorting an array of T values.
  * The default implementation of run in this class randomly selects a subset of the array to be sorted.
  * Each sort is preceded (optionally) by a preProcessor and succeeded (optionally) by a postProcessor.
+ * The result (including the helper's StatPack, if any) is recorded via BenchmarkResults.
  *
  * @param <T> the underlying type to be sorted.
  */
-public class SorterBenchmark<T extends Comparable<T>> extends Benchmark_Timer<T[]> {
+public class SorterBenchmark<T extends Comparable<T>> extends Benchmark_Rigorous<T[]> {
 
     /**
      * Run a benchmark on a sorting problem with N elements.
@@ -31,8 +34,12 @@ public class SorterBenchmark<T extends Comparable<T>> extends Benchmark_Timer<T[
         if (nRuns > 0) {
             logger.info("run: sort " + formatWhole(N) + " elements with " + this);
             sorter.init(N);
-            final double time = super.runFromSupplier(() -> generateRandomArray(ts), nRuns);
+            final BenchmarkResult result = measure(() -> generateRandomArray(ts), nRuns);
+            logger.info(result.toString());
+            final double time = result.meanMillis();
             for (TimeLogger timeLogger : timeLoggers) timeLogger.log(description, time, N);
+            final Helper<T> helper = sorter.getHelper();
+            BenchmarkResults.record(description, N, result, helper instanceof BaseHelper ? ((BaseHelper<T>) helper).getStatPack() : null);
         } else
             logger.warn("run: skipping " + this);
     }
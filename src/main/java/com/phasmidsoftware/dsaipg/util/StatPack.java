@@ -5,6 +5,8 @@
 package com.phasmidsoftware.dsaipg.util;
 
 import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Function;
 
 /**
@@ -74,12 +76,41 @@ public class StatPack {
 
     /**
      * Computes the total value for a specified key based on the statistics tracked.
+     * If the values for key are a sample (see {@link #setSampleFraction(double, String...)}),
+     * the total is extrapolated, i.e. the total of the sampled values is divided by the sample fraction.
      *
      * @param key the identifier for the specific statistical data to retrieve and compute the total.
-     * @return the total sum of all the values associated with the given key.
+     * @return the total sum of all the values associated with the given key (or its extrapolation).
      */
     public double total(String key) {
-        return getStatistics(key).total();
+        return getStatistics(key).total() / getSampleFraction(key);
+    }
+
+    /**
+     * Records that the values for the given keys have been taken from only a fraction of the events
+     * (for example, the sorts instrumented by a SamplingInstrumenter), so that their totals must be extrapolated.
+     *
+     * @param fraction the fraction of events which have been sampled (greater than 0 and not greater than 1).
+     * @param keys     the keys whose values are sampled.
+     * @throws IllegalArgumentException if fraction is out of range.
+     */
+    public void setSampleFraction(double fraction, String... keys) {
+        if (!(fraction > 0 && fraction <= 1))
+            throw new IllegalArgumentException("StatPack.setSampleFraction: fraction out of range: " + fraction);
+        for (String key : keys) {
+            getStatistics(key); // NOTE: this validates key.
+            sampleFractions.put(key, fraction);
+        }
+    }
+
+    /**
+     * Retrieves the fraction of events from which the values for key have been sampled.
+     *
+     * @param key the key.
+     * @return the sample fraction (1 unless set by {@link #setSampleFraction(double, String...)}).
+     */
+    public double getSampleFraction(String key) {
+        return sampleFractions.getOrDefault(key, 1.0);
     }
 
     /**
@@ -104,6 +135,15 @@ public class StatPack {
         return getStatistics(key).stdDev();
     }
 
+    /**
+     * Retrieves the keys of the properties tracked by this StatPack.
+     *
+     * @return the keys, in alphabetical order.
+     */
+    public Set<String> keys() {
+        return new TreeSet<>(map.keySet());
+    }
+
     /**
      * Determines if the current state is invalid based on the value of the variable n.
      *
@@ -129,12 +169,17 @@ public class StatPack {
         for (String key : map.keySet()) {
             final Statistics statistics = map.get(key);
             String string = statistics.toString();
-            stringBuilder.append(string).append("; ");
+            stringBuilder.append(string);
+            // NOTE: for sampled keys, we also show the extrapolated total.
+            if (getSampleFraction(key) < 1 && statistics.getCount() > 0)
+                stringBuilder.append("; extrapolated total=").append(Utilities.asInt(total(key)));
+            stringBuilder.append("; ");
         }
         return stringBuilder.toString().replaceAll("; $", "}");
     }
 
     private final HashMap<String, Statistics> map;
+    private final HashMap<String, Double> sampleFractions = new HashMap<>();
     private final int n;
 
 }
\ No newline at end of file
@@ -3,21 +3,32 @@
  */
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.adt.balsearchtree.BTree;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.ST;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.HashTable_RH;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.HashTable_SC;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.IntIntST;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.IntObjST;
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.LongObjST;
+
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.lang.ref.Reference;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
-import static com.phasmidsoftware.dsaipg.util.SortBenchmarkHelper.getWords;
-import static com.phasmidsoftware.dsaipg.util.SortBenchmarkHelper.regexLeipzig;
 import static com.phasmidsoftware.dsaipg.util.Utilities.formatWhole;
 
 /**
  * Class to test the comparative efficiency of:
  * (1) build a hash table and get the values in key order;
- * (2) build a Red-black tree and the values in key order.
+ * (2) build a java.util.TreeMap (a red-black tree) and a BTree;
+ * (3) put and get each word in HashMap, HashTable_SC, HashTable_RH and BTree;
+ * (4) the memory per entry of boxed versus primitive-keyed symbol tables.
  * <p>
- * Spoiler alert! RB tree is a little faster (as it should be).
+ * Spoiler alert! TreeMap is a little faster than the hash table (as it should be).
  */
 public class SymbolTableBenchmark {
 
@@ -69,7 +80,54 @@ public class SymbolTableBenchmark {
         logger.info("Testing pure sorts with " + formatWhole(nRuns) + " runs of sorting " + formatWhole(nWords) + " words");
         Random random = new Random();
         runHashTableBenchmark(words, nWords, nRuns, random);
-        runRBTreeBenchmark(words, nWords, nRuns, random);
+        runTreeMapBenchmark(words, nWords, nRuns, random);
+        runBTreeBenchmark(words, nWords, nRuns, random);
+        // NOTE the hash tables are all constructed with their default capacities, so that each pays for its own growth.
+        runSymbolTableBenchmark("HashMap", SymbolTableBenchmark::putAndGetHashMap, words, nWords, nRuns, random);
+        runSymbolTableBenchmark("HashTable_SC", xs -> putAndGet(new HashTable_SC<>(), xs), words, nWords, nRuns, random);
+        runSymbolTableBenchmark("HashTable_RH", xs -> putAndGet(new HashTable_RH<>(), xs), words, nWords, nRuns, random);
+        runSymbolTableBenchmark("BTree", xs -> putAndGet(new BTree<>(), xs), words, nWords, nRuns, random);
+    }
+
+    /**
+     * Executes a benchmark which puts each of the words into a symbol table and then gets each of them.
+     *
+     * @param description the description of the benchmark.
+     * @param function    the function which builds (and queries) the symbol table.
+     * @param words       an array of words to be used as input for the benchmark.
+     * @param nWords      the number of words to be processed during the benchmark.
+     * @param nRuns       the number of times the benchmark process will be repeated.
+     * @param random      an instance of {@code Random} used to choose the words.
+     */
+    private static void runSymbolTableBenchmark(String description, Consumer<String[]> function, String[] words, int nWords, int nRuns, Random random) {
+        Benchmark_Rigorous<String[]> benchmark = new Benchmark_Rigorous<>(description, null, function, null);
+        doPureBenchmark(description, words, nWords, nRuns, random, benchmark);
+    }
+
+    /**
+     * Puts each of xs (with its index as the value) into st and then gets each of them.
+     *
+     * @param st the (empty) symbol table.
+     * @param xs an array of strings to be used as keys.
+     */
+    private static void putAndGet(ST<String, Integer> st, String[] xs) {
+        for (int i = 0; i < xs.length; i++)
+            st.put(xs[i], i);
+        for (String x : xs)
+            if (st.get(x) == null) throw new RuntimeException("SymbolTableBenchmark: missing key: " + x);
+    }
+
+    /**
+     * Puts each of xs (with its index as the value) into a HashMap and then gets each of them.
+     *
+     * @param xs an array of strings to be used as keys.
+     */
+    private static void putAndGetHashMap(String[] xs) {
+        Map<String, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < xs.length; i++)
+            hashMap.put(xs[i], i);
+        for (String x : xs)
+            if (hashMap.get(x) == null) throw new RuntimeException("SymbolTableBenchmark: missing key: " + x);
     }
 
     /**
@@ -81,21 +139,34 @@ public class SymbolTableBenchmark {
      * @param random an instance of {@code Random} used to introduce randomness during the benchmarking process.
      */
     private static void runHashTableBenchmark(String[] words, int nWords, int nRuns, Random random) {
-        Benchmark<String[]> benchmark = new Benchmark_Timer<>("hashTable", null, SymbolTableBenchmark::buildAndRenderHashTable, null);
-        doPureBenchmark(words, nWords, nRuns, random, benchmark);
+        Benchmark_Rigorous<String[]> benchmark = new Benchmark_Rigorous<>("hashTable", null, SymbolTableBenchmark::buildAndRenderHashTable, null);
+        doPureBenchmark("hashTable", words, nWords, nRuns, random, benchmark);
     }
 
     /**
-     * Runs the benchmark for a Red-Black Tree implementation.
+     * Runs the benchmark for building a java.util.TreeMap (the JDK's red-black tree).
      *
      * @param words  the array of words to be used for the benchmark.
      * @param nWords the number of words to be processed in each benchmark run.
      * @param nRuns  the number of benchmark iterations to execute.
      * @param random the Random instance used for any randomness needed during benchmarking.
      */
-    private static void runRBTreeBenchmark(String[] words, int nWords, int nRuns, Random random) {
-        Benchmark<String[]> benchmark = new Benchmark_Timer<>("RBTree", null, SymbolTableBenchmark::buildRBTree, null);
-        doPureBenchmark(words, nWords, nRuns, random, benchmark);
+    private static void runTreeMapBenchmark(String[] words, int nWords, int nRuns, Random random) {
+        Benchmark_Rigorous<String[]> benchmark = new Benchmark_Rigorous<>("TreeMap", null, SymbolTableBenchmark::buildTreeMap, null);
+        doPureBenchmark("TreeMap", words, nWords, nRuns, random, benchmark);
+    }
+
+    /**
+     * Runs the benchmark for building a BTree (our own balanced ordered symbol table).
+     *
+     * @param words  the array of words to be used for the benchmark.
+     * @param nWords the number of words to be processed in each benchmark run.
+     * @param nRuns  the number of benchmark iterations to execute.
+     * @param random the Random instance used for any randomness needed during benchmarking.
+     */
+    private static void runBTreeBenchmark(String[] words, int nWords, int nRuns, Random random) {
+        Benchmark_Rigorous<String[]> benchmark = new Benchmark_Rigorous<>("BTree build", null, SymbolTableBenchmark::buildBTree, null);
+        doPureBenchmark("BTree build", words, nWords, nRuns, random, benchmark);
     }
 
     /**
@@ -119,13 +190,13 @@ public class SymbolTableBenchmark {
     }
 
     /**
-     * Constructs a Red-Black Tree using the input array of strings.
-     * Each string from the array is added to a {@code TreeMap} with its index in the array as the value.
+     * Constructs a {@code TreeMap} (a red-black tree) using the input array of strings.
+     * Each string from the array is added to the {@code TreeMap} with its index in the array as the value.
      * This method is currently pending further implementation and may be subject to modifications.
      *
-     * @param xs an array of strings to be used as keys in the Red-Black Tree.
+     * @param xs an array of strings to be used as keys in the {@code TreeMap}.
      */
-    private static void buildRBTree(String[] xs) {
+    private static void buildTreeMap(String[] xs) {
         Map<String, Integer> treeMap = new TreeMap<>();
         // TODO sort this out.
         for (int i = 0; i < xs.length; i++)
@@ -135,6 +206,103 @@ public class SymbolTableBenchmark {
         // CONSIDER returning values.
     }
 
+    /**
+     * Constructs a {@code BTree} using the input array of strings.
+     * Each string from the array is added to the {@code BTree} with its index in the array as the value.
+     *
+     * @param xs an array of strings to be used as keys in the {@code BTree}.
+     */
+    private static void buildBTree(String[] xs) {
+        ST<String, Integer> bTree = new BTree<>();
+        for (int i = 0; i < xs.length; i++)
+            bTree.put(xs[i], i);
+    }
+
+    /**
+     * Method to measure (and log) the heap memory used per entry by symbol tables of n (int or long) keys:
+     * boxed tables (HashMap, HashTable_SC, HashTable_RH) versus primitive-keyed tables (IntIntST, IntObjST, LongObjST).
+     * <p>
+     * NOTE: this is package-private because it is used by unit tests.
+     *
+     * @param n the number of entries.
+     * @return a map of description to the number of bytes per entry.
+     */
+    Map<String, Double> benchmarkMemory(int n) {
+        logger.info("Measuring memory per entry for symbol tables with " + formatWhole(n) + " entries");
+        final Map<String, Double> result = new LinkedHashMap<>();
+        result.put("HashMap<Integer,Integer>", memoryPerEntry(n, m -> {
+            final Map<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < m; i++) map.put(key(i), i);
+            return map;
+        }));
+        result.put("HashTable_SC<Integer,Integer>", memoryPerEntry(n, m -> {
+            final ST<Integer, Integer> st = new HashTable_SC<>();
+            for (int i = 0; i < m; i++) st.put(key(i), i);
+            return st;
+        }));
+        result.put("HashTable_RH<Integer,Integer>", memoryPerEntry(n, m -> {
+            final ST<Integer, Integer> st = new HashTable_RH<>();
+            for (int i = 0; i < m; i++) st.put(key(i), i);
+            return st;
+        }));
+        result.put("IntIntST", memoryPerEntry(n, m -> {
+            final IntIntST st = new IntIntST();
+            for (int i = 0; i < m; i++) st.put(key(i), i);
+            return st;
+        }));
+        result.put("IntObjST<Integer>", memoryPerEntry(n, m -> {
+            final IntObjST<Integer> st = new IntObjST<>();
+            for (int i = 0; i < m; i++) st.put(key(i), i);
+            return st;
+        }));
+        result.put("HashMap<Long,Integer>", memoryPerEntry(n, m -> {
+            final Map<Long, Integer> map = new HashMap<>();
+            for (int i = 0; i < m; i++) map.put((long) key(i) << 16, i);
+            return map;
+        }));
+        result.put("LongObjST<Integer>", memoryPerEntry(n, m -> {
+            final LongObjST<Integer> st = new LongObjST<>();
+            for (int i = 0; i < m; i++) st.put((long) key(i) << 16, i);
+            return st;
+        }));
+        for (Map.Entry<String, Double> entry : result.entrySet())
+            logger.info(String.format("%-30s %8.1f bytes per entry", entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * Method to measure the heap memory retained by the result of builder, per entry.
+     * NOTE the first measurement is discarded: it is unreliable while the JVM is still warming up.
+     *
+     * @param n       the number of entries.
+     * @param builder a function which builds a table with the given number of entries.
+     * @return the number of bytes per entry.
+     */
+    private static double memoryPerEntry(int n, IntFunction<Object> builder) {
+        double result = 0;
+        for (int i = 0; i < 2; i++) {
+            final long before = usedMemory();
+            final Object table = builder.apply(n);
+            final long after = usedMemory();
+            Reference.reachabilityFence(table);
+            result = (after - before) / (double) Math.max(1, n);
+        }
+        return result;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @return a distinct, scattered (and non-cached when boxed) key for each i.
+     */
+    private static int key(int i) {
+        return (i + 1000) * 0x9E3779B9;
+    }
+
     /**
      * Executes benchmarking processes for a stream of word counts.
      * For each word count within the stream, it performs a symbol table benchmark.
@@ -149,8 +317,7 @@ public class SymbolTableBenchmark {
     /**
      * Executes a symbol table benchmark test using a specified word count threshold to determine the resource file.
      * The method fetches words from the selected resource,
-     * processes them using the `SymbolTableBenchmark::getLeipzigWords`
-     * function, and then performs string sorter benchmarking. If the resource file cannot be located, a warning is logged.
+     * parses them using {@link Corpus#getLeipzigWords(String)}, and then performs string sorter benchmarking. If the resource file cannot be located, a warning is logged.
      *
      * @param x the word count threshold that determines which resource file to use for the benchmark;
      *          if less than 50,000, a smaller resource file is selected, otherwise a larger one is chosen
@@ -158,8 +325,9 @@ public class SymbolTableBenchmark {
     private void doSymbolTableBenchmark(int x) {
         String resource = "eng-uk_web_2002_" + (x < 50000 ? "10K" : "100K") + "-sentences.txt";
         try {
-            String[] words = getWords(resource, SymbolTableBenchmark::getLeipzigWords);
+            String[] words = Corpus.getLeipzigWords(resource);
             benchmarkStringSorters(words, x, 1000);
+            benchmarkMemory(x);
         } catch (FileNotFoundException e) {
             logger.warn("Unable to find resource: " + resource, e);
         }
@@ -189,30 +357,23 @@ public class SymbolTableBenchmark {
         return n * (lgN - LgE) + lgN / 2 + 1.33;
     }
 
-    /**
-     * Extracts a collection of words from the provided input string based on a predefined regular expression.
-     *
-     * @param line the input string from which to extract words.
-     * @return a collection of strings containing the words extracted from the input string.
-     */
-    public static Collection<String> getLeipzigWords(String line) {
-        return getWords(regexLeipzig, line);
-    }
-
     /**
      * Executes a pure benchmark test by generating randomized arrays of words,
-     * running the benchmark multiple times, and logging the results.
+     * running the benchmark multiple times, and logging (and recording) the results.
      *
-     * @param words     an array of strings used as a source for random word generation.
-     * @param nWords    the number of words to include in the generated array during each run.
-     * @param nRuns     the number of times the benchmark should be executed.
-     * @param random    an instance of {@code Random} for generating random indices for word selection.
-     * @param benchmark the benchmark instance used to measure the runtime of operations on the generated arrays.
+     * @param description the description of the benchmark.
+     * @param words       an array of strings used as a source for random word generation.
+     * @param nWords      the number of words to include in the generated array during each run.
+     * @param nRuns       the number of times the benchmark should be executed.
+     * @param random      an instance of {@code Random} for generating random indices for word selection.
+     * @param benchmark   the benchmark instance used to measure the runtime of operations on the generated arrays.
      */
-    private static void doPureBenchmark(String[] words, int nWords, int nRuns, Random random, Benchmark<String[]> benchmark) {
+    private static void doPureBenchmark(String description, String[] words, int nWords, int nRuns, Random random, Benchmark_Rigorous<String[]> benchmark) {
         // CONSIDER we should manage the space returned by fillRandomArray and deallocate it after use.
-        final double time = benchmark.runFromSupplier(() -> Utilities.fillRandomArray(String.class, random, nWords, r -> words[r.nextInt(words.length)]), nRuns);
-        for (TimeLogger timeLogger : timeLoggersLinearithmic) timeLogger.log("", time, nWords);
+        final BenchmarkResult result = benchmark.measure(() -> Utilities.fillRandomArray(String.class, random, nWords, r -> words[r.nextInt(words.length)]), nRuns);
+        logger.info(result.toString());
+        for (TimeLogger timeLogger : timeLoggersLinearithmic) timeLogger.log(description, result.meanMillis(), nWords);
+        BenchmarkResults.record(description, nWords, result, null);
     }
 
     /**
@@ -64,9 +64,23 @@ public class Timer {
      * @return the average milliseconds per repetition.
      */
     public <T, U> double repeat(int n, boolean warmup, Supplier<T> supplier, Function<T, U> function, UnaryOperator<T> preFunction, Consumer<U> postFunction) {
-        // TO BE IMPLEMENTED : note that the timer is running when this method is called and should still be running when it returns.
-         return 0;
-        // END SOLUTION
+        // NOTE: the timer is running when this method is called and is still running when it returns.
+        doTrace(() -> "repeat: " + n + (warmup ? " warmup" : "") + " runs");
+        for (int i = 0; i < n; i++) {
+            // NOTE: neither the supplier nor the pre-function is timed.
+            pause();
+            T t = supplier.get();
+            if (preFunction != null) t = preFunction.apply(t);
+            resume();
+            U u = function.apply(t);
+            pauseAndLap();
+            if (postFunction != null) postFunction.accept(u);
+            resume();
+        }
+        pause();
+        final double result = meanLapTime();
+        resume();
+        return result;
     }
 
     /**
@@ -239,9 +253,7 @@ public class Timer {
      * @return the number of ticks for the system clock. Currently defined as nano time.
      */
     private static long getClock() {
-        // TO BE IMPLEMENTED 
-         return 0;
-        // END SOLUTION
+        return System.nanoTime();
     }
 
     /**
@@ -252,9 +264,7 @@ public class Timer {
      * @return the corresponding number of milliseconds.
      */
     private static double toMillisecs(long ticks) {
-        // TO BE IMPLEMENTED 
-         return 0;
-        // END SOLUTION
+        return ticks / 1_000_000.0;
     }
 
     final static LazyLogger logger = new LazyLogger(Timer.class);
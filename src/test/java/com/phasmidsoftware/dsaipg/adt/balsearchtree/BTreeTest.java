@@ -0,0 +1,121 @@
+package com.phasmidsoftware.dsaipg.adt.balsearchtree;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BTreeTest {
+
+    @Test
+    public void testPutGet() {
+        final BTree<String, Integer> tree = new BTree<>(4);
+        assertTrue(tree.isEmpty());
+        assertNull(tree.put("X", 1));
+        assertNull(tree.put("Y", 2));
+        assertEquals(Integer.valueOf(1), tree.put("X", 3));
+        assertEquals(2, tree.size());
+        assertEquals(Integer.valueOf(3), tree.get("X"));
+        assertEquals(Integer.valueOf(2), tree.get("Y"));
+        assertNull(tree.get("Z"));
+        assertTrue(tree.contains("Y"));
+        assertFalse(tree.contains("Z"));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        for (int order : new int[]{4, 6, 32}) {
+            final Random random = new Random(order);
+            final BTree<Integer, Integer> tree = new BTree<>(order);
+            final TreeMap<Integer, Integer> map = new TreeMap<>();
+            for (int i = 0; i < 20000; i++) {
+                final int key = random.nextInt(1000);
+                if (random.nextInt(3) == 0) assertEquals(map.remove(key), tree.remove(key));
+                else assertEquals(map.put(key, i), tree.put(key, i));
+                assertEquals(map.size(), tree.size());
+            }
+            for (int key = 0; key < 1000; key++) assertEquals(map.get(key), tree.get(key));
+            assertEquals(map.keySet(), tree.keySet());
+            for (Integer key : new ArrayList<>(map.keySet())) tree.delete(key);
+            assertTrue(tree.isEmpty());
+            assertEquals(0, tree.height());
+        }
+    }
+
+    @Test
+    public void testSortedInsertion() {
+        final BTree<Integer, Integer> tree = new BTree<>(4);
+        final int n = 1 << 16;
+        for (int i = 0; i < n; i++) tree.put(i, i);
+        assertEquals(n, tree.size());
+        // NOTE with order 4, the height can be no more than log2(n).
+        assertTrue(tree.height() <= 16);
+        assertEquals(Integer.valueOf(0), tree.min());
+        assertEquals(Integer.valueOf(n - 1), tree.max());
+        for (int i = 0; i < n; i += 2) tree.delete(i);
+        assertEquals(n / 2, tree.size());
+        assertTrue(tree.height() <= 15);
+        assertNull(tree.get(100));
+        assertEquals(Integer.valueOf(101), tree.get(101));
+    }
+
+    @Test
+    public void testOrderedOperations() {
+        final Random random = new Random(0L);
+        final BTree<Integer, String> tree = new BTree<>(6);
+        final TreeMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < 500; i++) {
+            final int key = random.nextInt(2000) * 2;
+            tree.put(key, "" + key);
+            map.put(key, "" + key);
+        }
+        final List<Integer> sorted = new ArrayList<>(map.keySet());
+        for (int key = -3; key < 4003; key++) {
+            assertEquals(map.floorKey(key), tree.floor(key));
+            assertEquals(map.ceilingKey(key), tree.ceiling(key));
+            assertEquals(map.headMap(key).size(), tree.rank(key));
+        }
+        for (int k = 0; k < sorted.size(); k++) assertEquals(sorted.get(k), tree.select(k));
+    }
+
+    @Test
+    public void testRange() {
+        final BTree<Integer, Integer> tree = new BTree<>(4);
+        for (int i = 0; i < 1000; i += 3) tree.put(i, i);
+        final List<Integer> keys = new ArrayList<>();
+        for (Integer key : tree.keys(100, 200)) keys.add(key);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 102; i <= 200; i += 3) expected.add(i);
+        assertEquals(expected, keys);
+        final Iterator<Integer> iterator = tree.keys(999, 2000).iterator();
+        assertEquals(Integer.valueOf(999), iterator.next());
+        assertFalse(iterator.hasNext());
+        assertFalse(tree.keys(1, 2).iterator().hasNext());
+        assertFalse(new BTree<Integer, Integer>().keys(0, 10).iterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        final BTree<Integer, Integer> tree = new BTree<>();
+        tree.put(1, 1);
+        tree.select(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadOrder() {
+        new BTree<Integer, Integer>(5);
+    }
+
+    @Test
+    public void testTwoFourTree() {
+        final TwoFourTree<String, Integer> tree = new TwoFourTree<>();
+        final String[] words = "the quick brown fox jumps over the lazy dog".split(" ");
+        for (int i = 0; i < words.length; i++) tree.put(words[i], i);
+        assertEquals(8, tree.size());
+        assertEquals(Integer.valueOf(6), tree.get("the"));
+        assertEquals("brown", tree.min());
+        assertEquals("the", tree.max());
+        assertTrue(tree.height() <= 3);
+    }
+}
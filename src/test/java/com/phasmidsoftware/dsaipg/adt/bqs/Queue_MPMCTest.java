@@ -0,0 +1,127 @@
+package com.phasmidsoftware.dsaipg.adt.bqs;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class Queue_MPMCTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        Queue_MPMC<Integer> queue = new Queue_MPMC<>(4);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        queue.offer(1);
+        queue.offer(2);
+        queue.offer(3);
+        assertFalse(queue.isEmpty());
+        assertEquals(3, queue.size());
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testWrapAround() {
+        Queue_MPMC<Integer> queue = new Queue_MPMC<>(4);
+        for (int i = 0; i < 100; i++) {
+            queue.offer(i);
+            queue.offer(-i);
+            assertEquals(Integer.valueOf(i), queue.poll());
+            assertEquals(Integer.valueOf(-i), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testTryOfferWhenFull() {
+        Queue_MPMC<String> queue = new Queue_MPMC<>(2);
+        assertTrue(queue.tryOffer("a"));
+        assertTrue(queue.tryOffer("b"));
+        assertFalse(queue.tryOffer("c"));
+        assertEquals(2, queue.size());
+        assertEquals("a", queue.poll());
+        assertTrue(queue.tryOffer("c"));
+        assertEquals("b", queue.poll());
+        assertEquals("c", queue.poll());
+    }
+
+    @Test
+    public void testCapacity() {
+        assertEquals(2, new Queue_MPMC<>(1).capacity());
+        assertEquals(2, new Queue_MPMC<>(2).capacity());
+        assertEquals(4, new Queue_MPMC<>(3).capacity());
+        assertEquals(1024, new Queue_MPMC<>(1000).capacity());
+        assertEquals(1024, new Queue_MPMC<>(1024).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        new Queue_MPMC<>(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        new Queue_MPMC<String>(4).offer(null);
+    }
+
+    @Test
+    public void testIterator() {
+        Queue_MPMC<Integer> queue = new Queue_MPMC<>(4);
+        queue.offer(1);
+        queue.offer(2);
+        queue.offer(3);
+        queue.poll();
+        queue.offer(4);
+        queue.offer(5);
+        Iterator<Integer> iterator = queue.iterator();
+        List<Integer> items = new ArrayList<>();
+        iterator.forEachRemaining(items::add);
+        assertEquals(List.of(2, 3, 4, 5), items);
+        assertEquals("Queue_MPMC{capacity=4, size=4}", queue.toString());
+    }
+
+    /**
+     * Test that every item given by several producers is taken exactly once by several consumers.
+     */
+    @Test
+    public void testConcurrent() throws Exception {
+        final int p = 2;
+        final int m = 10_000;
+        final Queue_MPMC<Integer> queue = new Queue_MPMC<>(64);
+        final AtomicLong sum = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(2 * p);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < p; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 1; j <= m; j++) queue.offer(j);
+                }));
+                futures.add(executor.submit(() -> {
+                    long total = 0;
+                    for (int j = 0; j < m; j++) {
+                        Integer x;
+                        while ((x = queue.poll()) == null) Thread.yield();
+                        total += x;
+                    }
+                    sum.addAndGet(total);
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals((long) p * m * (m + 1) / 2, sum.get());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.phasmidsoftware.dsaipg.adt.bqs;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class Stack_TreiberTest {
+
+    @Test
+    public void testPushAndPop() throws BQSException {
+        Stack_Treiber<String> stack = new Stack_Treiber<>();
+        assertTrue(stack.isEmpty());
+        stack.push("First");
+        stack.push("Second");
+        stack.push("Third");
+        assertFalse(stack.isEmpty());
+        assertEquals("Third", stack.peek());
+        assertEquals("Third", stack.pop());
+        assertEquals("Second", stack.pop());
+        assertEquals("First", stack.pop());
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test(expected = BQSException.class)
+    public void testPopEmpty() throws BQSException {
+        new Stack_Treiber<Integer>().pop();
+    }
+
+    @Test
+    public void testTryPopAndPeekEmpty() {
+        Stack_Treiber<Integer> stack = new Stack_Treiber<>();
+        assertNull(stack.tryPop());
+        assertNull(stack.peek());
+        stack.push(1);
+        assertEquals(Integer.valueOf(1), stack.tryPop());
+        assertNull(stack.tryPop());
+    }
+
+    @Test
+    public void testIteratorAndToString() {
+        Stack_Treiber<Integer> stack = new Stack_Treiber<>();
+        stack.push(1);
+        stack.push(2);
+        stack.push(3);
+        List<Integer> items = new ArrayList<>();
+        for (Integer x : stack) items.add(x);
+        assertEquals(List.of(3, 2, 1), items);
+        assertEquals("Stack_Treiber{3, 2, 1}", stack.toString());
+        assertEquals("Stack_Treiber{}", new Stack_Treiber<>().toString());
+    }
+
+    /**
+     * Test that every item pushed by several threads is popped exactly once by several other threads.
+     */
+    @Test
+    public void testConcurrent() throws Exception {
+        final int p = 4;
+        final int m = 100_000;
+        final Stack_Treiber<Integer> stack = new Stack_Treiber<>();
+        final AtomicLong sum = new AtomicLong();
+        final ExecutorService executor = Executors.newFixedThreadPool(2 * p);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < p; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 1; j <= m; j++) stack.push(j);
+                }));
+                futures.add(executor.submit(() -> {
+                    long total = 0;
+                    for (int j = 0; j < m; j++) {
+                        Integer x;
+                        while ((x = stack.tryPop()) == null) Thread.yield();
+                        total += x;
+                    }
+                    sum.addAndGet(total);
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals((long) p * m * (m + 1) / 2, sum.get());
+        assertTrue(stack.isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DaryHeapTest {
+
+    @Test
+    public void testGiveTake() throws PQException {
+        DaryHeap<String> pq = new DaryHeap<String>(4, 2, true, Comparator.naturalOrder());
+        assertTrue(pq.isEmpty());
+        for (String s : "the quick brown fox jumps over the lazy dog".split(" ")) pq.give(s);
+        assertEquals(9, pq.size());
+        assertEquals("the", pq.peek());
+        assertEquals("the", pq.take());
+        assertEquals("the", pq.take());
+        assertEquals("quick", pq.take());
+        assertEquals(6, pq.size());
+    }
+
+    @Test
+    public void testAgainstJavaPriorityQueue() throws PQException {
+        for (int d : new int[]{2, 3, 4, 8})
+            for (boolean floyd : new boolean[]{false, true})
+                for (boolean max : new boolean[]{false, true}) {
+                    final Comparator<Integer> comparator = Comparator.naturalOrder();
+                    final DaryHeap<Integer> pq = new DaryHeap<>(d, 16, max, comparator, floyd);
+                    final java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>(max ? comparator.reversed() : comparator);
+                    final Random random = new Random(d);
+                    for (int i = 0; i < 10000; i++) {
+                        if (random.nextInt(3) == 0 && !expected.isEmpty())
+                            assertEquals(expected.poll(), pq.take());
+                        else {
+                            final int x = random.nextInt(1000);
+                            pq.give(x);
+                            expected.offer(x);
+                        }
+                        assertEquals(expected.size(), pq.size());
+                    }
+                    while (!expected.isEmpty()) assertEquals(expected.poll(), pq.take());
+                }
+    }
+
+    @Test
+    public void testIterator() {
+        DaryHeap<Integer> pq = new DaryHeap<Integer>(8, 4, false, Comparator.naturalOrder(), true);
+        for (int i = 10; i > 0; i--) pq.give(i);
+        final Iterator<Integer> iterator = pq.iterator();
+        assertEquals(Integer.valueOf(1), iterator.next());
+        int count = 1;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(10, count);
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new DaryHeap<Integer>(4, 4, true, Comparator.naturalOrder()).take();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadArity() {
+        new DaryHeap<Integer>(1, 4, true, Comparator.naturalOrder());
+    }
+}
@@ -0,0 +1,55 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleIntHeapTest {
+
+    @Test
+    public void testGiveTake() throws PQException {
+        DoubleIntHeap pq = new DoubleIntHeap(1);
+        assertTrue(pq.isEmpty());
+        pq.give(2.5, 25);
+        pq.give(0.5, 5);
+        pq.give(1.5, 15);
+        assertEquals(3, pq.size());
+        assertEquals(0.5, pq.peekPriority(), 0.0);
+        assertEquals(5, pq.peek());
+        assertEquals(5, pq.take());
+        assertEquals(15, pq.take());
+        assertEquals(2.5, pq.peekPriority(), 0.0);
+        assertEquals(25, pq.take());
+        assertTrue(pq.isEmpty());
+    }
+
+    @Test
+    public void testSort() throws PQException {
+        for (int d : new int[]{2, 4, 8})
+            for (boolean max : new boolean[]{false, true}) {
+                final Random random = new Random(d);
+                final int n = 5000;
+                final double[] xs = new double[n];
+                final DoubleIntHeap pq = new DoubleIntHeap(d, 8, max);
+                for (int i = 0; i < n; i++) {
+                    xs[i] = random.nextDouble();
+                    pq.give(xs[i], i);
+                }
+                final double[] sorted = xs.clone();
+                Arrays.sort(sorted);
+                for (int i = 0; i < n; i++) {
+                    final double expected = sorted[max ? n - 1 - i : i];
+                    assertEquals(expected, pq.peekPriority(), 0.0);
+                    assertEquals(expected, xs[pq.take()], 0.0);
+                }
+            }
+    }
+
+    @Test(expected = PQException.class)
+    public void testTakeEmpty() throws PQException {
+        new DoubleIntHeap(4).take();
+    }
+}
@@ -0,0 +1,85 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class IndexPriorityQueueTest {
+
+    @Test
+    public void testInsertDelMin() {
+        IndexPriorityQueue<String> pq = new IndexPriorityQueue<>(2, Comparator.naturalOrder());
+        assertTrue(pq.isEmpty());
+        pq.insert(3, "C");
+        pq.insert(0, "B");
+        pq.insert(7, "A");
+        assertEquals(3, pq.size());
+        assertTrue(pq.contains(7));
+        assertFalse(pq.contains(1));
+        assertFalse(pq.contains(100));
+        assertEquals(7, pq.minIndex());
+        assertEquals("A", pq.minKey());
+        assertEquals("C", pq.keyOf(3));
+        assertEquals(7, pq.delMin());
+        assertEquals(0, pq.delMin());
+        assertEquals(3, pq.delMin());
+        assertTrue(pq.isEmpty());
+        assertFalse(pq.contains(3));
+    }
+
+    @Test
+    public void testDecreaseChangeDelete() {
+        IndexPriorityQueue<Integer> pq = new IndexPriorityQueue<>(10, Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) pq.insert(i, 100 + i);
+        pq.decreaseKey(9, 50);
+        assertEquals(9, pq.minIndex());
+        pq.changeKey(9, 200);
+        assertEquals(0, pq.minIndex());
+        pq.delete(0);
+        assertEquals(1, pq.delMin());
+        assertEquals(8, pq.size());
+        pq.insert(0, 1);
+        assertEquals(0, pq.delMin());
+    }
+
+    @Test
+    public void testRandom() {
+        final Random random = new Random(0L);
+        final int n = 1000;
+        IndexPriorityQueue<Double> pq = new IndexPriorityQueue<>(1, Comparator.naturalOrder());
+        final double[] keys = new double[n];
+        for (int i = 0; i < n; i++) pq.insert(i, keys[i] = random.nextDouble());
+        for (int j = 0; j < 5000; j++) {
+            final int i = random.nextInt(n);
+            keys[i] *= random.nextDouble();
+            pq.decreaseKey(i, keys[i]);
+        }
+        final double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (double expected : sorted) {
+            assertEquals(expected, pq.minKey(), 0.0);
+            assertEquals(expected, keys[pq.delMin()], 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseKeyWithGreaterKey() {
+        IndexPriorityQueue<Integer> pq = new IndexPriorityQueue<>(1, Comparator.naturalOrder());
+        pq.insert(0, 1);
+        pq.decreaseKey(0, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertTwice() {
+        IndexPriorityQueue<Integer> pq = new IndexPriorityQueue<>(1, Comparator.naturalOrder());
+        pq.insert(0, 1);
+        pq.insert(0, 2);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testDelMinEmpty() {
+        new IndexPriorityQueue<Integer>(1, Comparator.naturalOrder()).delMin();
+    }
+}
@@ -0,0 +1,78 @@
+package com.phasmidsoftware.dsaipg.adt.pq;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PairingHeapTest {
+
+    @Test
+    public void testInsertDelMin() {
+        PairingHeap<String> heap = new PairingHeap<>(Comparator.naturalOrder());
+        assertTrue(heap.isEmpty());
+        for (String s : "the quick brown fox jumps over the lazy dog".split(" ")) heap.insert(s);
+        assertEquals(9, heap.size());
+        assertEquals("brown", heap.minKey());
+        assertEquals("brown", heap.delMin());
+        assertEquals("dog", heap.delMin());
+        assertEquals("fox", heap.delMin());
+        assertEquals(6, heap.size());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        final Random random = new Random(0L);
+        PairingHeap<Double> heap = new PairingHeap<>(Comparator.naturalOrder());
+        final java.util.PriorityQueue<Double> expected = new java.util.PriorityQueue<>();
+        final List<PairingHeap.Handle<Double>> handles = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final double key = random.nextDouble();
+            handles.add(heap.insert(key));
+            expected.add(key);
+        }
+        for (int j = 0; j < 10000; j++) {
+            if (j % 10 == 0) {
+                // NOTE interleave some deletions, so that the tree is restructured.
+                final Double min = heap.delMin();
+                assertEquals(expected.poll(), min);
+                for (int i = 0; i < handles.size(); i++)
+                    if (handles.get(i).key() == min) {
+                        handles.set(i, handles.get(handles.size() - 1));
+                        handles.remove(handles.size() - 1);
+                        break;
+                    }
+            } else {
+                final PairingHeap.Handle<Double> handle = handles.get(random.nextInt(handles.size()));
+                final double key = handle.key() * random.nextDouble();
+                expected.remove(handle.key());
+                expected.add(key);
+                heap.decreaseKey(handle, key);
+            }
+            assertEquals(expected.size(), heap.size());
+        }
+        while (!expected.isEmpty()) assertEquals(expected.poll(), heap.delMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseKeyWithGreaterKey() {
+        PairingHeap<Integer> heap = new PairingHeap<>(Comparator.naturalOrder());
+        heap.decreaseKey(heap.insert(1), 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseKeyRemoved() {
+        PairingHeap<Integer> heap = new PairingHeap<>(Comparator.naturalOrder());
+        final PairingHeap.Handle<Integer> handle = heap.insert(1);
+        heap.insert(3);
+        assertEquals(Integer.valueOf(1), heap.delMin());
+        heap.decreaseKey(handle, 0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testDelMinEmpty() {
+        new PairingHeap<Integer>(Comparator.naturalOrder()).delMin();
+    }
+}
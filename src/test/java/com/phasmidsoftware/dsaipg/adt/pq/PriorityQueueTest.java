@@ -3,8 +3,7 @@ package com.phasmidsoftware.dsaipg.adt.pq;
 import com.phasmidsoftware.dsaipg.util.PrivateMethodTester;
 import org.junit.Test;
 
-import java.util.Comparator;
-import java.util.Iterator;
+import java.util.*;
 
 import static org.junit.Assert.*;
 
@@ -288,4 +287,51 @@ public class PriorityQueueTest {
         final PrivateMethodTester tester = new PrivateMethodTester(pq);
         assertEquals(false, tester.invokePrivate("getMax"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGrowable() throws PQException {
+        PriorityQueue<Integer> pq = new PriorityQueue<>(1, true, Comparator.<Integer>naturalOrder(), false, PriorityQueue.Mode.GROWABLE);
+        final Random random = new Random(0L);
+        final List<Integer> xs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final int x = random.nextInt(10000);
+            xs.add(x);
+            assertTrue(pq.give(x));
+        }
+        assertEquals(1000, pq.size());
+        xs.sort(Comparator.reverseOrder());
+        for (Integer x : xs) assertEquals(x, pq.take());
+        assertTrue(pq.isEmpty());
+    }
+
+    @Test
+    public void testBounded() throws PQException {
+        for (boolean floyd : new boolean[]{false, true}) {
+            PriorityQueue<Integer> pq = new PriorityQueue<>(10, true, Comparator.<Integer>naturalOrder(), floyd, PriorityQueue.Mode.BOUNDED);
+            final Random random = new Random(1L);
+            final List<Integer> xs = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                final int x = random.nextInt(100000);
+                xs.add(x);
+                pq.give(x);
+            }
+            assertEquals(10, pq.size());
+            xs.sort(Comparator.reverseOrder());
+            // NOTE the ten largest are retained, and they are taken in increasing order.
+            for (int i = 9; i >= 0; i--) assertEquals(xs.get(i), pq.take());
+        }
+    }
+
+    @Test
+    public void testBoundedRejects() throws PQException {
+        PriorityQueue<String> pq = new PriorityQueue<>(2, false, Comparator.<String>naturalOrder(), false, PriorityQueue.Mode.BOUNDED);
+        assertTrue(pq.give("M"));
+        assertTrue(pq.give("D"));
+        assertFalse(pq.give("X"));
+        assertFalse(pq.give("M"));
+        assertTrue(pq.give("A"));
+        assertEquals(2, pq.size());
+        assertEquals("D", pq.take());
+        assertEquals("A", pq.take());
+    }
+}
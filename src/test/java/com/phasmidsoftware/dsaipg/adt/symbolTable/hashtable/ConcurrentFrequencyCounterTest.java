@@ -0,0 +1,111 @@
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentFrequencyCounterTest {
+
+    @Test
+    public void testIncrement() {
+        ConcurrentFrequencyCounter<String> fc = new ConcurrentFrequencyCounter<>();
+        assertEquals(0, fc.get("X").intValue());
+        fc.increment("X");
+        fc.increment("X");
+        fc.increment("Y");
+        assertEquals(2, fc.getCount("X"));
+        assertEquals(1, fc.getCount("Y"));
+        assertEquals(2, fc.size());
+        assertEquals(3, fc.total());
+        assertEquals(2.0 / 3, fc.relativeFrequency("X"), 1E-10);
+    }
+
+    @Test
+    public void testNullKey() {
+        ConcurrentFrequencyCounter<String> fc = new ConcurrentFrequencyCounter<>(1);
+        fc.increment(null);
+        assertEquals(1, fc.get(null).intValue());
+        assertTrue(fc.keys().contains(null));
+    }
+
+    @Test
+    public void testStripes() {
+        assertEquals(1, new ConcurrentFrequencyCounter<String>(1).stripes());
+        assertEquals(1, new ConcurrentFrequencyCounter<String>(0).stripes());
+        assertEquals(2, new ConcurrentFrequencyCounter<String>(2).stripes());
+        assertEquals(8, new ConcurrentFrequencyCounter<String>(5).stripes());
+        assertEquals(8, new ConcurrentFrequencyCounter<String>(8).stripes());
+        ConcurrentFrequencyCounter<Integer> fc = new ConcurrentFrequencyCounter<>(1);
+        for (int i = 0; i < 100; i++) fc.increment(i % 10);
+        assertEquals(10, fc.getCount(3));
+        assertEquals(100, fc.total());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNegative() {
+        new ConcurrentFrequencyCounter<String>().add("X", -1);
+    }
+
+    @Test
+    public void testConcurrentIncrement() {
+        String[] words = randomWords(200_000, 1000, 0L);
+        ConcurrentFrequencyCounter<String> fc = new ConcurrentFrequencyCounter<>(8);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> Arrays.stream(words).parallel().forEach(fc::increment)).join();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected(words), fc.snapshot());
+        assertEquals(words.length, fc.total());
+    }
+
+    @Test
+    public void testCount() {
+        String[] words = randomWords(300_000, 5000, 1L);
+        ConcurrentFrequencyCounter<String> fc = new ConcurrentFrequencyCounter<>();
+        assertEquals(words.length, fc.count(Arrays.stream(words)));
+        // NOTE counts accumulate over successive calls.
+        assertEquals(2, fc.count(Stream.of("alpha", "beta")));
+        Map<String, Integer> expected = expected(words);
+        expected.merge("alpha", 1, Integer::sum);
+        expected.merge("beta", 1, Integer::sum);
+        assertEquals(expected, fc.snapshot());
+        assertEquals(expected.size(), fc.size());
+        assertEquals(words.length + 2, fc.total());
+    }
+
+    @Test
+    public void testCountAndIncrementTogether() throws InterruptedException {
+        String[] words = randomWords(100_000, 100, 2L);
+        ConcurrentFrequencyCounter<String> fc = new ConcurrentFrequencyCounter<>(4);
+        Thread thread = new Thread(() -> {
+            for (String word : words) fc.increment(word);
+        });
+        thread.start();
+        fc.count(Arrays.stream(words));
+        thread.join();
+        Map<String, Integer> expected = expected(words);
+        expected.replaceAll((k, v) -> 2 * v);
+        assertEquals(expected, fc.snapshot());
+    }
+
+    private static Map<String, Integer> expected(String[] words) {
+        Map<String, Integer> result = new HashMap<>();
+        for (String word : words) result.merge(word, 1, Integer::sum);
+        return result;
+    }
+
+    private static String[] randomWords(int n, int distinct, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, n).mapToObj(i -> "w" + random.nextInt(distinct)).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,107 @@
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class HashTableRHTest {
+
+    static class BadClass {
+        BadClass(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 17;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof BadClass && ((BadClass) obj).id == id;
+        }
+
+        final int id;
+    }
+
+    @Test
+    public void testEmpty() {
+        HashTable_RH<String, Integer> hashTable = new HashTable_RH<>();
+        assertTrue(hashTable.isEmpty());
+        assertNull(hashTable.get("Hello"));
+        assertNull(hashTable.delete("Hello"));
+    }
+
+    @Test
+    public void testPutReturnsPreviousValue() {
+        HashTable_RH<String, String> hashTable = new HashTable_RH<>();
+        assertNull(hashTable.put("Hello", "World!"));
+        assertEquals("World!", hashTable.put("Hello", "Everyone!"));
+        assertEquals(1, hashTable.size());
+        assertEquals("Everyone!", hashTable.get("Hello"));
+    }
+
+    @Test
+    public void testCollisions() {
+        HashTable_RH<BadClass, Integer> hashTable = new HashTable_RH<>(8);
+        for (int i = 0; i < 100; i++) hashTable.put(new BadClass(i), i);
+        assertEquals(100, hashTable.size());
+        for (int i = 0; i < 100; i += 2) assertEquals(Integer.valueOf(i), hashTable.delete(new BadClass(i)));
+        for (int i = 0; i < 100; i++) assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), hashTable.get(new BadClass(i)));
+        assertEquals(50, hashTable.size());
+    }
+
+    @Test
+    public void testGrowth() {
+        HashTable_RH<Integer, Integer> hashTable = new HashTable_RH<>(8, 0.5);
+        for (int i = 0; i < 4; i++) hashTable.put(i, i);
+        assertEquals(8, hashTable.capacity());
+        hashTable.put(4, 4);
+        assertEquals(16, hashTable.capacity());
+        for (int i = 5; i < 1000; i++) hashTable.put(i, i);
+        assertTrue(hashTable.capacity() >= 2000);
+        assertEquals(new TreeSet<>(hashTable.keys()).first(), Integer.valueOf(0));
+        for (int i = 0; i < 1000; i++) assertEquals(Integer.valueOf(i), hashTable.get(i));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        // NOTE a random mixture of puts, deletes and gets, including during migrations.
+        Random random = new Random(0L);
+        HashTable_RH<Integer, Integer> hashTable = new HashTable_RH<>(8, 0.9);
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(20_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(map.put(key, i), hashTable.put(key, i));
+                case 1 -> assertEquals(map.remove(key), hashTable.delete(key));
+                default -> assertEquals(map.get(key), hashTable.get(key));
+            }
+            assertEquals(map.size(), hashTable.size());
+        }
+        assertEquals(new TreeSet<>(map.keySet()), hashTable.keys());
+    }
+
+    @Test
+    public void testProbeDistance() {
+        HashTable_RH<String, Integer> hashTable = new HashTable_RH<>(16, 0.9);
+        for (int i = 0; i < 100_000; i++) hashTable.put("key" + i, i);
+        while (hashTable.isMigrating()) hashTable.delete("absent");
+        assertTrue(hashTable.maxProbeDistance() < 64);
+    }
+
+    @Test(expected = HashTable_LP.HashTableException.class)
+    public void testBadLoadFactor() {
+        new HashTable_RH<String, String>(16, 1.0);
+    }
+
+    @Test(expected = HashTable_LP.HashTableException.class)
+    public void testNullKey() {
+        new HashTable_RH<String, String>().put(null, "x");
+    }
+}
@@ -209,4 +209,117 @@ public class HashTableSCTest {
         assertEquals(3, keys.size());
     }
 
+
+    @Test
+    public void testPutReturnsPreviousValue() {
+        HashTable_SC<String, Integer> hashTable = new HashTable_SC<>(4);
+        assertNull(hashTable.put("one", 1));
+        assertEquals(Integer.valueOf(1), hashTable.put("one", 11));
+    }
+
+    @Test
+    public void testDelete() {
+        HashTable_SC<String, Integer> hashTable = new HashTable_SC<>(2);
+        hashTable.put("a", 1);
+        hashTable.put("b", 2);
+        hashTable.put("c", 3);
+        assertEquals(Integer.valueOf(2), hashTable.delete("b"));
+        assertNull(hashTable.delete("b"));
+        assertNull(hashTable.get("b"));
+        assertEquals(Integer.valueOf(1), hashTable.get("a"));
+        assertEquals(Integer.valueOf(3), hashTable.get("c"));
+        assertEquals(2, hashTable.size());
+    }
+
+    @Test
+    public void testIncrementalRehash() {
+        HashTable_SC<Integer, Integer> hashTable = new HashTable_SC<>(16);
+        for (int i = 0; i < 33; i++) hashTable.put(i, i);
+        assertEquals(32, hashTable.buckets());
+        assertTrue(hashTable.isRehashing());
+        // NOTE every key remains visible while the buckets are being migrated.
+        for (int i = 0; i < 33; i++) assertEquals(Integer.valueOf(i), hashTable.get(i));
+        assertFalse(hashTable.isRehashing());
+        for (int i = 33; i < 100_000; i++) hashTable.put(i, i);
+        assertEquals(100_000, hashTable.size());
+        assertTrue(hashTable.buckets() >= 100_000 / 2);
+        for (int i = 0; i < 100_000; i += 2) assertEquals(Integer.valueOf(i), hashTable.delete(i));
+        for (int i = 0; i < 100_000; i++) assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), hashTable.get(i));
+        assertEquals(50_000, hashTable.size());
+    }
+
+    @Test
+    public void testTreeify() {
+        // NOTE with 16 buckets, keys which are multiples of 16 all go to bucket 0 (but have distinct hash codes).
+        HashTable_SC<Integer, Integer> hashTable = new HashTable_SC<>(16, 1000);
+        for (int i = 0; i < HashTable_SC.TREEIFY_THRESHOLD - 1; i++) hashTable.put(i * 16, i);
+        assertEquals(0, hashTable.treeBins());
+        hashTable.put(1600, 100);
+        assertEquals(1, hashTable.treeBins());
+        for (int i = 0; i < HashTable_SC.TREEIFY_THRESHOLD - 1; i++) assertEquals(Integer.valueOf(i), hashTable.get(i * 16));
+        assertEquals(Integer.valueOf(100), hashTable.get(1600));
+        hashTable.delete(0);
+        hashTable.delete(16);
+        assertEquals(0, hashTable.treeBins());
+        assertEquals(6, hashTable.size());
+        assertEquals(Integer.valueOf(2), hashTable.get(32));
+    }
+
+    @Test
+    public void testTreeifyBadClass() {
+        HashTable_SC<BadClass, Integer> hashTable = new HashTable_SC<>();
+        BadClass[] badClasses = new BadClass[20];
+        for (int i = 0; i < badClasses.length; i++) hashTable.put(badClasses[i] = new BadClass(), i);
+        assertEquals(1, hashTable.treeBins());
+        for (int i = 0; i < badClasses.length; i++) assertEquals(Integer.valueOf(i), hashTable.get(badClasses[i]));
+    }
+
+    @Test
+    public void testTreeifyBadComparable() {
+        final int n = 1024;
+        HashTable_SC<BadComparable, Integer> hashTable = new HashTable_SC<>();
+        for (int i = 0; i < n; i++) hashTable.put(new BadComparable(i), i);
+        assertEquals(1, hashTable.treeBins());
+        assertEquals(n, hashTable.size());
+        BadComparable.compares = 0;
+        for (int i = 0; i < n; i++) assertEquals(Integer.valueOf(i), hashTable.get(new BadComparable(i)));
+        // NOTE the keys all share one hash code, but a lookup should take about lg(n) compares (rather than n/2).
+        assertTrue(BadComparable.compares <= 2L * n * 11);
+        assertNull(hashTable.get(new BadComparable(n)));
+        for (int i = 0; i < n - 2; i++) assertEquals(Integer.valueOf(i), hashTable.delete(new BadComparable(i)));
+        assertEquals(2, hashTable.size());
+        assertEquals(0, hashTable.treeBins());
+        assertEquals(Integer.valueOf(n - 1), hashTable.get(new BadComparable(n - 1)));
+    }
+
+    static class BadComparable implements Comparable<BadComparable> {
+        BadComparable(int x) {
+            this.x = x;
+        }
+
+        @Override
+        public int compareTo(BadComparable o) {
+            compares++;
+            return Integer.compare(x, o.x);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BadComparable && ((BadComparable) o).x == x;
+        }
+
+        @Override
+        public int hashCode() {
+            return 17;
+        }
+
+        @Override
+        public String toString() {
+            return "badComparable" + x;
+        }
+
+        static long compares = 0;
+
+        private final int x;
+    }
 }
\ No newline at end of file
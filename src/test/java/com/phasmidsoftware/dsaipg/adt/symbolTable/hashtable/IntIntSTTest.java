@@ -0,0 +1,95 @@
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntIntSTTest {
+
+    @Test
+    public void testPutGet() {
+        IntIntST st = new IntIntST();
+        assertTrue(st.isEmpty());
+        assertEquals(0, st.put(1, 10));
+        assertEquals(10, st.put(1, 11));
+        assertEquals(11, st.get(1));
+        assertEquals(0, st.get(2));
+        assertFalse(st.containsKey(2));
+        assertEquals(1, st.size());
+    }
+
+    @Test
+    public void testZeroKeyAndMissingValue() {
+        IntIntST st = new IntIntST(4, 0.5, -1);
+        assertEquals(-1, st.get(0));
+        assertFalse(st.containsKey(0));
+        assertEquals(-1, st.put(0, 42));
+        assertTrue(st.containsKey(0));
+        assertEquals(42, st.get(0));
+        assertEquals(1, st.size());
+        assertEquals(42, st.remove(0));
+        assertEquals(-1, st.remove(0));
+        assertEquals(0, st.size());
+    }
+
+    @Test
+    public void testAdd() {
+        IntIntST st = new IntIntST();
+        for (int i = 0; i < 1000; i++) st.add(i % 7, 1);
+        assertEquals(143, st.get(0));
+        assertEquals(142, st.get(6));
+        assertEquals(7, st.size());
+        assertEquals(1000, Arrays.stream(st.keys()).map(st::get).sum());
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(0L);
+        IntIntST st = new IntIntST();
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(10_000) - 5_000;
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    Integer expected = map.put(key, i);
+                    assertEquals(expected == null ? 0 : expected, st.put(key, i));
+                }
+                case 1 -> {
+                    Integer expected = map.remove(key);
+                    assertEquals(expected == null ? 0 : expected, st.remove(key));
+                }
+                default -> assertEquals(map.containsKey(key), st.containsKey(key));
+            }
+            assertEquals(map.size(), st.size());
+        }
+        Map<Integer, Integer> actual = new HashMap<>();
+        st.forEach(actual::put);
+        assertEquals(map, actual);
+    }
+
+    @Test
+    public void testGrowth() {
+        IntIntST st = new IntIntST(8);
+        int capacity = st.capacity();
+        for (int i = 1; i <= 10_000; i++) st.put(i * 16, i);
+        assertTrue(st.capacity() > capacity);
+        for (int i = 1; i <= 10_000; i++) assertEquals(i, st.get(i * 16));
+        assertEquals("{16=1}", putOne().toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadLoadFactor() {
+        new IntIntST(16, 1.0, 0);
+    }
+
+    private static IntIntST putOne() {
+        IntIntST st = new IntIntST();
+        st.put(16, 1);
+        return st;
+    }
+}
@@ -0,0 +1,53 @@
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntObjSTTest {
+
+    @Test
+    public void testPutGetRemove() {
+        IntObjST<String> st = new IntObjST<>();
+        assertNull(st.put(3, "three"));
+        assertNull(st.put(0, "zero"));
+        assertEquals("three", st.put(3, "THREE"));
+        assertEquals("THREE", st.get(3));
+        assertEquals("zero", st.get(0));
+        assertNull(st.get(4));
+        assertEquals(2, st.size());
+        assertEquals("THREE", st.remove(3));
+        assertNull(st.remove(3));
+        assertEquals("{0=zero}", st.toString());
+    }
+
+    @Test
+    public void testNullValue() {
+        IntObjST<String> st = new IntObjST<>();
+        st.put(5, null);
+        assertTrue(st.containsKey(5));
+        assertNull(st.get(5));
+        assertEquals(1, st.size());
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(1L);
+        IntObjST<Integer> st = new IntObjST<>(4);
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) * 1024;
+            if (random.nextBoolean()) assertEquals(map.put(key, i), st.put(key, i));
+            else assertEquals(map.remove(key), st.remove(key));
+        }
+        assertEquals(map.size(), st.size());
+        Map<Integer, Integer> actual = new HashMap<>();
+        st.forEach(actual::put);
+        assertEquals(map, actual);
+        assertEquals(map.size(), st.keys().length);
+    }
+}
@@ -0,0 +1,41 @@
+package com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongObjSTTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongObjST<String> st = new LongObjST<>();
+        assertNull(st.put(1L << 40, "big"));
+        assertNull(st.put(0L, "zero"));
+        assertNull(st.put(-1L, "minus one"));
+        assertEquals("big", st.get(1L << 40));
+        assertNull(st.get(1L));
+        assertEquals("zero", st.remove(0L));
+        assertEquals(2, st.size());
+        assertTrue(st.containsKey(-1L));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(2L);
+        LongObjST<Long> st = new LongObjST<>();
+        Map<Long, Long> map = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // NOTE keys which differ only in their high bits.
+            long key = (long) random.nextInt(5_000) << 32;
+            if (random.nextBoolean()) assertEquals(map.put(key, (long) i), st.put(key, (long) i));
+            else assertEquals(map.remove(key), st.remove(key));
+        }
+        Map<Long, Long> actual = new HashMap<>();
+        st.forEach(actual::put);
+        assertEquals(map, actual);
+    }
+}
@@ -2,7 +2,10 @@ package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
 
 import org.junit.Test;
 
+import java.util.*;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class BSTOptimisedDeletionTest {
@@ -126,4 +129,53 @@ public class BSTOptimisedDeletionTest {
         assertEquals("RightLeft", bst.get(35));
         assertEquals("RightRight", bst.get(50));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the `putAllSorted` method, which should build a perfectly balanced tree with the correct depths and counts,
+     * so that `range`, `rank` and `select` agree with the sorted keys.
+     */
+    @Test
+    public void testPutAllSortedRangeRankAndSelect() {
+        BSTOptimisedDeletion<Integer, String> bst = new BSTOptimisedDeletion<>();
+        SortedMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < 1000; i++) map.put(i * 3, "V" + i);
+        bst.putAllSorted(map);
+        bst.validate();
+        assertEquals(1000, bst.size());
+        assertEquals(10, bst.depth());
+        assertTrue(bst.meanDepth() < 9);
+
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : bst.range(10, 30)) keys.add(key);
+        assertEquals(Arrays.asList(12, 15, 18, 21, 24, 27, 30), keys);
+
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(Integer.valueOf(k * 3), bst.select(k));
+            assertEquals(k, bst.rank(k * 3));
+            assertEquals(k + 1, bst.rank(k * 3 + 1));
+        }
+
+        bst.put(1, "New");
+        assertEquals(2, bst.rank(3));
+        assertEquals(Integer.valueOf(1), bst.select(1));
+    }
+
+    @Test
+    public void testPutAllSortedKeepsExistingKeys() {
+        BSTOptimisedDeletion<Integer, String> bst = new BSTOptimisedDeletion<>();
+        for (int i = 0; i < 100; i += 2) bst.put(i, "Old" + i);
+        SortedMap<Integer, String> map = new TreeMap<>();
+        for (int i = 50; i < 150; i++) map.put(i, "V" + i);
+        bst.putAllSorted(map);
+        bst.validate();
+        assertEquals(125, bst.size());
+        assertEquals(7, bst.depth());
+        assertEquals("Old0", bst.get(0));
+        assertEquals("Old48", bst.get(48));
+        assertEquals("V50", bst.get(50));
+        assertEquals("V149", bst.get(149));
+        assertNull(bst.get(49));
+        assertEquals(Integer.valueOf(0), bst.select(0));
+        assertEquals(25, bst.rank(50));
+    }
+}
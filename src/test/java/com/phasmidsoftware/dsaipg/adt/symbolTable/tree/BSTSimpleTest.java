@@ -2,11 +2,9 @@ package com.phasmidsoftware.dsaipg.adt.symbolTable.tree;
 
 import org.junit.Test;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
 
 public class BSTSimpleTest {
 
@@ -91,4 +89,69 @@ public class BSTSimpleTest {
         assertNull(bst.get(5));
         assertEquals(1, bst.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPutAllSorted() {
+        BSTSimple<Integer, String> bst = new BSTSimple<>();
+        bst.put(-1, "MinusOne");
+        bst.put(512, "FiveTwelve");
+        bst.put(2000, "TwoThousand");
+        SortedMap<Integer, String> testMap = new TreeMap<>();
+        for (int i = 0; i < 1021; i++) testMap.put(i, "V" + i);
+
+        bst.putAllSorted(testMap);
+
+        assertEquals(1023, bst.size());
+        assertEquals(10, bst.depth());
+        assertEquals("MinusOne", bst.get(-1));
+        assertEquals("TwoThousand", bst.get(2000));
+        assertEquals("V512", bst.get(512));
+        assertEquals(9, bst.depth(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutAllSortedWithReverseOrder() {
+        BSTSimple<Integer, String> bst = new BSTSimple<>();
+        SortedMap<Integer, String> testMap = new TreeMap<>(Comparator.reverseOrder());
+        testMap.put(1, "One");
+        testMap.put(2, "Two");
+        bst.putAllSorted(testMap);
+    }
+
+    @Test
+    public void testRange() {
+        BSTSimple<Integer, String> bst = new BSTSimple<>();
+        for (int i = 0; i < 100; i += 2) bst.put(i, "V" + i);
+
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : bst.range(9, 21)) keys.add(key);
+
+        assertEquals(Arrays.asList(10, 12, 14, 16, 18, 20), keys);
+        assertFalse(bst.range(100, 200).iterator().hasNext());
+        assertEquals(Integer.valueOf(0), bst.range(-5, 0).iterator().next());
+        assertFalse(new BSTSimple<Integer, String>().range(0, 1).iterator().hasNext());
+    }
+
+    @Test
+    public void testRankAndSelect() {
+        BSTSimple<Integer, String> bst = new BSTSimple<>();
+        TreeMap<Integer, String> map = new TreeMap<>();
+        Random random = new Random(0L);
+        for (int i = 0; i < 200; i++) {
+            int key = random.nextInt(1000);
+            bst.put(key, "V" + key);
+            map.put(key, "V" + key);
+        }
+
+        List<Integer> sorted = new ArrayList<>(map.keySet());
+        for (int key = -1; key <= 1000; key++) assertEquals(map.headMap(key).size(), bst.rank(key));
+        for (int k = 0; k < sorted.size(); k++) assertEquals(sorted.get(k), bst.select(k));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        BSTSimple<Integer, String> bst = new BSTSimple<>();
+        bst.put(1, "One");
+        bst.select(1);
+    }
+}
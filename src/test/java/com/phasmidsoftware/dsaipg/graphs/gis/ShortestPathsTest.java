@@ -4,8 +4,9 @@ import com.phasmidsoftware.dsaipg.graphs.dag.DiGraph;
 import com.phasmidsoftware.dsaipg.graphs.dag.Edge;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import java.util.*;
+
+import static org.junit.Assert.*;
 
 public class ShortestPathsTest {
 
@@ -109,4 +110,38 @@ public class ShortestPathsTest {
         assertEquals(7.0, shortestPaths.cost("H"), 0);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testShortestPathsWithDecreaseKey() {
+        // NOTE this graph keeps its adjacency lists in a HashMap of ArrayLists, so that it does not depend on Bag_Array.
+        final Map<String, List<Edge<String, Double>>> adjacent = new HashMap<>();
+        DiGraph<String, Double> graph = new DiGraph<>() {
+            @Override
+            public void addEdge(Edge<String, Double> edge) {
+                adjacent.computeIfAbsent(edge.getFrom(), k -> new ArrayList<>()).add(edge);
+                adjacent.computeIfAbsent(edge.getTo(), k -> new ArrayList<>());
+            }
+
+            @Override
+            public Iterable<Edge<String, Double>> adjacent(String v) {
+                return adjacent.get(v);
+            }
+        };
+        // NOTE H is first reached with cost 9 (via E), then its cost is decreased to 7 (via G), and finally to 6 (via D).
+        graph.addEdge(new Edge<>("A", "E", 1.0));
+        graph.addEdge(new Edge<>("E", "H", 8.0));
+        graph.addEdge(new Edge<>("A", "B", 2.0));
+        graph.addEdge(new Edge<>("B", "G", 2.0));
+        graph.addEdge(new Edge<>("G", "H", 3.0));
+        graph.addEdge(new Edge<>("B", "D", 3.0));
+        graph.addEdge(new Edge<>("D", "H", 1.0));
+        graph.addEdge(new Edge<>("H", "Z", 1.0));
+        ShortestPaths<String, Double> shortestPaths = new ShortestPaths<>(graph, "A");
+        assertTrue(shortestPaths.hasPathTo("Z"));
+        assertEquals(7.0, shortestPaths.cost("Z"), 0);
+        assertEquals(4.0, shortestPaths.cost("G"), 0);
+        assertFalse(shortestPaths.hasPathTo("Y"));
+        final List<String> path = new ArrayList<>();
+        for (Edge<String, Double> edge : shortestPaths.pathTo("Z")) path.add(edge.getFrom());
+        assertEquals(Arrays.asList("A", "B", "D", "H"), path);
+    }
+}
@@ -0,0 +1,94 @@
+package com.phasmidsoftware.dsaipg.select;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class PartialSortTest {
+
+    @Test
+    public void testSmallestAllModes() {
+        int n = 100_000;
+        Integer[] xs = randomArray(n, 1000, 0L);
+        Integer[] sorted = xs.clone();
+        Arrays.sort(sorted);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (PartialSort.Mode mode : PartialSort.Mode.values())
+                for (int k : new int[]{0, 1, 10, 1000, 30_000, n}) {
+                    PartialSort<Integer> partialSort = new PartialSort<>(mode, pool);
+                    assertArrayEquals(mode + ": " + k, Arrays.copyOf(sorted, k), partialSort.smallest(xs.clone(), k));
+                }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLargest() {
+        Integer[] xs = randomArray(10_000, 100_000, 1L);
+        Integer[] expected = xs.clone();
+        Arrays.sort(expected, Comparator.reverseOrder());
+        for (PartialSort.Mode mode : PartialSort.Mode.values())
+            assertArrayEquals(Arrays.copyOf(expected, 50), new PartialSort<Integer>(mode).largest(xs.clone(), 50));
+    }
+
+    @Test
+    public void testRange() {
+        Integer[] xs = randomArray(50_000, 50_000, 2L);
+        Integer[] sorted = xs.clone();
+        Arrays.sort(sorted);
+        for (PartialSort.Mode mode : PartialSort.Mode.values())
+            assertArrayEquals(Arrays.copyOfRange(sorted, 20_000, 20_100), new PartialSort<Integer>(mode).range(xs.clone(), 20_000, 20_100));
+    }
+
+    @Test
+    public void testSelect() {
+        Integer[] a = {34, -2, 45, 0, 11, -9, 22, 89, 33, 45, -100, 67, 89, 23, 0, -2, -9, 11, 34, 56, -100, 76, 45, 89};
+        Integer[] b = a.clone();
+        Arrays.sort(b);
+        for (int k = 0; k < a.length; k++) assertEquals(b[k], new PartialSort<Integer>().select(a, k));
+    }
+
+    @Test
+    public void testOrderedInput() {
+        // NOTE ordered input (and many duplicates) must not make the partial quicksort quadratic.
+        Integer[] xs = new Integer[1_000_000];
+        for (int i = 0; i < xs.length; i++) xs[i] = i / 3;
+        Integer[] result = new PartialSort<Integer>(PartialSort.Mode.INTROSELECT).smallest(xs, 100_000);
+        for (int i = 0; i < result.length; i++) assertEquals(i / 3, result[i].intValue());
+    }
+
+    @Test
+    public void testTopK() {
+        PartialSort.TopK<String> topK = new PartialSort.TopK<>(3, Comparator.naturalOrder());
+        for (String s : "the quick brown fox jumps over the lazy dog".split(" ")) topK.offer(s);
+        assertEquals(3, topK.size());
+        assertFalse(topK.offer("zebra"));
+        assertArrayEquals(new String[]{"brown", "dog", "fox"}, topK.toSortedArray(new String[0]));
+    }
+
+    @Test
+    public void testAutoMode() {
+        PartialSort<Integer> partialSort = new PartialSort<>();
+        assertEquals(PartialSort.Mode.HEAP, partialSort.getMode(1_000_000, 10));
+        assertEquals(PartialSort.Mode.INTROSELECT, partialSort.getMode(10_000, 5_000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        new PartialSort<Integer>().range(new Integer[]{1, 2, 3}, 2, 4);
+    }
+
+    private static Integer[] randomArray(int n, int bound, long seed) {
+        Random random = new Random(seed);
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(bound);
+        return xs;
+    }
+}
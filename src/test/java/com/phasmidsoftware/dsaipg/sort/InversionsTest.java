@@ -0,0 +1,57 @@
+package com.phasmidsoftware.dsaipg.sort;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class InversionsTest {
+
+    @Test
+    public void testCountSmall() {
+        assertEquals(0, Inversions.count(new Integer[]{}));
+        assertEquals(0, Inversions.count(new Integer[]{1, 2, 3}));
+        assertEquals(1, Inversions.count(new Integer[]{2, 1, 3}));
+        assertEquals(3, Inversions.count(new Integer[]{3, 2, 1}));
+        // NOTE equal elements do not form inversions.
+        assertEquals(3, Inversions.count(new Integer[]{2, 1, 2, 1}));
+    }
+
+    @Test
+    public void testCountLarge() {
+        int n = 1_000;
+        Random random = new Random(0L);
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(100);
+        Integer[] copy = Arrays.copyOf(xs, n);
+        long expected = 0;
+        for (int i = 0; i < n; i++) for (int j = i + 1; j < n; j++) if (xs[j] < xs[i]) expected++;
+        assertEquals(expected, Inversions.count(xs));
+        assertArrayEquals(copy, xs);
+    }
+
+    @Test
+    public void testCountReverse() {
+        int n = 100_000;
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = n - i;
+        assertEquals((long) n * (n - 1) / 2, Inversions.count(xs));
+        assertEquals(0, Inversions.count(xs, Comparator.reverseOrder()));
+    }
+
+    @Test
+    public void testCountInts() {
+        int n = 1_000;
+        Random random = new Random(1L);
+        int[] xs = new int[n];
+        Integer[] ys = new Integer[n];
+        for (int i = 0; i < n; i++) ys[i] = xs[i] = random.nextInt(50) - 25;
+        assertEquals(Inversions.count(ys), Inversions.count(xs));
+        assertEquals(3, Inversions.count(new int[]{3, 2, 1}));
+        assertEquals(0, Inversions.count(new int[]{Integer.MIN_VALUE, 0, 0, Integer.MAX_VALUE}));
+    }
+}
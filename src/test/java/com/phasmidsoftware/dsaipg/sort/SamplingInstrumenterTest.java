@@ -0,0 +1,98 @@
+package com.phasmidsoftware.dsaipg.sort;
+
+import com.phasmidsoftware.dsaipg.sort.elementary.InsertionSort;
+import com.phasmidsoftware.dsaipg.util.Config;
+import org.junit.Test;
+
+import static com.phasmidsoftware.dsaipg.sort.Instrument.COMPARES;
+import static com.phasmidsoftware.dsaipg.sort.Instrument.INSTRUMENTING;
+import static com.phasmidsoftware.dsaipg.util.Config_Benchmark.setupConfig;
+import static org.junit.Assert.*;
+
+public class SamplingInstrumenterTest {
+
+    @Test
+    public void testCreate() {
+        final Config config = setupConfig("true", "true", "0", "0", "", "");
+        assertFalse(SamplingInstrumenter.create(config) instanceof SamplingInstrumenter);
+        Instrumenter instrumenter = SamplingInstrumenter.create(config.copy(INSTRUMENTING, SamplingInstrumenter.SAMPLE_PERIOD, "4"));
+        assertTrue(instrumenter instanceof SamplingInstrumenter);
+        assertEquals(4, ((SamplingInstrumenter) instrumenter).getPeriod());
+    }
+
+    @Test
+    public void testSampling() {
+        final Config config = setupConfig("true", "true", "0", "0", "", "");
+        SamplingInstrumenter instrumenter = new SamplingInstrumenter(4, config);
+        instrumenter.init(100, 8);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i % 4 == 0, instrumenter.isActive());
+            assertEquals(i % 4 == 0, instrumenter.countFixes());
+            for (int j = 0; j < 10; j++) instrumenter.incrementCompares();
+            assertEquals(i % 4 == 0 ? 10 : 0, instrumenter.getCompares());
+            instrumenter.gatherStatistic();
+        }
+        assertEquals(8, instrumenter.getInvocations());
+        assertEquals(2, instrumenter.getSampled());
+        assertEquals(2, instrumenter.getStatPack().getCount(COMPARES));
+        assertEquals(10.0, instrumenter.getStatPack().mean(COMPARES), 1E-10);
+        assertEquals(80.0, instrumenter.extrapolatedTotal(COMPARES), 1E-10);
+    }
+
+    @Test
+    public void testHelper() {
+        final Config config = setupConfig("true", "false", "0", "0", "", "").copy(INSTRUMENTING, SamplingInstrumenter.SAMPLE_PERIOD, "2");
+        InstrumentedComparableHelper<Integer> helper = new InstrumentedComparableHelper<>("test", 10, config);
+        helper.init(10);
+        Integer[] xs = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        for (int i = 0; i < 4; i++) {
+            helper.compare(xs, 0, 1);
+            helper.postProcess(xs);
+        }
+        assertEquals(2, helper.getStatPack().getCount(COMPARES));
+        assertEquals(1.0, helper.getStatPack().mean(COMPARES), 1E-10);
+    }
+
+    @Test
+    public void testExtrapolatedTotals() {
+        final Config config = setupConfig("true", "false", "0", "0", "", "");
+        final double full = totalCompares(config);
+        final double sampled = totalCompares(config.copy(INSTRUMENTING, SamplingInstrumenter.SAMPLE_PERIOD, "4"));
+        assertEquals(1.0, sampled / full, 0.05);
+    }
+
+    @Test
+    public void testStatPackSampleFraction() {
+        final Config config = setupConfig("true", "true", "0", "0", "", "");
+        SamplingInstrumenter instrumenter = new SamplingInstrumenter(4, config);
+        instrumenter.init(100, 8);
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 10; j++) instrumenter.incrementCompares();
+            instrumenter.gatherStatistic();
+        }
+        assertEquals(0.25, instrumenter.getStatPack().getSampleFraction(COMPARES), 1E-10);
+        assertEquals(1.0, instrumenter.getStatPack().getSampleFraction(Instrument.INVERSIONS), 1E-10);
+        assertEquals(80.0, instrumenter.getStatPack().total(COMPARES), 1E-10);
+        assertTrue(instrumenter.getStatPack().toString().contains("extrapolated total=80"));
+    }
+
+    /**
+     * Sort 400 random arrays by insertion sort and yield the total number of compares reported by the StatPack.
+     */
+    private static double totalCompares(Config config) {
+        final int n = 100;
+        InstrumentedComparableHelper<Integer> helper = new InstrumentedComparableHelper<>("test", n, 0L, 400, config);
+        InsertionSort<Integer> sorter = new InsertionSort<>(helper);
+        for (int i = 0; i < 400; i++) {
+            Integer[] xs = helper.preProcess(helper.random(Integer.class, r -> r.nextInt(1000)));
+            sorter.mutatingSort(xs);
+            helper.postProcess(xs);
+        }
+        return helper.getStatPack().total(COMPARES);
+    }
+
+    @Test(expected = HelperException.class)
+    public void testBadPeriod() {
+        new SamplingInstrumenter(0, setupConfig("true", "true", "0", "0", "", ""));
+    }
+}
@@ -159,4 +159,49 @@ public class BucketSortTest {
         sorter.mutatingSort(input);
         assertArrayEquals(new String[]{"Alpha", "bravo", "Charlie", "delta"}, input);
     }
+
+    @Test
+    public void testSampleSortSkewed() throws IOException {
+        int N = 100_000;
+        Random random = new Random(0L);
+        Integer[] xs = new Integer[N];
+        // NOTE most of the values are crowded into the bottom of the range.
+        for (int i = 0; i < N; i++) xs[i] = (int) Math.pow(random.nextInt(1_000), 3);
+        Sort<Integer> sorter = BucketSort.SampleSort(256, N, Config.load(BucketSortTest.class));
+        Integer[] ys = sorter.sort(xs);
+        Integer[] zs = Arrays.copyOf(xs, N);
+        Arrays.sort(zs);
+        assertArrayEquals(zs, ys);
+    }
+
+    @Test
+    public void testSampleSortStrings() throws IOException {
+        String[] input = {"delta", "charlie", "bravo", "alpha", "echo", "foxtrot", "golf", "hotel", "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa", "quebec", "romeo", "sierra", "tango", "uniform", "victor", "whiskey", "xray", "yankee", "zulu", "alpha", "zulu"};
+        Sort<String> sorter = BucketSort.SampleSort(4, input.length, Config.load(BucketSortTest.class));
+        String[] expected = Arrays.copyOf(input, input.length);
+        Arrays.sort(expected);
+        sorter.mutatingSort(input);
+        assertArrayEquals(expected, input);
+    }
+
+    @Test
+    public void testSampleSortSubArray() throws IOException {
+        Integer[] xs = {9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+        BucketSort<Integer> sorter = BucketSort.SampleSort(4, xs.length, Config.load(BucketSortTest.class));
+        sorter.sort(xs, 2, 8);
+        assertArrayEquals(new Integer[]{9, 8, 2, 3, 4, 5, 6, 7, 1, 0}, xs);
+    }
+
+    @Test
+    public void testSampleSortInstrumented() {
+        int N = 10_000;
+        final Config config = setupConfig("true", "false", "0", "1", "", "");
+        BucketSort<Integer> sorter = BucketSort.SampleSort(100, N, config);
+        Helper<Integer> helper = sorter.getHelper();
+        Integer[] xs = helper.random(N, Integer.class, r -> r.nextInt(20_000));
+        Integer[] ys = sorter.sort(xs);
+        assertTrue(helper.isSorted(ys));
+        assertEquals(2L * N, helper.getCopies());
+        assertTrue(helper.getCompares() > 0);
+    }
 }
\ No newline at end of file
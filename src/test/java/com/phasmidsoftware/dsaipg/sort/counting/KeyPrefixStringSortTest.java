@@ -0,0 +1,105 @@
+package com.phasmidsoftware.dsaipg.sort.counting;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.sort.Sort;
+import com.phasmidsoftware.dsaipg.util.CodePointMapper;
+import com.phasmidsoftware.dsaipg.util.Config;
+import com.phasmidsoftware.dsaipg.util.PrivateMethodTester;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.phasmidsoftware.dsaipg.util.Config_Benchmark.HELPER;
+import static com.phasmidsoftware.dsaipg.util.Config_Benchmark.setupConfig;
+import static org.junit.Assert.*;
+
+public class KeyPrefixStringSortTest {
+
+    final String[] input = "she sells seashells by the seashore the shells she sells are surely seashells".split(" ");
+    final String[] expected = "are by seashells seashells seashore sells sells she she shells surely the the".split(" ");
+
+    @Test
+    public void sort0() {
+        int n = input.length;
+        Config config = setupConfig("true", "false", "0", "1", "4", "");
+        try (Sort<String> sorter = new KeyPrefixStringSort(CodePointMapper.ASCIIExt, n, 1, config)) {
+            String[] sorted = sorter.sort(input);
+            assertArrayEquals(expected, sorted);
+        }
+    }
+
+    @Test
+    public void sort1() throws IOException {
+        int n = 1000;
+        String[] words = MSDStringSortTest.getWords("3000-common-words.txt", Collections::singletonList);
+        Config config = Config.load(KeyPrefixStringSortTest.class).copy(HELPER, "seed", "1");
+        try (KeyPrefixStringSort sorter = new KeyPrefixStringSort(CodePointMapper.ASCIIExt, n, 1, config)) {
+            Helper<String> helper = sorter.getHelper();
+            final String[] xs = helper.random(String.class, r -> words[r.nextInt(words.length)]);
+            String[] ys = sorter.sort(xs);
+            String[] zs = Arrays.copyOf(xs, n);
+            Arrays.sort(zs, CodePointMapper.ASCIIComparatorExt);
+            assertArrayEquals(zs, ys);
+        }
+    }
+
+    @Test
+    public void sort2() throws IOException {
+        int n = input.length;
+        try (KeyPrefixStringSort sorter = new KeyPrefixStringSort(CodePointMapper.English, n, 1, Config.load(KeyPrefixStringSortTest.class))) {
+            String[] sorted = sorter.sort(input);
+            assertArrayEquals(expected, sorted);
+        }
+    }
+
+    @Test
+    public void testTies() {
+        // NOTE these strings all share a prefix which is longer than the key.
+        String[] xs = new String[]{"internationalize", "internationalism", "international", "internal", "internationally", "internationals", "intern"};
+        Config config = setupConfig("true", "false", "0", "1", "4", "");
+        try (KeyPrefixStringSort sorter = new KeyPrefixStringSort(CodePointMapper.ASCIIExt, xs.length, 1, config)) {
+            String[] sorted = sorter.sort(xs);
+            String[] ys = Arrays.copyOf(xs, xs.length);
+            Arrays.sort(ys);
+            assertArrayEquals(ys, sorted);
+        }
+    }
+
+    @Test
+    public void testSubArray() {
+        String[] xs = new String[]{"zebra", "yak", "xerus", "wolf", "vole", "urial"};
+        Config config = setupConfig("false", "false", "0", "1", "4", "");
+        try (KeyPrefixStringSort sorter = new KeyPrefixStringSort(CodePointMapper.ASCII, xs.length, 1, config)) {
+            sorter.init(xs.length);
+            sorter.sort(xs, 1, 5);
+            assertArrayEquals(new String[]{"zebra", "vole", "wolf", "xerus", "yak", "urial"}, xs);
+        }
+    }
+
+    @Test
+    public void testPack() {
+        Config config = setupConfig("false", "false", "0", "1", "4", "");
+        try (KeyPrefixStringSort sorter = new KeyPrefixStringSort(CodePointMapper.ASCIIExt, 0, 1, config)) {
+            assertEquals(0x6100000000000000L, sorter.pack("a"));
+            assertEquals(0x6162636465666768L, sorter.pack("abcdefghij"));
+            assertTrue(Long.compareUnsigned(sorter.pack("ÿ"), sorter.pack("a")) > 0);
+        }
+    }
+
+    @Test
+    public void testInstrumentation() {
+        Config config = setupConfig("true", "false", "0", "1", "4", "");
+        KeyPrefixStringSort sorter = new KeyPrefixStringSort(CodePointMapper.ASCIIExt, input.length, 1, config);
+        Helper<String> helper = sorter.getHelper();
+        String[] sorted = sorter.sort(input);
+        sorter.close();
+        assertArrayEquals(expected, sorted);
+        final PrivateMethodTester privateMethodTester = new PrivateMethodTester(helper);
+        assertEquals(0L, privateMethodTester.invokePrivate("getSwaps"));
+        // NOTE only the two copies of "seashells" need a full comparison.
+        assertEquals(1L, privateMethodTester.invokePrivate("getCompares"));
+        assertEquals(2L * input.length, privateMethodTester.invokePrivate("getCopies"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.phasmidsoftware.dsaipg.sort.counting;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SchwartzianSortTest {
+
+    @Test
+    public void testDateTimeSort() {
+        Random random = new Random(0L);
+        LocalDateTime[] xs = new LocalDateTime[100_000];
+        LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0);
+        for (int i = 0; i < xs.length; i++)
+            xs[i] = base.plusDays(random.nextInt(20_000) - 10_000).plusNanos(random.nextLong() & 0x3FFFFFFFFFFL);
+        LocalDateTime[] expected = xs.clone();
+        Arrays.sort(expected);
+        SchwartzianSort<LocalDateTime> sorter = SchwartzianSort.dateTimeSort();
+        sorter.mutatingSort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testMultiKeyStable() {
+        Random random = new Random(1L);
+        Item[] xs = new Item[10_000];
+        for (int i = 0; i < xs.length; i++) xs[i] = new Item(random.nextInt(10), random.nextInt(100) - 50, i);
+        SchwartzianSort<Item> sorter = SchwartzianSort.create("items", x -> x.a, x -> x.b);
+        Item[] ys = sorter.sort(xs);
+        for (int i = 1; i < ys.length; i++) {
+            Item x = ys[i - 1], y = ys[i];
+            assertTrue(x.a < y.a || x.a == y.a && (x.b < y.b || x.b == y.b && x.index < y.index));
+        }
+    }
+
+    @Test
+    public void testTieBreaker() {
+        Item[] xs = {new Item(1, 0, 0), new Item(0, 0, 1), new Item(1, 0, 2), new Item(0, 0, 3), new Item(1, 1, 4)};
+        SchwartzianSort<Item> sorter = new SchwartzianSort<>("items", Collections.singletonList(x -> x.a), Comparator.comparingInt((Item x) -> x.index).reversed());
+        sorter.mutatingSort(xs);
+        int[] indices = Arrays.stream(xs).mapToInt(x -> x.index).toArray();
+        assertArrayEquals(new int[]{3, 1, 4, 2, 0}, indices);
+    }
+
+    @Test
+    public void testExtremeKeys() {
+        Long[] xs = {Long.MAX_VALUE, 0L, Long.MIN_VALUE, -1L, 1L, Long.MIN_VALUE + 1, Long.MAX_VALUE - 1};
+        Long[] expected = xs.clone();
+        Arrays.sort(expected);
+        SchwartzianSort.<Long>create("longs", x -> x).mutatingSort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testDoubleKey() {
+        Double[] xs = {3.5, -0.0, 0.0, -7.25, Double.NEGATIVE_INFINITY, 1e-300, -1e300, Double.POSITIVE_INFINITY, 2.0};
+        Double[] expected = xs.clone();
+        Arrays.sort(expected);
+        SchwartzianSort.<Double>create("doubles", SchwartzianSort.doubleKey(x -> x)).mutatingSort(xs);
+        assertArrayEquals(expected, xs);
+    }
+
+    @Test
+    public void testSubArray() {
+        Integer[] xs = {9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+        SchwartzianSort.<Integer>create("ints", x -> x).sort(xs, 2, 8);
+        assertArrayEquals(new Integer[]{9, 8, 2, 3, 4, 5, 6, 7, 1, 0}, xs);
+    }
+
+    @Test
+    public void testPermute() {
+        String[] xs = {"a", "b", "c", "d", "e"};
+        SchwartzianSort.permute(xs, 0, new int[]{2, 0, 1, 4, 3});
+        assertArrayEquals(new String[]{"c", "a", "b", "e", "d"}, xs);
+    }
+
+    @Test(expected = SortException.class)
+    public void testNoKeys() {
+        SchwartzianSort.<Integer>create("none");
+    }
+
+    static class Item {
+        Item(int a, int b, int index) {
+            this.a = a;
+            this.b = b;
+            this.index = index;
+        }
+
+        final int a;
+        final int b;
+        final int index;
+    }
+}
@@ -0,0 +1,90 @@
+package com.phasmidsoftware.dsaipg.sort.external;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+import com.phasmidsoftware.dsaipg.sort.linearithmic.TimSort;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ExternalMergeSortTest {
+
+    Path tempDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDirectory = Files.createTempDirectory("ExternalMergeSortTest");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.list(tempDirectory)) {
+            // NOTE every run file should have been deleted by the sort.
+            assertEquals(0, paths.count());
+        }
+        Files.delete(tempDirectory);
+    }
+
+    @Test
+    public void testSortIntegersMultiPass() throws IOException {
+        int n = 10_000;
+        Random random = new Random(0L);
+        List<Integer> xs = new ArrayList<>();
+        for (int i = 0; i < n; i++) xs.add(random.nextInt());
+        // NOTE 100 runs with a fan-in of 4 requires several intermediate merge passes.
+        ExternalMergeSort<Integer> sorter = new ExternalMergeSort<>(new TimSort<>(), Integer.class, ExternalMergeSort.INTEGER_CODEC, 100, 4, tempDirectory);
+        List<Integer> result = new ArrayList<>();
+        assertEquals(n, sorter.sort(xs.iterator(), result::add));
+        Collections.sort(xs);
+        assertEquals(xs, result);
+    }
+
+    @Test
+    public void testSortSingleRun() throws IOException {
+        List<String> xs = Arrays.asList("she sells seashells by the seashore".split(" "));
+        ExternalMergeSort<String> sorter = new ExternalMergeSort<>(new TimSort<>(), String.class, ExternalMergeSort.STRING_CODEC, 100, 4, tempDirectory);
+        List<String> result = new ArrayList<>();
+        assertEquals(xs.size(), sorter.sort(xs.iterator(), result::add));
+        assertEquals(Arrays.asList("by", "seashells", "seashore", "sells", "she", "the"), result);
+    }
+
+    @Test
+    public void testSortEmpty() throws IOException {
+        ExternalMergeSort<String> sorter = new ExternalMergeSort<>(new TimSort<>(), String.class, ExternalMergeSort.STRING_CODEC, 10, 2, tempDirectory);
+        List<String> result = new ArrayList<>();
+        assertEquals(0, sorter.sort(Collections.emptyIterator(), result::add));
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testSortLines() throws IOException {
+        Path input = Files.createTempFile("input", ".txt");
+        Path output = Files.createTempFile("output", ".txt");
+        try {
+            List<String> lines = new ArrayList<>();
+            Random random = new Random(0L);
+            for (int i = 0; i < 1_000; i++) lines.add("Zürich-" + random.nextInt(10_000));
+            Files.write(input, lines, StandardCharsets.UTF_8);
+            ExternalMergeSort<String> sorter = new ExternalMergeSort<>(new TimSort<>(), String.class, ExternalMergeSort.STRING_CODEC, 64, 8, tempDirectory);
+            assertEquals(lines.size(), ExternalMergeSort.sortLines(sorter, input, output));
+            Collections.sort(lines);
+            assertEquals(lines, Files.readAllLines(output, StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(input);
+            Files.delete(output);
+        }
+    }
+
+    @Test(expected = SortException.class)
+    public void testBadFanIn() throws IOException {
+        new ExternalMergeSort<>(new TimSort<>(), String.class, ExternalMergeSort.STRING_CODEC, 10, 1, tempDirectory);
+    }
+}
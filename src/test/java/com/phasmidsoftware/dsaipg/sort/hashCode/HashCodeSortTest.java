@@ -7,8 +7,12 @@ package com.phasmidsoftware.dsaipg.sort.hashCode;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -107,4 +111,50 @@ public class HashCodeSortTest {
         assertEquals(d3, sorted.get(2));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void sortNegative() {
+        final HashCodeSort<Integer> sorter = new HashCodeSort<>();
+        List<Integer> sorted = sorter.sort(Arrays.asList(3, -1, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -256, 256));
+        assertEquals(Arrays.asList(Integer.MIN_VALUE, -256, -1, 0, 3, 256, Integer.MAX_VALUE), sorted);
+    }
+
+    @Test
+    public void sortEmpty() {
+        final HashCodeSort<Integer> sorter = new HashCodeSort<>();
+        assertEquals(0, sorter.sort(new ArrayList<>()).size());
+    }
+
+    @Test
+    public void sortLarge() {
+        final int n = 100_000;
+        final Random random = new Random(0L);
+        final List<Integer> xs = new ArrayList<>();
+        for (int i = 0; i < n; i++) xs.add(random.nextInt());
+        final HashCodeSort<Integer> sorter = new HashCodeSort<>();
+        final Integer[] expected = xs.toArray(new Integer[0]);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, sorter.sort(xs).toArray(new Integer[0]));
+    }
+
+    @Test
+    public void sortCollisions() {
+        final Random random = new Random(0L);
+        final List<Date> dates = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            dates.add(new Date(2017, 12, 10, 11, random.nextInt(2), random.nextInt(3), random.nextInt(16)));
+        final HashCodeSort<Date> sorter = new HashCodeSort<>();
+        final Date[] expected = dates.toArray(new Date[0]);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, sorter.sort(dates).toArray(new Date[0]));
+    }
+
+    @Test
+    public void sortResultIsMutable() {
+        final HashCodeSort<Integer> sorter = new HashCodeSort<>();
+        final List<Integer> result = sorter.sort(new LinkedList<>(List.of(3, 1, 2)));
+        assertEquals(List.of(1, 2, 3), result);
+        result.add(4);
+        result.remove(0);
+        assertEquals(List.of(2, 3, 4), result);
+    }
+}
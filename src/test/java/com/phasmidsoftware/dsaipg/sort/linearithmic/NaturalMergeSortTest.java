@@ -0,0 +1,131 @@
+package com.phasmidsoftware.dsaipg.sort.linearithmic;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.sort.NonInstrumentingComparableHelper;
+import com.phasmidsoftware.dsaipg.util.Config;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.phasmidsoftware.dsaipg.util.Config_Benchmark.setupConfig;
+import static org.junit.Assert.*;
+
+public class NaturalMergeSortTest {
+
+    @Test
+    public void testSort1() throws IOException {
+        Integer[] xs = {3, 4, 2, 1};
+        NaturalMergeSort<Integer> s = new NaturalMergeSort<>(Config.load(getClass()));
+        assertArrayEquals(new Integer[]{1, 2, 3, 4}, s.sort(xs));
+    }
+
+    @Test
+    public void testSortRandomParallel() throws IOException {
+        int n = 200_000;
+        Random random = new Random(0L);
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(n);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            NaturalMergeSort<Integer> s = new NaturalMergeSort<>(new NonInstrumentingComparableHelper<Integer>(NaturalMergeSort.DESCRIPTION, n, Config.load(getClass())), pool);
+            Integer[] ys = s.sort(xs);
+            Integer[] zs = Arrays.copyOf(xs, n);
+            Arrays.sort(zs);
+            assertArrayEquals(zs, ys);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStable() throws IOException {
+        int n = 50_000;
+        Random random = new Random(1L);
+        Item[] xs = new Item[n];
+        // NOTE a mixture of ascending, descending and random stretches, with many equal keys.
+        for (int i = 0; i < n; i++) {
+            int key = i % 3000 < 1000 ? i / 100 : i % 3000 < 2000 ? 1000 - i / 100 : random.nextInt(50);
+            xs[i] = new Item(key, i);
+        }
+        NaturalMergeSort<Item> s = new NaturalMergeSort<>(new NonInstrumentingComparableHelper<Item>(NaturalMergeSort.DESCRIPTION, n, Config.load(getClass())));
+        Item[] ys = s.sort(xs);
+        for (int i = 1; i < n; i++) {
+            assertTrue(ys[i - 1].key <= ys[i].key);
+            if (ys[i - 1].key == ys[i].key) assertTrue(ys[i - 1].index < ys[i].index);
+        }
+    }
+
+    @Test
+    public void testOrderedAndReversed() {
+        int n = 10_000;
+        Integer[] ordered = new Integer[n];
+        for (int i = 0; i < n; i++) ordered[i] = i;
+        Integer[] reversed = new Integer[n];
+        for (int i = 0; i < n; i++) reversed[i] = n - i;
+        for (Integer[] xs : Arrays.asList(ordered, reversed)) {
+            final Config config = setupConfig("true", "false", "", "0", "1", "");
+            NaturalMergeSort<Integer> s = new NaturalMergeSort<>(n, 1, config);
+            Helper<Integer> helper = s.getHelper();
+            Integer[] ys = s.sort(xs);
+            Integer[] zs = Arrays.copyOf(xs, n);
+            Arrays.sort(zs);
+            assertArrayEquals(zs, ys);
+            assertEquals(1, s.getRuns());
+            assertEquals(n - 1, helper.getCompares());
+        }
+    }
+
+    @Test
+    public void testSortedBatches() {
+        int n = 1 << 14, batches = 4;
+        Random random = new Random(2L);
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt();
+        for (int i = 0; i < n; i += n / batches) Arrays.sort(xs, i, i + n / batches);
+        final Config config = setupConfig("true", "false", "", "0", "1", "");
+        NaturalMergeSort<Integer> s = new NaturalMergeSort<>(n, 1, config);
+        Helper<Integer> helper = s.getHelper();
+        Integer[] ys = s.sort(xs);
+        Integer[] zs = Arrays.copyOf(xs, n);
+        Arrays.sort(zs);
+        assertArrayEquals(zs, ys);
+        assertEquals(batches, s.getRuns());
+        // NOTE finding the runs costs n-1 compares and merging them costs about n lg 4 (plus a little for galloping).
+        assertTrue(helper.getCompares() <= n - 1 + 2L * n + n / 16);
+        assertTrue(helper.getCompares() < n * 14 / 2);
+    }
+
+    @Test
+    public void testSubArray() throws IOException {
+        Integer[] xs = {9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+        NaturalMergeSort<Integer> s = new NaturalMergeSort<>(Config.load(getClass()));
+        s.sort(xs, 2, 8);
+        assertArrayEquals(new Integer[]{9, 8, 2, 3, 4, 5, 6, 7, 1, 0}, xs);
+    }
+
+    @Test
+    public void testMinRunLength() {
+        assertEquals(31, NaturalMergeSort.minRunLength(31));
+        assertEquals(16, NaturalMergeSort.minRunLength(32));
+        assertEquals(17, NaturalMergeSort.minRunLength(33));
+        assertEquals(17, NaturalMergeSort.minRunLength(65));
+        assertEquals(16, NaturalMergeSort.minRunLength(1 << 20));
+    }
+
+    static class Item implements Comparable<Item> {
+        Item(int key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        public int compareTo(Item o) {
+            return Integer.compare(key, o.key);
+        }
+
+        final int key;
+        final int index;
+    }
+}
@@ -0,0 +1,101 @@
+package com.phasmidsoftware.dsaipg.sort.linearithmic;
+
+import com.phasmidsoftware.dsaipg.sort.Helper;
+import com.phasmidsoftware.dsaipg.sort.Sort;
+import com.phasmidsoftware.dsaipg.sort.SortWithHelper;
+import com.phasmidsoftware.dsaipg.util.Config;
+import com.phasmidsoftware.dsaipg.util.PrivateMethodTester;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.phasmidsoftware.dsaipg.util.Config_Benchmark.setupConfig;
+import static org.junit.Assert.*;
+
+public class QuickSort_BlockTest {
+
+    @Test
+    public void testSort1() throws IOException {
+        Integer[] xs = {3, 4, 2, 1};
+        Sort<Integer> s = new QuickSort_Block<>(Config.load(getClass()));
+        Integer[] ys = s.sort(xs);
+        assertArrayEquals(new Integer[]{1, 2, 3, 4}, ys);
+    }
+
+    @Test
+    public void testSortRandom() throws IOException {
+        int n = 100_000;
+        Random random = new Random(0L);
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt();
+        Sort<Integer> s = new QuickSort_Block<>(Config.load(getClass()));
+        Integer[] ys = s.sort(xs);
+        Integer[] zs = Arrays.copyOf(xs, n);
+        Arrays.sort(zs);
+        assertArrayEquals(zs, ys);
+    }
+
+    @Test
+    public void testSortDuplicatesAndOrdered() throws IOException {
+        int n = 10_000;
+        Random random = new Random(0L);
+        Sort<Integer> s = new QuickSort_Block<>(Config.load(getClass()));
+        Integer[] duplicates = new Integer[n];
+        for (int i = 0; i < n; i++) duplicates[i] = random.nextInt(3);
+        Integer[] ordered = new Integer[n];
+        for (int i = 0; i < n; i++) ordered[i] = i;
+        Integer[] reversed = new Integer[n];
+        for (int i = 0; i < n; i++) reversed[i] = n - i;
+        for (Integer[] xs : Arrays.asList(duplicates, ordered, reversed)) {
+            Integer[] ys = s.sort(xs);
+            Integer[] zs = Arrays.copyOf(xs, n);
+            Arrays.sort(zs);
+            assertArrayEquals(zs, ys);
+        }
+    }
+
+    @Test
+    public void testSubArray() throws IOException {
+        Integer[] xs = {9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+        QuickSort_Block<Integer> s = new QuickSort_Block<>(Config.load(getClass()));
+        s.sort(xs, 2, 8);
+        assertArrayEquals(new Integer[]{9, 8, 2, 3, 4, 5, 6, 7, 1, 0}, xs);
+    }
+
+    @Test
+    public void testPartition() throws IOException {
+        int n = 1_000;
+        Random random = new Random(1L);
+        Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(100);
+        QuickSort_Block<Integer> s = new QuickSort_Block<>(Config.load(getClass()));
+        List<Partition<Integer>> partitions = s.createPartitioner().partition(QuickSort.createPartition(xs));
+        assertEquals(2, partitions.size());
+        int j = partitions.get(0).to;
+        assertEquals(j + 1, partitions.get(1).from);
+        for (int i = 0; i < j; i++) assertTrue(xs[i] <= xs[j]);
+        for (int i = j + 1; i < n; i++) assertTrue(xs[i] >= xs[j]);
+    }
+
+    @Test
+    public void testSortInstrumented() {
+        int n = 10_000;
+        final Config config = setupConfig("true", "false", "0", "1", "", "");
+        final SortWithHelper<Integer> sorter = new QuickSort_Block<>(n, 1, config);
+        final Helper<Integer> helper = sorter.getHelper();
+        helper.init(n);
+        final Integer[] xs = helper.random(Integer.class, r -> r.nextInt(10_000));
+        final Integer[] sorted = sorter.sort(xs);
+        assertTrue(helper.isSorted(sorted));
+        final PrivateMethodTester privateMethodTester = new PrivateMethodTester(helper);
+        final long compares = (Long) privateMethodTester.invokePrivate("getCompares");
+        final long swaps = (Long) privateMethodTester.invokePrivate("getSwaps");
+        // NOTE quicksort (with median-of-three) should use approximately 1.2 n lg n compares.
+        assertTrue(compares > n * 10 && compares < n * 25);
+        assertTrue(swaps > 0 && swaps < compares);
+        assertTrue(helper.maxDepth() > 0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BenchmarkComparatorTest {
+
+    @Test
+    public void testRegression() {
+        BenchmarkRecord base = record("sort", 1000, 100, 10.0, 0.5, 100);
+        BenchmarkRecord slower = record("sort", 1000, 100, 12.0, 0.5, 100);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator().compare(base, slower);
+        assertTrue(comparison.isSignificant());
+        assertTrue(comparison.isRegression());
+        assertFalse(comparison.isImprovement());
+        assertEquals(0.2, comparison.getChange(), 1E-9);
+        assertTrue(comparison.toString().contains("REGRESSION"));
+    }
+
+    @Test
+    public void testImprovement() {
+        BenchmarkRecord base = record("sort", 1000, 100, 10.0, 0.5, 100);
+        BenchmarkRecord faster = record("sort", 1000, 100, 8.0, 0.5, 100);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator().compare(base, faster);
+        assertFalse(comparison.isRegression());
+        assertTrue(comparison.isImprovement());
+    }
+
+    @Test
+    public void testNotSignificant() {
+        // NOTE a 20% slowdown is not significant when the runs are this noisy.
+        BenchmarkRecord base = record("sort", 1000, 5, 10.0, 5.0, 100);
+        BenchmarkRecord slower = record("sort", 1000, 5, 12.0, 5.0, 100);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator().compare(base, slower);
+        assertFalse(comparison.isSignificant());
+        assertFalse(comparison.isRegression());
+    }
+
+    @Test
+    public void testBelowThreshold() {
+        BenchmarkRecord base = record("sort", 1000, 1000, 10.0, 0.01, 100);
+        BenchmarkRecord slower = record("sort", 1000, 1000, 10.2, 0.01, 100);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator(0.05).compare(base, slower);
+        assertTrue(comparison.isSignificant());
+        assertFalse(comparison.isRegression());
+    }
+
+    @Test
+    public void testCounterRegression() {
+        BenchmarkRecord base = record("sort", 1000, 100, 10.0, 0.5, 100, 2.0);
+        BenchmarkRecord candidate = record("sort", 1000, 100, 10.0, 0.5, 120, 2.0);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator().compare(base, candidate);
+        assertTrue(comparison.isRegression());
+        assertEquals(Collections.singletonList("compares"), comparison.getCounterRegressions());
+    }
+
+    @Test
+    public void testCounterNotSignificant() {
+        // NOTE a 20% growth in compares is not significant when the (random) inputs make them this noisy.
+        BenchmarkRecord base = record("sort", 1000, 5, 10.0, 0.5, 100, 50.0);
+        BenchmarkRecord candidate = record("sort", 1000, 5, 10.0, 0.5, 120, 50.0);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator().compare(base, candidate);
+        assertFalse(comparison.isRegression());
+        assertTrue(comparison.getCounterRegressions().isEmpty());
+    }
+
+    @Test
+    public void testCounterStdDevUnknown() {
+        BenchmarkRecord base = record("sort", 1000, 100, 10.0, 0.5, 100);
+        BenchmarkRecord candidate = record("sort", 1000, 100, 10.0, 0.5, 120);
+        BenchmarkComparator.Comparison comparison = new BenchmarkComparator().compare(base, candidate);
+        assertFalse(comparison.isRegression());
+    }
+
+    @Test
+    public void testCompareLists() {
+        List<BenchmarkRecord> baseline = Arrays.asList(record("a", 100, 10, 1.0, 0.1, 1), record("b", 100, 10, 1.0, 0.1, 1), record("a", 100, 10, 2.0, 0.1, 1));
+        List<BenchmarkRecord> candidate = Arrays.asList(record("a", 100, 10, 2.0, 0.1, 1), record("c", 100, 10, 1.0, 0.1, 1));
+        List<BenchmarkComparator.Comparison> comparisons = new BenchmarkComparator().compare(baseline, candidate);
+        // NOTE only "a" is common to both, and the later baseline record for "a" supersedes the earlier one.
+        assertEquals(1, comparisons.size());
+        assertEquals("a@100", comparisons.get(0).getKey());
+        assertFalse(comparisons.get(0).isRegression());
+    }
+
+    private static BenchmarkRecord record(String algorithm, int n, int runs, double mean, double stdDev, double compares) {
+        Map<String, Double> counters = Collections.singletonMap("compares", compares);
+        return new BenchmarkRecord("", algorithm, n, runs, mean, mean, mean, mean, stdDev, 0, 0, 0, -1, counters);
+    }
+
+    private static BenchmarkRecord record(String algorithm, int n, int runs, double mean, double stdDev, double compares, double comparesStdDev) {
+        Map<String, Double> counters = Collections.singletonMap("compares", compares);
+        Map<String, Double> counterStdDevs = Collections.singletonMap("compares", comparesStdDev);
+        return new BenchmarkRecord("", algorithm, n, runs, mean, mean, mean, mean, stdDev, 0, 0, 0, -1, counters, counterStdDevs);
+    }
+}
@@ -0,0 +1,121 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BenchmarkOrchestratorTest {
+
+    @Test
+    public void testThreads() throws IOException {
+        Path directory = Files.createTempDirectory("orchestrator");
+        Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        BenchmarkOrchestrator orchestrator = new BenchmarkOrchestrator(3, false, false, Collections.emptyList(), directory, BenchmarkOrchestratorTest.class, cell -> {
+            threads.add(Thread.currentThread().getName() + Thread.currentThread().getId());
+            BenchmarkResults.record(BenchmarkRecord.create(cell.getOption(), (int) cell.getN(), 1, cell.getN() / 1000.0));
+        });
+        List<BenchmarkOrchestrator.Cell> cells = new ArrayList<>();
+        for (int i = 0; i < 6; i++) cells.add(new BenchmarkOrchestrator.Cell("s", "sorter" + i, 1000L * (i + 1)));
+        Path report = directory.resolve("report.jsonl");
+        List<BenchmarkRecord> records = orchestrator.runAndReport(cells, new BenchmarkResults(report));
+        assertEquals(6, records.size());
+        // NOTE the records are in the order of the cells, regardless of the order in which the cells completed.
+        for (int i = 0; i < 6; i++) assertEquals("sorter" + i + "@" + 1000 * (i + 1), records.get(i).key());
+        assertEquals(6, new BenchmarkResults(report).read().size());
+        assertTrue(threads.size() <= 3);
+        BenchmarkOrchestrator.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testProcesses() throws IOException {
+        Path directory = Files.createTempDirectory("orchestrator");
+        BenchmarkOrchestrator orchestrator = new BenchmarkOrchestrator(2, true, true, Collections.singletonList("-Xmx64m"), directory, CellMain.class, null);
+        List<BenchmarkOrchestrator.Cell> cells = Arrays.asList(new BenchmarkOrchestrator.Cell("s", "a", 10), new BenchmarkOrchestrator.Cell("s", "b", 20));
+        List<BenchmarkRecord> records = orchestrator.run(cells);
+        assertEquals(2, records.size());
+        assertEquals("a@10", records.get(0).key());
+        assertEquals("b@20", records.get(1).key());
+        BenchmarkOrchestrator.deleteRecursively(directory);
+    }
+
+    @Test(expected = SortException.class)
+    public void testFailure() throws IOException {
+        Path directory = Files.createTempDirectory("orchestrator");
+        new BenchmarkOrchestrator(2, false, false, Collections.emptyList(), directory, BenchmarkOrchestratorTest.class, cell -> {
+            throw new RuntimeException("failed");
+        }).run(Collections.singletonList(new BenchmarkOrchestrator.Cell("s", "a", 10)));
+    }
+
+    @Test
+    public void testProcessFailure() throws IOException {
+        Path directory = Files.createTempDirectory("orchestrator");
+        BenchmarkOrchestrator orchestrator = new BenchmarkOrchestrator(2, true, false, Collections.singletonList("-Xmx64m"), directory, CellMain.class, null);
+        List<BenchmarkOrchestrator.Cell> cells = Arrays.asList(new BenchmarkOrchestrator.Cell("s", "sleep", 10), new BenchmarkOrchestrator.Cell("s", "fail", 20));
+        try {
+            orchestrator.run(cells);
+            fail("expected a SortException");
+        } catch (SortException e) {
+            assertTrue(e.getCause().getMessage().contains("cell-1.log"));
+        }
+        // NOTE the log of the failed cell survives, and the other (sleeping) cell has been killed.
+        assertTrue(Files.exists(directory.resolve("cell-1.log")));
+        assertEquals(0, ProcessHandle.current().children().filter(ProcessHandle::isAlive).count());
+        BenchmarkOrchestrator.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testDeleteRecursively() throws IOException {
+        Path directory = Files.createTempDirectory("orchestrator");
+        Files.createDirectory(directory.resolve("sub"));
+        Files.writeString(directory.resolve("cell-0.jsonl"), "{}");
+        Files.writeString(directory.resolve("sub").resolve("cell-0.log"), "log");
+        BenchmarkOrchestrator.deleteRecursively(directory);
+        assertFalse(Files.exists(directory));
+        // NOTE deleting a directory which does not exist is not an error.
+        BenchmarkOrchestrator.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testCell() {
+        BenchmarkOrchestrator.Cell cell = new BenchmarkOrchestrator.Cell("benchmarkstringsorters", "quicksort", 1000);
+        BenchmarkOrchestrator.Cell parsed = BenchmarkOrchestrator.Cell.parse(cell.args());
+        assertEquals("benchmarkstringsorters.quicksort@1000", parsed.toString());
+    }
+
+    @Test
+    public void testGetCellsAndRestrict() throws IOException {
+        Config config = Config.load(BenchmarkOrchestratorTest.class)
+                .copy(SortBenchmark.BENCHMARKSTRINGSORTERS, "mergesort", "true")
+                .copy(SortBenchmark.BENCHMARKSTRINGSORTERS, "quicksort", "true")
+                .copy(SortBenchmark.BENCHMARKINTEGERSORTERS, "bucketsort", "true");
+        List<BenchmarkOrchestrator.Cell> cells = SortBenchmark.getCells(config, new String[]{"1000", "2k"});
+        List<String> names = new ArrayList<>();
+        for (BenchmarkOrchestrator.Cell cell : cells) names.add(cell.toString());
+        assertTrue(names.contains("benchmarkstringsorters.mergesort@1000"));
+        assertTrue(names.contains("benchmarkintegersorters.bucketsort@2048"));
+        assertEquals(0, cells.size() % 2);
+        Config restricted = SortBenchmark.restrict(config, cells.get(0));
+        List<BenchmarkOrchestrator.Cell> only = SortBenchmark.getCells(restricted, new String[]{"1000"});
+        assertEquals(1, only.size());
+        assertEquals(cells.get(0).toString(), only.get(0).toString());
+    }
+
+    /**
+     * A main program for a forked cell: it simply records a result
+     * (unless the option is "fail", in which case it exits with status 1, or "sleep", in which case it sleeps for a minute).
+     */
+    public static class CellMain {
+        public static void main(String[] args) throws InterruptedException {
+            BenchmarkOrchestrator.Cell cell = BenchmarkOrchestrator.Cell.parse(args);
+            if (cell.getOption().equals("fail")) System.exit(1);
+            if (cell.getOption().equals("sleep")) Thread.sleep(60_000);
+            BenchmarkResults.record(BenchmarkRecord.create(cell.getOption(), (int) cell.getN(), 1, 1.0));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class BenchmarkRecordTest {
+
+    @Test
+    public void testJson() {
+        BenchmarkRecord record = createRecord("QuickSelect/\"random\"");
+        String json = record.toJson();
+        assertFalse(json.contains("\n"));
+        BenchmarkRecord parsed = BenchmarkRecord.parseJson(json);
+        assertEquals(json, parsed.toJson());
+        assertEquals("QuickSelect/\"random\"", parsed.getAlgorithm());
+        assertEquals(1000, parsed.getN());
+        assertEquals(12.5, parsed.getMedian(), 0);
+        assertEquals(2, parsed.getCounters().size());
+        assertEquals(9966.0, parsed.getCounters().get("compares"), 0);
+        assertEquals(12.5, parsed.getCounterStdDevs().get("compares"), 0);
+    }
+
+    @Test
+    public void testJsonNonFinite() {
+        Map<String, Double> counters = new TreeMap<>();
+        counters.put("compares", Double.POSITIVE_INFINITY);
+        BenchmarkRecord record = new BenchmarkRecord("2024-01-01T00:00:00Z", "test", 10, 1, 1.5, 1.5, 1.5, 1.5, Double.NaN, Double.POSITIVE_INFINITY, 0, 0, -1, counters);
+        String json = record.toJson();
+        assertFalse(json.contains("NaN"));
+        assertFalse(json.contains("Infinity"));
+        assertTrue(json.contains("\"stdDev\":null,\"ci95\":null"));
+        BenchmarkRecord parsed = BenchmarkRecord.parseJson(json);
+        assertEquals(1.5, parsed.getMean(), 0);
+        assertTrue(Double.isNaN(parsed.getStdDev()));
+        assertTrue(Double.isNaN(parsed.getConfidence()));
+        assertTrue(Double.isNaN(parsed.getCounters().get("compares")));
+        assertEquals(json, parsed.toJson());
+    }
+
+    @Test
+    public void testCsv() {
+        BenchmarkRecord record = createRecord("QuickSelect,random");
+        String csv = record.toCsv();
+        BenchmarkRecord parsed = BenchmarkRecord.parseCsv(csv);
+        assertEquals(csv, parsed.toCsv());
+        assertEquals("QuickSelect,random", parsed.getAlgorithm());
+        assertEquals(record.getCounters(), parsed.getCounters());
+        assertEquals(record.getCounterStdDevs(), parsed.getCounterStdDevs());
+    }
+
+    @Test
+    public void testCsvWithoutCounterStdDevs() {
+        String csv = createRecord("a").toCsv();
+        BenchmarkRecord parsed = BenchmarkRecord.parseCsv(csv.substring(0, csv.lastIndexOf(',')));
+        assertEquals(2, parsed.getCounters().size());
+        assertTrue(parsed.getCounterStdDevs().isEmpty());
+    }
+
+    @Test
+    public void testCreate() {
+        BenchmarkResult result = new BenchmarkResult("test", new long[]{1_000_000, 2_000_000, 3_000_000}, new long[3], 0, new long[]{10, 20, 30}, 5, 1);
+        BenchmarkRecord record = BenchmarkRecord.create("test", 100, result);
+        assertEquals(3, record.getRuns());
+        assertEquals(2.0, record.getMean(), 1E-9);
+        assertEquals(2.0, record.getMedian(), 1E-9);
+        assertEquals(1.0, record.getStdDev(), 1E-9);
+        assertEquals(20.0, record.getAllocation(), 1E-9);
+        assertEquals("test@100", record.key());
+        StatPack statPack = new StatPack(Statistics.NORMALIZER_LINEARITHMIC_NATURAL, 2, 100, "compares", "swaps");
+        statPack.add("compares", 10);
+        statPack.add("compares", 20);
+        BenchmarkRecord withCounters = record.withCounters(statPack);
+        Map<String, Double> counters = withCounters.getCounters();
+        assertEquals(1, counters.size());
+        assertEquals(15.0, counters.get("compares"), 1E-9);
+        assertEquals(statPack.stdDev("compares"), withCounters.getCounterStdDevs().get("compares"), 1E-9);
+    }
+
+    @Test
+    public void testStore() throws IOException {
+        for (String suffix : new String[]{".jsonl", ".csv"}) {
+            Path path = Files.createTempFile("results", suffix);
+            try {
+                BenchmarkResults store = new BenchmarkResults(path);
+                store.append(createRecord("a"));
+                store.append(createRecord("b"));
+                List<BenchmarkRecord> records = store.read();
+                assertEquals(2, records.size());
+                assertEquals("b", records.get(1).getAlgorithm());
+                assertEquals(suffix.equals(".csv") ? 3 : 2, Files.readAllLines(path).size());
+            } finally {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test(expected = SortException.class)
+    public void testBadJson() {
+        BenchmarkRecord.parseJson("{\"algorithm\":\"x\",\"n\":");
+    }
+
+    static BenchmarkRecord createRecord(String algorithm) {
+        Map<String, Double> counters = new TreeMap<>();
+        counters.put("compares", 9966.0);
+        counters.put("swaps", 2500.5);
+        Map<String, Double> counterStdDevs = new TreeMap<>();
+        counterStdDevs.put("compares", 12.5);
+        return new BenchmarkRecord("2024-01-01T00:00:00Z", algorithm, 1000, 20, 12.75, 12.5, 14.0, 15.25, 0.5, 0.25, 1, 2, 4096, counters, counterStdDevs);
+    }
+}
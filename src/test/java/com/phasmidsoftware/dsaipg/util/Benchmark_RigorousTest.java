@@ -0,0 +1,118 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Benchmark_RigorousTest {
+
+    int pre = 0;
+    int run = 0;
+    int post = 0;
+
+    @Test
+    public void testMeasure() {
+        Benchmark_Rigorous<Boolean> bm = new Benchmark_Rigorous<>("testMeasure", b -> {
+            pre++;
+            return b;
+        }, b -> {
+            run++;
+            GoToSleep(5L);
+        }, b -> post++, 2, 2, 0.5, 10);
+        BenchmarkResult result = bm.measure(() -> true, 5);
+        // NOTE 5 runs are divided 3 and 2 between the two rounds, each of which has one warmup run (the limit for so few runs).
+        assertEquals(5, result.getCount());
+        assertEquals(2, result.getRounds());
+        assertEquals(5, post);
+        assertEquals(2, result.getWarmupRuns());
+        assertEquals(5 + result.getWarmupRuns(), run);
+        assertEquals(run, pre);
+        assertEquals(5.0, result.median() / 1_000_000, 4.0);
+        assertTrue(result.min() <= result.median() && result.median() <= result.p90() && result.p90() <= result.p99() && result.p99() <= result.max());
+    }
+
+    @Test
+    public void testRunFromSupplier() {
+        Benchmark<int[]> bm = new Benchmark_Rigorous<>("sort", Arrays::sort);
+        Random random = new Random(0L);
+        double millis = bm.runFromSupplier(() -> random.ints(10_000).toArray(), 10);
+        assertTrue(millis > 0 && millis < 1000);
+    }
+
+    @Test
+    public void testAllocation() {
+        Benchmark_Rigorous<Integer> bm = new Benchmark_Rigorous<>("allocate", null, n -> blackHole = new long[n], null, 1, 1, 1.0, 2);
+        BenchmarkResult result = bm.measure(() -> 100_000, 4);
+        double allocation = result.meanAllocation();
+        // NOTE allocation can only be measured on HotSpot-like JVMs, in which case it must include the array.
+        if (allocation >= 0) assertTrue(allocation >= 800_000);
+        assertTrue(result.gcCount() >= 0);
+    }
+
+    @Test
+    public void testWarmup() {
+        Benchmark_Rigorous<Boolean> bm = new Benchmark_Rigorous<>("testWarmup", null, b -> run++, null, 1, 2, 1.0, 10);
+        BenchmarkResult result = bm.measure(() -> true, 300);
+        assertEquals(300, result.getCount());
+        assertEquals(1, result.getRounds());
+        // NOTE with such a tolerance, the warmup is steady as soon as there are two windows.
+        assertEquals(4, result.getWarmupRuns());
+    }
+
+    @Test
+    public void testGetWarmupLimit() {
+        assertEquals(1, Benchmark_Rigorous.getWarmupLimit(1, 10));
+        assertEquals(1, Benchmark_Rigorous.getWarmupLimit(20, 10));
+        assertEquals(4, Benchmark_Rigorous.getWarmupLimit(60, 10));
+        assertEquals(10, Benchmark_Rigorous.getWarmupLimit(1000, 10));
+    }
+
+    @Test
+    public void testIsSteady() {
+        long[] times = {100, 90, 50, 11, 10, 10, 11};
+        assertFalse(Benchmark_Rigorous.isSteady(times, 4, 2, 0.05));
+        assertTrue(Benchmark_Rigorous.isSteady(times, 7, 2, 0.1));
+        assertTrue(Benchmark_Rigorous.isSteady(new long[]{10, 10}, 2, 1, 0));
+    }
+
+    @Test
+    public void testResultStatistics() {
+        long[] nanos = {1_000, 2_000, 3_000, 4_000, 5_000, 6_000, 7_000, 8_000, 9_000, 100_000};
+        BenchmarkResult result = new BenchmarkResult("test", nanos, new long[10], 0, new long[10], 0, 1);
+        assertEquals(14_500, result.mean(), 1E-9);
+        assertEquals(5_500, result.median(), 1E-9);
+        assertEquals(18_100, result.p90(), 1E-9);
+        assertEquals(1_000, result.percentile(0), 1E-9);
+        assertEquals(100_000, result.percentile(100), 1E-9);
+        assertEquals(30_152.4, result.stdDev(), 0.1);
+        assertEquals(2.262 * result.stdDev() / Math.sqrt(10), result.confidenceHalfWidth(), 1E-9);
+        assertTrue(result.confidenceLower() < result.mean() && result.mean() < result.confidenceUpper());
+        assertEquals(1, result.outliers());
+        assertEquals(0, result.meanAllocation(), 1E-9);
+    }
+
+    @Test
+    public void testTCritical() {
+        assertEquals(12.706, BenchmarkResult.tCritical(1), 1E-9);
+        assertEquals(2.042, BenchmarkResult.tCritical(30), 1E-9);
+        assertEquals(1.98, BenchmarkResult.tCritical(120), 1E-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSamples() {
+        new BenchmarkResult("test", new long[0], new long[0], 0, new long[0], 0, 1);
+    }
+
+    private static void GoToSleep(long mSecs) {
+        try {
+            Thread.sleep(mSecs);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static long[] blackHole;
+}
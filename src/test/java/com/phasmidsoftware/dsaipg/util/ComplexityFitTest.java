@@ -0,0 +1,59 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import com.phasmidsoftware.dsaipg.sort.SortException;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ComplexityFitTest {
+
+    @Test
+    public void testQuadratic() {
+        ComplexityFit fit = ComplexityFit.doubling(100, 6, n -> 3.0 * n * n + 1000);
+        assertEquals(ComplexityFit.Model.QUADRATIC, fit.getBest().getModel());
+        assertEquals(3.0, fit.getBest().getCoefficient(), 1E-6);
+        assertEquals(1000, fit.getBest().getConstant(), 1E-3);
+        assertEquals(1.0, fit.getBest().getRSquared(), 1E-9);
+        // NOTE the constant term pulls the exponent down slightly.
+        assertEquals(2.0, fit.getExponent(), 0.05);
+        assertTrue(fit.isConsistentWith(ComplexityFit.Model.QUADRATIC, 0.1));
+        assertFalse(fit.isConsistentWith(ComplexityFit.Model.CUBIC, 0.1));
+    }
+
+    @Test
+    public void testLinearithmicWithNoise() {
+        Random random = new Random(0L);
+        ComplexityFit fit = ComplexityFit.doubling(1000, 8, n -> n * Utilities.lg(n) * (1 + 0.02 * random.nextGaussian()));
+        assertEquals(ComplexityFit.Model.LINEARITHMIC, fit.getBest().getModel());
+        assertTrue(fit.getRSquared() > 0.99);
+        assertTrue(fit.isConsistentWith(ComplexityFit.Model.LINEARITHMIC, 0.05));
+        assertFalse(fit.isConsistentWith(ComplexityFit.Model.QUADRATIC, 0.5));
+        // NOTE over this range, n log n behaves like n^1.1 or so.
+        assertEquals(1.1, fit.expectedExponent(ComplexityFit.Model.LINEARITHMIC), 0.03);
+    }
+
+    @Test
+    public void testPowerLaw() {
+        double[] ns = {10, 20, 40, 80};
+        double[] ys = new double[ns.length];
+        for (int i = 0; i < ns.length; i++) ys[i] = 0.5 * Math.pow(ns[i], 1.5);
+        ComplexityFit fit = ComplexityFit.fit(ns, ys);
+        assertEquals(1.5, fit.getExponent(), 1E-9);
+        assertEquals(0.5, fit.getCoefficient(), 1E-9);
+        assertEquals(1.0, fit.getRSquared(), 1E-9);
+        assertNotNull(fit.getFit(ComplexityFit.Model.CONSTANT));
+        assertTrue(fit.toString().startsWith("exponent=1.500"));
+    }
+
+    @Test(expected = SortException.class)
+    public void testTooFewPoints() {
+        ComplexityFit.fit(new double[]{1, 2}, new double[]{1, 2});
+    }
+
+    @Test(expected = SortException.class)
+    public void testNonPositive() {
+        ComplexityFit.fit(new double[]{1, 2, 4}, new double[]{1, 0, 2});
+    }
+}
@@ -0,0 +1,81 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CorpusTest {
+
+    @Test
+    public void testParseLeipzigLine() {
+        assertEquals(Arrays.asList("Hello", "world"), Corpus.parseLeipzigLine("1\tHello, world!"));
+        assertEquals(Arrays.asList("I", "have"), Corpus.parseLeipzigLine("2\tI have 3 cats"));
+        assertEquals(Arrays.asList("Zürich", "is", "nice"), Corpus.parseLeipzigLine("3\t\t~Zürich is\tnice.\r"));
+        assertEquals(Collections.singletonList("你好"), Corpus.parseLeipzigLine("4\t你好，"));
+        assertEquals(Collections.emptyList(), Corpus.parseLeipzigLine("no tab here"));
+    }
+
+    @Test
+    public void testSameAsRegex() throws IOException, URISyntaxException {
+        for (String resource : new String[]{"eng-uk_web_2002_10K-sentences.txt", "zho-simp-tw_web_2014_10K-sentences.txt"}) {
+            Path path = Paths.get(Objects.requireNonNull(getClass().getClassLoader().getResource(resource)).toURI());
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                List<String> expected = new ArrayList<>(SortBenchmarkHelper.getWords(SortBenchmarkHelper.regexLeipzig, line));
+                expected.removeIf(String::isEmpty);
+                assertEquals(line, expected, Corpus.parseLeipzigLine(line));
+            }
+            String[] words = SortBenchmarkHelper.getWords(resource, SortBenchmark::getLeipzigWords);
+            assertArrayEquals(words, Corpus.loadLeipzigWords(path, 1));
+        }
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        Path path = Files.createTempFile("corpus", ".txt");
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 20000; i++) sb.append(i).append("\tword").append(letters(i % 5000)).append(" x ").append((char) ('a' + i % 26)).append("zé\n");
+            // NOTE the last line has no newline.
+            sb.append("20000\tlast");
+            Files.write(path, sb.toString().getBytes(StandardCharsets.UTF_8));
+            String[] expected = Corpus.loadLeipzigWords(path, 1);
+            assertEquals(5000 + 26 + 1, expected.length);
+            assertEquals("last", expected[expected.length - 1]);
+            assertArrayEquals(expected, Corpus.loadLeipzigWords(path, 7));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testCache() throws FileNotFoundException {
+        Corpus.clearCache();
+        String[] words1 = Corpus.getLeipzigWords("eng-uk_web_2002_10K-sentences.txt");
+        String[] words2 = Corpus.getLeipzigWords("eng-uk_web_2002_10K-sentences.txt");
+        assertNotSame(words1, words2);
+        assertArrayEquals(words1, words2);
+    }
+
+    private static String letters(int x) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('A' + x % 26));
+            x /= 26;
+        } while (x > 0);
+        return sb.toString();
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissing() throws FileNotFoundException {
+        Corpus.getLeipzigWords("no-such-corpus.txt");
+    }
+}
@@ -0,0 +1,27 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FrequencyCounterBenchmarkTest {
+
+    @Test
+    public void testRunBenchmarks() {
+        String[] words = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog"};
+        FrequencyCounterBenchmark benchmark = new FrequencyCounterBenchmark(words, 2, new Random(0L));
+        Map<String, Double> result = benchmark.runBenchmarks(10_000, new int[]{1, 2});
+        assertEquals(5, result.size());
+        for (double throughput : result.values()) assertTrue(throughput > 0);
+    }
+
+    @Test
+    public void testGetThreadCounts() {
+        assertArrayEquals(new int[]{1}, FrequencyCounterBenchmark.getThreadCounts(1));
+        assertArrayEquals(new int[]{1, 2, 4, 6}, FrequencyCounterBenchmark.getThreadCounts(6));
+        assertArrayEquals(new int[]{1, 2, 4, 8}, FrequencyCounterBenchmark.getThreadCounts(8));
+    }
+}
@@ -0,0 +1,21 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PQBenchmarkTest {
+
+    @Test
+    public void testRunBenchmarks() throws IOException {
+        PQBenchmark benchmark = new PQBenchmark(Config.load(PQBenchmark.class));
+        Map<String, Double> result = benchmark.runBenchmarks(10_000, 2);
+        assertEquals(7, result.size());
+        assertTrue(result.containsKey("DaryHeap/4/floyd"));
+        for (double time : result.values()) assertTrue(time >= 0);
+    }
+}
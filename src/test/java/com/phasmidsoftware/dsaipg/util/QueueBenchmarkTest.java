@@ -0,0 +1,20 @@
+package com.phasmidsoftware.dsaipg.util;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class QueueBenchmarkTest {
+
+    @Test
+    public void testRunBenchmarks() {
+        QueueBenchmark benchmark = new QueueBenchmark(1024, 2);
+        Map<String, Double> result = benchmark.runBenchmarks(2_000, 1);
+        assertEquals(4, result.size());
+        assertTrue(result.containsKey("Queue_MPMC/1"));
+        assertTrue(result.containsKey("ArrayBlockingQueue/1"));
+        for (double throughput : result.values()) assertTrue(throughput > 0);
+    }
+}
@@ -1,5 +1,6 @@
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.sort.linearithmic.QuickSort_DualPivot;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -22,6 +23,14 @@ public class SortBenchmarkTest {
         assertEquals(1073741824L, SortBenchmark.parseInt("1G"));
     }
 
+    @Test
+    public void testFitIntegerSortCompares() throws IOException {
+        Config config = Config.load(SortBenchmark.class).copy("helper", "instrument", "true").copy("instrumenting", "fixes", "false");
+        ComplexityFit fit = SortBenchmark.fitIntegerSortCompares("QuickSort dual pivot", n -> new QuickSort_DualPivot<>(n, config), 1000, 5, 3, ComplexityFit.Model.LINEARITHMIC);
+        assertTrue(fit.isConsistentWith(ComplexityFit.Model.LINEARITHMIC, SortBenchmark.COMPLEXITY_TOLERANCE));
+        assertTrue(fit.getExponent() > 1.0 && fit.getExponent() < 1.3);
+    }
+
     @Test
     public void testSortIntegers() throws IOException {
         // Create a mock config and the SortBenchmark instance
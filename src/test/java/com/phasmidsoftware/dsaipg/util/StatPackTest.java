@@ -46,6 +46,24 @@ public class StatPackTest {
         assertEquals(1, statPack.total(key2), 0);
     }
 
+    @Test
+    public void testSampleFraction() {
+        final StatPack statPack = new StatPack(Statistics.NORMALIZER_LINEARITHMIC_NATURAL, 4, 2, key1, key2);
+        statPack.add(key1, 3);
+        statPack.add(key1, 5);
+        statPack.add(key2, 1);
+        assertEquals(1.0, statPack.getSampleFraction(key1), 0);
+        statPack.setSampleFraction(0.25, key1);
+        assertEquals(32, statPack.total(key1), 0);
+        assertEquals(4, statPack.mean(key1), 0);
+        assertEquals(1, statPack.total(key2), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSampleFractionInvalid() {
+        new StatPack(Statistics.NORMALIZER_LINEARITHMIC_NATURAL, 4, 2, key1).setSampleFraction(0, key1);
+    }
+
     @Test
     public void testMean() {
         final StatPack statPack = new StatPack(Statistics.NORMALIZER_LINEARITHMIC_NATURAL, 5, 2, key1, key2);
@@ -1,10 +1,15 @@
 package com.phasmidsoftware.dsaipg.util;
 
+import com.phasmidsoftware.dsaipg.adt.symbolTable.hashtable.IntIntST;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class SymbolTableBenchmarkTest {
 
     @Test
@@ -75,4 +80,24 @@ public class SymbolTableBenchmarkTest {
         // Act & Assert
         benchmark.benchmarkStringSorters(words, nWords, nRuns);
     }
+
+    @Test
+    public void testBenchmarkMemory() throws IOException {
+        SymbolTableBenchmark benchmark = new SymbolTableBenchmark(Config.load());
+        Map<String, Double> result = benchmark.benchmarkMemory(100_000);
+        assertEquals(7, result.size());
+        assertTrue(result.containsKey("IntIntST"));
+        // NOTE the measurements depend on the garbage collector, so only their sanity is checked here.
+        for (double bytes : result.values()) assertTrue(Double.isFinite(bytes));
+    }
+
+    @Test
+    public void testIntIntSTBytesPerEntry() {
+        // NOTE a deterministic estimate (from the array lengths): an IntIntST entry needs less than a HashMap.Node alone (32 bytes).
+        final int n = 100_000;
+        final IntIntST st = new IntIntST();
+        for (int i = 0; i < n; i++) st.put(i * 7, i);
+        final double bytesPerEntry = 2.0 * Integer.BYTES * st.capacity() / n;
+        assertTrue(bytesPerEntry < 32);
+    }
 }
\ No newline at end of file